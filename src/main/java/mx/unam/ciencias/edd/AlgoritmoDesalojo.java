@@ -0,0 +1,22 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para las distintas políticas de desalojo disponibles para
+ * cachés.
+ */
+public enum AlgoritmoDesalojo {
+    /** Desaloja a la llave usada menos recientemente. */
+    LRU,
+    /** Desaloja a la llave usada menos veces; entre empates, a la más vieja. */
+    LFU,
+    /** <em>Adaptive Replacement Cache</em>, que balancea recencia y frecuencia. */
+    ARC,
+    /** Aproximación de LRU con un bit de referencia y una manecilla. */
+    CLOCK,
+    /** LRU segmentado: una región de prueba y una protegida. */
+    SLRU,
+    /** 2Q: una cola de entrada, una de fantasmas y una LRU de frecuentes. */
+    DOS_Q,
+    /** W-TinyLFU: ventana LRU y admisión por frecuencia a un LRU segmentado. */
+    W_TINY_LFU;
+}
@@ -9,5 +9,20 @@ public enum AlgoritmoDispersor {
     /** Algoritmo de Bob Jenkins para cadenas. */
     BJ_STRING,
     /** Algoritmo de Daniel J. Bernstein para cadenas. */
-    DJB_STRING;
+    DJB_STRING,
+    /** Algoritmo MurmurHash3 de 32 bits para cadenas. */
+    MURMUR3_STRING,
+    /** Algoritmo MurmurHash3 de 128 bits para cadenas. */
+    MURMUR3_128_STRING,
+    /** Algoritmo xxHash32 para cadenas. */
+    XXH32_STRING,
+    /** Algoritmo xxHash64 para cadenas. */
+    XXH64_STRING,
+    /** Algoritmo wyhash para cadenas. */
+    WYHASH_STRING,
+    /**
+     * Algoritmo SipHash-1-3 para cadenas, con una llave secreta aleatoria
+     * distinta para cada dispersor.
+     */
+    SIPHASH_STRING;
 }
@@ -1,5 +1,8 @@
 package mx.unam.ciencias.edd;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * <p>Clase para árboles AVL.</p>
  *
@@ -93,6 +96,68 @@ public class ArbolAVL<T extends Comparable<T>>
         super(coleccion);
     }
 
+    /**
+     * Construye un árbol AVL con los primeros <code>n</code> elementos del
+     * iterador, que deben venir ordenados de menor a mayor. El árbol se arma
+     * en tiempo <i>O</i>(<i>n</i>) con altura mínima, así que queda
+     * balanceado sin hacer ningún giro; ver {@link
+     * ArbolBinarioOrdenado#ArbolBinarioOrdenado(Iterator,int)}.
+     * @param ordenados el iterador con los elementos ordenados.
+     * @param n el número de elementos a tomar del iterador.
+     * @throws IllegalArgumentException si <code>n</code> es negativo, o si
+     *         algún elemento es <code>null</code> o es menor que su anterior.
+     * @throws NoSuchElementException si el iterador tiene menos de
+     *         <code>n</code> elementos.
+     */
+    public ArbolAVL(Iterator<T> ordenados, int n) {
+        super(ordenados, n);
+    }
+
+    /**
+     * Construye un árbol AVL con los elementos de un arreglo ordenado de
+     * menor a mayor, en tiempo <i>O</i>(<i>n</i>).
+     * @param <T> tipo del que puede ser el árbol.
+     * @param ordenados el arreglo con los elementos ordenados.
+     * @return un árbol AVL con los elementos del arreglo.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code> o es menor que su anterior.
+     */
+    public static <T extends Comparable<T>> ArbolAVL<T>
+    deOrdenados(T[] ordenados) {
+        return new ArbolAVL<T>(iterador(ordenados), ordenados.length);
+    }
+
+    /**
+     * Construye un árbol AVL con los elementos de una colección que los
+     * recorre de menor a mayor, como una {@link Lista} ordenada u otro árbol
+     * binario ordenado, en tiempo <i>O</i>(<i>n</i>).
+     * @param <T> tipo del que puede ser el árbol.
+     * @param ordenados la colección con los elementos ordenados.
+     * @return un árbol AVL con los elementos de la colección.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code> o es menor que su anterior.
+     */
+    public static <T extends Comparable<T>> ArbolAVL<T>
+    deOrdenados(Coleccion<T> ordenados) {
+        return new ArbolAVL<T>(ordenados.iterator(), ordenados.getElementos());
+    }
+
+    /**
+     * Construye un árbol AVL con los elementos de un arreglo en cualquier
+     * orden. Si el arreglo no está ordenado, ordena una copia con {@link
+     * Arreglos#quickSort(Comparable[])} y arma el árbol con ella; el arreglo
+     * recibido no se modifica.
+     * @param <T> tipo del que puede ser el árbol.
+     * @param arreglo el arreglo con los elementos.
+     * @return un árbol AVL con los elementos del arreglo.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code>.
+     */
+    public static <T extends Comparable<T>> ArbolAVL<T>
+    deDesordenados(T[] arreglo) {
+        return deOrdenados(copiaOrdenada(arreglo));
+    }
+
     /**
      * Construye un nuevo vértice, usando una instancia de {@link VerticeAVL}.
      * @param elemento el elemento dentro del vértice.
@@ -102,6 +167,20 @@ public class ArbolAVL<T extends Comparable<T>>
         return new VerticeAVL(elemento);
     }
 
+    /**
+     * Pone la altura del vértice armado a partir de las alturas de sus
+     * hijos. Como el árbol armado tiene altura mínima, cumple la propiedad
+     * AVL sin girarlo.
+     * @param vertice el vértice armado.
+     * @param profundidad la profundidad que tendrá el vértice en el árbol.
+     * @param altura la altura que tendrá el árbol.
+     */
+    @Override protected void verticeCargado(Vertice vertice, int profundidad,
+                                            int altura) {
+        avl(vertice).altura = 1 + Math.max(altura(vertice.izquierdo),
+                                           altura(vertice.derecho));
+    }
+
     /* Atajo para audicionar un VerticeArbolBinario como VerticeAVL */
     private VerticeAVL avl(VerticeArbolBinario<T> v) {
         return (VerticeAVL)v;
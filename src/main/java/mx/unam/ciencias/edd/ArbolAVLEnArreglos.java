@@ -0,0 +1,121 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para árboles AVL guardados en arreglos. Cumple la misma propiedad que
+ * {@link ArbolAVL}, y rebalancea con los mismos giros, así que con la misma
+ * secuencia de operaciones los dos árboles quedan con la misma forma; pero en
+ * lugar de un vértice AVL por elemento usa los arreglos de {@link
+ * ArbolBinarioEnArreglos}, con la altura de cada vértice en su dato. La altura
+ * del centinela es -1.
+ */
+public class ArbolAVLEnArreglos<T extends Comparable<T>>
+    extends ArbolBinarioEnArreglos<T> {
+
+    /**
+     * Construye un árbol AVL vacío con espacio para la capacidad dada de
+     * elementos; si se agregan más, los arreglos crecen.
+     * @param capacidad el número de elementos esperados.
+     * @throws IllegalArgumentException si la capacidad es menor a 1 o mayor
+     *         o igual a 2<sup>29</sup>.
+     */
+    public ArbolAVLEnArreglos(int capacidad) {
+        super(capacidad);
+        ponDato(NULO, -1);
+    }
+
+    /**
+     * Construye un árbol AVL vacío.
+     */
+    public ArbolAVLEnArreglos() {
+        super();
+        ponDato(NULO, -1);
+    }
+
+    /**
+     * Construye un árbol AVL a partir de una colección. El árbol AVL tiene los
+     * mismos elementos que la colección recibida.
+     * @param coleccion la colección a partir de la cual creamos el árbol AVL.
+     */
+    public ArbolAVLEnArreglos(Coleccion<T> coleccion) {
+        this(Integer.max(1, coleccion.getElementos()));
+        for (T e : coleccion)
+            agrega(e);
+    }
+
+    /**
+     * Agrega un nuevo elemento al árbol, y después lo balancea girándolo como
+     * sea necesario.
+     * @param e el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    @Override public void agrega(T e) {
+        int v = agregaHoja(e);
+        rebalancea(padre(v));
+    }
+
+    /**
+     * Elimina un elemento del árbol. Si el elemento no está en el árbol, no
+     * hace nada; si está varias veces, elimina el más cercano a la raíz. El
+     * método gira el árbol como sea necesario para rebalancearlo.
+     * @param e el elemento a eliminar del árbol.
+     */
+    @Override public void elimina(T e) {
+        int v = buscaVertice(e);
+        if (v == NULO)
+            return;
+        if (izquierdo(v) != NULO && derecho(v) != NULO)
+            v = intercambiaEliminable(v);
+        int p = padre(v);
+        desligaVertice(v);
+        liberaVertice(v);
+        rebalancea(p);
+    }
+
+    /* Sube desde el vértice hasta la raíz actualizando alturas y girando. */
+    private void rebalancea(int v) {
+        while (v != NULO) {
+            actualizaAltura(v);
+            int balance = balance(v);
+            if (balance == -2) {
+                if (balance(derecho(v)) == 1)
+                    gira(derecho(v), false);
+                gira(v, true);
+            } else if (balance == 2) {
+                if (balance(izquierdo(v)) == -1)
+                    gira(izquierdo(v), true);
+                gira(v, false);
+            }
+            v = padre(v);
+        }
+    }
+
+    /* Gira a la izquierda o a la derecha, y actualiza las dos alturas. */
+    private void gira(int v, boolean aLaIzquierda) {
+        if (aLaIzquierda)
+            giraIzquierda(v);
+        else
+            giraDerecha(v);
+        actualizaAltura(v);
+        actualizaAltura(padre(v));
+    }
+
+    /* Calcula el balance de un vértice. */
+    private int balance(int v) {
+        return dato(izquierdo(v)) - dato(derecho(v));
+    }
+
+    /* Recalcula la altura de un vértice con las de sus hijos. */
+    private void actualizaAltura(int v) {
+        ponDato(v, 1 + Integer.max(dato(izquierdo(v)), dato(derecho(v))));
+    }
+
+    /**
+     * Regresa la representación en cadena de un vértice, con el mismo
+     * formato que {@link ArbolAVL}.
+     * @param v el vértice.
+     * @return la representación en cadena del vértice.
+     */
+    @Override protected String cadena(int v) {
+        return elemento[v] + " " + dato(v) + "/" + balance(v);
+    }
+}
@@ -24,6 +24,11 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
         protected Vertice izquierdo;
         /** El derecho del vértice. */
         protected Vertice derecho;
+        /**
+         * El número de vértices en el subárbol del vértice, incluyéndolo. Lo
+         * mantienen los árboles binarios ordenados.
+         */
+        protected int tamaño;
 
         /**
          * Constructor único que recibe un elemento.
@@ -31,6 +36,7 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
          */
         protected Vertice(T elemento) {
             this.elemento = elemento;
+            this.tamaño = 1;
         }
 
         /**
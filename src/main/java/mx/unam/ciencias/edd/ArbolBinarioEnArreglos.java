@@ -0,0 +1,441 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase abstracta para árboles binarios ordenados guardados en arreglos.
+ * En lugar de un objeto por vértice con referencias a su padre y a sus hijos,
+ * cada vértice es un índice: su elemento está en un arreglo de elementos, y
+ * sus enlaces en cuatro enteros consecutivos de un arreglo de enteros: su
+ * hijo izquierdo, su hijo derecho, su padre, y un dato para las clases
+ * herederas, como el color o la altura. Así el árbol no paga el encabezado de
+ * un objeto por vértice, los enlaces ocupan cuatro bytes cada uno aunque la
+ * máquina virtual no comprima sus referencias, los enlaces de un vértice
+ * quedan en la misma línea de caché, y el arreglo de enteros no lo tiene que
+ * recorrer el recolector de basura.</p>
+ *
+ * <p>El índice 0 es un vértice centinela que hace las veces de
+ * <code>null</code>: es el hijo de todas las hojas y el padre de la raíz. Los
+ * vértices eliminados se ligan en una lista libre, y se reutilizan antes de
+ * ocupar índices nuevos; cuando ya no hay índices, los arreglos duplican su
+ * tamaño, hasta 2<sup>29</sup> vértices. Al igual que en {@link
+ * ArbolBinarioOrdenado}, los elementos repetidos van a la izquierda, y para
+ * eliminar un vértice con dos hijos se intercambia con el máximo de su
+ * subárbol izquierdo.</p>
+ */
+public abstract class ArbolBinarioEnArreglos<T extends Comparable<T>>
+    implements Coleccion<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* El índice del siguiente vértice en in-order. */
+        private int siguiente;
+
+        /* Inicializa al iterador. */
+        private Iterador() {
+            siguiente = minimo(raiz);
+        }
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+            return siguiente != NULO;
+        }
+
+        /* Regresa el siguiente elemento en orden DFS in-order. */
+        @Override public T next() {
+            if (siguiente == NULO)
+                throw new NoSuchElementException("Se nos acabó el árbol.");
+            T e = elemento[siguiente];
+            siguiente = sucesor(siguiente);
+            return e;
+        }
+    }
+
+    /** El índice del centinela, que hace las veces de <code>null</code>. */
+    protected static final int NULO = 0;
+
+    /* Capacidad inicial de los arreglos. */
+    private static final int CAPACIDAD_INICIAL = 16;
+    /* Número máximo de vértices, contando al centinela. */
+    private static final int MAXIMO = 1 << 29;
+    /* Posiciones de cada enlace entre los enteros de un vértice. */
+    private static final int IZQUIERDO = 0, DERECHO = 1, PADRE = 2, DATO = 3;
+
+    /** Los elementos de los vértices. */
+    protected T[] elemento;
+    /*
+     * Los enlaces de los vértices, cuatro enteros por vértice. En la lista
+     * libre, el hijo derecho es el siguiente vértice libre.
+     */
+    private int[] enlaces;
+    /** El índice de la raíz. */
+    protected int raiz;
+    /** El número de elementos. */
+    protected int elementos;
+    /* El primer vértice de la lista libre. */
+    private int libre;
+    /* Número de índices que se han usado alguna vez, contando al centinela. */
+    private int usados;
+
+    /**
+     * Construye un árbol vacío con espacio para la capacidad dada de
+     * elementos; si se agregan más, los arreglos crecen.
+     * @param capacidad el número de elementos esperados.
+     * @throws IllegalArgumentException si la capacidad es menor a 1 o mayor
+     *         o igual a 2<sup>29</sup>.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ArbolBinarioEnArreglos(int capacidad) {
+        if (capacidad < 1 || capacidad >= MAXIMO)
+            throw new IllegalArgumentException("La capacidad debe estar " +
+                                               "entre 1 y 2^29 - 1.");
+        elemento = (T[])new Comparable[capacidad + 1];
+        enlaces = new int[4 * (capacidad + 1)];
+        usados = 1;
+    }
+
+    /**
+     * Construye un árbol vacío con la capacidad inicial por omisión.
+     */
+    public ArbolBinarioEnArreglos() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Regresa el hijo izquierdo de un vértice.
+     * @param v el vértice.
+     * @return el hijo izquierdo del vértice, o {@link #NULO} si no tiene.
+     */
+    protected final int izquierdo(int v) {
+        return enlaces[4 * v + IZQUIERDO];
+    }
+
+    /**
+     * Regresa el hijo derecho de un vértice.
+     * @param v el vértice.
+     * @return el hijo derecho del vértice, o {@link #NULO} si no tiene.
+     */
+    protected final int derecho(int v) {
+        return enlaces[4 * v + DERECHO];
+    }
+
+    /**
+     * Regresa el padre de un vértice.
+     * @param v el vértice.
+     * @return el padre del vértice, o {@link #NULO} si es la raíz.
+     */
+    protected final int padre(int v) {
+        return enlaces[4 * v + PADRE];
+    }
+
+    /**
+     * Regresa el dato de un vértice, que usan las clases herederas.
+     * @param v el vértice.
+     * @return el dato del vértice.
+     */
+    protected final int dato(int v) {
+        return enlaces[4 * v + DATO];
+    }
+
+    /**
+     * Cambia el dato de un vértice, que usan las clases herederas. Los
+     * vértices nuevos tienen dato 0.
+     * @param v el vértice.
+     * @param dato el nuevo dato del vértice.
+     */
+    protected final void ponDato(int v, int dato) {
+        enlaces[4 * v + DATO] = dato;
+    }
+
+    /* Cambia el hijo izquierdo de un vértice. */
+    private void ponIzquierdo(int v, int hijo) {
+        enlaces[4 * v + IZQUIERDO] = hijo;
+    }
+
+    /* Cambia el hijo derecho de un vértice. */
+    private void ponDerecho(int v, int hijo) {
+        enlaces[4 * v + DERECHO] = hijo;
+    }
+
+    /* Cambia el padre de un vértice. */
+    private void ponPadre(int v, int p) {
+        enlaces[4 * v + PADRE] = p;
+    }
+
+    /* Saca un índice de la lista libre, o uno nuevo si no hay. */
+    private int nuevoVertice(T e) {
+        int v = libre;
+        if (v != NULO) {
+            libre = derecho(v);
+        } else {
+            if (usados == elemento.length) {
+                if (usados == MAXIMO)
+                    throw new IllegalStateException("El árbol está lleno.");
+                int tamaño = Integer.min(2 * usados, MAXIMO);
+                elemento = Arrays.copyOf(elemento, tamaño);
+                enlaces = Arrays.copyOf(enlaces, 4 * tamaño);
+            }
+            v = usados++;
+        }
+        elemento[v] = e;
+        Arrays.fill(enlaces, 4 * v, 4 * v + 4, NULO);
+        return v;
+    }
+
+    /**
+     * Regresa un vértice eliminado a la lista libre.
+     * @param v el vértice eliminado.
+     */
+    protected void liberaVertice(int v) {
+        elemento[v] = null;
+        ponDerecho(v, libre);
+        libre = v;
+    }
+
+    /**
+     * Agrega un elemento como una hoja nueva, sin rebalancear el árbol.
+     * @param e el elemento a agregar.
+     * @return el vértice agregado.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    protected int agregaHoja(T e) {
+        if (e == null)
+            throw new IllegalArgumentException("No se puede agregar null al " +
+                                               "árbol.");
+        int p = NULO;
+        int v = raiz;
+        boolean izquierda = false;
+        while (v != NULO) {
+            p = v;
+            izquierda = e.compareTo(elemento[v]) <= 0;
+            v = izquierda ? izquierdo(v) : derecho(v);
+        }
+        v = nuevoVertice(e);
+        ponPadre(v, p);
+        if (p == NULO)
+            raiz = v;
+        else if (izquierda)
+            ponIzquierdo(p, v);
+        else
+            ponDerecho(p, v);
+        elementos++;
+        return v;
+    }
+
+    /**
+     * Busca un elemento bajando desde la raíz. Si está varias veces, regresa
+     * el vértice más cercano a la raíz.
+     * @param e el elemento a buscar.
+     * @return el vértice del elemento, o {@link #NULO} si no está.
+     */
+    protected int buscaVertice(T e) {
+        if (e == null)
+            return NULO;
+        int v = raiz;
+        while (v != NULO) {
+            int comparacion = e.compareTo(elemento[v]);
+            if (comparacion == 0)
+                return v;
+            v = comparacion < 0 ? izquierdo(v) : derecho(v);
+        }
+        return NULO;
+    }
+
+    /**
+     * Intercambia el elemento de un vértice con dos hijos con el del máximo
+     * de su subárbol izquierdo.
+     * @param v un vértice con dos hijos.
+     * @return el máximo del subárbol izquierdo, que no tiene hijo derecho.
+     */
+    protected int intercambiaEliminable(int v) {
+        int maximo = izquierdo(v);
+        while (derecho(maximo) != NULO)
+            maximo = derecho(maximo);
+        elemento[v] = elemento[maximo];
+        return maximo;
+    }
+
+    /**
+     * Desliga a un vértice con a lo más un hijo, subiendo a ese hijo a su
+     * lugar. El padre del hijo se actualiza aunque el hijo sea el centinela,
+     * para que el rebalanceo pueda subir desde él. El vértice no se libera.
+     * @param v un vértice con a lo más un hijo.
+     * @return el hijo que subió, o {@link #NULO} si no tenía.
+     */
+    protected int desligaVertice(int v) {
+        int hijo = izquierdo(v) != NULO ? izquierdo(v) : derecho(v);
+        ponPadre(hijo, padre(v));
+        cambiaHijo(padre(v), v, hijo);
+        elementos--;
+        return hijo;
+    }
+
+    /* Reemplaza al hijo de p (o a la raíz, si p es NULO). */
+    private void cambiaHijo(int p, int hijo, int reemplazo) {
+        if (p == NULO)
+            raiz = reemplazo;
+        else if (izquierdo(p) == hijo)
+            ponIzquierdo(p, reemplazo);
+        else
+            ponDerecho(p, reemplazo);
+    }
+
+    /**
+     * Gira el árbol a la izquierda sobre un vértice con hijo derecho.
+     * @param v el vértice.
+     */
+    protected void giraIzquierda(int v) {
+        int d = derecho(v);
+        ponDerecho(v, izquierdo(d));
+        ponPadre(izquierdo(d), v);
+        ponPadre(d, padre(v));
+        cambiaHijo(padre(v), v, d);
+        ponIzquierdo(d, v);
+        ponPadre(v, d);
+    }
+
+    /**
+     * Gira el árbol a la derecha sobre un vértice con hijo izquierdo.
+     * @param v el vértice.
+     */
+    protected void giraDerecha(int v) {
+        int i = izquierdo(v);
+        ponIzquierdo(v, derecho(i));
+        ponPadre(derecho(i), v);
+        ponPadre(i, padre(v));
+        cambiaHijo(padre(v), v, i);
+        ponDerecho(i, v);
+        ponPadre(v, i);
+    }
+
+    /* Regresa el vértice mínimo del subárbol. */
+    private int minimo(int v) {
+        if (v == NULO)
+            return NULO;
+        while (izquierdo(v) != NULO)
+            v = izquierdo(v);
+        return v;
+    }
+
+    /* Regresa el sucesor in-order del vértice; NULO si es el último. */
+    private int sucesor(int v) {
+        if (derecho(v) != NULO)
+            return minimo(derecho(v));
+        while (padre(v) != NULO && derecho(padre(v)) == v)
+            v = padre(v);
+        return padre(v);
+    }
+
+    /**
+     * Nos dice si un elemento está en el árbol.
+     * @param e el elemento que queremos comprobar si está en el árbol.
+     * @return <code>true</code> si el elemento está en el árbol;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T e) {
+        return buscaVertice(e) != NULO;
+    }
+
+    /**
+     * Regresa el número de elementos en el árbol.
+     * @return el número de elementos en el árbol.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el árbol es vacío.
+     * @return <code>true</code> si el árbol es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el árbol de elementos, dejándolo vacío. Los arreglos conservan
+     * su tamaño.
+     */
+    @Override public void limpia() {
+        Arrays.fill(elemento, 0, usados, null);
+        raiz = libre = NULO;
+        usados = 1;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa la altura del árbol: el número de aristas del camino más largo
+     * de la raíz a una hoja, o -1 si el árbol es vacío.
+     * @return la altura del árbol.
+     */
+    public int altura() {
+        return altura(raiz);
+    }
+
+    /* Calcula la altura de un subárbol recursivamente. */
+    private int altura(int v) {
+        if (v == NULO)
+            return -1;
+        return 1 + Integer.max(altura(izquierdo(v)), altura(derecho(v)));
+    }
+
+    /**
+     * Regresa un iterador para iterar el árbol en orden. El iterador avanza
+     * de sucesor en sucesor por los padres, sin crear objetos.
+     * @return un iterador para iterar el árbol.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /**
+     * Regresa la representación en cadena de un vértice, para {@link
+     * #toString}.
+     * @param v el vértice.
+     * @return la representación en cadena del vértice.
+     */
+    protected abstract String cadena(int v);
+
+    /**
+     * Regresa una representación en cadena del árbol, dibujada igual que la
+     * de {@link ArbolBinario}.
+     * @return una representación en cadena del árbol.
+     */
+    @Override public String toString() {
+        if (raiz == NULO)
+            return "";
+        StringBuilder sb = new StringBuilder();
+        dibuja(sb, raiz, 0, new boolean[altura() + 1]);
+        return sb.toString();
+    }
+
+    /* Dibuja al subárbol del vértice; barras dice qué niveles siguen. */
+    private void dibuja(StringBuilder sb, int v, int nivel, boolean[] barras) {
+        sb.append(cadena(v)).append("\n");
+        if (izquierdo(v) != NULO && derecho(v) != NULO) {
+            barras[nivel] = true;
+            dibujaHijo(sb, "├─›", izquierdo(v), nivel, barras);
+            barras[nivel] = false;
+            dibujaHijo(sb, "└─»", derecho(v), nivel, barras);
+        } else if (izquierdo(v) != NULO) {
+            barras[nivel] = false;
+            dibujaHijo(sb, "└─›", izquierdo(v), nivel, barras);
+        } else if (derecho(v) != NULO) {
+            barras[nivel] = false;
+            dibujaHijo(sb, "└─»", derecho(v), nivel, barras);
+        }
+    }
+
+    /* Dibuja los espacios, la flecha y el subárbol de un hijo. */
+    private void dibujaHijo(StringBuilder sb, String flecha, int hijo,
+                            int nivel, boolean[] barras) {
+        for (int i = 0; i < nivel; i++)
+            sb.append(barras[i] ? "│  " : "   ");
+        sb.append(flecha);
+        dibuja(sb, hijo, nivel + 1, barras);
+    }
+}
@@ -43,6 +43,46 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         }
     }
 
+    /*
+     * Clase interna privada para iteradores de rangos. Avanza de un vértice a
+     * su sucesor subiendo por los padres, así que no usa una pila y no crea
+     * ningún objeto por elemento.
+     */
+    private class IteradorRango implements Iterator<T> {
+
+        /* El vértice con el siguiente elemento; null si ya no hay. */
+        private Vertice siguiente;
+        /* El último elemento del rango; null si no hay cota. */
+        private T hasta;
+
+        /* Inicializa al iterador en el vértice recibido. */
+        private IteradorRango(Vertice primero, T hasta) {
+            this.hasta = hasta;
+            siguiente = acota(primero);
+        }
+
+        /* Regresa el vértice, o null si ya se pasó del rango. */
+        private Vertice acota(Vertice v) {
+            if (v == null || (hasta != null && v.elemento.compareTo(hasta) > 0))
+                return null;
+            return v;
+        }
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        /* Regresa el siguiente elemento del rango en in-order. */
+        @Override public T next() {
+            if (siguiente == null)
+                throw new NoSuchElementException("Se nos acabó el rango.");
+            T elemento = siguiente.elemento;
+            siguiente = acota(sucesor(siguiente));
+            return elemento;
+        }
+    }
+
     /**
      * El vértice del último elemento agegado. Este vértice sólo se puede
      * garantizar que existe <em>inmediatamente</em> después de haber agregado
@@ -68,6 +108,151 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         super(coleccion);
     }
 
+    /**
+     * Construye un árbol binario ordenado con los primeros <code>n</code>
+     * elementos del iterador, que deben venir ordenados de menor a mayor. El
+     * árbol se arma directamente en tiempo <i>O</i>(<i>n</i>), sin comparar
+     * para buscar dónde va cada elemento: la raíz de cada subárbol es su
+     * elemento de en medio, así que el árbol queda con altura mínima y todos
+     * sus niveles están llenos salvo quizá el último. Cada vértice se le pasa
+     * a {@link #verticeCargado} en cuanto tiene a sus dos hijos.
+     * @param ordenados el iterador con los elementos ordenados.
+     * @param n el número de elementos a tomar del iterador.
+     * @throws IllegalArgumentException si <code>n</code> es negativo, o si
+     *         algún elemento es <code>null</code> o es menor que su anterior.
+     * @throws NoSuchElementException si el iterador tiene menos de
+     *         <code>n</code> elementos.
+     */
+    public ArbolBinarioOrdenado(Iterator<T> ordenados, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("El número de elementos no " +
+                                               "puede ser negativo.");
+        int altura = n == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(n);
+        Vertice v = cargaOrdenados(new IteradorOrdenado<T>(ordenados), n,
+                                   0, altura);
+        raiz = v;
+        elementos = n;
+    }
+
+    /* Iterador que revisa que los elementos vengan ordenados y sin null. */
+    private static class IteradorOrdenado<T extends Comparable<T>>
+        implements Iterator<T> {
+
+        /* El iterador revisado. */
+        private Iterator<T> iterador;
+        /* El último elemento regresado. */
+        private T anterior;
+
+        /* Inicializa al iterador. */
+        private IteradorOrdenado(Iterator<T> iterador) {
+            this.iterador = iterador;
+        }
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+            return iterador.hasNext();
+        }
+
+        /* Regresa el siguiente elemento, si es mayor o igual al anterior. */
+        @Override public T next() {
+            T elemento = iterador.next();
+            if (elemento == null)
+                throw new IllegalArgumentException("No se puede agregar " +
+                                                   "null al árbol.");
+            if (anterior != null && elemento.compareTo(anterior) < 0)
+                throw new IllegalArgumentException("Los elementos no están " +
+                                                   "ordenados.");
+            return anterior = elemento;
+        }
+    }
+
+    /*
+     * Arma el subárbol con los siguientes n elementos del iterador. Primero
+     * arma el subárbol izquierdo, luego toma el elemento de en medio, y al
+     * final arma el subárbol derecho, que puede tener un elemento más.
+     */
+    private Vertice cargaOrdenados(Iterator<T> iterador, int n,
+                                   int profundidad, int altura) {
+        if (n == 0)
+            return null;
+        int nIzquierdo = (n - 1) / 2;
+        Vertice izquierdo = cargaOrdenados(iterador, nIzquierdo,
+                                           profundidad + 1, altura);
+        Vertice v = nuevoVertice(iterador.next());
+        Vertice derecho = cargaOrdenados(iterador, n - 1 - nIzquierdo,
+                                         profundidad + 1, altura);
+        v.izquierdo = izquierdo;
+        v.derecho = derecho;
+        v.tamaño = n;
+        if (izquierdo != null)
+            izquierdo.padre = v;
+        if (derecho != null)
+            derecho.padre = v;
+        verticeCargado(v, profundidad, altura);
+        return v;
+    }
+
+    /**
+     * Avisa que se armó un vértice al construir el árbol a partir de
+     * elementos ordenados. Sus hijos ya están armados, pero todavía no tiene
+     * padre. Las clases herederas lo usan para poner sus atributos
+     * directamente, sin girar el árbol; en esta clase no hace nada.
+     * @param vertice el vértice armado.
+     * @param profundidad la profundidad que tendrá el vértice en el árbol.
+     * @param altura la altura que tendrá el árbol.
+     */
+    protected void verticeCargado(Vertice vertice, int profundidad,
+                                  int altura) {}
+
+    /**
+     * Regresa un iterador para los elementos del arreglo, en el orden en que
+     * están en el arreglo.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo.
+     * @return un iterador para los elementos del arreglo.
+     */
+    protected static <T> Iterator<T> iterador(T[] arreglo) {
+        return new Iterator<T>() {
+            private int i;
+
+            @Override public boolean hasNext() {
+                return i < arreglo.length;
+            }
+
+            @Override public T next() {
+                if (!hasNext())
+                    throw new NoSuchElementException("Se nos acabó el " +
+                                                     "arreglo.");
+                return arreglo[i++];
+            }
+        };
+    }
+
+    /**
+     * Regresa una copia ordenada del arreglo. Si el arreglo ya estaba
+     * ordenado no lo vuelve a ordenar; si no, ordena la copia con {@link
+     * Arreglos#quickSort(Comparable[])}.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo.
+     * @return una copia ordenada del arreglo.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code>.
+     */
+    protected static <T extends Comparable<T>> T[] copiaOrdenada(T[] arreglo) {
+        T[] copia = arreglo.clone();
+        boolean ordenado = true;
+        for (int i = 0; i < copia.length; i++) {
+            if (copia[i] == null)
+                throw new IllegalArgumentException("No se puede agregar " +
+                                                   "null al árbol.");
+            if (i > 0 && copia[i].compareTo(copia[i - 1]) < 0)
+                ordenado = false;
+        }
+        if (!ordenado)
+            Arreglos.quickSort(copia);
+        return copia;
+    }
+
     /**
      * Agrega un nuevo elemento al árbol. El árbol conserva su orden in-order.
      * @param elemento el elemento a agregar.
@@ -87,6 +272,7 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 
     /* Método auxiliar para hacer recursión al agregar */
     private void auxiliarAgrega(Vertice padreAgregado, T elemento) { 
+        padreAgregado.tamaño++;
         if (elemento.compareTo(padreAgregado.elemento) <= 0)
             if (padreAgregado.izquierdo == null)
                 agregaVerticeIzq(padreAgregado, nuevoVertice(elemento));
@@ -139,7 +325,7 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 
     /**
      * Elimina un elemento. Si el elemento no está en el árbol, no hace nada; si
-     * está varias veces, elimina el primero que encuentre (in-order). El árbol
+     * está varias veces, elimina el que encuentre {@link #busca}. El árbol
      * conserva su orden in-order.
      * @param elemento el elemento a eliminar.
      */
@@ -184,7 +370,8 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 
     /**
      * Elimina un vértice que a lo más tiene un hijo distinto de
-     * <code>null</code> subiendo ese hijo (si existe).
+     * <code>null</code> subiendo ese hijo (si existe). Los tamaños de los
+     * subárboles de sus ancestros se ajustan.
      * @param vertice el vértice a eliminar; debe tener a lo más un hijo
      *                distinto de <code>null</code>.
      */
@@ -192,9 +379,22 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         Vertice hijo = vertice.izquierdo;
         if (hijo == null)
             hijo = vertice.derecho;
+        int diferencia = vertice.tamaño - tamaño(hijo);
+        for (Vertice v = vertice.padre; v != null; v = v.padre)
+            v.tamaño -= diferencia;
         cambiaHijo(vertice, hijo);
     }
 
+    /* Regresa el tamaño del subárbol de un vértice; 0 si es null. */
+    private int tamaño(Vertice v) {
+        return v == null ? 0 : v.tamaño;
+    }
+
+    /* Recalcula el tamaño del subárbol de un vértice con el de sus hijos. */
+    private void actualizaTamaño(Vertice v) {
+        v.tamaño = tamaño(v.izquierdo) + tamaño(v.derecho) + 1;
+    }
+
     /* Reemplaza a un vértice como el hijo de su padre. Supone hijo no nulo. */
     private void cambiaHijo(Vertice hijo, Vertice reemplazo) {
         if (reemplazo != null)
@@ -234,27 +434,293 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
     }
 
     /**
-     * Busca un elemento en el árbol recorriéndolo in-order. Si lo encuentra,
-     * regresa el vértice que lo contiene; si no, regresa <code>null</code>.
+     * Nos dice si un elemento está en el árbol. La búsqueda baja desde la
+     * raíz guiada por {@link Comparable#compareTo}, así que toma tiempo
+     * proporcional a la altura del árbol, sin recursión y sin crear objetos.
+     * @param elemento el elemento que queremos comprobar si está en el árbol.
+     * @return <code>true</code> si el elemento está en el árbol;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return buscaVertice(elemento) != null;
+    }
+
+    /**
+     * Busca un elemento en el árbol bajando desde la raíz guiado por {@link
+     * Comparable#compareTo}, en tiempo proporcional a la altura del árbol. Si
+     * lo encuentra, regresa el vértice que lo contiene; si no, regresa
+     * <code>null</code>. Si el elemento está varias veces, regresa el vértice
+     * más cercano a la raíz.
      * @param elemento el elemento a buscar.
      * @return un vértice que contiene al elemento buscado si lo
      *         encuentra; <code>null</code> en otro caso.
      */
     @Override public VerticeArbolBinario<T> busca(T elemento) {
+        return buscaVertice(elemento);
+    }
+
+    /* Baja desde la raíz hasta el vértice del elemento; null si no está. */
+    private Vertice buscaVertice(T elemento) {
+        if (elemento == null)
+            return null;
         Vertice v = raiz;
-        int comparacion;
         while (v != null) {
-            comparacion = elemento.compareTo(v.elemento);
+            int comparacion = elemento.compareTo(v.elemento);
             if (comparacion == 0)
                 return v;
-            if (comparacion < 0)
+            v = comparacion < 0 ? v.izquierdo : v.derecho;
+        }
+        return null;
+    }
+
+    /**
+     * Regresa cuántos elementos del árbol son estrictamente menores que el
+     * elemento recibido; si el elemento está en el árbol, es la posición de
+     * su primera aparición en el recorrido in-order. Baja desde la raíz
+     * sumando los tamaños de los subárboles que deja a la izquierda, así que
+     * toma tiempo proporcional a la altura del árbol.
+     * @param elemento el elemento.
+     * @return el número de elementos del árbol menores que el elemento.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public int rank(T elemento) {
+        return cuentaMenores(elemento, false);
+    }
+
+    /**
+     * Regresa el elemento en la posición <em>i</em> del recorrido in-order
+     * del árbol, empezando en 0; es decir, el elemento con <em>i</em>
+     * elementos antes que él. Baja desde la raíz guiado por los tamaños de
+     * los subárboles, así que toma tiempo proporcional a la altura del árbol.
+     * @param i la posición del elemento.
+     * @return el elemento en la posición <em>i</em> del recorrido in-order.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor
+     *         o igual que el número de elementos en el árbol.
+     */
+    public T select(int i) {
+        if (i < 0 || i >= elementos)
+            throw new ExcepcionIndiceInvalido("Índice inválido: " + i + ".");
+        Vertice v = raiz;
+        while (true) {
+            int izquierdos = tamaño(v.izquierdo);
+            if (i == izquierdos)
+                return v.elemento;
+            if (i < izquierdos) {
                 v = v.izquierdo;
-            else
+            } else {
+                i -= izquierdos + 1;
+                v = v.derecho;
+            }
+        }
+    }
+
+    /**
+     * Regresa cuántos elementos del árbol están en el intervalo cerrado
+     * [<code>desde</code>, <code>hasta</code>], contando las repeticiones.
+     * Toma tiempo proporcional a la altura del árbol.
+     * @param desde el extremo inferior del intervalo.
+     * @param hasta el extremo superior del intervalo.
+     * @return el número de elementos del árbol en el intervalo.
+     * @throws IllegalArgumentException si algún extremo es <code>null</code>,
+     *         o si <code>desde</code> es mayor que <code>hasta</code>.
+     */
+    public int cuentaRango(T desde, T hasta) {
+        if (desde == null || hasta == null)
+            throw new IllegalArgumentException("Los extremos del intervalo " +
+                                               "no pueden ser null.");
+        if (desde.compareTo(hasta) > 0)
+            throw new IllegalArgumentException("El intervalo es vacío.");
+        return cuentaMenores(hasta, true) - cuentaMenores(desde, false);
+    }
+
+    /* Cuenta los elementos menores (o iguales, si se pide) al elemento. */
+    private int cuentaMenores(T elemento, boolean iguales) {
+        if (elemento == null)
+            throw new IllegalArgumentException("No se pueden contar los " +
+                                               "elementos menores a null.");
+        int menores = 0;
+        Vertice v = raiz;
+        while (v != null) {
+            int comparacion = elemento.compareTo(v.elemento);
+            if (comparacion < 0 || (comparacion == 0 && !iguales)) {
+                v = v.izquierdo;
+            } else {
+                menores += tamaño(v.izquierdo) + 1;
+                v = v.derecho;
+            }
+        }
+        return menores;
+    }
+
+    /**
+     * Regresa el mayor elemento del árbol que es menor o igual al elemento
+     * recibido, en tiempo proporcional a la altura del árbol.
+     * @param elemento el elemento.
+     * @return el mayor elemento del árbol menor o igual al elemento; o
+     *         <code>null</code> si no hay ninguno.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public T piso(T elemento) {
+        return elemento(cotaInferior(elemento, true));
+    }
+
+    /**
+     * Regresa el menor elemento del árbol que es mayor o igual al elemento
+     * recibido, en tiempo proporcional a la altura del árbol.
+     * @param elemento el elemento.
+     * @return el menor elemento del árbol mayor o igual al elemento; o
+     *         <code>null</code> si no hay ninguno.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public T techo(T elemento) {
+        return elemento(cotaSuperior(elemento, true));
+    }
+
+    /**
+     * Regresa el mayor elemento del árbol que es estrictamente menor al
+     * elemento recibido, en tiempo proporcional a la altura del árbol.
+     * @param elemento el elemento.
+     * @return el mayor elemento del árbol menor al elemento; o
+     *         <code>null</code> si no hay ninguno.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public T menor(T elemento) {
+        return elemento(cotaInferior(elemento, false));
+    }
+
+    /**
+     * Regresa el menor elemento del árbol que es estrictamente mayor al
+     * elemento recibido, en tiempo proporcional a la altura del árbol.
+     * @param elemento el elemento.
+     * @return el menor elemento del árbol mayor al elemento; o
+     *         <code>null</code> si no hay ninguno.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public T mayor(T elemento) {
+        return elemento(cotaSuperior(elemento, false));
+    }
+
+    /**
+     * Regresa una vista de los elementos del árbol en el intervalo cerrado
+     * [<code>desde</code>, <code>hasta</code>], en orden y con sus
+     * repeticiones. La vista no copia nada: cada iterador baja al primer
+     * elemento del intervalo en tiempo proporcional a la altura del árbol, y
+     * de ahí avanza de sucesor en sucesor sin crear objetos. La vista refleja
+     * al árbol en el momento de iterarla; si el árbol se modifica mientras un
+     * iterador de la vista está en uso, el comportamiento del iterador es
+     * indefinido.
+     * @param desde el extremo inferior del intervalo.
+     * @param hasta el extremo superior del intervalo.
+     * @return una vista de los elementos del árbol en el intervalo.
+     * @throws IllegalArgumentException si algún extremo es <code>null</code>,
+     *         o si <code>desde</code> es mayor que <code>hasta</code>.
+     */
+    public Iterable<T> rango(T desde, T hasta) {
+        if (desde == null || hasta == null)
+            throw new IllegalArgumentException("Los extremos del intervalo " +
+                                               "no pueden ser null.");
+        if (desde.compareTo(hasta) > 0)
+            throw new IllegalArgumentException("El intervalo es vacío.");
+        return () -> new IteradorRango(cotaSuperior(desde, true), hasta);
+    }
+
+    /**
+     * Regresa una vista de los elementos del árbol menores o iguales a
+     * <code>hasta</code>, en orden. Se comporta como {@link #rango}.
+     * @param hasta el extremo superior.
+     * @return una vista de los elementos del árbol menores o iguales a
+     *         <code>hasta</code>.
+     * @throws IllegalArgumentException si el extremo es <code>null</code>.
+     */
+    public Iterable<T> cabeza(T hasta) {
+        if (hasta == null)
+            throw new IllegalArgumentException("El extremo no puede ser " +
+                                               "null.");
+        return () -> new IteradorRango(minimo(raiz), hasta);
+    }
+
+    /**
+     * Regresa una vista de los elementos del árbol mayores o iguales a
+     * <code>desde</code>, en orden. Se comporta como {@link #rango}.
+     * @param desde el extremo inferior.
+     * @return una vista de los elementos del árbol mayores o iguales a
+     *         <code>desde</code>.
+     * @throws IllegalArgumentException si el extremo es <code>null</code>.
+     */
+    public Iterable<T> cola(T desde) {
+        if (desde == null)
+            throw new IllegalArgumentException("El extremo no puede ser " +
+                                               "null.");
+        return () -> new IteradorRango(cotaSuperior(desde, true), null);
+    }
+
+    /* Regresa el elemento del vértice, o null si el vértice es null. */
+    private T elemento(Vertice v) {
+        return v == null ? null : v.elemento;
+    }
+
+    /*
+     * Baja hasta el primer vértice in-order cuyo elemento es mayor (o igual,
+     * si se pide) al elemento; null si no hay.
+     */
+    private Vertice cotaSuperior(T elemento, boolean iguales) {
+        if (elemento == null)
+            throw new IllegalArgumentException("No se puede comparar con " +
+                                               "null.");
+        Vertice cota = null;
+        Vertice v = raiz;
+        while (v != null) {
+            int comparacion = elemento.compareTo(v.elemento);
+            if (comparacion < 0 || (comparacion == 0 && iguales)) {
+                cota = v;
+                v = v.izquierdo;
+            } else {
                 v = v.derecho;
+            }
         }
+        return cota;
+    }
+
+    /*
+     * Baja hasta el último vértice in-order cuyo elemento es menor (o igual,
+     * si se pide) al elemento; null si no hay.
+     */
+    private Vertice cotaInferior(T elemento, boolean iguales) {
+        if (elemento == null)
+            throw new IllegalArgumentException("No se puede comparar con " +
+                                               "null.");
+        Vertice cota = null;
+        Vertice v = raiz;
+        while (v != null) {
+            int comparacion = elemento.compareTo(v.elemento);
+            if (comparacion > 0 || (comparacion == 0 && iguales)) {
+                cota = v;
+                v = v.derecho;
+            } else {
+                v = v.izquierdo;
+            }
+        }
+        return cota;
+    }
+
+    /* Regresa el vértice mínimo del subárbol; null si es vacío. */
+    private Vertice minimo(Vertice v) {
+        if (v == null)
+            return null;
+        while (v.izquierdo != null)
+            v = v.izquierdo;
         return v;
     }
 
+    /* Regresa el sucesor in-order del vértice; null si es el último. */
+    private Vertice sucesor(Vertice v) {
+        if (v.derecho != null)
+            return minimo(v.derecho);
+        while (v.padre != null && v.padre.derecho == v)
+            v = v.padre;
+        return v.padre;
+    }
+
     /**
      * Regresa el vértice que contiene el último elemento agregado al
      * árbol. Este método sólo se puede garantizar que funcione
@@ -272,7 +738,8 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 
     /**
      * Gira el árbol a la derecha sobre el vértice recibido. Si el vértice no
-     * tiene hijo izquierdo, el método no hace nada.
+     * tiene hijo izquierdo, el método no hace nada. Los tamaños de los
+     * subárboles se ajustan en tiempo constante.
      * @param vertice el vértice sobre el que vamos a girar.
      */
     public void giraDerecha(VerticeArbolBinario<T> vertice) {
@@ -284,11 +751,14 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         cambiaHijoIzq(a, b.derecho);
         cambiaHijo(a, b);
         cambiaHijoDer(b, a);
+        b.tamaño = a.tamaño;
+        actualizaTamaño(a);
     }
 
     /**
      * Gira el árbol a la izquierda sobre el vértice recibido. Si el vértice no
-     * tiene hijo derecho, el método no hace nada.
+     * tiene hijo derecho, el método no hace nada. Los tamaños de los
+     * subárboles se ajustan en tiempo constante.
      * @param vertice el vértice sobre el que vamos a girar.
      */
     public void giraIzquierda(VerticeArbolBinario<T> vertice) {
@@ -300,6 +770,8 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         cambiaHijoDer(b, a.izquierdo);
         cambiaHijo(b, a);
         cambiaHijoIzq(a, b);
+        a.tamaño = b.tamaño;
+        actualizaTamaño(b);
     }
 
     /**
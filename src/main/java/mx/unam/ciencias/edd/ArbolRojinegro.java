@@ -1,5 +1,8 @@
 package mx.unam.ciencias.edd;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * Clase para árboles rojinegros. Un árbol rojinegro cumple las siguientes
  * propiedades:
@@ -97,6 +100,69 @@ public class ArbolRojinegro<T extends Comparable<T>>
         super(coleccion);
     }
 
+    /**
+     * Construye un árbol rojinegro con los primeros <code>n</code>
+     * elementos del iterador, que deben venir ordenados de menor a mayor. El
+     * árbol se arma en tiempo <i>O</i>(<i>n</i>), pintando cada vértice al
+     * crearlo y sin hacer ningún giro; ver {@link
+     * ArbolBinarioOrdenado#ArbolBinarioOrdenado(Iterator,int)}.
+     * @param ordenados el iterador con los elementos ordenados.
+     * @param n el número de elementos a tomar del iterador.
+     * @throws IllegalArgumentException si <code>n</code> es negativo, o si
+     *         algún elemento es <code>null</code> o es menor que su anterior.
+     * @throws NoSuchElementException si el iterador tiene menos de
+     *         <code>n</code> elementos.
+     */
+    public ArbolRojinegro(Iterator<T> ordenados, int n) {
+        super(ordenados, n);
+    }
+
+    /**
+     * Construye un árbol rojinegro con los elementos de un arreglo ordenado
+     * de menor a mayor, en tiempo <i>O</i>(<i>n</i>).
+     * @param <T> tipo del que puede ser el árbol.
+     * @param ordenados el arreglo con los elementos ordenados.
+     * @return un árbol rojinegro con los elementos del arreglo.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code> o es menor que su anterior.
+     */
+    public static <T extends Comparable<T>> ArbolRojinegro<T>
+    deOrdenados(T[] ordenados) {
+        return new ArbolRojinegro<T>(iterador(ordenados), ordenados.length);
+    }
+
+    /**
+     * Construye un árbol rojinegro con los elementos de una colección que
+     * los recorre de menor a mayor, como una {@link Lista} ordenada u otro
+     * árbol binario ordenado, en tiempo <i>O</i>(<i>n</i>).
+     * @param <T> tipo del que puede ser el árbol.
+     * @param ordenados la colección con los elementos ordenados.
+     * @return un árbol rojinegro con los elementos de la colección.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code> o es menor que su anterior.
+     */
+    public static <T extends Comparable<T>> ArbolRojinegro<T>
+    deOrdenados(Coleccion<T> ordenados) {
+        return new ArbolRojinegro<T>(ordenados.iterator(),
+                                     ordenados.getElementos());
+    }
+
+    /**
+     * Construye un árbol rojinegro con los elementos de un arreglo en
+     * cualquier orden. Si el arreglo no está ordenado, ordena una copia con
+     * {@link Arreglos#quickSort(Comparable[])} y arma el árbol con ella; el
+     * arreglo recibido no se modifica.
+     * @param <T> tipo del que puede ser el árbol.
+     * @param arreglo el arreglo con los elementos.
+     * @return un árbol rojinegro con los elementos del arreglo.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code>.
+     */
+    public static <T extends Comparable<T>> ArbolRojinegro<T>
+    deDesordenados(T[] arreglo) {
+        return deOrdenados(copiaOrdenada(arreglo));
+    }
+
     /**
      * Construye un nuevo vértice, usando una instancia de {@link
      * VerticeRojinegro}.
@@ -107,6 +173,22 @@ public class ArbolRojinegro<T extends Comparable<T>>
         return new VerticeRojinegro(elemento);
     }
 
+    /**
+     * Pone el color del vértice armado. Todos los niveles del árbol armado
+     * están llenos salvo quizá el último, así que los vértices del último
+     * nivel se pintan de ROJO y todos los demás de NEGRO: todos los caminos
+     * a las hojas pasan por los mismos vértices NEGROS, y ningún vértice ROJO
+     * tiene hijos. Si el árbol tiene un solo vértice, es NEGRO.
+     * @param vertice el vértice armado.
+     * @param profundidad la profundidad que tendrá el vértice en el árbol.
+     * @param altura la altura que tendrá el árbol.
+     */
+    @Override protected void verticeCargado(Vertice vertice, int profundidad,
+                                            int altura) {
+        rn(vertice).color = profundidad == altura && profundidad > 0 ?
+            Color.ROJO : Color.NEGRO;
+    }
+
     /**
      * Regresa el color del vértice rojinegro.
      * @param vertice el vértice del que queremos el color.
@@ -207,6 +289,22 @@ public class ArbolRojinegro<T extends Comparable<T>>
         Vertice aEliminar = (Vertice)busca(elemento);
         if (aEliminar == null)
             return;
+        eliminaElementoDe(aEliminar);
+    }
+
+    /**
+     * Elimina del árbol el elemento del vértice recibido, y recolorea y gira
+     * el árbol como sea necesario para rebalancearlo. A diferencia de {@link
+     * #elimina}, no busca el elemento, así que elimina exactamente el del
+     * vértice aunque el árbol tenga otros elementos iguales a él según
+     * <code>compareTo</code>.
+     * @param vertice el vértice con el elemento a eliminar; debe ser un
+     *        vértice de este árbol.
+     * @throws ClassCastException si el vértice no es instancia de {@link
+     *         VerticeRojinegro}.
+     */
+    public void eliminaElementoDe(VerticeArbolBinario<T> vertice) {
+        Vertice aEliminar = rn(vertice);
 
         elementos--;
 
@@ -220,6 +318,7 @@ public class ArbolRojinegro<T extends Comparable<T>>
             aEliminar.izquierdo = gaspar;
             gaspar.padre = aEliminar;
             gaspar.color = Color.NEGRO;
+            gaspar.tamaño = 0;
         }
 
         VerticeRojinegro hijo = rn(aEliminar.izquierdo != null ? 
@@ -0,0 +1,202 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para árboles rojinegros guardados en arreglos. Cumple las mismas
+ * propiedades que {@link ArbolRojinegro}, y agrega y elimina con los mismos
+ * casos, así que con la misma secuencia de operaciones los dos árboles quedan
+ * con la misma forma y los mismos colores; pero en lugar de un vértice
+ * rojinegro por elemento usa los arreglos de {@link ArbolBinarioEnArreglos},
+ * con el color de cada vértice en su dato: 1 si es ROJO y 0 si es NEGRO. El
+ * centinela siempre es NEGRO.
+ */
+public class ArbolRojinegroEnArreglos<T extends Comparable<T>>
+    extends ArbolBinarioEnArreglos<T> {
+
+    /**
+     * Construye un árbol rojinegro vacío con espacio para la capacidad dada
+     * de elementos; si se agregan más, los arreglos crecen.
+     * @param capacidad el número de elementos esperados.
+     * @throws IllegalArgumentException si la capacidad es menor a 1 o mayor
+     *         o igual a 2<sup>29</sup>.
+     */
+    public ArbolRojinegroEnArreglos(int capacidad) {
+        super(capacidad);
+    }
+
+    /**
+     * Construye un árbol rojinegro vacío.
+     */
+    public ArbolRojinegroEnArreglos() {
+        super();
+    }
+
+    /**
+     * Construye un árbol rojinegro a partir de una colección. El árbol
+     * rojinegro tiene los mismos elementos que la colección recibida.
+     * @param coleccion la colección a partir de la cual creamos el árbol
+     *        rojinegro.
+     */
+    public ArbolRojinegroEnArreglos(Coleccion<T> coleccion) {
+        this(Integer.max(1, coleccion.getElementos()));
+        for (T e : coleccion)
+            agrega(e);
+    }
+
+    /**
+     * Regresa el color del vértice con el elemento recibido.
+     * @param e el elemento.
+     * @return el color del vértice más cercano a la raíz con el elemento, o
+     *         {@link Color#NINGUNO} si el elemento no está en el árbol.
+     */
+    public Color getColor(T e) {
+        int v = buscaVertice(e);
+        if (v == NULO)
+            return Color.NINGUNO;
+        return esRojo(v) ? Color.ROJO : Color.NEGRO;
+    }
+
+    /**
+     * Agrega un nuevo elemento al árbol como una hoja ROJA, y después
+     * balancea el árbol recoloreando vértices y girándolo como sea necesario.
+     * @param e el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    @Override public void agrega(T e) {
+        int v = agregaHoja(e);
+        pinta(v, true);
+        rebalanceaAgregado(v);
+        pinta(raiz, false);
+    }
+
+    /* Nos dice si un vértice es ROJO. */
+    private boolean esRojo(int v) {
+        return dato(v) != 0;
+    }
+
+    /* Pinta un vértice de ROJO o de NEGRO. */
+    private void pinta(int v, boolean rojo) {
+        ponDato(v, rojo ? 1 : 0);
+    }
+
+    /* Realiza los cinco casos de agregar un vértice rojinegro. */
+    private void rebalanceaAgregado(int v) {
+        while (esRojo(padre(v))) {
+            int p = padre(v);
+            int abuelo = padre(p);
+            int tio = izquierdo(abuelo) == p ?
+                derecho(abuelo) : izquierdo(abuelo);
+            if (esRojo(tio)) {
+                pinta(abuelo, true);
+                pinta(izquierdo(abuelo), false);
+                pinta(derecho(abuelo), false);
+                v = abuelo;
+                continue;
+            }
+            if (izquierdo(abuelo) == p && derecho(p) == v) {
+                giraIzquierda(p);
+                int t = v;
+                v = p;
+                p = t;
+            } else if (derecho(abuelo) == p && izquierdo(p) == v) {
+                giraDerecha(p);
+                int t = v;
+                v = p;
+                p = t;
+            }
+            pinta(p, false);
+            pinta(abuelo, true);
+            if (izquierdo(p) == v)
+                giraDerecha(abuelo);
+            else
+                giraIzquierda(abuelo);
+            return;
+        }
+    }
+
+    /**
+     * Elimina un elemento del árbol. Si el elemento no está en el árbol, no
+     * hace nada; si está varias veces, elimina el más cercano a la raíz. El
+     * método recolorea y gira el árbol como sea necesario para rebalancearlo.
+     * @param e el elemento a eliminar del árbol.
+     */
+    @Override public void elimina(T e) {
+        int v = buscaVertice(e);
+        if (v == NULO)
+            return;
+        if (izquierdo(v) != NULO && derecho(v) != NULO)
+            v = intercambiaEliminable(v);
+        int hijo = desligaVertice(v);
+        if (esRojo(hijo))
+            pinta(hijo, false);
+        else if (!esRojo(v))
+            rebalanceaEliminado(hijo);
+        pinta(v, false);
+        liberaVertice(v);
+    }
+
+    /*
+     * Rebalancea tras eliminar sobre el hijo NEGRO que subió, que puede ser
+     * el centinela; su padre ya apunta al padre del eliminado.
+     */
+    private void rebalanceaEliminado(int v) {
+        while (padre(v) != NULO) {
+            int p = padre(v);
+            int hermano = izquierdo(p) == v ? derecho(p) : izquierdo(p);
+            if (esRojo(hermano)) {
+                pinta(p, true);
+                pinta(hermano, false);
+                if (izquierdo(p) == v)
+                    giraIzquierda(p);
+                else
+                    giraDerecha(p);
+                hermano = izquierdo(p) == v ? derecho(p) : izquierdo(p);
+            }
+            int sobIzq = izquierdo(hermano);
+            int sobDer = derecho(hermano);
+            boolean negros = !esRojo(hermano) && !esRojo(sobIzq) && !esRojo(sobDer);
+            if (!esRojo(p) && negros) {
+                pinta(hermano, true);
+                v = p;
+                continue;
+            }
+            if (negros) {
+                pinta(hermano, true);
+                pinta(p, false);
+                return;
+            }
+            if (izquierdo(p) == v && esRojo(sobIzq)) {
+                pinta(hermano, true);
+                pinta(sobIzq, false);
+                giraDerecha(hermano);
+                hermano = derecho(p);
+                sobDer = derecho(hermano);
+            } else if (derecho(p) == v && esRojo(sobDer)) {
+                pinta(hermano, true);
+                pinta(sobDer, false);
+                giraIzquierda(hermano);
+                hermano = izquierdo(p);
+                sobIzq = izquierdo(hermano);
+            }
+            pinta(hermano, esRojo(p));
+            pinta(p, false);
+            if (izquierdo(p) == v) {
+                pinta(sobDer, false);
+                giraIzquierda(p);
+            } else {
+                pinta(sobIzq, false);
+                giraDerecha(p);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Regresa la representación en cadena de un vértice, con el mismo
+     * formato que {@link ArbolRojinegro}.
+     * @param v el vértice.
+     * @return la representación en cadena del vértice.
+     */
+    @Override protected String cadena(int v) {
+        return (esRojo(v) ? "R" : "N") + "{" + elemento[v] + "}";
+    }
+}
@@ -0,0 +1,194 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para cachés con política de desalojo intercambiable. La caché guarda
+ * los valores en un {@link Diccionario} y le delega a una {@link
+ * PoliticaDesalojo} la decisión de qué llave sale cuando ya no hay lugar; la
+ * política sólo ve las llaves. Las políticas disponibles se obtienen con
+ * {@link FabricaPoliticas}.
+ *
+ * A diferencia de {@link CacheLRU}, la caché no tiene un orden de uso que
+ * pueda recorrerse: los iteradores recorren el diccionario.
+ */
+public class Cache<K, V> implements Iterable<V> {
+
+    /* La política de desalojo. */
+    private PoliticaDesalojo<K> politica;
+    /* Los valores de la caché. */
+    private Diccionario<K, V> valores;
+
+    /**
+     * Construye una caché con la política de desalojo dada, que debe estar
+     * vacía.
+     * @param politica la política de desalojo.
+     * @throws IllegalArgumentException si la política es nula.
+     */
+    public Cache(PoliticaDesalojo<K> politica) {
+        if (politica == null)
+            throw new IllegalArgumentException("La política no puede ser null.");
+        this.politica = politica;
+        valores = new Diccionario<>(politica.getCapacidad() << 1);
+    }
+
+    /**
+     * Construye una caché con el algoritmo de desalojo y la capacidad dados.
+     * @param algoritmo el algoritmo de desalojo.
+     * @param capacidad la cantidad máxima de elementos en la caché.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public Cache(AlgoritmoDesalojo algoritmo, int capacidad) {
+        this(FabricaPoliticas.<K>politica(algoritmo, capacidad));
+    }
+
+    /**
+     * Regresa la cantidad de elementos en el caché.
+     * @return el número de elementos en el caché.
+     */
+    public int getElementos() {
+        return valores.getElementos();
+    }
+
+    /**
+     * Regresa la capacidad de la caché.
+     * @return La cantidad máxima de elementos en la caché.
+     */
+    public int getCapacidad() {
+        return politica.getCapacidad();
+    }
+
+    /**
+     * Nos dice si la caché es vacía.
+     * @return <code>true</code> si la caché es vacía,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+        return valores.esVacia();
+    }
+
+    /**
+     * Indica si la caché contiene la llave. No cuenta como uso.
+     * @param llave la llave para buscar el valor
+     * @return <code>true</code> si la llave está en la caché,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return valores.contiene(llave);
+    }
+
+    /**
+     * Nos da el valor asociado a la llave y cuenta el uso.
+     * @param llave la llave para buscar el valor
+     * @return El valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave es nula
+     * @throws NoSuchElementException si la llave no está en la caché
+     */
+    public V get(K llave) {
+        V valor = valores.get(llave);
+        politica.accede(llave);
+        return valor;
+    }
+
+    /**
+     * Obtiene el valor asociado a una llave. Si no lo encuentra, corre el
+     * código de la interfaz funcional para guardar y regresar el resultado.
+     * @param llave la llave asociada con el valor.
+     * @param siFalla si no se encuentra la llave en la caché, la agregará con
+     *                el valor que resulte de correr esta función.
+     * @return El valor asociado a la llave dada en la caché.
+     */
+    public V tryGet(K llave, AccionCache<V> siFalla) {
+        V valor = valores.getOrDefault(llave, null);
+        if (valor != null) {
+            politica.accede(llave);
+            return valor;
+        }
+        valor = siFalla.computa();
+        agrega(llave, valor);
+        return valor;
+    }
+
+    /**
+     * Agrega un nuevo valor al caché, usando la llave proporcionada. Si la
+     * llave ya había sido utilizada antes para agregar un valor, la caché
+     * reemplaza ese valor con el recibido y lo cuenta como uso. Si no, la
+     * política registra la llave y, si la caché está a capacidad, escoge qué
+     * valor se desaloja; puede ser el mismo valor recién agregado.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+        if (valor == null)
+            throw new IllegalArgumentException("El valor no puede ser null.");
+        if (valores.put(llave, valor) != null) {
+            politica.accede(llave);
+            return;
+        }
+        K victima = politica.agrega(llave);
+        if (victima != null)
+            valores.elimina(victima);
+    }
+
+    /**
+     * Elimina el valor de la caché asociada a la llave.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en la caché.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null");
+        if (valores.remove(llave) == null)
+            throw new NoSuchElementException("No se encuentra esa llave.");
+        politica.elimina(llave);
+    }
+
+    /**
+     * Vacía la caché, y la política olvida lo que haya aprendido.
+     */
+    public void limpia() {
+        valores.limpia();
+        politica.limpia();
+    }
+
+    /**
+     * Regresa una representación en cadena de la caché, sin orden particular.
+     * @return una representación en cadena de la caché.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<K> it = valores.iteradorLlaves();
+        while (it.hasNext()) {
+            K llave = it.next();
+            sb.append('\'').append(llave.toString()).append("': '")
+              .append(valores.get(llave).toString()).append('\'');
+            if (it.hasNext())
+                sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves de la caché, sin orden
+     * particular. No cuenta como uso.
+     * @return un iterador para iterar las llaves de la caché.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return valores.iteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores de la caché, sin orden
+     * particular. No cuenta como uso.
+     * @return un iterador para iterar los valores de la caché.
+     */
+    @Override public Iterator<V> iterator() {
+        return valores.iterator();
+    }
+}
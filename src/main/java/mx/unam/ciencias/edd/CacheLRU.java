@@ -1,12 +1,43 @@
 package mx.unam.ciencias.edd;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Clase para cachés LRU. Una caché LRU contiene un {@link Diccionario} que no
  * puede rebasar una capacidad dada, de modo que al exceder el límite de valores,
  * se desaloja el valor usado menos recientemente.
+ *
+ * La capacidad también puede medirse en peso: con un {@link Pesador} cada
+ * valor tiene un peso, por ejemplo su tamaño en bytes, y se desalojan valores
+ * desde el menos recientemente usado hasta que el peso total no pase del
+ * máximo.
+ *
+ * Opcionalmente los valores expiran un tiempo después de escribirse o de
+ * usarse por última vez (ver {@link #setExpiraTrasEscritura} y {@link
+ * #setExpiraTrasAcceso}). Las expiraciones se llevan en una {@link
+ * RuedaTemporizadores}, que se avanza en cada {@link #get}, {@link #tryGet} y
+ * {@link #agrega}; un valor expirado nunca se regresa, pero puede seguir
+ * contando en {@link #getElementos} y apareciendo en los iteradores hasta
+ * que la rueda pase por él. Con {@link #setRefrescaTras} un acierto en
+ * {@link #tryGet} sobre un valor viejo vuelve a computarlo en el fondo, sin
+ * esperarlo.
+ *
+ * Con {@link #setRegistraEstadisticas} la caché cuenta aciertos, fallas,
+ * desalojos por causa y cargas de {@link #tryGet}; {@link #getEstadisticas}
+ * regresa una instantánea inmutable, y {@link MonitorCache} la publica por
+ * JMX.
+ *
+ * Con {@link #guarda} la caché se escribe a un archivo, y con {@link #carga}
+ * otra caché recupera sus elementos en el mismo orden de uso, por ejemplo al
+ * reiniciar un proceso.
  */
 public class CacheLRU<K, V> implements Iterable<V> {
     /* Clase interna privada para nodos. */
@@ -19,6 +50,16 @@ public class CacheLRU<K, V> implements Iterable<V> {
         private Nodo anterior;
         /* El nodo siguiente. */
         private Nodo siguiente;
+        /* La hora a la que se escribió el valor. */
+        private long escrito;
+        /* La hora a la que expira el valor. */
+        private long expira;
+        /* El temporizador de la expiración, o null si no expira. */
+        private RuedaTemporizadores.Temporizador<Nodo> temporizador;
+        /* El valor que se está recomputando en el fondo, o null. */
+        private CompletableFuture<V> recarga;
+        /* El peso del valor; 0 si la caché no pesa sus valores. */
+        private int peso;
 
         /** 
          * Construye un nodo con una llave y un valor.
@@ -166,14 +207,46 @@ public class CacheLRU<K, V> implements Iterable<V> {
         }
     }
 
+    /* Número mágico al principio de los archivos de la caché: "EDDC". */
+    private static final int MAGICO = 0x45444443;
+    /* Versión del formato de los archivos de la caché. */
+    private static final int VERSION = 1;
+    /* Longitud que marca el fin de los elementos en un archivo. */
+    private static final int FIN = -1;
+
     /* Número máximo de elementos en el caché. */
     private final int capacidad;
+    /* El peso máximo de la caché; sólo se usa si hay pesador. */
+    private final long pesoMaximo;
+    /* El pesador de los valores, o null si la capacidad es por elementos. */
+    private final Pesador<K, V> pesador;
+    /* El peso total de los valores, si hay pesador. */
+    private long peso;
     /* Caché de nodos para acceso constante. */
     private Diccionario<K, Nodo> cache;
     /* El nodo más recientemente usado. */
     private Nodo cabezaMRU;
     /* El nodo menos recientemente usado. */
     private Nodo raboLRU;
+    /* El reloj para las expiraciones. */
+    private final Reloj reloj;
+    /* Las expiraciones; null si no hay expiración ni refresco. */
+    private RuedaTemporizadores<Nodo> rueda;
+    /* Lo que se hace con los nodos que expiran en la rueda. */
+    private final RuedaTemporizadores.Expiracion<Nodo> expiracion =
+        this::expira;
+    /* Nanosegundos que dura un valor tras escribirse, o 0. */
+    private long expiraTrasEscritura;
+    /* Nanosegundos que dura un valor tras usarse, o 0. */
+    private long expiraTrasAcceso;
+    /* Nanosegundos tras escribirse tras los que se refresca un valor, o 0. */
+    private long refrescaTras;
+    /* El ejecutor de los refrescos. */
+    private Executor ejecutor;
+    /* Los contadores de las estadísticas. */
+    private final ContadoresCache contadores;
+    /* Si se registran las estadísticas. */
+    private boolean registra;
 
     /**
      * Construye un caché que desaloja al elemento menos recientemente usado si
@@ -183,10 +256,182 @@ public class CacheLRU<K, V> implements Iterable<V> {
      * @throws IllegalArgumentException si la capacidad es menor a 2.
      */
     public CacheLRU(int capacidad) {
+        this(capacidad, System::nanoTime);
+    }
+
+    /**
+     * Construye un caché que desaloja al elemento menos recientemente usado si
+     * se excede la capacidad de la caché, y que toma la hora del reloj dado
+     * para las expiraciones.
+     * @param capacidad la cantidad máxima de elementos en el caché antes de
+     *                  desalojar al menos usado tras agregar.
+     * @param reloj el reloj para las expiraciones.
+     * @throws IllegalArgumentException si la capacidad es menor a 2 o el reloj
+     *         es nulo.
+     */
+    public CacheLRU(int capacidad, Reloj reloj) {
+        this(capacidad, capacidad, null, reloj);
         if (capacidad < 2)
             throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+    }
+
+    /**
+     * Construye un caché que desaloja a los elementos menos recientemente
+     * usados mientras el peso total de sus valores pase del máximo. El número
+     * de elementos no tiene límite.
+     * @param pesoMaximo el peso total máximo de los valores.
+     * @param pesador el pesador de los valores.
+     * @throws IllegalArgumentException si el peso máximo no es positivo o el
+     *         pesador es nulo.
+     */
+    public CacheLRU(long pesoMaximo, Pesador<K, V> pesador) {
+        this(pesoMaximo, pesador, System::nanoTime);
+    }
+
+    /**
+     * Construye un caché que desaloja a los elementos menos recientemente
+     * usados mientras el peso total de sus valores pase del máximo, y que toma
+     * la hora del reloj dado para las expiraciones. El número de elementos no
+     * tiene límite.
+     * @param pesoMaximo el peso total máximo de los valores.
+     * @param pesador el pesador de los valores.
+     * @param reloj el reloj para las expiraciones.
+     * @throws IllegalArgumentException si el peso máximo no es positivo, o el
+     *         pesador o el reloj son nulos.
+     */
+    public CacheLRU(long pesoMaximo, Pesador<K, V> pesador, Reloj reloj) {
+        this(Integer.MAX_VALUE, pesoMaximo, pesador, reloj);
+        if (pesoMaximo < 1)
+            throw new IllegalArgumentException("El peso máximo debe ser " +
+                                               "positivo.");
+        if (pesador == null)
+            throw new IllegalArgumentException("El pesador no puede ser null.");
+    }
+
+    /* Construye un caché con todos sus parámetros. */
+    private CacheLRU(int capacidad, long pesoMaximo, Pesador<K, V> pesador,
+                     Reloj reloj) {
+        if (reloj == null)
+            throw new IllegalArgumentException("El reloj no puede ser null.");
         this.capacidad = capacidad;
-        this.cache = new Diccionario<>(capacidad << 1);;
+        this.pesoMaximo = pesoMaximo;
+        this.pesador = pesador;
+        this.cache = pesador == null && capacidad > 1 ?
+            new Diccionario<>(capacidad << 1) : new Diccionario<>();
+        this.reloj = reloj;
+        this.contadores = new ContadoresCache();
+    }
+
+    /**
+     * Hace que los valores expiren el tiempo dado después de escribirse, con
+     * {@link #agrega} o con {@link #tryGet}. Los valores que ya están en la
+     * caché empiezan a expirar la siguiente vez que se escriben o se usan.
+     * @param duracion cuánto dura un valor; 0 para que no expire.
+     * @param unidad la unidad de la duración.
+     * @throws IllegalArgumentException si la duración es negativa o la unidad
+     *         es nula.
+     */
+    public void setExpiraTrasEscritura(long duracion, TimeUnit unidad) {
+        expiraTrasEscritura = nanos(duracion, unidad);
+        if (rueda == null)
+            rueda = new RuedaTemporizadores<Nodo>(reloj.ahora());
+    }
+
+    /**
+     * Hace que los valores expiren el tiempo dado después de escribirse o
+     * usarse por última vez. Si también hay expiración tras escritura, un
+     * valor expira con la primera que se cumpla. Los valores que ya están en
+     * la caché empiezan a expirar la siguiente vez que se escriben o se usan.
+     * @param duracion cuánto dura un valor sin usarse; 0 para que no expire.
+     * @param unidad la unidad de la duración.
+     * @throws IllegalArgumentException si la duración es negativa o la unidad
+     *         es nula.
+     */
+    public void setExpiraTrasAcceso(long duracion, TimeUnit unidad) {
+        expiraTrasAcceso = nanos(duracion, unidad);
+        if (rueda == null)
+            rueda = new RuedaTemporizadores<Nodo>(reloj.ahora());
+    }
+
+    /**
+     * Hace que un acierto en {@link #tryGet} sobre un valor escrito hace al
+     * menos el tiempo dado vuelva a correr su {@link AccionCache} con el
+     * ejecutor dado. El acierto regresa el valor viejo sin esperar; el valor
+     * nuevo se guarda en el primer uso de la llave después de que termine de
+     * computarse, y si la computación falla se vuelve a intentar en un acierto
+     * posterior. Para que los valores usados seguido nunca expiren, el tiempo
+     * debe ser menor que el de expiración tras escritura.
+     *
+     * La caché no es segura para hilos: el ejecutor sólo computa el valor, y
+     * quien usa la caché es quien lo guarda.
+     * @param duracion tras cuánto se refresca un valor; 0 para no refrescar.
+     * @param unidad la unidad de la duración.
+     * @param ejecutor el ejecutor de los refrescos.
+     * @throws IllegalArgumentException si la duración es negativa, o la
+     *         unidad o el ejecutor son nulos.
+     */
+    public void setRefrescaTras(long duracion, TimeUnit unidad,
+                                Executor ejecutor) {
+        if (ejecutor == null)
+            throw new IllegalArgumentException("El ejecutor no puede ser null.");
+        refrescaTras = nanos(duracion, unidad);
+        this.ejecutor = ejecutor;
+        if (rueda == null)
+            rueda = new RuedaTemporizadores<Nodo>(reloj.ahora());
+    }
+
+    /**
+     * Nos dice si la caché refresca valores viejos (ver {@link
+     * #setRefrescaTras}).
+     * @return <code>true</code> si la caché refresca valores,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean refresca() {
+        return refrescaTras > 0;
+    }
+
+    /**
+     * Hace que la caché registre o no sus estadísticas. Por omisión no las
+     * registra, para que los aciertos no paguen los contadores; al dejar de
+     * registrarlas los contadores conservan lo que llevaban.
+     * @param registra si se registran las estadísticas.
+     */
+    public void setRegistraEstadisticas(boolean registra) {
+        this.registra = registra;
+    }
+
+    /**
+     * Regresa una instantánea de las estadísticas de la caché. Un acierto o
+     * una falla es una llamada a {@link #get} o a {@link #tryGet}; una carga
+     * es la computación de {@link #tryGet} tras una falla o un refresco, y su
+     * tiempo se mide con el reloj de la caché. Los desalojos son los que hace
+     * la caché por capacidad, peso o expiración, no las eliminaciones
+     * explícitas. Se puede llamar desde cualquier hilo.
+     * @return una instantánea de las estadísticas.
+     */
+    public EstadisticasCache getEstadisticas() {
+        return contadores.instantanea();
+    }
+
+    /* Convierte una duración a nanosegundos. */
+    private static long nanos(long duracion, TimeUnit unidad) {
+        if (duracion < 0)
+            throw new IllegalArgumentException("La duración no puede ser " +
+                                               "negativa.");
+        if (unidad == null)
+            throw new IllegalArgumentException("La unidad no puede ser null.");
+        return unidad.toNanos(duracion);
+    }
+
+    /**
+     * Saca de la caché a los valores cuya expiración ya pasó según la rueda
+     * de temporizadores. {@link #get}, {@link #tryGet} y {@link #agrega} lo
+     * hacen solos; sirve para que {@link #getElementos} y los iteradores no
+     * cuenten valores expirados.
+     */
+    public void limpiaExpirados() {
+        if (rueda != null)
+            rueda.avanza(reloj.ahora(), expiracion);
     }
 
     /**
@@ -199,12 +444,51 @@ public class CacheLRU<K, V> implements Iterable<V> {
 
     /**
      * Regresa la capacidad de la caché.
-     * @return La cantidad máxima de elementos en la caché.
+     * @return La cantidad máxima de elementos en la caché;
+     *         {@link Integer#MAX_VALUE} si la capacidad es por peso.
      */
     public int getCapacidad() {
         return capacidad;
     }
 
+    /**
+     * Regresa el peso total de los valores en la caché. Si la capacidad es
+     * por elementos, cada valor pesa 1.
+     * @return el peso total de los valores en la caché.
+     */
+    public long getPeso() {
+        return pesador == null ? getElementos() : peso;
+    }
+
+    /**
+     * Regresa el peso total máximo de los valores en la caché. Si la
+     * capacidad es por elementos, es la capacidad.
+     * @return el peso total máximo de los valores en la caché.
+     */
+    public long getPesoMaximo() {
+        return pesoMaximo;
+    }
+
+    /* Pesa un valor. */
+    private int pesa(K llave, V valor) {
+        int p = pesador.peso(llave, valor);
+        if (p < 0)
+            throw new IllegalArgumentException("El peso no puede ser " +
+                                               "negativo.");
+        return p;
+    }
+
+    /*
+     * Cambia el peso de un nodo que está en la caché, y desaloja desde el
+     * menos recientemente usado mientras se pase del peso máximo.
+     */
+    private void repesa(Nodo nodo, int nuevo) {
+        peso += nuevo - nodo.peso;
+        nodo.peso = nuevo;
+        while (peso > pesoMaximo)
+            desaloja(raboLRU, CausaDesalojo.PESO);
+    }
+
     /**
      * Nos dice si la caché es vacía.
      * @return <code>true</code> si la caché es vacía,
@@ -221,57 +505,192 @@ public class CacheLRU<K, V> implements Iterable<V> {
      *         <code>false</code> en otro caso.
      */
     public boolean contiene(K llave) {
-        return cache.contiene(llave);
+        if (rueda == null)
+            return cache.contiene(llave);
+        Nodo nodo = cache.getOrDefault(llave, null);
+        return nodo != null && !expirado(nodo, reloj.ahora());
+    }
+
+    /* Nos dice si un nodo ya expiró. */
+    private boolean expirado(Nodo nodo, long ahora) {
+        return nodo.temporizador != null && ahora - nodo.expira >= 0;
+    }
+
+    /*
+     * Avanza la rueda y busca el nodo de una llave que no ha expirado; si
+     * encuentra uno expirado lo saca.
+     */
+    private Nodo busca(K llave, long ahora) {
+        if (rueda == null)
+            return cache.getOrDefault(llave, null);
+        rueda.avanza(ahora, expiracion);
+        Nodo nodo = cache.getOrDefault(llave, null);
+        if (nodo != null && expirado(nodo, ahora)) {
+            expira(nodo);
+            return null;
+        }
+        return nodo;
     }
 
     /**
      * Nos da el valor asociado a la llave y lo marca como usado recientemente.
+     * La llave se busca una sola vez; marcarla sólo mueve su nodo al frente de
+     * la lista de uso, sin sacarlo ni volverlo a meter al diccionario.
      * @param llave la llave para buscar el valor
      * @return El valor asociado a la llave.
      * @throws IllegalArgumentException si la llave es nula
      * @throws NoSuchElementException si la llave no está en la caché
      */
     public V get(K llave) {
-        Nodo nodo = cache.get(llave);
-        agregaNodo(nodo);
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+        long ahora = rueda == null ? 0 : reloj.ahora();
+        Nodo nodo = busca(llave, ahora);
+        if (nodo == null) {
+            if (registra)
+                contadores.falla();
+            throw new NoSuchElementException("No se encuentra esa llave.");
+        }
+        if (registra)
+            contadores.acierto();
+        usa(nodo, ahora);
         return nodo.valor;
     }
 
+    /*
+     * Marca un nodo como usado: lo mueve al frente, guarda su refresco si ya
+     * terminó, y reprograma su expiración si expira tras acceso.
+     */
+    private void usa(Nodo nodo, long ahora) {
+        alFrente(nodo);
+        if (rueda == null)
+            return;
+        if (nodo.recarga != null && nodo.recarga.isDone()) {
+            CompletableFuture<V> recarga = nodo.recarga;
+            nodo.recarga = null;
+            V valor = recarga.isCompletedExceptionally() ?
+                null : recarga.join();
+            if (valor != null) {
+                int nuevo = pesador == null ? 0 : pesa(nodo.llave, valor);
+                nodo.valor = valor;
+                nodo.escrito = ahora;
+                programa(nodo, ahora);
+                if (pesador != null)
+                    repesa(nodo, nuevo);
+                return;
+            }
+        }
+        if (expiraTrasAcceso > 0)
+            programa(nodo, ahora);
+    }
+
+    /* Calcula la expiración de un nodo y la programa en la rueda. */
+    private void programa(Nodo nodo, long ahora) {
+        if (expiraTrasEscritura == 0 && expiraTrasAcceso == 0)
+            return;
+        long expira = expiraTrasEscritura > 0 ?
+            nodo.escrito + expiraTrasEscritura : ahora + expiraTrasAcceso;
+        if (expiraTrasAcceso > 0 && ahora + expiraTrasAcceso - expira < 0)
+            expira = ahora + expiraTrasAcceso;
+        nodo.expira = expira;
+        if (nodo.temporizador == null)
+            nodo.temporizador = rueda.agrega(nodo, expira);
+        else
+            rueda.reprograma(nodo.temporizador, expira);
+    }
+
     /**
      * Agrega un nuevo valor al caché, usando la llave proporcionada. Si
      * la llave ya había sido utilizada antes para agregar un valor, la
      * caché reemplaza ese valor con el recibido. Si la caché está a capacidad,
-     * se desalojará al elemento menos utilizado.
+     * se desalojará al elemento menos utilizado; si la capacidad es por peso,
+     * se desalojan elementos hasta que el peso total quepa, y si el valor solo
+     * pesa más que el máximo también se desaloja.
      * @param llave la llave para agregar el valor.
      * @param valor el valor a agregar.
-     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     * @throws IllegalArgumentException si la llave o el valor son nulos, o si
+     *         el pesador regresa un peso negativo.
      */
     public void agrega(K llave, V valor) {
         if (llave == null)
             throw new IllegalArgumentException("La llave no puede ser null.");
         if (valor == null)
             throw new IllegalArgumentException("El valor no puede ser null.");
-        agregaNodo(new Nodo(llave, valor));
-    }
-
-    /* Método privado para agregar nodos existentes y marcar el uso. */
-    private void agregaNodo(Nodo nodo) {
-        if (cache.contiene(nodo.llave))
-            elimina(nodo.llave);
-        if (cabezaMRU == null) {
-            raboLRU = cabezaMRU = nodo;
-            cache.agrega(nodo.llave, nodo);
+        int nuevo = pesador == null ? 0 : pesa(llave, valor);
+        long ahora = 0;
+        if (rueda != null) {
+            ahora = reloj.ahora();
+            rueda.avanza(ahora, expiracion);
+        }
+        Nodo nodo = new Nodo(llave, valor);
+        Nodo viejo = cache.putIfAbsent(llave, nodo);
+        if (viejo != null) {
+            viejo.valor = valor;
+            alFrente(viejo);
+            if (rueda != null) {
+                viejo.escrito = ahora;
+                viejo.recarga = null;
+                programa(viejo, ahora);
+            }
+            if (pesador != null)
+                repesa(viejo, nuevo);
             return;
         }
-        if (getElementos() == capacidad) {
-            cache.elimina(raboLRU.llave);
-            raboLRU = raboLRU.anterior;
-            raboLRU.siguiente = null;
+        liga(nodo);
+        if (rueda != null) {
+            nodo.escrito = ahora;
+            programa(nodo, ahora);
         }
+        if (pesador != null)
+            repesa(nodo, nuevo);
+        else if (getElementos() > capacidad)
+            desaloja(raboLRU, CausaDesalojo.CAPACIDAD);
+    }
+
+    /* Saca un nodo expirado. */
+    private void expira(Nodo nodo) {
+        desaloja(nodo, CausaDesalojo.EXPIRACION);
+    }
+
+    /* Saca un nodo que la caché desaloja por su cuenta, y lo cuenta. */
+    private void desaloja(Nodo nodo, CausaDesalojo causa) {
+        saca(nodo);
+        if (registra)
+            contadores.desalojo(causa);
+    }
+
+    /*
+     * Saca un nodo de la caché, de la lista de uso y de la rueda, y descuenta
+     * su peso.
+     */
+    private void saca(Nodo nodo) {
+        cache.elimina(nodo.llave);
+        desliga(nodo);
+        if (nodo.temporizador != null)
+            rueda.elimina(nodo.temporizador);
+        peso -= nodo.peso;
+    }
+
+    /*
+     * Mueve un nodo que ya está en la caché al frente de la lista de uso. No
+     * toca al diccionario: sólo reescribe las referencias de los nodos
+     * vecinos.
+     */
+    private void alFrente(Nodo nodo) {
+        if (nodo == cabezaMRU)
+            return;
+        desliga(nodo);
+        liga(nodo);
+    }
+
+    /* Liga un nodo al frente de la lista de uso. */
+    private void liga(Nodo nodo) {
         nodo.siguiente = cabezaMRU;
-        cabezaMRU.anterior = nodo;
+        if (cabezaMRU != null)
+            cabezaMRU.anterior = nodo;
+        else
+            raboLRU = nodo;
         cabezaMRU = nodo;
-        cache.agrega(nodo.llave, nodo);
     }
 
     /**
@@ -283,24 +702,26 @@ public class CacheLRU<K, V> implements Iterable<V> {
     public void elimina(K llave) {
         if (llave == null)
             throw new IllegalArgumentException("La llave no puede ser null");
-        if (!cache.contiene(llave))
+        Nodo n = cache.remove(llave);
+        if (n == null)
             throw new NoSuchElementException("No se encuentra esa llave.");
-        Nodo n = cache.get(llave);
-        if (getElementos() <= 1) {
-            limpia();
-            return;
-        }
-        if (n == cabezaMRU) {
-            eliminaMRU();
-            return;
-        }
-        if (n == raboLRU) {
-            eliminaLRU();
-            return;
-        }
-        n.anterior.siguiente = n.siguiente;
-        n.siguiente.anterior = n.anterior;
-        cache.elimina(llave);
+        desliga(n);
+        if (n.temporizador != null)
+            rueda.elimina(n.temporizador);
+        peso -= n.peso;
+    }
+
+    /* Desliga un nodo de la lista de uso. */
+    private void desliga(Nodo n) {
+        if (n.anterior != null)
+            n.anterior.siguiente = n.siguiente;
+        else
+            cabezaMRU = n.siguiente;
+        if (n.siguiente != null)
+            n.siguiente.anterior = n.anterior;
+        else
+            raboLRU = n.anterior;
+        n.anterior = n.siguiente = null;
     }
 
     /**
@@ -312,13 +733,7 @@ public class CacheLRU<K, V> implements Iterable<V> {
         if (cabezaMRU == null)
             throw new NoSuchElementException("La caché está vacía.");
         Nodo aEliminar = cabezaMRU;
-        if (getElementos() == 1) {
-            limpia();
-        } else {
-            cabezaMRU = cabezaMRU.siguiente;
-            cabezaMRU.anterior = null;
-            cache.elimina(aEliminar.llave);
-        }
+        saca(aEliminar);
         return aEliminar.valor;
     }
 
@@ -331,13 +746,7 @@ public class CacheLRU<K, V> implements Iterable<V> {
         if (raboLRU == null)
             throw new NoSuchElementException("La caché está vacía.");
         Nodo aEliminar = raboLRU;
-        if (getElementos() <= 1) {
-            limpia();
-        } else {
-            raboLRU = raboLRU.anterior;
-            raboLRU.siguiente = null;
-            cache.elimina(aEliminar.llave);
-        }
+        saca(aEliminar);
         return aEliminar.valor;
     }
 
@@ -347,17 +756,44 @@ public class CacheLRU<K, V> implements Iterable<V> {
     public void limpia() {
         cache.limpia();
         cabezaMRU = raboLRU = null;
+        if (rueda != null)
+            rueda.limpia();
+        peso = 0;
     }
 
     /**
      * Regresa una copia de la caché. La copia tiene los mismos elementos en
-     * el mismo orden, i.e. conserva la jerarquía de uso reciente.
+     * el mismo orden, i.e. conserva la jerarquía de uso reciente, y los mismos
+     * tiempos de expiración y refresco.
      * @return una copia de la caché.
      */
     public CacheLRU<K, V> copia() {
-        CacheLRU<K, V> cache = new CacheLRU<>(capacidad);
-        for (Nodo nodo = raboLRU; nodo != null; nodo = nodo.anterior)
+        CacheLRU<K, V> cache =
+            new CacheLRU<>(capacidad, pesoMaximo, pesador, reloj);
+        cache.expiraTrasEscritura = expiraTrasEscritura;
+        cache.expiraTrasAcceso = expiraTrasAcceso;
+        cache.refrescaTras = refrescaTras;
+        cache.ejecutor = ejecutor;
+        cache.registra = registra;
+        if (rueda != null)
+            cache.rueda = new RuedaTemporizadores<Nodo>(reloj.ahora());
+        for (Nodo nodo = raboLRU; nodo != null; nodo = nodo.anterior) {
             cache.agrega(nodo.llave, nodo.valor);
+            if (rueda == null)
+                continue;
+            Nodo copia = cache.cabezaMRU;
+            copia.escrito = nodo.escrito;
+            if (nodo.temporizador != null) {
+                copia.expira = nodo.expira;
+                if (copia.temporizador == null)
+                    copia.temporizador = cache.rueda.agrega(copia, nodo.expira);
+                else
+                    cache.rueda.reprograma(copia.temporizador, nodo.expira);
+            } else if (copia.temporizador != null) {
+                cache.rueda.elimina(copia.temporizador);
+                copia.temporizador = null;
+            }
+        }
         return cache;
     }
 
@@ -432,7 +868,7 @@ public class CacheLRU<K, V> implements Iterable<V> {
         if (o == null || getClass() != o.getClass())
             return false;
         @SuppressWarnings("unchecked") CacheLRU<K, V> c = (CacheLRU<K, V>)o;
-        if (capacidad != c.capacidad)
+        if (capacidad != c.capacidad || pesoMaximo != c.pesoMaximo)
             return false;
         if (getElementos() != c.getElementos())
             return false;
@@ -491,6 +927,92 @@ public class CacheLRU<K, V> implements Iterable<V> {
         return new IteradorValores();
     }
 
+    /**
+     * Escribe los elementos de la caché a un archivo, con sus llaves y valores
+     * codificados. El archivo empieza con un número mágico y la versión del
+     * formato; luego vienen los elementos, del usado menos recientemente al
+     * usado más recientemente, cada uno como la longitud y los bytes de su
+     * llave seguidos de la longitud y los bytes de su valor; al final van una
+     * longitud de -1 y el número de elementos. Los elementos expirados no se
+     * escriben. Se escribe primero a un archivo temporal junto al archivo, y
+     * al terminar se renombra, así que un archivo anterior sólo se reemplaza
+     * con uno completo. No cuenta como uso.
+     * @param archivo el archivo.
+     * @param llaves el codificador de las llaves.
+     * @param valores el codificador de los valores.
+     * @throws IOException si no se puede escribir el archivo.
+     * @throws IllegalArgumentException si algún codificador es nulo.
+     */
+    public void guarda(Path archivo, Codificador<K> llaves,
+                       Codificador<V> valores) throws IOException {
+        if (llaves == null || valores == null)
+            throw new IllegalArgumentException("Los codificadores no pueden " +
+                                               "ser null.");
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        long ahora = rueda == null ? 0 : reloj.ahora();
+        int n = 0;
+        try (EscritorBinario out = new EscritorBinario(temporal)) {
+            out.escribeInt(MAGICO);
+            out.escribeInt(VERSION);
+            for (Nodo nodo = raboLRU; nodo != null; nodo = nodo.anterior) {
+                if (expirado(nodo, ahora))
+                    continue;
+                out.escribeBytes(llaves.codifica(nodo.llave));
+                out.escribeBytes(valores.codifica(nodo.valor));
+                n++;
+            }
+            out.escribeInt(FIN);
+            out.escribeInt(n);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Agrega a la caché los elementos de un archivo escrito por {@link
+     * #guarda}, en el mismo orden de uso: el más reciente del archivo queda
+     * como el más reciente de la caché, y todos quedan como más recientes que
+     * los elementos que ya tenía. El archivo se lee por pedazos y cada
+     * elemento se agrega al leerlo, así que si la caché tiene menos capacidad
+     * que elementos el archivo, se quedan los más recientes. Los elementos
+     * cuentan como recién escritos para la expiración.
+     * @param archivo el archivo.
+     * @param llaves el codificador de las llaves.
+     * @param valores el codificador de los valores.
+     * @return el número de elementos leídos.
+     * @throws IOException si no se puede leer el archivo, o si no es un
+     *         archivo de caché completo; los elementos leídos antes del error
+     *         se quedan en la caché.
+     * @throws IllegalArgumentException si algún codificador es nulo.
+     */
+    public int carga(Path archivo, Codificador<K> llaves,
+                     Codificador<V> valores) throws IOException {
+        if (llaves == null || valores == null)
+            throw new IllegalArgumentException("Los codificadores no pueden " +
+                                               "ser null.");
+        try (LectorBinario in = new LectorBinario(archivo)) {
+            if (in.leeInt() != MAGICO)
+                throw new IOException("El archivo no es de una caché.");
+            int version = in.leeInt();
+            if (version != VERSION)
+                throw new IOException("Versión desconocida: " + version);
+            int n = 0;
+            int longitud;
+            while ((longitud = in.leeInt()) != FIN) {
+                K llave = llaves.decodifica(in.leeBytes(longitud));
+                V valor = valores.decodifica(in.leeBytes(in.leeInt()));
+                agrega(llave, valor);
+                n++;
+            }
+            if (in.leeInt() != n || !in.termino())
+                throw new IOException("El archivo está dañado.");
+            return n;
+        }
+    }
+
     /**
      * Obtiene el valor asociado a una llave. Si no lo encuentra, corre el
      * código de la interfaz funcional para guardar y regresar el resultado.
@@ -501,8 +1023,46 @@ public class CacheLRU<K, V> implements Iterable<V> {
      * @return El valor asociado a la llave dada en la caché.
      */
     public V tryGet(K llave, AccionCache<V> siFalla) {
-        if (!contiene(llave))
-            agrega(llave, siFalla.computa());
-        return get(llave);
+        long ahora = rueda == null ? 0 : reloj.ahora();
+        Nodo nodo = busca(llave, ahora);
+        if (nodo == null) {
+            if (!registra) {
+                V valor = siFalla.computa();
+                agrega(llave, valor);
+                return valor;
+            }
+            contadores.falla();
+            V valor = carga(siFalla);
+            agrega(llave, valor);
+            return valor;
+        }
+        if (registra)
+            contadores.acierto();
+        usa(nodo, ahora);
+        if (refrescaTras > 0 && nodo.recarga == null &&
+            ahora - nodo.escrito >= refrescaTras)
+            nodo.recarga = CompletableFuture.supplyAsync(
+                registra ? () -> carga(siFalla) : siFalla::computa, ejecutor);
+        return nodo.valor;
+    }
+
+    /*
+     * Computa un valor y registra la carga; la carga falla si la acción lanza
+     * una excepción o regresa null. Puede correr en el hilo de un refresco.
+     */
+    private V carga(AccionCache<V> siFalla) {
+        long inicio = reloj.ahora();
+        V valor;
+        try {
+            valor = siFalla.computa();
+        } catch (RuntimeException | Error e) {
+            contadores.cargaFallida(reloj.ahora() - inicio);
+            throw e;
+        }
+        if (valor == null)
+            contadores.cargaFallida(reloj.ahora() - inicio);
+        else
+            contadores.cargaExitosa(reloj.ahora() - inicio);
+        return valor;
     }
 }
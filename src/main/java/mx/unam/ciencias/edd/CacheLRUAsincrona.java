@@ -0,0 +1,344 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clase para cachés LRU asíncronas. Una caché LRU asíncrona puede ser usada
+ * por varios hilos a la vez, y en lugar de valores regresa futuros
+ * ({@link CompletableFuture}) que se completan cuando el valor está listo.
+ *
+ * La caché guarda los futuros en una {@link CacheLRU} protegida por un
+ * candado, que sólo se toma para buscar o meter futuros; los valores se
+ * computan fuera del candado con un {@link Executor}. Como el futuro de una
+ * llave entra a la caché antes de computar su valor, todos los hilos que
+ * fallan en la misma llave mientras se computa reciben el mismo futuro, y el
+ * valor se computa una sola vez. Si la computación falla, el futuro se
+ * completa con la excepción y se saca de la caché, para que la siguiente
+ * petición vuelva a intentar.
+ *
+ * El ejecutor puede ser cualquiera: por omisión es el {@link
+ * ForkJoinPool#commonPool}; para cargas que esperan entrada y salida conviene
+ * uno con más hilos, o uno de hilos virtuales en las versiones de Java que
+ * los tienen.
+ */
+public class CacheLRUAsincrona<K, V> {
+
+    /* Los futuros de los valores. */
+    private final CacheLRU<K, CompletableFuture<V>> cache;
+    /* El ejecutor de las computaciones. */
+    private final Executor ejecutor;
+    /* El candado de la caché. */
+    private final ReentrantLock candado;
+
+    /**
+     * Construye una caché asíncrona con la capacidad dada, que computa los
+     * valores en el {@link ForkJoinPool#commonPool}.
+     * @param capacidad la cantidad máxima de elementos en la caché.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public CacheLRUAsincrona(int capacidad) {
+        this(capacidad, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye una caché asíncrona con la capacidad dada, que computa los
+     * valores con el ejecutor dado.
+     * @param capacidad la cantidad máxima de elementos en la caché.
+     * @param ejecutor el ejecutor de las computaciones.
+     * @throws IllegalArgumentException si la capacidad es menor a 2 o el
+     *         ejecutor es nulo.
+     */
+    public CacheLRUAsincrona(int capacidad, Executor ejecutor) {
+        this(new CacheLRU<K, CompletableFuture<V>>(capacidad), ejecutor);
+    }
+
+    /**
+     * Construye una caché asíncrona sobre una caché LRU de futuros, por
+     * ejemplo una con expiración; la caché LRU no debe usarse por fuera
+     * después, ni siquiera para configurarla. La caché LRU no puede
+     * refrescar valores (ver {@link CacheLRU#setRefrescaTras}): su refresco
+     * correría la acción que mete el futuro de una falla, y dejaría en la
+     * caché un futuro que nadie completa.
+     * @param cache la caché LRU de futuros; debe ser vacía.
+     * @param ejecutor el ejecutor de las computaciones.
+     * @throws IllegalArgumentException si la caché no es vacía o refresca
+     *         valores, o si la caché o el ejecutor son nulos.
+     */
+    public CacheLRUAsincrona(CacheLRU<K, CompletableFuture<V>> cache,
+                             Executor ejecutor) {
+        if (cache == null || !cache.esVacia())
+            throw new IllegalArgumentException("Se necesita una caché vacía.");
+        if (cache.refresca())
+            throw new IllegalArgumentException("La caché no puede refrescar " +
+                                               "valores.");
+        if (ejecutor == null)
+            throw new IllegalArgumentException("El ejecutor no puede ser null.");
+        this.cache = cache;
+        this.ejecutor = ejecutor;
+        this.candado = new ReentrantLock();
+    }
+
+    /**
+     * Regresa la cantidad de elementos en el caché, incluyendo a los que se
+     * están computando.
+     * @return el número de elementos en el caché.
+     */
+    public int getElementos() {
+        candado.lock();
+        try {
+            return cache.getElementos();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa la capacidad de la caché.
+     * @return La cantidad máxima de elementos en la caché.
+     */
+    public int getCapacidad() {
+        return cache.getCapacidad();
+    }
+
+    /**
+     * Nos dice si la caché es vacía.
+     * @return <code>true</code> si la caché es vacía,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+        return getElementos() == 0;
+    }
+
+    /**
+     * Indica si la caché contiene la llave, aunque su valor se esté
+     * computando. No cuenta como uso.
+     * @param llave la llave para buscar el valor
+     * @return <code>true</code> si la llave está en la caché,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        candado.lock();
+        try {
+            return cache.contiene(llave);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Nos da el futuro del valor asociado a la llave y lo marca como usado
+     * recientemente.
+     * @param llave la llave para buscar el valor
+     * @return el futuro del valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave es nula
+     * @throws NoSuchElementException si la llave no está en la caché
+     */
+    public CompletableFuture<V> get(K llave) {
+        candado.lock();
+        try {
+            return cache.get(llave);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el futuro del valor asociado a una llave. Si la llave no está
+     * en la caché, mete un futuro nuevo y computa su valor con el ejecutor;
+     * las peticiones de la misma llave mientras se computa reciben el mismo
+     * futuro. Nunca espera a que se compute el valor.
+     * @param llave la llave asociada con el valor.
+     * @param siFalla cómo computar el valor si la llave no está en la caché.
+     *                Si lanza una excepción o regresa <code>null</code>, el
+     *                futuro falla y se saca de la caché.
+     * @return el futuro del valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     */
+    public CompletableFuture<V> tryGet(K llave, AccionCache<V> siFalla) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+        CompletableFuture<V> nuevo = new CompletableFuture<V>();
+        CompletableFuture<V> futuro;
+        candado.lock();
+        try {
+            futuro = cache.tryGet(llave, () -> nuevo);
+        } finally {
+            candado.unlock();
+        }
+        if (futuro != nuevo)
+            return futuro;
+        try {
+            ejecutor.execute(() -> {
+                    try {
+                        V valor = siFalla.computa();
+                        if (valor == null)
+                            throw new IllegalArgumentException("El valor no " +
+                                                               "puede ser null.");
+                        nuevo.complete(valor);
+                    } catch (Throwable t) {
+                        falla(llave, nuevo, t);
+                    }
+                });
+        } catch (RuntimeException re) {
+            falla(llave, nuevo, re);
+        }
+        return nuevo;
+    }
+
+    /**
+     * Obtiene los valores asociados a varias llaves. Las llaves que no están
+     * en la caché se computan juntas, con una sola llamada al cargador en el
+     * ejecutor; las que ya están, o que otra petición está computando, se
+     * esperan sin volver a computarlas. Nunca espera a que se computen los
+     * valores.
+     * @param llaves las llaves; puede tener repeticiones.
+     * @param cargador cómo computar los valores de las llaves que faltan.
+     *                 Las llaves que no regrese, o con valor
+     *                 <code>null</code>, fallan y se sacan de la caché.
+     * @return un futuro con un diccionario con el valor de cada llave, que
+     *         falla si falla alguno de los valores.
+     * @throws IllegalArgumentException si alguna llave es nula; en ese caso
+     *         no se mete ningún futuro a la caché.
+     */
+    public CompletableFuture<Diccionario<K, V>>
+    getAll(Iterable<K> llaves, CargaMasiva<K, V> cargador) {
+        Lista<K> todas = new Lista<K>();
+        Lista<CompletableFuture<V>> futuros = new Lista<CompletableFuture<V>>();
+        Lista<K> faltantes = new Lista<K>();
+        Diccionario<K, CompletableFuture<V>> nuevos =
+            new Diccionario<K, CompletableFuture<V>>();
+        for (K llave : llaves) {
+            if (llave == null)
+                throw new IllegalArgumentException("La llave no puede ser " +
+                                                   "null.");
+            todas.agrega(llave);
+        }
+        candado.lock();
+        try {
+            for (K llave : todas) {
+                CompletableFuture<V> nuevo = new CompletableFuture<V>();
+                CompletableFuture<V> futuro = cache.tryGet(llave, () -> nuevo);
+                if (futuro == nuevo) {
+                    faltantes.agrega(llave);
+                    nuevos.agrega(llave, nuevo);
+                }
+                futuros.agrega(futuro);
+            }
+        } finally {
+            candado.unlock();
+        }
+        if (!faltantes.esVacia())
+            carga(faltantes, nuevos, cargador);
+        CompletableFuture<?>[] arreglo =
+            new CompletableFuture<?>[futuros.getElementos()];
+        int i = 0;
+        for (CompletableFuture<V> futuro : futuros)
+            arreglo[i++] = futuro;
+        return CompletableFuture.allOf(arreglo).thenApply(nada -> {
+                Diccionario<K, V> valores = new Diccionario<K, V>();
+                Iterator<CompletableFuture<V>> iterador = futuros.iterator();
+                for (K llave : todas)
+                    valores.agrega(llave, iterador.next().join());
+                return valores;
+            });
+    }
+
+    /* Computa los valores de las llaves faltantes con el cargador. */
+    private void carga(Lista<K> faltantes,
+                       Diccionario<K, CompletableFuture<V>> nuevos,
+                       CargaMasiva<K, V> cargador) {
+        try {
+            ejecutor.execute(() -> {
+                    Diccionario<K, V> valores;
+                    try {
+                        valores = cargador.carga(faltantes);
+                    } catch (Throwable t) {
+                        for (K llave : faltantes)
+                            falla(llave, nuevos.get(llave), t);
+                        return;
+                    }
+                    for (K llave : faltantes) {
+                        V valor = valores == null ?
+                            null : valores.getOrDefault(llave, null);
+                        if (valor != null)
+                            nuevos.get(llave).complete(valor);
+                        else
+                            falla(llave, nuevos.get(llave),
+                                  new NoSuchElementException("El cargador no " +
+                                                             "regresó la " +
+                                                             "llave."));
+                    }
+                });
+        } catch (RuntimeException re) {
+            for (K llave : faltantes)
+                falla(llave, nuevos.get(llave), re);
+        }
+    }
+
+    /*
+     * Completa un futuro con una excepción y lo saca de la caché, si sigue
+     * siendo el futuro de su llave.
+     */
+    private void falla(K llave, CompletableFuture<V> futuro, Throwable t) {
+        candado.lock();
+        try {
+            if (cache.contiene(llave) && cache.get(llave) == futuro)
+                cache.elimina(llave);
+        } finally {
+            candado.unlock();
+        }
+        futuro.completeExceptionally(t);
+    }
+
+    /**
+     * Agrega un valor ya computado a la caché. Si la llave tenía un valor que
+     * se está computando, las peticiones que ya tienen su futuro lo reciben
+     * a él, y las siguientes reciben el nuevo.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (valor == null)
+            throw new IllegalArgumentException("El valor no puede ser null.");
+        candado.lock();
+        try {
+            cache.agrega(llave, CompletableFuture.completedFuture(valor));
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Elimina el valor de la caché asociada a la llave. Si se estaba
+     * computando, la computación sigue pero su valor no se guarda.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en la caché.
+     */
+    public void elimina(K llave) {
+        candado.lock();
+        try {
+            cache.elimina(llave);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public void limpia() {
+        candado.lock();
+        try {
+            cache.limpia();
+        } finally {
+            candado.unlock();
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clase para cachés LRU concurrentes. Una caché LRU concurrente puede ser
+ * usada por varios hilos a la vez sin sincronización externa.
+ *
+ * Los valores se guardan en un {@link DiccionarioConcurrente}, así que
+ * encontrarlos no adquiere ningún candado. El orden de uso es una lista
+ * doblemente ligada que sólo se modifica con el candado de la caché; para que
+ * las lecturas no tengan que tomarlo, cada una anota su acceso en uno de
+ * varios buffers circulares (escogido por el hilo) y sigue su camino. Cuando
+ * un buffer se llena a la mitad, el hilo que lo notó intenta tomar el
+ * candado <em>sin esperar</em> y, si lo consigue, vacía todos los buffers
+ * reordenando la lista de una vez. Las escrituras sí toman el candado, y
+ * también vacían los buffers antes de modificar la lista.
+ *
+ * Si un buffer está lleno el acceso se descarta: el orden de uso es
+ * aproximado bajo contención, a cambio de que las lecturas nunca se
+ * bloqueen. Con un solo hilo el orden es exacto.
+ *
+ * Las fallas de {@link #tryGet} computan su valor sin el candado: el primer
+ * hilo que falla en una llave mete un futuro en un segundo {@link
+ * DiccionarioConcurrente} de cargas y computa el valor, y los que fallan en
+ * la misma llave mientras tanto esperan ese futuro. El candado sólo se toma
+ * para ligar el nodo nuevo, así que una carga lenta sólo detiene a quienes
+ * piden su llave.
+ */
+public class CacheLRUConcurrente<K, V> implements Iterable<V> {
+
+    /*
+     * Clase interna privada para nodos. Las ligas y el estado sólo se
+     * modifican con el candado de la caché; el valor es volátil para que las
+     * lecturas sin candado lo vean.
+     */
+    private class Nodo {
+
+        /* La llave del nodo. */
+        public final K llave;
+        /* El valor del nodo. */
+        public volatile V valor;
+        /* El nodo anterior. */
+        public Nodo anterior;
+        /* El nodo siguiente. */
+        public Nodo siguiente;
+        /* Si el nodo sigue en la caché. */
+        public boolean vivo;
+
+        /* Construye un nodo con una llave y un valor. */
+        public Nodo(K llave, V valor) {
+            this.llave = llave;
+            this.valor = valor;
+            this.vivo = true;
+        }
+    }
+
+    /*
+     * Clase interna privada para buffers de accesos. Varios hilos pueden
+     * anotar en el buffer; sólo el que tiene el candado de la caché lo vacía.
+     */
+    private class Buffer {
+
+        /* Los accesos anotados. */
+        private final AtomicReferenceArray<Nodo> accesos;
+        /* Cuántos accesos se han anotado. */
+        private final AtomicLong escritos;
+        /* Cuántos accesos se han vaciado. */
+        private volatile long leidos;
+
+        /* Construye un buffer vacío. */
+        public Buffer() {
+            accesos = new AtomicReferenceArray<Nodo>(BUFFER);
+            escritos = new AtomicLong();
+        }
+
+        /*
+         * Anota el acceso a un nodo y regresa cuántos accesos hay pendientes,
+         * o -1 si el buffer está lleno o perdimos la carrera con otro hilo;
+         * en ese caso el acceso se descarta.
+         */
+        public int anota(Nodo nodo) {
+            long e = escritos.get();
+            int pendientes = (int)(e - leidos);
+            if (pendientes >= BUFFER || !escritos.compareAndSet(e, e + 1))
+                return -1;
+            accesos.lazySet((int)e & (BUFFER - 1), nodo);
+            return pendientes + 1;
+        }
+
+        /*
+         * Pasa al frente de la lista los nodos anotados que siguen vivos. Hay
+         * que tener el candado. Se detiene en el primer lugar reservado que
+         * todavía no se escribe; lo recogerá el siguiente vaciado.
+         */
+        public void vacia() {
+            long e = escritos.get();
+            long l = leidos;
+            for (; l < e; l++) {
+                int i = (int)l & (BUFFER - 1);
+                Nodo nodo = accesos.get(i);
+                if (nodo == null)
+                    break;
+                accesos.lazySet(i, null);
+                if (nodo.vivo)
+                    alFrente(nodo);
+            }
+            leidos = l;
+        }
+    }
+
+    /** Número de accesos que cabe en cada buffer. */
+    public static final int BUFFER = 16;
+
+    /* Accesos pendientes en un buffer a partir de los cuales se vacía. */
+    private static final int UMBRAL = BUFFER / 2;
+
+    /* Número de buffers de accesos. */
+    private static final int BUFFERS =
+        siguientePow2(4 * Runtime.getRuntime().availableProcessors());
+
+    /* Número máximo de elementos en el caché. */
+    private final int capacidad;
+    /* Caché de nodos para acceso constante. */
+    private final DiccionarioConcurrente<K, Nodo> cache;
+    /* Los futuros de los valores que se están computando en tryGet. */
+    private final DiccionarioConcurrente<K, CompletableFuture<V>> cargas;
+    /* El candado para modificar la lista de uso. */
+    private final ReentrantLock candado;
+    /* Los buffers de accesos. */
+    private final Buffer[] buffers;
+    /* El nodo más recientemente usado. */
+    private Nodo cabezaMRU;
+    /* El nodo menos recientemente usado. */
+    private Nodo raboLRU;
+    /*
+     * Número de elementos. Sumar los segmentos del diccionario no es atómico
+     * y puede contar una llave desalojada junto con la que la reemplaza.
+     */
+    private volatile int elementos;
+
+    /**
+     * Construye una caché concurrente que desaloja al elemento menos
+     * recientemente usado si se excede la capacidad de la caché.
+     * @param capacidad la cantidad máxima de elementos en el caché antes de
+     *                  desalojar al menos usado tras agregar.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    @SuppressWarnings("unchecked")
+    public CacheLRUConcurrente(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        this.capacidad = capacidad;
+        this.cache = new DiccionarioConcurrente<>(capacidad << 1);
+        this.cargas = new DiccionarioConcurrente<>();
+        this.candado = new ReentrantLock();
+        this.buffers = (Buffer[])Array.newInstance(Buffer.class, BUFFERS);
+        for (int i = 0; i < BUFFERS; i++)
+            buffers[i] = new Buffer();
+    }
+
+    /* Obtiene la potencia de dos mayor o igual a x. */
+    private static int siguientePow2(int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+
+    /* Lanza una excepción si la llave es nula. */
+    private void verificaLlave(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+    }
+
+    /* Lanza una excepción si el valor es nulo. */
+    private void verificaValor(V valor) {
+        if (valor == null)
+            throw new IllegalArgumentException("El valor no puede ser null.");
+    }
+
+    /**
+     * Regresa la cantidad de elementos en el caché.
+     * @return el número de elementos en el caché.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa la capacidad de la caché.
+     * @return La cantidad máxima de elementos en la caché.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Nos dice si la caché es vacía.
+     * @return <code>true</code> si la caché es vacía,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Indica si la caché contiene la llave. No cuenta como uso.
+     * @param llave la llave para buscar el valor
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return cache.contiene(llave);
+    }
+
+    /**
+     * Nos da el valor asociado a la llave y lo marca como usado recientemente.
+     * Nunca se bloquea.
+     * @param llave la llave para buscar el valor
+     * @return El valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave es nula
+     * @throws NoSuchElementException si la llave no está en la caché
+     */
+    public V get(K llave) {
+        verificaLlave(llave);
+        Nodo nodo = cache.getOrDefault(llave, null);
+        if (nodo == null)
+            throw new NoSuchElementException("No se encuentra esa llave.");
+        anota(nodo);
+        return nodo.valor;
+    }
+
+    /**
+     * Obtiene el valor asociado a una llave. Si no lo encuentra, corre el
+     * código de la interfaz funcional para guardar y regresar el resultado.
+     * Los aciertos nunca se bloquean. Las fallas computan el valor sin el
+     * candado de la caché; los hilos que fallan en la misma llave mientras se
+     * computa esperan al que la computa, así que dos hilos nunca computan el
+     * valor de la misma llave a la vez. Si la computación lanza una
+     * excepción, todos los que la esperaban la reciben y la llave no se
+     * agrega. La función no debe pedir la misma llave.
+     * @param llave la llave asociada con el valor.
+     * @param siFalla si no se encuentra la llave en la caché, la agregará con
+     *                el valor que resulte de correr esta función.
+     * @return El valor asociado a la llave dada en la caché.
+     * @throws IllegalArgumentException si la llave o el valor computado son
+     *         nulos.
+     */
+    public V tryGet(K llave, AccionCache<V> siFalla) {
+        verificaLlave(llave);
+        Nodo nodo = cache.getOrDefault(llave, null);
+        if (nodo != null) {
+            anota(nodo);
+            return nodo.valor;
+        }
+        CompletableFuture<V> nuevo = new CompletableFuture<V>();
+        CompletableFuture<V> carga = cargas.putIfAbsent(llave, nuevo);
+        if (carga != null)
+            return espera(carga);
+        try {
+            V valor = carga(llave, siFalla);
+            nuevo.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            nuevo.completeExceptionally(e);
+            throw e;
+        } finally {
+            cargas.elimina(llave);
+        }
+    }
+
+    /*
+     * Computa el valor de una llave que falló y lo mete a la caché. Sólo lo
+     * llama el hilo que metió el futuro de la llave en las cargas, y el
+     * candado sólo se toma para ligar el nodo.
+     */
+    private V carga(K llave, AccionCache<V> siFalla) {
+        Nodo nodo = cache.getOrDefault(llave, null);
+        if (nodo != null) {
+            anota(nodo);
+            return nodo.valor;
+        }
+        V valor = siFalla.computa();
+        verificaValor(valor);
+        candado.lock();
+        try {
+            vacia();
+            nodo = cache.getOrDefault(llave, null);
+            if (nodo != null) {
+                alFrente(nodo);
+                return nodo.valor;
+            }
+            mete(llave, valor);
+            return valor;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /*
+     * Espera el futuro de una llave que otro hilo está computando, y lanza la
+     * excepción de la computación si falló.
+     */
+    private V espera(CompletableFuture<V> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException ce) {
+            Throwable causa = ce.getCause();
+            if (causa instanceof RuntimeException)
+                throw (RuntimeException)causa;
+            if (causa instanceof Error)
+                throw (Error)causa;
+            throw ce;
+        }
+    }
+
+    /**
+     * Agrega un nuevo valor al caché, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, la
+     * caché reemplaza ese valor con el recibido. Si la caché está a capacidad,
+     * se desalojará al elemento menos utilizado.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        verificaLlave(llave);
+        verificaValor(valor);
+        candado.lock();
+        try {
+            vacia();
+            Nodo nodo = cache.getOrDefault(llave, null);
+            if (nodo == null) {
+                mete(llave, valor);
+                return;
+            }
+            nodo.valor = valor;
+            alFrente(nodo);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Elimina el valor de la caché asociada a la llave.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en la caché.
+     */
+    public void elimina(K llave) {
+        verificaLlave(llave);
+        candado.lock();
+        try {
+            Nodo nodo = cache.getOrDefault(llave, null);
+            if (nodo == null)
+                throw new NoSuchElementException("No se encuentra esa llave.");
+            saca(nodo);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Elimina el valor usado menos recientemente y lo regresa.
+     * @return El valor usado menos recientemente.
+     * @throws NoSuchElementException si la caché es vacía.
+     */
+    public V eliminaLRU() {
+        candado.lock();
+        try {
+            vacia();
+            if (raboLRU == null)
+                throw new NoSuchElementException("La caché está vacía.");
+            Nodo nodo = raboLRU;
+            saca(nodo);
+            return nodo.valor;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa el valor usado más recientemente. No cuenta como uso.
+     * @return El valor usado más recientemente.
+     * @throws NoSuchElementException si la caché es vacía.
+     */
+    public V getMRU() {
+        candado.lock();
+        try {
+            vacia();
+            if (cabezaMRU == null)
+                throw new NoSuchElementException("La caché está vacía.");
+            return cabezaMRU.valor;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa el valor usado menos recientemente. No cuenta como uso.
+     * @return El valor usado menos recientemente.
+     * @throws NoSuchElementException si la caché es vacía.
+     */
+    public V getLRU() {
+        candado.lock();
+        try {
+            vacia();
+            if (raboLRU == null)
+                throw new NoSuchElementException("La caché está vacía.");
+            return raboLRU.valor;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public void limpia() {
+        candado.lock();
+        try {
+            vacia();
+            for (Nodo nodo = cabezaMRU; nodo != null; nodo = nodo.siguiente)
+                nodo.vivo = false;
+            cache.limpia();
+            cabezaMRU = raboLRU = null;
+            elementos = 0;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /*
+     * Anota el acceso a un nodo en el buffer del hilo actual, y si el buffer
+     * se llenó a la mitad intenta vaciar los buffers sin esperar el candado.
+     */
+    private void anota(Nodo nodo) {
+        long id = Thread.currentThread().getId();
+        Buffer buffer =
+            buffers[Dispersores.mezclaInt((int)id) & (BUFFERS - 1)];
+        int pendientes = buffer.anota(nodo);
+        if ((pendientes < 0 || pendientes >= UMBRAL) && candado.tryLock()) {
+            try {
+                vacia();
+            } finally {
+                candado.unlock();
+            }
+        }
+    }
+
+    /* Vacía todos los buffers de accesos. Hay que tener el candado. */
+    private void vacia() {
+        for (Buffer buffer : buffers)
+            buffer.vacia();
+    }
+
+    /*
+     * Mete un nodo nuevo al frente de la lista, desalojando al menos usado si
+     * la caché está llena. Hay que tener el candado y la llave no debe de
+     * estar en la caché.
+     */
+    private void mete(K llave, V valor) {
+        if (elementos == capacidad)
+            saca(raboLRU);
+        Nodo nodo = new Nodo(llave, valor);
+        liga(nodo);
+        cache.agrega(llave, nodo);
+        elementos++;
+    }
+
+    /* Saca un nodo de la caché. Hay que tener el candado. */
+    private void saca(Nodo nodo) {
+        cache.elimina(nodo.llave);
+        desliga(nodo);
+        nodo.vivo = false;
+        elementos--;
+    }
+
+    /* Mueve un nodo al frente de la lista. Hay que tener el candado. */
+    private void alFrente(Nodo nodo) {
+        if (nodo == cabezaMRU)
+            return;
+        desliga(nodo);
+        liga(nodo);
+    }
+
+    /* Liga un nodo al frente de la lista. Hay que tener el candado. */
+    private void liga(Nodo nodo) {
+        nodo.siguiente = cabezaMRU;
+        if (cabezaMRU != null)
+            cabezaMRU.anterior = nodo;
+        else
+            raboLRU = nodo;
+        cabezaMRU = nodo;
+    }
+
+    /* Desliga un nodo de la lista de uso. Hay que tener el candado. */
+    private void desliga(Nodo n) {
+        if (n.anterior != null)
+            n.anterior.siguiente = n.siguiente;
+        else
+            cabezaMRU = n.siguiente;
+        if (n.siguiente != null)
+            n.siguiente.anterior = n.anterior;
+        else
+            raboLRU = n.anterior;
+        n.anterior = n.siguiente = null;
+    }
+
+    /**
+     * Regresa una representación en cadena de la caché con el más reciente antes.
+     * @return una representación en cadena de la caché con el más reciente antes.
+     */
+    @Override public String toString() {
+        candado.lock();
+        try {
+            vacia();
+            StringBuilder sb = new StringBuilder("[");
+            for (Nodo nodo = cabezaMRU; nodo != null; nodo = nodo.siguiente) {
+                sb.append('\'').append(nodo.llave.toString()).append("': '")
+                  .append(nodo.valor.toString()).append('\'');
+                if (nodo != raboLRU)
+                    sb.append(", ");
+            }
+            sb.append("]");
+            return sb.toString();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves de la caché. Se ordena de
+     * usado más recientemente a menos recientemente, como estaban al crear el
+     * iterador. No altera el orden.
+     * @return un iterador para iterar las llaves de la caché.
+     */
+    public Iterator<K> iteradorLlaves() {
+        Lista<K> llaves = new Lista<K>();
+        candado.lock();
+        try {
+            vacia();
+            for (Nodo nodo = cabezaMRU; nodo != null; nodo = nodo.siguiente)
+                llaves.agregaFinal(nodo.llave);
+        } finally {
+            candado.unlock();
+        }
+        return llaves.iterator();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores de la caché. Se ordena de
+     * usado más recientemente a menos recientemente, como estaban al crear el
+     * iterador. No altera el orden.
+     * @return un iterador para iterar los valores de la caché.
+     */
+    @Override public Iterator<V> iterator() {
+        Lista<V> valores = new Lista<V>();
+        candado.lock();
+        try {
+            vacia();
+            for (Nodo nodo = cabezaMRU; nodo != null; nodo = nodo.siguiente)
+                valores.agregaFinal(nodo.valor);
+        } finally {
+            candado.unlock();
+        }
+        return valores.iterator();
+    }
+}
@@ -0,0 +1,394 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para cachés LRU que guardan sus valores fuera del heap. Una {@link
+ * CacheLRU} con millones de elementos tiene millones de nodos, entradas de
+ * diccionario y valores en el heap, que el recolector de basura tiene que
+ * recorrer en cada colección completa. Esta caché codifica cada valor con un
+ * {@link Codificador} y guarda sus bytes en losas de {@link
+ * java.nio.ByteBuffer} directos; en el heap sólo quedan las llaves y arreglos
+ * de primitivos: el índice de las llaves es una tabla de dispersión encadenada
+ * por índices, y la lista de uso se liga con arreglos de enteros.
+ *
+ * Los arreglos se reservan completos al construir la caché, así que su costo
+ * es proporcional a la capacidad y no al número de elementos. Los bytes de
+ * cada valor van en un bloque de la potencia de dos que los contiene, y un
+ * valor no puede codificarse en más de un megabyte. Cada {@link #get}
+ * decodifica el valor, así que regresa un objeto nuevo. La clase no es segura
+ * para hilos.
+ */
+public class CacheLRUDirecta<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /* El índice de la siguiente entrada, de la más a la menos reciente. */
+        private int siguiente;
+
+        /* Construye un nuevo iterador. */
+        private Iterador() {
+            siguiente = cabezaMRU;
+        }
+
+        /* Nos dice si hay una siguiente entrada. */
+        public boolean hasNext() {
+            return siguiente != NINGUNO;
+        }
+
+        /* Regresa el índice de la siguiente entrada. */
+        protected int proximo() {
+            if (siguiente == NINGUNO)
+                throw new NoSuchElementException("No hay siguiente.");
+            int i = siguiente;
+            siguiente = CacheLRUDirecta.this.siguiente[i];
+            return i;
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador implements Iterator<K> {
+
+        /* Regresa la siguiente llave. */
+        @Override public K next() {
+            return llaves[proximo()];
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador implements Iterator<V> {
+
+        /* Regresa el siguiente valor. */
+        @Override public V next() {
+            return valor(proximo());
+        }
+    }
+
+    /* Índice que no es ninguna entrada. */
+    private static final int NINGUNO = -1;
+
+    /* Número máximo de elementos en la caché. */
+    private final int capacidad;
+    /* El codificador de los valores. */
+    private final Codificador<V> codificador;
+    /* Las losas con los bytes de los valores. */
+    private final Losas losas;
+    /* Las llaves de las entradas. */
+    private final K[] llaves;
+    /* Las dispersiones de las llaves. */
+    private final int[] dispersiones;
+    /* La siguiente entrada en la misma cubeta. */
+    private final int[] encadenado;
+    /* La primera entrada de cada cubeta. */
+    private final int[] cubetas;
+    /* La entrada usada anterior en la lista de uso. */
+    private final int[] anterior;
+    /* La entrada usada siguiente en la lista de uso, o en la lista libre. */
+    private final int[] siguiente;
+    /* Las direcciones de los bloques de los valores. */
+    private final long[] direcciones;
+    /* Las longitudes en bytes de los valores. */
+    private final int[] longitudes;
+    /* La entrada más recientemente usada. */
+    private int cabezaMRU;
+    /* La entrada menos recientemente usada. */
+    private int raboLRU;
+    /* La primera entrada libre que ya se usó. */
+    private int libre;
+    /* Número de entradas que se han usado alguna vez. */
+    private int usadas;
+    /* Número de elementos en la caché. */
+    private int elementos;
+
+    /**
+     * Construye una caché que desaloja al elemento menos recientemente usado
+     * si se excede su capacidad, y que guarda los valores fuera del heap.
+     * @param capacidad la cantidad máxima de elementos en la caché.
+     * @param codificador el codificador de los valores.
+     * @throws IllegalArgumentException si la capacidad es menor a 2 o el
+     *         codificador es nulo.
+     */
+    @SuppressWarnings("unchecked")
+    public CacheLRUDirecta(int capacidad, Codificador<V> codificador) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        if (codificador == null)
+            throw new IllegalArgumentException("El codificador no puede ser " +
+                                               "null.");
+        this.capacidad = capacidad;
+        this.codificador = codificador;
+        losas = new Losas();
+        llaves = (K[])new Object[capacidad];
+        dispersiones = new int[capacidad];
+        encadenado = new int[capacidad];
+        cubetas = new int[Integer.highestOneBit(capacidad - 1) << 1];
+        anterior = new int[capacidad];
+        siguiente = new int[capacidad];
+        direcciones = new long[capacidad];
+        longitudes = new int[capacidad];
+        limpia();
+    }
+
+    /**
+     * Regresa la cantidad de elementos en la caché.
+     * @return el número de elementos en la caché.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa la capacidad de la caché.
+     * @return La cantidad máxima de elementos en la caché.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Regresa los bytes reservados fuera del heap para los valores. Incluye
+     * los bloques libres y lo que sobra de cada bloque.
+     * @return los bytes reservados fuera del heap.
+     */
+    public long getBytesFueraDelHeap() {
+        return losas.getBytes();
+    }
+
+    /**
+     * Nos dice si la caché es vacía.
+     * @return <code>true</code> si la caché es vacía,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /* Regresa la dispersión de una llave. */
+    private static int dispersa(Object llave) {
+        return Dispersores.mezclaInt(llave.hashCode());
+    }
+
+    /* Regresa la entrada de la llave, o NINGUNO. */
+    private int busca(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+        int d = dispersa(llave);
+        for (int i = cubetas[d & (cubetas.length - 1)]; i != NINGUNO;
+             i = encadenado[i])
+            if (dispersiones[i] == d && llaves[i].equals(llave))
+                return i;
+        return NINGUNO;
+    }
+
+    /* Decodifica el valor de una entrada. */
+    private V valor(int i) {
+        return codificador.decodifica(losas.lee(direcciones[i], longitudes[i]));
+    }
+
+    /**
+     * Indica si la caché contiene la llave. No cuenta como uso.
+     * @param llave la llave para buscar el valor
+     * @return <code>true</code> si la llave está en la caché,
+     *         <code>false</code> en otro caso.
+     * @throws IllegalArgumentException si la llave es nula.
+     */
+    public boolean contiene(K llave) {
+        return busca(llave) != NINGUNO;
+    }
+
+    /**
+     * Nos da el valor asociado a la llave y lo marca como usado recientemente.
+     * El valor se decodifica de sus bytes en cada llamada.
+     * @param llave la llave para buscar el valor
+     * @return El valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave es nula
+     * @throws NoSuchElementException si la llave no está en la caché
+     */
+    public V get(K llave) {
+        int i = busca(llave);
+        if (i == NINGUNO)
+            throw new NoSuchElementException("No se encuentra esa llave.");
+        alFrente(i);
+        return valor(i);
+    }
+
+    /**
+     * Agrega un nuevo valor a la caché, usando la llave proporcionada. Si la
+     * llave ya había sido utilizada antes para agregar un valor, la caché
+     * reemplaza ese valor con el recibido. Si la caché está a capacidad, se
+     * desalojará al elemento menos utilizado.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos, o si
+     *         el valor codificado pasa de un megabyte.
+     */
+    public void agrega(K llave, V valor) {
+        if (valor == null)
+            throw new IllegalArgumentException("El valor no puede ser null.");
+        int i = busca(llave);
+        byte[] bytes = codificador.codifica(valor);
+        if (bytes.length > Losas.TAMAÑO_LOSA)
+            throw new IllegalArgumentException("El valor codificado no puede " +
+                                               "pasar de " + Losas.TAMAÑO_LOSA +
+                                               " bytes.");
+        if (i != NINGUNO) {
+            if (Losas.bloque(bytes.length) != Losas.bloque(longitudes[i])) {
+                losas.libera(direcciones[i], longitudes[i]);
+                direcciones[i] = losas.reserva(bytes.length);
+            }
+            longitudes[i] = bytes.length;
+            losas.escribe(direcciones[i], bytes);
+            alFrente(i);
+            return;
+        }
+        if (elementos == capacidad)
+            saca(raboLRU);
+        i = libre != NINGUNO ? libre : usadas++;
+        if (i == libre)
+            libre = siguiente[i];
+        llaves[i] = llave;
+        dispersiones[i] = dispersa(llave);
+        int c = dispersiones[i] & (cubetas.length - 1);
+        encadenado[i] = cubetas[c];
+        cubetas[c] = i;
+        direcciones[i] = losas.reserva(bytes.length);
+        longitudes[i] = bytes.length;
+        losas.escribe(direcciones[i], bytes);
+        liga(i);
+        elementos++;
+    }
+
+    /*
+     * Saca una entrada del índice y de la lista de uso, libera su bloque, y
+     * la pasa a la lista libre.
+     */
+    private void saca(int i) {
+        int c = dispersiones[i] & (cubetas.length - 1);
+        if (cubetas[c] == i) {
+            cubetas[c] = encadenado[i];
+        } else {
+            int j = cubetas[c];
+            while (encadenado[j] != i)
+                j = encadenado[j];
+            encadenado[j] = encadenado[i];
+        }
+        desliga(i);
+        losas.libera(direcciones[i], longitudes[i]);
+        llaves[i] = null;
+        siguiente[i] = libre;
+        libre = i;
+        elementos--;
+    }
+
+    /* Mueve una entrada al frente de la lista de uso. */
+    private void alFrente(int i) {
+        if (i == cabezaMRU)
+            return;
+        desliga(i);
+        liga(i);
+    }
+
+    /* Liga una entrada al frente de la lista de uso. */
+    private void liga(int i) {
+        anterior[i] = NINGUNO;
+        siguiente[i] = cabezaMRU;
+        if (cabezaMRU != NINGUNO)
+            anterior[cabezaMRU] = i;
+        else
+            raboLRU = i;
+        cabezaMRU = i;
+    }
+
+    /* Desliga una entrada de la lista de uso. */
+    private void desliga(int i) {
+        if (anterior[i] != NINGUNO)
+            siguiente[anterior[i]] = siguiente[i];
+        else
+            cabezaMRU = siguiente[i];
+        if (siguiente[i] != NINGUNO)
+            anterior[siguiente[i]] = anterior[i];
+        else
+            raboLRU = anterior[i];
+    }
+
+    /**
+     * Elimina el valor de la caché asociado a la llave.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en la caché.
+     */
+    public void elimina(K llave) {
+        int i = busca(llave);
+        if (i == NINGUNO)
+            throw new NoSuchElementException("No se encuentra esa llave.");
+        saca(i);
+    }
+
+    /**
+     * Elimina el valor usado menos recientemente y lo regresa.
+     * @return El valor usado menos recientemente.
+     * @throws NoSuchElementException si la caché es vacía.
+     */
+    public V eliminaLRU() {
+        if (raboLRU == NINGUNO)
+            throw new NoSuchElementException("La caché está vacía.");
+        int i = raboLRU;
+        V valor = valor(i);
+        saca(i);
+        return valor;
+    }
+
+    /**
+     * Obtiene el valor asociado a una llave. Si no lo encuentra, corre el
+     * código de la interfaz funcional para guardar y regresar el resultado.
+     * @param llave la llave asociada con el valor.
+     * @param siFalla si no se encuentra la llave en la caché, la agregará con
+     *                el valor que resulte de correr esta función.
+     * @return El valor asociado a la llave dada en la caché.
+     * @throws IllegalArgumentException si la llave o el valor computado son
+     *         nulos.
+     */
+    public V tryGet(K llave, AccionCache<V> siFalla) {
+        int i = busca(llave);
+        if (i != NINGUNO) {
+            alFrente(i);
+            return valor(i);
+        }
+        V valor = siFalla.computa();
+        agrega(llave, valor);
+        return valor;
+    }
+
+    /**
+     * Vacía la caché y suelta las losas.
+     */
+    public void limpia() {
+        losas.limpia();
+        Arrays.fill(cubetas, NINGUNO);
+        Arrays.fill(llaves, 0, usadas, null);
+        cabezaMRU = raboLRU = libre = NINGUNO;
+        usadas = elementos = 0;
+    }
+
+    /**
+     * Regresa un iterador para recorrer las llaves de la caché, de la usada
+     * más recientemente a la usada menos recientemente.
+     * @return un iterador para recorrer las llaves de la caché.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para recorrer los valores de la caché, del usado
+     * más recientemente al usado menos recientemente. Cada valor se
+     * decodifica al recorrerlo.
+     * @return un iterador para recorrer los valores de la caché.
+     */
+    @Override public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
@@ -0,0 +1,25 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para cachés W-TinyLFU. Una caché W-TinyLFU no desaloja siempre al
+ * elemento usado menos recientemente: antes de dejar entrar a un elemento
+ * nuevo a su región principal compara qué tan frecuentemente se han usado el
+ * candidato y su víctima, y se queda con el más frecuente. Así un recorrido
+ * que toca una vez cada llave no saca de la caché a las llaves populares,
+ * como le pasa a {@link CacheLRU}.
+ *
+ * Es una {@link Cache} con la política {@link PoliticaTinyLFU}, que describe
+ * sus regiones. La falla de {@link #tryGet} también cuenta para la frecuencia
+ * de la llave, y {@link #limpia} olvida las frecuencias.
+ */
+public class CacheTinyLFU<K, V> extends Cache<K, V> {
+
+    /**
+     * Construye una caché W-TinyLFU con la capacidad dada.
+     * @param capacidad la cantidad máxima de elementos en la caché.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public CacheTinyLFU(int capacidad) {
+        super(new PoliticaTinyLFU<K>(capacidad));
+    }
+}
@@ -0,0 +1,16 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para computar de una vez los valores de varias llaves y guardar
+ * los resultados en cachés.
+ */
+@FunctionalInterface
+public interface CargaMasiva<K, V> {
+
+    /**
+     * Computa los valores de varias llaves.
+     * @param llaves las llaves, sin repeticiones.
+     * @return un diccionario con el valor de cada llave.
+     */
+    public Diccionario<K, V> carga(Lista<K> llaves);
+}
@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para las causas por las que una caché desaloja un valor por su
+ * cuenta. Los valores que se eliminan explícitamente no cuentan como
+ * desalojos.
+ */
+public enum CausaDesalojo {
+    /** La caché rebasó su número máximo de elementos. */
+    CAPACIDAD,
+    /** El peso total de los valores rebasó el peso máximo. */
+    PESO,
+    /** El valor expiró. */
+    EXPIRACION;
+}
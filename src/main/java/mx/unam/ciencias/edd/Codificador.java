@@ -0,0 +1,24 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para codificar elementos como bytes y decodificarlos de vuelta.
+ * Las cachés la usan para guardar valores fuera del heap o en archivos. Para
+ * todo elemento <code>e</code>, <code>decodifica(codifica(e))</code> debe ser
+ * igual a <code>e</code>.
+ */
+public interface Codificador<T> {
+
+    /**
+     * Codifica un elemento.
+     * @param elemento el elemento a codificar; nunca es <code>null</code>.
+     * @return los bytes del elemento.
+     */
+    public byte[] codifica(T elemento);
+
+    /**
+     * Decodifica un elemento.
+     * @param bytes los bytes regresados por {@link #codifica}.
+     * @return el elemento.
+     */
+    public T decodifica(byte[] bytes);
+}
@@ -0,0 +1,73 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Clase para métodos estáticos con codificadores de tipos comunes. Los
+ * números se codifican en orden de bytes de red y las cadenas en UTF-8.
+ */
+public class Codificadores {
+
+    /* El codificador de enteros. */
+    private static final Codificador<Integer> ENTEROS =
+        new Codificador<Integer>() {
+            @Override public byte[] codifica(Integer elemento) {
+                return ByteBuffer.allocate(Integer.BYTES)
+                    .putInt(elemento).array();
+            }
+            @Override public Integer decodifica(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+
+    /* El codificador de enteros largos. */
+    private static final Codificador<Long> LARGOS =
+        new Codificador<Long>() {
+            @Override public byte[] codifica(Long elemento) {
+                return ByteBuffer.allocate(Long.BYTES)
+                    .putLong(elemento).array();
+            }
+            @Override public Long decodifica(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getLong();
+            }
+        };
+
+    /* El codificador de cadenas. */
+    private static final Codificador<String> CADENAS =
+        new Codificador<String>() {
+            @Override public byte[] codifica(String elemento) {
+                return elemento.getBytes(StandardCharsets.UTF_8);
+            }
+            @Override public String decodifica(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+
+    /* Constructor privado para evitar instanciación. */
+    private Codificadores() {}
+
+    /**
+     * Regresa un codificador de enteros, de cuatro bytes cada uno.
+     * @return un codificador de enteros.
+     */
+    public static Codificador<Integer> enteros() {
+        return ENTEROS;
+    }
+
+    /**
+     * Regresa un codificador de enteros largos, de ocho bytes cada uno.
+     * @return un codificador de enteros largos.
+     */
+    public static Codificador<Long> largos() {
+        return LARGOS;
+    }
+
+    /**
+     * Regresa un codificador de cadenas en UTF-8.
+     * @return un codificador de cadenas.
+     */
+    public static Codificador<String> cadenas() {
+        return CADENAS;
+    }
+}
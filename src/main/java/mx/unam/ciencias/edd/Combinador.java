@@ -0,0 +1,16 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para combinar un valor viejo con uno nuevo.
+ */
+@FunctionalInterface
+public interface Combinador<T> {
+
+    /**
+     * Combina dos valores.
+     * @param viejo el valor que ya se tenía.
+     * @param nuevo el valor nuevo.
+     * @return la combinación de ambos valores.
+     */
+    public T combina(T viejo, T nuevo);
+}
@@ -51,8 +51,8 @@ public class Conjunto<T> implements Coleccion<T> {
      * @param elemento el elemento que queremos eliminar del conjunto.
      */
     @Override public void elimina(T elemento) {
-        if (conjunto.contiene(elemento))
-            conjunto.elimina(elemento);
+        if (elemento != null)
+            conjunto.remove(elemento);
     }
 
     /**
@@ -0,0 +1,295 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Clase para conjuntos de enteros. Tiene los mismos métodos que {@link
+ * Conjunto}, pero guarda los elementos en un arreglo de <code>int</code> con
+ * sondeo lineal, así que agregar y buscar no empacan enteros ni crean objetos.
+ * Los elementos se dispersan con {@link Dispersores#mezclaInt}.
+ */
+public class ConjuntoInt implements Iterable<Integer> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements PrimitiveIterator.OfInt {
+
+        /*
+         * El índice del siguiente elemento; -1 es el 0, que no se guarda en
+         * el arreglo.
+         */
+        private int proximo;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            proximo = tieneCero ? -1 : avanza(0);
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return proximo < elementos.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public int nextInt() {
+            if (!hasNext())
+                throw new NoSuchElementException("No hay siguiente.");
+            int i = proximo;
+            proximo = avanza(i + 1);
+            return i == -1 ? LIBRE : elementos[i];
+        }
+
+        /* Regresa el primer índice ocupado a partir de i. */
+        private int avanza(int i) {
+            while (i < elementos.length && elementos[i] == LIBRE)
+                i++;
+            return i;
+        }
+    }
+
+    /** Máxima carga permitida por el conjunto. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* El elemento que marca un índice libre. */
+    private static final int LIBRE = 0;
+
+    /* Los elementos; LIBRE indica un índice libre. */
+    private int[] elementos;
+    /* Si el elemento LIBRE está en el conjunto. */
+    private boolean tieneCero;
+    /* Número de elementos. */
+    private int n;
+
+    /**
+     * Crea un nuevo conjunto.
+     */
+    public ConjuntoInt() {
+        elementos = new int[MINIMA_CAPACIDAD];
+    }
+
+    /**
+     * Crea un nuevo conjunto para un número determinado de elementos.
+     * @param n el número tentativo de elementos.
+     */
+    public ConjuntoInt(int n) {
+        int capacidad = n << 1;
+        if (capacidad < MINIMA_CAPACIDAD)
+            elementos = new int[MINIMA_CAPACIDAD];
+        else
+            elementos = new int[Integer.highestOneBit(capacidad - 1) << 2];
+    }
+
+    /**
+     * Agrega un elemento al conjunto. Si el elemento ya está, el conjunto no
+     * cambia.
+     * @param elemento el elemento que queremos agregar al conjunto.
+     */
+    public void agrega(int elemento) {
+        if (elemento == LIBRE) {
+            if (tieneCero)
+                return;
+            tieneCero = true;
+            cuenta();
+            return;
+        }
+        int mascara = elementos.length - 1;
+        int i = Dispersores.mezclaInt(elemento) & mascara;
+        while (elementos[i] != LIBRE) {
+            if (elementos[i] == elemento)
+                return;
+            i = (i + 1) & mascara;
+        }
+        elementos[i] = elemento;
+        cuenta();
+    }
+
+    /* Cuenta un elemento nuevo, y crece si se pasa de la carga máxima. */
+    private void cuenta() {
+        n++;
+        if (n / (double) elementos.length > MAXIMA_CARGA)
+            crece();
+    }
+
+    /* Hace crecer el arreglo; los elementos ya son únicos. */
+    private void crece() {
+        int[] viejos = elementos;
+        elementos = new int[viejos.length * 2];
+        int mascara = elementos.length - 1;
+        for (int e : viejos) {
+            if (e == LIBRE)
+                continue;
+            int i = Dispersores.mezclaInt(e) & mascara;
+            while (elementos[i] != LIBRE)
+                i = (i + 1) & mascara;
+            elementos[i] = e;
+        }
+    }
+
+    /*
+     * Regresa el índice del elemento, -1 si es el elemento LIBRE y está, o -2
+     * si no está.
+     */
+    private int indice(int elemento) {
+        if (elemento == LIBRE)
+            return tieneCero ? -1 : -2;
+        int mascara = elementos.length - 1;
+        int i = Dispersores.mezclaInt(elemento) & mascara;
+        for (; elementos[i] != LIBRE; i = (i + 1) & mascara)
+            if (elementos[i] == elemento)
+                return i;
+        return -2;
+    }
+
+    /**
+     * Nos dice si el elemento está en el conjunto.
+     * @param elemento el elemento que queremos saber si está en el conjunto.
+     * @return <code>true</code> si el elemento está en el conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return indice(elemento) != -2;
+    }
+
+    /**
+     * Elimina el elemento del conjunto, si está.
+     * @param elemento el elemento que queremos eliminar del conjunto.
+     */
+    public void elimina(int elemento) {
+        int i = indice(elemento);
+        if (i == -2)
+            return;
+        if (i == -1)
+            tieneCero = false;
+        else
+            recorreHaciaAtras(i);
+        n--;
+    }
+
+    /*
+     * Vacía el índice i y recorre hacia atrás los elementos siguientes del
+     * bloque que ya no serían alcanzables desde su índice original.
+     */
+    private void recorreHaciaAtras(int i) {
+        int mascara = elementos.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (elementos[j] == LIBRE)
+                break;
+            int k = Dispersores.mezclaInt(elementos[j]) & mascara;
+            if (i <= j ? (i < k && k <= j) : (i < k || k <= j))
+                continue;
+            elementos[i] = elementos[j];
+            i = j;
+        }
+        elementos[i] = LIBRE;
+    }
+
+    /**
+     * Nos dice si el conjunto es vacío.
+     * @return <code>true</code> si el conjunto es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacia() {
+        return n == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el conjunto.
+     * @return el número de elementos en el conjunto.
+     */
+    public int getElementos() {
+        return n;
+    }
+
+    /**
+     * Limpia el conjunto de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        elementos = new int[MINIMA_CAPACIDAD];
+        tieneCero = false;
+        n = 0;
+    }
+
+    /**
+     * Regresa la intersección del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos intersectar con éste.
+     * @return la intersección del conjunto y el conjunto recibido.
+     */
+    public ConjuntoInt interseccion(ConjuntoInt conjunto) {
+        if (conjunto == null)
+            return new ConjuntoInt();
+        ConjuntoInt interseccion =
+            new ConjuntoInt(Integer.min(n, conjunto.n));
+        PrimitiveIterator.OfInt it = iterator();
+        while (it.hasNext()) {
+            int e = it.nextInt();
+            if (conjunto.contiene(e))
+                interseccion.agrega(e);
+        }
+        return interseccion;
+    }
+
+    /**
+     * Regresa la unión del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos unir con éste.
+     * @return la unión del conjunto y el conjunto recibido.
+     */
+    public ConjuntoInt union(ConjuntoInt conjunto) {
+        int m = conjunto != null ? conjunto.n : 0;
+        ConjuntoInt union = new ConjuntoInt(n + m);
+        PrimitiveIterator.OfInt it = iterator();
+        while (it.hasNext())
+            union.agrega(it.nextInt());
+        if (conjunto == null)
+            return union;
+        it = conjunto.iterator();
+        while (it.hasNext())
+            union.agrega(it.nextInt());
+        return union;
+    }
+
+    /**
+     * Regresa una representación en cadena del conjunto.
+     * @return una representación en cadena del conjunto.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder();
+        PrimitiveIterator.OfInt it = iterator();
+        sb.append("{ ");
+        while (it.hasNext())
+            sb.append(it.nextInt()).append(it.hasNext() ? ", " : " ");
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si el conjunto es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al conjunto.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         ConjuntoInt, y tiene los mismos elementos.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ConjuntoInt c = (ConjuntoInt)o;
+        if (n != c.n || tieneCero != c.tieneCero)
+            return false;
+        for (int e : elementos)
+            if (e != LIBRE && !c.contiene(e))
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para iterar el conjunto. {@link
+     * PrimitiveIterator.OfInt#nextInt} regresa los elementos sin empacarlos.
+     * @return un iterador para iterar el conjunto.
+     */
+    @Override public PrimitiveIterator.OfInt iterator() {
+        return new Iterador();
+    }
+}
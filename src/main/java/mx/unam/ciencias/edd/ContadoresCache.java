@@ -0,0 +1,85 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clase para los contadores de las estadísticas de una caché. Los contadores
+ * son {@link LongAdder}, que reparten los incrementos de hilos distintos en
+ * celdas distintas, así que registrar cuesta poco aunque las cargas terminen
+ * en otros hilos; {@link #instantanea} suma las celdas.
+ */
+class ContadoresCache {
+
+    /* Los aciertos. */
+    private final LongAdder aciertos;
+    /* Las fallas. */
+    private final LongAdder fallas;
+    /* Los desalojos por causa. */
+    private final LongAdder[] desalojos;
+    /* Las cargas exitosas. */
+    private final LongAdder cargasExitosas;
+    /* Las cargas fallidas. */
+    private final LongAdder cargasFallidas;
+    /* Los nanosegundos totales de carga. */
+    private final LongAdder tiempoCarga;
+
+    /* Construye contadores en cero. */
+    ContadoresCache() {
+        aciertos = new LongAdder();
+        fallas = new LongAdder();
+        desalojos = new LongAdder[CausaDesalojo.values().length];
+        for (int i = 0; i < desalojos.length; i++)
+            desalojos[i] = new LongAdder();
+        cargasExitosas = new LongAdder();
+        cargasFallidas = new LongAdder();
+        tiempoCarga = new LongAdder();
+    }
+
+    /* Registra un acierto. */
+    void acierto() {
+        aciertos.increment();
+    }
+
+    /* Registra una falla. */
+    void falla() {
+        fallas.increment();
+    }
+
+    /* Registra un desalojo. */
+    void desalojo(CausaDesalojo causa) {
+        desalojos[causa.ordinal()].increment();
+    }
+
+    /* Registra una carga exitosa que tardó los nanosegundos dados. */
+    void cargaExitosa(long nanos) {
+        cargasExitosas.increment();
+        tiempoCarga.add(nanos);
+    }
+
+    /* Registra una carga fallida que tardó los nanosegundos dados. */
+    void cargaFallida(long nanos) {
+        cargasFallidas.increment();
+        tiempoCarga.add(nanos);
+    }
+
+    /* Regresa una instantánea de los contadores. */
+    EstadisticasCache instantanea() {
+        long[] porCausa = new long[desalojos.length];
+        for (int i = 0; i < desalojos.length; i++)
+            porCausa[i] = desalojos[i].sum();
+        return new EstadisticasCache(aciertos.sum(), fallas.sum(), porCausa,
+                                     cargasExitosas.sum(), cargasFallidas.sum(),
+                                     tiempoCarga.sum());
+    }
+
+    /* Pone todos los contadores en cero. */
+    void reinicia() {
+        aciertos.reset();
+        fallas.reset();
+        for (LongAdder d : desalojos)
+            d.reset();
+        cargasExitosas.reset();
+        cargasFallidas.reset();
+        tiempoCarga.reset();
+    }
+}
@@ -8,21 +8,101 @@ import java.util.NoSuchElementException;
  * Clase para diccionarios (<em>hash tables</em>). Un diccionario generaliza el
  * concepto de arreglo, mapeando un conjunto de <em>llaves</em> a una colección
  * de <em>valores</em>.
+ *
+ * Las cubetas son listas; si una cubeta pasa de {@link #ARBOLIZA} entradas y
+ * todas sus llaves son comparables y de la misma clase, se convierte en un
+ * árbol rojinegro ordenado por dispersión y luego por llave, así que aun con
+ * un mal dispersor las búsquedas toman tiempo logarítmico. El árbol sólo
+ * usa <code>compareTo</code> para escoger por dónde bajar: una llave se
+ * encuentra cuando además es igual según <code>equals</code>, y si
+ * <code>compareTo</code> regresa 0 para una llave distinta se buscan los dos
+ * subárboles, así que el diccionario es correcto aunque
+ * <code>compareTo</code> no sea consistente con <code>equals</code>, y sólo
+ * es más lento con muchas llaves así.
  */
-public class Diccionario<K, V> implements Iterable<V> {
+public class Diccionario<K, V> implements Mapa<K, V> {
 
     /* Clase interna privada para entradas. */
-    private class Entrada {
+    private class Entrada implements Comparable<Entrada> {
 
         /* La llave. */
         public K llave;
         /* El valor. */
         public V valor;
+        /* La dispersión de la llave. */
+        public int dispersion;
 
         /* Construye una nueva entrada. */
-        public Entrada(K llave, V valor) {
+        public Entrada(K llave, V valor, int dispersion) {
             this.llave = llave;
             this.valor = valor;
+            this.dispersion = dispersion;
+        }
+
+        /* Compara la entrada con otra, en las cubetas que son árboles. */
+        @Override public int compareTo(Entrada entrada) {
+            return compara(dispersion, llave, entrada);
+        }
+    }
+
+    /*
+     * Clase interna privada para las cubetas que son listas. Lleva la cuenta
+     * de sus llaves ajenas, las que impiden convertirla en árbol por no ser
+     * comparables o no ser de la clase de las demás, para no tener que
+     * revisar todas sus llaves en cada inserción.
+     */
+    private class Cubeta extends Lista<Entrada> {
+
+        /* La clase de las llaves comparables de la cubeta, o null. */
+        private Class<?> clase;
+        /* Cuántas llaves no son comparables o no son de la clase. */
+        private int ajenas;
+
+        /* Agrega una entrada y la cuenta si es ajena. */
+        @Override public void agrega(Entrada entrada) {
+            super.agrega(entrada);
+            if (clase == null && ajenas == 0 &&
+                entrada.llave instanceof Comparable)
+                clase = entrada.llave.getClass();
+            if (esAjena(entrada))
+                ajenas++;
+        }
+
+        /*
+         * Elimina una entrada que está en la cubeta. Si era la última llave
+         * de la clase, vuelve a contar las ajenas con otra clase.
+         */
+        @Override public void elimina(Entrada entrada) {
+            super.elimina(entrada);
+            if (esAjena(entrada))
+                ajenas--;
+            else if (ajenas > 0 && ajenas == getElementos())
+                recuenta();
+        }
+
+        /* Nos dice si la cubeta puede convertirse en árbol. */
+        public boolean comparable() {
+            return ajenas == 0;
+        }
+
+        /*
+         * Nos dice si la llave de la entrada es ajena a la cubeta. La clase
+         * sólo puede ser la de una llave comparable.
+         */
+        private boolean esAjena(Entrada entrada) {
+            return entrada.llave.getClass() != clase;
+        }
+
+        /* Escoge la clase de la primera llave comparable y cuenta las ajenas. */
+        private void recuenta() {
+            clase = null;
+            ajenas = 0;
+            for (Entrada entrada : this)
+                if (clase == null && entrada.llave instanceof Comparable)
+                    clase = entrada.llave.getClass();
+            for (Entrada entrada : this)
+                if (esAjena(entrada))
+                    ajenas++;
         }
     }
 
@@ -61,17 +141,17 @@ public class Diccionario<K, V> implements Iterable<V> {
          * Regresa true si hay siguiente y false de lo contrario.
          */
         private boolean sigIt() {
-            while (enRango(++indice) && entradas[indice] == null)
+            while (enRango(++indice) && cubeta(indice) == null)
                 ;
             if (!enRango(indice))
                 return false;
-            iterador = entradas[indice].iterator();
+            iterador = cubeta(indice).iterator();
             return true;
         }
 
-        /* Regresa true si el indice es accesible en el arreglo de entradas. */
+        /* Regresa true si el indice es accesible en las cubetas. */
         private boolean enRango(int indice) {
-            return indice < entradas.length;
+            return indice < cubetas();
         }
     }
 
@@ -103,12 +183,44 @@ public class Diccionario<K, V> implements Iterable<V> {
     /* Capacidad mínima; decidida arbitrariamente a 2^6. */
     private static final int MINIMA_CAPACIDAD = 64;
 
+    /*
+     * Cuántas cubetas del arreglo viejo migramos en cada operación que
+     * modifica al diccionario. Tiene que ser mayor a 1/MAXIMA_CARGA para
+     * terminar de migrar antes de volver a crecer.
+     */
+    private static final int MIGRACION = 4;
+
+    /*
+     * Los arreglos con menos cubetas que ésta se migran completos al crecer;
+     * redispersarlos cuesta unos cuantos microsegundos.
+     */
+    private static final int MINIMO_INCREMENTAL = 1 << 12;
+
+    /**
+     * Las cubetas con más entradas que ésta se convierten en árboles, si sus
+     * llaves son comparables.
+     */
+    public static final int ARBOLIZA = 8;
+
+    /* Los árboles con estas entradas o menos vuelven a ser listas. */
+    private static final int DESARBOLIZA = 6;
+
     /* Dispersor. */
     private Dispersor<K> dispersor;
-    /* Nuestro diccionario. */
-    private Lista<Entrada>[] entradas;
+    /* Nuestro diccionario; cada cubeta es una lista o un árbol rojinegro. */
+    private Coleccion<Entrada>[] entradas;
+    /* El arreglo anterior mientras migramos sus entradas, o null. */
+    private Coleccion<Entrada>[] viejas;
+    /* El índice de la siguiente cubeta del arreglo viejo por migrar. */
+    private int migradas;
     /* Número de valores. */
     private int elementos;
+    /* El generador de dispersores del modo seguro, o null. */
+    private GeneradorDispersores<K> generador;
+    /* En modo seguro, la máxima longitud de una cubeta. */
+    private int umbral;
+    /* En modo seguro, los elementos necesarios para cambiar de dispersor. */
+    private int siguienteCambio;
 
     /*
      * Truco para crear un arreglo genérico. Es necesario hacerlo así por cómo
@@ -116,8 +228,8 @@ public class Diccionario<K, V> implements Iterable<V> {
      * compilador.
      */
     @SuppressWarnings("unchecked")
-    private Lista<Entrada>[] nuevoArreglo(int n) {
-        return (Lista<Entrada>[]) Array.newInstance(Lista.class, n);
+    private Coleccion<Entrada>[] nuevoArreglo(int n) {
+        return (Coleccion<Entrada>[]) Array.newInstance(Coleccion.class, n);
     }
 
     /**
@@ -163,6 +275,31 @@ public class Diccionario<K, V> implements Iterable<V> {
             entradas = nuevoArreglo(siguientePow2(capacidad));
     }
 
+    /**
+     * Construye un diccionario en modo seguro, con una capacidad inicial y un
+     * generador de dispersores definidos por el usuario. Si al agregar una
+     * llave su cubeta tiene más de <code>umbral</code> entradas, el
+     * diccionario genera un nuevo dispersor y redispersa todas sus entradas
+     * con él; con un generador de dispersores con llave, como {@link
+     * AlgoritmoDispersor#SIPHASH_STRING}, nadie puede fabricar llaves que
+     * caigan todas en la misma cubeta. Después de cambiar de dispersor no se
+     * vuelve a cambiar hasta que el número de elementos se duplique, así que
+     * redispersar cuesta tiempo constante amortizado.
+     * 
+     * @param capacidad la capacidad inicial del diccionario.
+     * @param generador el generador de dispersores a utilizar.
+     * @param umbral la máxima longitud permitida de una cubeta.
+     * @throws IllegalArgumentException si el umbral es menor a 1.
+     */
+    public Diccionario(int capacidad, GeneradorDispersores<K> generador,
+                       int umbral) {
+        this(capacidad, generador.genera());
+        if (umbral < 1)
+            throw new IllegalArgumentException("Umbral inválido.");
+        this.generador = generador;
+        this.umbral = umbral;
+    }
+
     /* Obtiene la potencia de dos mayor más cercana a x. */
     private int siguientePow2(int x) {
         return Integer.highestOneBit(x - 1) << 2;
@@ -177,52 +314,196 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @param valor el valor a agregar.
      * @throws IllegalArgumentException si la llave o el valor son nulos.
      */
+    @Override
     public void agrega(K llave, V valor) {
+        put(llave, valor);
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada, y
+     * regresa el valor que reemplazó. La llave se busca una sola vez.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @return el valor que estaba asociado a la llave, o <code>null</code> si
+     *         la llave no estaba en el diccionario.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public V put(K llave, V valor) {
+        verificaLlave(llave);
+        verificaValor(valor);
+        int dispersion = migra(llave);
+        Entrada entrada = buscaCubeta(dispersion, llave);
+        if (entrada == null) {
+            mete(dispersion, llave, valor);
+            return null;
+        }
+        V viejo = entrada.valor;
+        entrada.valor = valor;
+        return viejo;
+    }
+
+    /* Lanza una excepción si la llave es nula. */
+    private void verificaLlave(K llave) {
         if (llave == null)
             throw new IllegalArgumentException("La llave no puede ser null.");
+    }
+
+    /* Lanza una excepción si el valor es nulo. */
+    private void verificaValor(V valor) {
         if (valor == null)
             throw new IllegalArgumentException("El valor no puede ser null.");
-        mete(hash(llave), llave, valor);
     }
 
-    /* Mete una llave y valor al diccionario en el índice especificado. */
-    private void mete(int indice, K llave, V valor) {
-        Entrada entradaRepetida = buscador(llave);
-        if (entradaRepetida != null) {
-            entradaRepetida.valor = valor;
-            return;
-        }
-
-        if (entradas[indice] == null)
-            entradas[indice] = new Lista<Entrada>();
-
-        entradas[indice].agrega(new Entrada(llave, valor));
+    /*
+     * Mete una nueva entrada al diccionario con la dispersión especificada.
+     * La llave no debe de estar ya en el diccionario.
+     */
+    private void mete(int dispersion, K llave, V valor) {
+        int longitud = ponEnCubeta(new Entrada(llave, valor, dispersion));
         elementos++;
+        if (generador != null && longitud > umbral &&
+            elementos >= siguienteCambio)
+            cambiaDispersor();
         verificaCarga();
     }
 
+    /*
+     * Pone una entrada en la cubeta que le corresponde del arreglo nuevo, y
+     * regresa la nueva longitud de la cubeta. Si la cubeta es una lista y pasa
+     * de ARBOLIZA entradas comparables, la convierte en árbol; si es un árbol
+     * y la llave es de otra clase, la convierte en lista.
+     */
+    private int ponEnCubeta(Entrada entrada) {
+        int indice = entrada.dispersion & (entradas.length - 1);
+        Coleccion<Entrada> cubeta = entradas[indice];
+        if (cubeta == null)
+            cubeta = entradas[indice] = new Cubeta();
+        else if (esArbol(cubeta) && !mismaClase(cubeta, entrada.llave))
+            cubeta = entradas[indice] = enLista(cubeta);
+        cubeta.agrega(entrada);
+        if (!esArbol(cubeta) && cubeta.getElementos() > ARBOLIZA &&
+            ((Cubeta)cubeta).comparable())
+            entradas[indice] = new ArbolRojinegro<Entrada>(cubeta);
+        return cubeta.getElementos();
+    }
+
+    /* Nos dice si la cubeta es un árbol. */
+    private boolean esArbol(Coleccion<Entrada> cubeta) {
+        return cubeta instanceof ArbolRojinegro;
+    }
+
+    /* Nos dice si la llave es de la clase de las llaves del árbol. */
+    private boolean mismaClase(Coleccion<Entrada> arbol, K llave) {
+        ArbolRojinegro<Entrada> a = (ArbolRojinegro<Entrada>)arbol;
+        return a.raiz().get().llave.getClass() == llave.getClass();
+    }
+
+    /* Regresa una lista con las entradas de la cubeta. */
+    private Cubeta enLista(Coleccion<Entrada> cubeta) {
+        Cubeta lista = new Cubeta();
+        for (Entrada entrada : cubeta)
+            lista.agrega(entrada);
+        return lista;
+    }
+
+    /*
+     * Compara una llave y su dispersión con una entrada, primero por la
+     * dispersión y luego por la llave. Sólo se usa con llaves comparables de
+     * la misma clase.
+     */
+    @SuppressWarnings("unchecked")
+    private int compara(int dispersion, K llave, Entrada entrada) {
+        if (dispersion != entrada.dispersion)
+            return Integer.compare(dispersion, entrada.dispersion);
+        return ((Comparable<Object>)llave).compareTo(entrada.llave);
+    }
+
+    /*
+     * Genera un nuevo dispersor y redispersa con él todas las entradas, en un
+     * arreglo del mismo tamaño.
+     */
+    private void cambiaDispersor() {
+        while (viejas != null)
+            migraSiguiente();
+        dispersor = generador.genera();
+        Coleccion<Entrada>[] anteriores = entradas;
+        entradas = nuevoArreglo(anteriores.length);
+        for (Coleccion<Entrada> cubeta : anteriores) {
+            if (cubeta == null)
+                continue;
+            for (Entrada entrada : cubeta) {
+                entrada.dispersion = dispersor.dispersa(entrada.llave);
+                ponEnCubeta(entrada);
+            }
+        }
+        siguienteCambio = 2 * elementos;
+    }
+
     /* Crece el arreglo de entradas de ser necesario. */
     private void verificaCarga() {
         if (elementos / (double) entradas.length > MAXIMA_CARGA)
             crece();
     }
 
-    /* Hace crecer el arreglo. */
+    /*
+     * Hace crecer el arreglo. Si el arreglo es grande las entradas no se
+     * mueven aquí: el arreglo viejo se conserva y sus cubetas se migran poco
+     * a poco en las operaciones que modifican al diccionario, para que
+     * ninguna tenga que pagar por redispersar todas las entradas.
+     */
     private void crece() {
-        Lista<Entrada>[] viejo = entradas;
-        entradas = nuevoArreglo(viejo.length * 2);
-        elementos = 0;
-        for (int i = 0; i < viejo.length; i++) {
-            if (viejo[i] == null)
-                continue;
-            for (Entrada entrada : viejo[i])
-                mete(hash(entrada.llave), entrada.llave, entrada.valor);
-        }
+        while (viejas != null)
+            migraSiguiente();
+        viejas = entradas;
+        migradas = 0;
+        entradas = nuevoArreglo(viejas.length * 2);
+        if (viejas.length < MINIMO_INCREMENTAL)
+            while (viejas != null)
+                migraSiguiente();
     }
 
-    /* Obtiene el índice en el arreglo que le corresponde a la llave. */
-    private int hash(K llave) {
-        return dispersor.dispersa(llave) & (entradas.length - 1);
+    /*
+     * Dispersa la llave y, si estamos migrando, migra la cubeta vieja de la
+     * llave y otras MIGRACION cubetas. Después de llamarlo, la llave sólo
+     * puede estar en el arreglo nuevo. Regresa la dispersión de la llave.
+     */
+    private int migra(K llave) {
+        int dispersion = dispersor.dispersa(llave);
+        if (viejas == null)
+            return dispersion;
+        migraCubeta(dispersion & (viejas.length - 1));
+        for (int i = 0; i < MIGRACION && viejas != null; i++)
+            migraSiguiente();
+        return dispersion;
+    }
+
+    /* Migra la siguiente cubeta del arreglo viejo. */
+    private void migraSiguiente() {
+        migraCubeta(migradas++);
+        if (migradas == viejas.length)
+            viejas = null;
+    }
+
+    /* Mueve las entradas de una cubeta vieja al arreglo nuevo. */
+    private void migraCubeta(int indice) {
+        if (viejas[indice] == null)
+            return;
+        for (Entrada entrada : viejas[indice])
+            ponEnCubeta(entrada);
+        viejas[indice] = null;
+    }
+
+    /* Regresa el número de cubetas, contando las del arreglo viejo. */
+    private int cubetas() {
+        return entradas.length + (viejas != null ? viejas.length : 0);
+    }
+
+    /* Regresa la i-ésima cubeta; primero las del arreglo viejo. */
+    private Coleccion<Entrada> cubeta(int i) {
+        if (viejas == null)
+            return entradas[i];
+        return i < viejas.length ? viejas[i] : entradas[i - viejas.length];
     }
 
     /**
@@ -233,26 +514,187 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @throws IllegalArgumentException si la llave es nula.
      * @throws NoSuchElementException   si la llave no está en el diccionario.
      */
+    @Override
     public V get(K llave) {
-        if (llave == null)
-            throw new IllegalArgumentException("La llave no puede ser null.");
+        verificaLlave(llave);
         Entrada entrada = buscador(llave);
         if (entrada == null)
             throw new NoSuchElementException("No hay entrada con tal llave.");
         return entrada.valor;
     }
 
-    /* Regresa null o la entrada que tiene la llave dada. */
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada, o el
+     * valor por omisión si la llave no está en el diccionario. La llave se
+     * busca una sola vez.
+     *
+     * @param llave la llave para buscar el valor.
+     * @param porOmision el valor a regresar si la llave no está.
+     * @return el valor correspondiente a la llave, o <code>porOmision</code>
+     *         si la llave es nula o no está en el diccionario.
+     */
+    public V getOrDefault(K llave, V porOmision) {
+        if (llave == null)
+            return porOmision;
+        Entrada entrada = buscador(llave);
+        return entrada != null ? entrada.valor : porOmision;
+    }
+
+    /**
+     * Agrega el valor al diccionario sólo si la llave no está en él. La llave
+     * se busca una sola vez.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @return el valor que ya estaba asociado a la llave, o <code>null</code>
+     *         si no había ninguno y se agregó el valor recibido.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public V putIfAbsent(K llave, V valor) {
+        verificaLlave(llave);
+        verificaValor(valor);
+        int dispersion = migra(llave);
+        Entrada entrada = buscaCubeta(dispersion, llave);
+        if (entrada != null)
+            return entrada.valor;
+        mete(dispersion, llave, valor);
+        return null;
+    }
+
+    /**
+     * Regresa el valor asociado a la llave. Si la llave no está en el
+     * diccionario, computa el valor con la acción recibida y lo agrega. La
+     * llave se busca una sola vez.
+     *
+     * @param llave la llave para buscar el valor.
+     * @param accion la acción que computa el valor si la llave no está.
+     * @return el valor que estaba asociado a la llave, o el valor computado.
+     * @throws IllegalArgumentException si la llave o el valor computado son
+     *         nulos.
+     */
+    public V computeIfAbsent(K llave, AccionCache<V> accion) {
+        verificaLlave(llave);
+        int dispersion = migra(llave);
+        Entrada entrada = buscaCubeta(dispersion, llave);
+        if (entrada != null)
+            return entrada.valor;
+        V valor = accion.computa();
+        verificaValor(valor);
+        mete(dispersion, llave, valor);
+        return valor;
+    }
+
+    /**
+     * Combina el valor recibido con el valor asociado a la llave. Si la llave
+     * no está en el diccionario, se agrega con el valor recibido; si está, se
+     * asocia con el resultado de combinar su valor con el recibido. Si la
+     * combinación es <code>null</code>, la llave se elimina del diccionario.
+     * La llave se busca una sola vez.
+     *
+     * @param llave la llave para combinar el valor.
+     * @param valor el valor a combinar.
+     * @param combinador el combinador del valor viejo con el nuevo.
+     * @return el nuevo valor asociado a la llave, o <code>null</code> si la
+     *         llave fue eliminada.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public V merge(K llave, V valor, Combinador<V> combinador) {
+        verificaLlave(llave);
+        verificaValor(valor);
+        int dispersion = migra(llave);
+        Entrada entrada = buscaCubeta(dispersion, llave);
+        if (entrada == null) {
+            mete(dispersion, llave, valor);
+            return valor;
+        }
+        V combinado = combinador.combina(entrada.valor, valor);
+        if (combinado == null)
+            saca(entrada);
+        else
+            entrada.valor = combinado;
+        return combinado;
+    }
+
+    /*
+     * Regresa null o la entrada que tiene la llave dada, buscándola en el
+     * arreglo nuevo y, si estamos migrando, en el viejo.
+     */
     private Entrada buscador(K llave) {
-        Lista<Entrada> cubeta = entradas[hash(llave)];
+        int dispersion = dispersor.dispersa(llave);
+        Entrada entrada = buscaCubeta(dispersion, llave);
+        if (entrada == null && viejas != null)
+            entrada = buscaEn(viejas[dispersion & (viejas.length - 1)],
+                              dispersion, llave);
+        return entrada;
+    }
+
+    /* Regresa null o la entrada con la llave dada en el arreglo nuevo. */
+    private Entrada buscaCubeta(int dispersion, K llave) {
+        return buscaEn(entradas[dispersion & (entradas.length - 1)],
+                       dispersion, llave);
+    }
+
+    /* Regresa null o la entrada con la llave dada en la cubeta dada. */
+    private Entrada buscaEn(Coleccion<Entrada> cubeta,
+                            int dispersion, K llave) {
         if (cubeta == null)
             return null;
+        if (esArbol(cubeta))
+            return buscaArbol(cubeta, dispersion, llave);
         for (Entrada entrada : cubeta)
-            if (entrada.llave.equals(llave))
+            if (entrada.dispersion == dispersion && entrada.llave.equals(llave))
                 return entrada;
         return null;
     }
 
+    /*
+     * Regresa null o la entrada con la llave dada en el árbol, bajando desde
+     * la raíz sin crear objetos.
+     */
+    private Entrada buscaArbol(Coleccion<Entrada> arbol, int dispersion,
+                               K llave) {
+        if (!mismaClase(arbol, llave))
+            return null;
+        ArbolRojinegro<Entrada> a = (ArbolRojinegro<Entrada>)arbol;
+        VerticeArbolBinario<Entrada> v =
+            buscaVertice(a.raiz(), dispersion, llave, null);
+        return v != null ? v.get() : null;
+    }
+
+    /*
+     * Regresa null o el vértice del subárbol con la entrada buscada: la
+     * entrada exacta si no es null, o si no la que tiene una llave igual a
+     * la dada según equals. Baja guiado por compara, y cuando compara
+     * regresa 0 con otra entrada busca en los dos subárboles, porque
+     * compareTo puede no ser consistente con equals.
+     */
+    private VerticeArbolBinario<Entrada>
+    buscaVertice(VerticeArbolBinario<Entrada> v, int dispersion, K llave,
+                 Entrada exacta) {
+        while (true) {
+            Entrada entrada = v.get();
+            int c = compara(dispersion, llave, entrada);
+            if (c == 0) {
+                if (exacta != null ? entrada == exacta :
+                    entrada.llave.equals(llave))
+                    return v;
+                if (v.hayIzquierdo()) {
+                    VerticeArbolBinario<Entrada> i =
+                        buscaVertice(v.izquierdo(), dispersion, llave, exacta);
+                    if (i != null)
+                        return i;
+                }
+                if (!v.hayDerecho())
+                    return null;
+                v = v.derecho();
+                continue;
+            }
+            if (c < 0 ? !v.hayIzquierdo() : !v.hayDerecho())
+                return null;
+            v = c < 0 ? v.izquierdo() : v.derecho();
+        }
+    }
+
     /**
      * Nos dice si una llave se encuentra en el diccionario.
      * 
@@ -260,6 +702,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return <code>true</code> si la llave está en el diccionario,
      *         <code>false</code> en otro caso.
      */
+    @Override
     public boolean contiene(K llave) {
         return llave != null ? buscador(llave) != null : false;
     }
@@ -272,15 +715,50 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @throws NoSuchElementException   si la llave no se encuentra en
      *                                  el diccionario.
      */
+    @Override
     public void elimina(K llave) {
-        if (llave == null)
-            throw new IllegalArgumentException("La llave no puede ser null.");
-        Entrada entrada = buscador(llave);
-        if (entrada == null)
+        if (remove(llave) == null)
             throw new NoSuchElementException("No se encuentra esa llave");
-        entradas[hash(llave)].elimina(entrada);
-        if (entradas[hash(llave)].getElementos() == 0)
-            entradas[hash(llave)] = null;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada, y
+     * lo regresa. La llave se busca una sola vez.
+     *
+     * @param llave la llave para buscar el valor a eliminar.
+     * @return el valor que estaba asociado a la llave, o <code>null</code> si
+     *         la llave no estaba en el diccionario.
+     * @throws IllegalArgumentException si la llave es nula.
+     */
+    public V remove(K llave) {
+        verificaLlave(llave);
+        Entrada entrada = buscaCubeta(migra(llave), llave);
+        if (entrada == null)
+            return null;
+        saca(entrada);
+        return entrada.valor;
+    }
+
+    /*
+     * Saca una entrada de su cubeta en el arreglo nuevo. En un árbol saca el
+     * vértice de esa misma entrada, no el de otra igual según compareTo. Si
+     * la cubeta es un árbol con DESARBOLIZA entradas o menos, vuelve a ser
+     * lista.
+     */
+    private void saca(Entrada entrada) {
+        int indice = entrada.dispersion & (entradas.length - 1);
+        Coleccion<Entrada> cubeta = entradas[indice];
+        if (esArbol(cubeta)) {
+            ArbolRojinegro<Entrada> a = (ArbolRojinegro<Entrada>)cubeta;
+            a.eliminaElementoDe(buscaVertice(a.raiz(), entrada.dispersion,
+                                             entrada.llave, entrada));
+        } else {
+            cubeta.elimina(entrada);
+        }
+        if (cubeta.getElementos() == 0)
+            entradas[indice] = null;
+        else if (esArbol(cubeta) && cubeta.getElementos() <= DESARBOLIZA)
+            entradas[indice] = enLista(cubeta);
         elementos--;
     }
 
@@ -291,8 +769,8 @@ public class Diccionario<K, V> implements Iterable<V> {
      */
     public int colisiones() {
         int n = 0;
-        for (int i = 0; i < entradas.length; i++)
-            if (entradas[i] != null && entradas[i].getElementos() > 1)
+        for (int i = 0; i < cubetas(); i++)
+            if (cubeta(i) != null && cubeta(i).getElementos() > 1)
                 n++;
         return n;
     }
@@ -304,15 +782,22 @@ public class Diccionario<K, V> implements Iterable<V> {
 
     /**
      * Nos dice el máximo número de colisiones para una misma llave que tenemos
-     * en el diccionario.
+     * en el diccionario. En las cubetas que son árboles cuenta la altura del
+     * árbol, que es el máximo de colisiones que revisa una búsqueda.
      * 
      * @return el máximo número de colisiones para una misma llave.
      */
     public int colisionMaxima() {
         int n = 0;
-        for (int i = 0; i < entradas.length; i++)
-            if (entradas[i] != null)
-                n = max(n, entradas[i].getElementos() - 1);
+        for (int i = 0; i < cubetas(); i++) {
+            Coleccion<Entrada> cubeta = cubeta(i);
+            if (cubeta == null)
+                continue;
+            if (esArbol(cubeta))
+                n = max(n, ((ArbolRojinegro<Entrada>)cubeta).altura());
+            else
+                n = max(n, cubeta.getElementos() - 1);
+        }
         return n;
     }
 
@@ -330,6 +815,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * 
      * @return el número de entradas en el diccionario.
      */
+    @Override
     public int getElementos() {
         return elementos;
     }
@@ -340,6 +826,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return <code>true</code> si el diccionario es vacío, <code>false</code>
      *         en otro caso.
      */
+    @Override
     public boolean esVacia() {
         return elementos == 0;
     }
@@ -347,9 +834,12 @@ public class Diccionario<K, V> implements Iterable<V> {
     /**
      * Limpia el diccionario de elementos, dejándolo vacío.
      */
+    @Override
     public void limpia() {
         entradas = nuevoArreglo(MINIMA_CAPACIDAD);
+        viejas = null;
         elementos = 0;
+        siguienteCambio = 0;
     }
 
     /**
@@ -363,10 +853,10 @@ public class Diccionario<K, V> implements Iterable<V> {
         sb.append('{');
         if (elementos > 0)
             sb.append(' ');
-        for (int i = 0; i < entradas.length; i++) {
-            if (entradas[i] == null)
+        for (int i = 0; i < cubetas(); i++) {
+            if (cubeta(i) == null)
                 continue;
-            for (Entrada entrada : entradas[i])
+            for (Entrada entrada : cubeta(i))
                 concatenaEntrada(entrada, sb);
         }
         sb.append('}');
@@ -398,10 +888,10 @@ public class Diccionario<K, V> implements Iterable<V> {
         Diccionario<K, V> d = (Diccionario<K, V>) o;
         if (elementos != d.elementos)
             return false;
-        for (int i = 0; i < entradas.length; i++) {
-            if (entradas[i] == null)
+        for (int i = 0; i < cubetas(); i++) {
+            if (cubeta(i) == null)
                 continue;
-            for (Entrada entrada : entradas[i]) {
+            for (Entrada entrada : cubeta(i)) {
                 Entrada otra = d.buscador(entrada.llave);
                 if (otra == null)
                     return false;
@@ -418,6 +908,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * 
      * @return un iterador para iterar las llaves del diccionario.
      */
+    @Override
     public Iterator<K> iteradorLlaves() {
         return new IteradorLlaves();
     }
@@ -0,0 +1,442 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios con direccionamiento abierto (<em>open
+ * addressing</em>). Implementa {@link Mapa} igual que {@link Diccionario},
+ * así que puede usarse en su lugar donde se espere un mapa; pero en lugar de
+ * guardar una {@link Lista} de entradas por cada índice, guarda las llaves y
+ * los valores en arreglos paralelos y resuelve las colisiones con sondeo
+ * lineal (<em>linear probing</em>).</p>
+ *
+ * <p>Agregar o buscar no crea objetos, y las llaves que colisionan quedan
+ * contiguas en memoria. Al eliminar se recorren hacia atrás las entradas del
+ * mismo bloque (<em>backward shift</em>), por lo que no se usan lápidas.
+ * La dispersión de cada llave se mezcla antes de aplicarle la máscara, para
+ * que las llaves que sólo difieren en sus bits altos no caigan juntas.</p>
+ */
+public class DiccionarioAbierto<K, V> implements Mapa<K, V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /* El índice de la siguiente entrada. */
+        private int proximo;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            proximo = avanza(0);
+        }
+
+        /* Nos dice si hay una siguiente entrada. */
+        public boolean hasNext() {
+            return proximo < llaves.length;
+        }
+
+        /* Regresa el índice de la siguiente entrada. */
+        public int siguiente() {
+            if (!hasNext())
+                throw new NoSuchElementException("No hay siguiente.");
+            int i = proximo;
+            proximo = avanza(i + 1);
+            return i;
+        }
+
+        /* Regresa el primer índice ocupado a partir de i. */
+        private int avanza(int i) {
+            while (i < llaves.length && llaves[i] == null)
+                i++;
+            return i;
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador
+            implements Iterator<K> {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public K next() {
+            return llaves[siguiente()];
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador
+            implements Iterator<V> {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public V next() {
+            return valores[siguiente()];
+        }
+    }
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* Dispersor. */
+    private Dispersor<K> dispersor;
+    /* Las llaves; null indica un índice libre. */
+    private K[] llaves;
+    /* Los valores, paralelos a las llaves. */
+    private V[] valores;
+    /* Las dispersiones mezcladas de las llaves, paralelas a las llaves. */
+    private int[] dispersiones;
+    /* Número de valores. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario con una capacidad inicial y dispersor
+     * predeterminados.
+     */
+    public DiccionarioAbierto() {
+        this(MINIMA_CAPACIDAD, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial definida por el
+     * usuario, y un dispersor predeterminado.
+     *
+     * @param capacidad la capacidad a utilizar.
+     */
+    public DiccionarioAbierto(int capacidad) {
+        this(capacidad, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial predeterminada, y un
+     * dispersor definido por el usuario.
+     *
+     * @param dispersor el dispersor a utilizar.
+     */
+    public DiccionarioAbierto(Dispersor<K> dispersor) {
+        this(MINIMA_CAPACIDAD, dispersor);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial y un método de
+     * dispersor definidos por el usuario.
+     *
+     * @param capacidad la capacidad inicial del diccionario.
+     * @param dispersor el dispersor a utilizar.
+     */
+    public DiccionarioAbierto(int capacidad, Dispersor<K> dispersor) {
+        this.dispersor = dispersor;
+        if (capacidad < MINIMA_CAPACIDAD)
+            nuevosArreglos(MINIMA_CAPACIDAD);
+        else
+            nuevosArreglos(siguientePow2(capacidad));
+    }
+
+    /* Obtiene la potencia de dos mayor más cercana a x. */
+    private int siguientePow2(int x) {
+        return Integer.highestOneBit(x - 1) << 2;
+    }
+
+    /*
+     * Crea los arreglos paralelos. Las conversiones son seguras porque sólo
+     * guardamos instancias de K y de V en ellos.
+     */
+    @SuppressWarnings("unchecked")
+    private void nuevosArreglos(int n) {
+        llaves = (K[]) new Object[n];
+        valores = (V[]) new Object[n];
+        dispersiones = new int[n];
+    }
+
+    /*
+     * Dispersa la llave y mezcla el resultado, para que los bits altos también
+     * decidan el índice al aplicar la máscara.
+     */
+    private int dispersa(K llave) {
+        return Dispersores.mezclaInt(dispersor.dispersa(llave));
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    @Override
+    public void agrega(K llave, V valor) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+        if (valor == null)
+            throw new IllegalArgumentException("El valor no puede ser null.");
+        int d = dispersa(llave);
+        int mascara = llaves.length - 1;
+        int i = d & mascara;
+        while (llaves[i] != null) {
+            if (dispersiones[i] == d && llaves[i].equals(llave)) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        llaves[i] = llave;
+        valores[i] = valor;
+        dispersiones[i] = d;
+        elementos++;
+        if (elementos / (double) llaves.length > MAXIMA_CARGA)
+            crece();
+    }
+
+    /* Hace crecer los arreglos; las llaves ya son únicas. */
+    private void crece() {
+        K[] viejasLlaves = llaves;
+        V[] viejosValores = valores;
+        int[] viejasDispersiones = dispersiones;
+        nuevosArreglos(viejasLlaves.length * 2);
+        int mascara = llaves.length - 1;
+        for (int j = 0; j < viejasLlaves.length; j++) {
+            if (viejasLlaves[j] == null)
+                continue;
+            int i = viejasDispersiones[j] & mascara;
+            while (llaves[i] != null)
+                i = (i + 1) & mascara;
+            llaves[i] = viejasLlaves[j];
+            valores[i] = viejosValores[j];
+            dispersiones[i] = viejasDispersiones[j];
+        }
+    }
+
+    /* Regresa el índice de la llave, o -1 si no está. */
+    private int indice(K llave) {
+        int d = dispersa(llave);
+        int mascara = llaves.length - 1;
+        for (int i = d & mascara; llaves[i] != null; i = (i + 1) & mascara)
+            if (dispersiones[i] == d && llaves[i].equals(llave))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     *
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException   si la llave no está en el diccionario.
+     */
+    @Override
+    public V get(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+        int i = indice(llave);
+        if (i == -1)
+            throw new NoSuchElementException("No hay entrada con tal llave.");
+        return valores[i];
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     *
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    @Override
+    public boolean contiene(K llave) {
+        return llave != null ? indice(llave) != -1 : false;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     *
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException   si la llave no se encuentra en
+     *                                  el diccionario.
+     */
+    @Override
+    public void elimina(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+        int i = indice(llave);
+        if (i == -1)
+            throw new NoSuchElementException("No se encuentra esa llave");
+        recorreHaciaAtras(i);
+        elementos--;
+    }
+
+    /*
+     * Vacía el índice i y recorre hacia atrás las entradas siguientes del
+     * bloque que ya no serían alcanzables desde su índice original.
+     */
+    private void recorreHaciaAtras(int i) {
+        int mascara = llaves.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (llaves[j] == null)
+                break;
+            int k = dispersiones[j] & mascara;
+            if (i <= j ? (i < k && k <= j) : (i < k || k <= j))
+                continue;
+            llaves[i] = llaves[j];
+            valores[i] = valores[j];
+            dispersiones[i] = dispersiones[j];
+            i = j;
+        }
+        llaves[i] = null;
+        valores[i] = null;
+    }
+
+    /* Cuenta cuántas llaves le corresponden originalmente a cada índice. */
+    private int[] cuentaPorIndice() {
+        int[] cuentas = new int[llaves.length];
+        int mascara = llaves.length - 1;
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null)
+                cuentas[dispersiones[i] & mascara]++;
+        return cuentas;
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario. Al igual que en
+     * {@link Diccionario}, se cuentan los índices a los que les corresponde
+     * más de una llave.
+     *
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    public int colisiones() {
+        int n = 0;
+        for (int c : cuentaPorIndice())
+            if (c > 1)
+                n++;
+        return n;
+    }
+
+    /**
+     * Nos dice el máximo número de colisiones para una misma llave que tenemos
+     * en el diccionario.
+     *
+     * @return el máximo número de colisiones para una misma llave.
+     */
+    public int colisionMaxima() {
+        int n = 0;
+        for (int c : cuentaPorIndice())
+            n = Math.max(n, c - 1);
+        return n;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     *
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double) elementos / (double) llaves.length;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     *
+     * @return el número de entradas en el diccionario.
+     */
+    @Override
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     *
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    @Override
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío.
+     */
+    @Override
+    public void limpia() {
+        nuevosArreglos(MINIMA_CAPACIDAD);
+        elementos = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     *
+     * @return una representación en cadena del diccionario.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        if (elementos > 0)
+            sb.append(' ');
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] == null)
+                continue;
+            sb.append('\'').append(llaves[i].toString());
+            sb.append('\'').append(':').append(' ').append('\'');
+            sb.append(valores[i].toString());
+            sb.append('\'').append(',').append(' ');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     *
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         DiccionarioAbierto, y tiene las mismas llaves asociadas a los
+     *         mismos valores.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked")
+        DiccionarioAbierto<K, V> d = (DiccionarioAbierto<K, V>) o;
+        if (elementos != d.elementos)
+            return false;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] == null)
+                continue;
+            int j = d.indice(llaves[i]);
+            if (j == -1 || !d.valores[j].equals(valores[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     *
+     * @return un iterador para iterar las llaves del diccionario.
+     */
+    @Override
+    public Iterator<K> iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     *
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
@@ -0,0 +1,705 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clase para diccionarios concurrentes. Un diccionario concurrente puede ser
+ * usado por varios hilos a la vez sin sincronización externa.
+ *
+ * El diccionario está dividido en segmentos, cada uno con su propio arreglo
+ * de cubetas y su propio candado. Las búsquedas no adquieren ningún candado;
+ * las operaciones que modifican al diccionario sólo bloquean el segmento de
+ * la llave, y cada segmento crece por su cuenta, así que el resto del
+ * diccionario sigue disponible mientras uno de ellos se redispersa.
+ *
+ * Los iteradores son <em>débilmente consistentes</em>: nunca lanzan
+ * excepciones por modificaciones concurrentes, regresan cada elemento a lo
+ * más una vez, y pueden o no reflejar las modificaciones hechas después de
+ * haber sido creados.
+ */
+public class DiccionarioConcurrente<K, V> implements Iterable<V> {
+
+    /*
+     * Clase interna privada para nodos. La llave y su dispersión no cambian;
+     * el valor y el siguiente nodo son volátiles para que las búsquedas sin
+     * candado vean las modificaciones.
+     */
+    private class Nodo {
+
+        /* La dispersión de la llave. */
+        public final int dispersion;
+        /* La llave. */
+        public final K llave;
+        /* El valor. */
+        public volatile V valor;
+        /* El siguiente nodo en la cubeta. */
+        public volatile Nodo siguiente;
+
+        /* Construye un nuevo nodo. */
+        public Nodo(int dispersion, K llave, V valor, Nodo siguiente) {
+            this.dispersion = dispersion;
+            this.llave = llave;
+            this.valor = valor;
+            this.siguiente = siguiente;
+        }
+    }
+
+    /*
+     * Clase interna privada para segmentos. Las modificaciones se hacen con el
+     * candado del segmento; las cubetas se leen sin él.
+     */
+    private class Segmento {
+
+        /* El candado del segmento. */
+        public final ReentrantLock candado;
+        /* Las cubetas del segmento. */
+        public volatile AtomicReferenceArray<Nodo> cubetas;
+        /* Número de valores en el segmento. */
+        public volatile int elementos;
+
+        /* Construye un segmento con el número de cubetas dado. */
+        public Segmento(int capacidad) {
+            candado = new ReentrantLock();
+            cubetas = new AtomicReferenceArray<Nodo>(capacidad);
+        }
+
+        /* Regresa null o el nodo con la llave dada. No usa el candado. */
+        public Nodo busca(int dispersion, K llave) {
+            AtomicReferenceArray<Nodo> c = cubetas;
+            Nodo nodo = c.get(dispersion & (c.length() - 1));
+            while (nodo != null) {
+                if (nodo.dispersion == dispersion && nodo.llave.equals(llave))
+                    return nodo;
+                nodo = nodo.siguiente;
+            }
+            return null;
+        }
+
+        /*
+         * Agrega el valor con la llave dada. Si la llave ya estaba, reemplaza
+         * su valor sólo si reemplaza es true. Regresa el valor que ya estaba
+         * asociado a la llave, o null.
+         */
+        public V agrega(int dispersion, K llave, V valor, boolean reemplaza) {
+            candado.lock();
+            try {
+                Nodo nodo = busca(dispersion, llave);
+                if (nodo == null) {
+                    mete(dispersion, llave, valor);
+                    return null;
+                }
+                V viejo = nodo.valor;
+                if (reemplaza)
+                    nodo.valor = valor;
+                return viejo;
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        /*
+         * Regresa el valor asociado a la llave; si no está, lo computa con la
+         * acción y lo agrega.
+         */
+        public V computa(int dispersion, K llave, AccionCache<V> accion) {
+            candado.lock();
+            try {
+                Nodo nodo = busca(dispersion, llave);
+                if (nodo != null)
+                    return nodo.valor;
+                V valor = accion.computa();
+                verificaValor(valor);
+                mete(dispersion, llave, valor);
+                return valor;
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        /*
+         * Combina el valor con el asociado a la llave; si la combinación es
+         * null elimina la llave. Regresa el nuevo valor o null.
+         */
+        public V combina(int dispersion, K llave, V valor,
+                         Combinador<V> combinador) {
+            candado.lock();
+            try {
+                Nodo nodo = busca(dispersion, llave);
+                if (nodo == null) {
+                    mete(dispersion, llave, valor);
+                    return valor;
+                }
+                V combinado = combinador.combina(nodo.valor, valor);
+                if (combinado == null)
+                    saca(dispersion, llave);
+                else
+                    nodo.valor = combinado;
+                return combinado;
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        /* Elimina la llave y regresa su valor, o null si no estaba. */
+        public V elimina(int dispersion, K llave) {
+            candado.lock();
+            try {
+                return saca(dispersion, llave);
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        /* Vacía el segmento. */
+        public void limpia() {
+            candado.lock();
+            try {
+                cubetas = new AtomicReferenceArray<Nodo>(MINIMA_CAPACIDAD);
+                elementos = 0;
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        /*
+         * Mete un nodo nuevo al inicio de su cubeta. Hay que tener el candado
+         * y la llave no debe de estar en el segmento.
+         */
+        private void mete(int dispersion, K llave, V valor) {
+            AtomicReferenceArray<Nodo> c = cubetas;
+            int indice = dispersion & (c.length() - 1);
+            c.set(indice, new Nodo(dispersion, llave, valor, c.get(indice)));
+            elementos++;
+            if (elementos / (double) c.length() > MAXIMA_CARGA)
+                crece();
+        }
+
+        /*
+         * Saca el nodo con la llave dada y regresa su valor, o null si no
+         * estaba. Hay que tener el candado. El nodo sacado conserva su
+         * siguiente, así que una búsqueda que esté parada en él puede
+         * continuar.
+         */
+        private V saca(int dispersion, K llave) {
+            AtomicReferenceArray<Nodo> c = cubetas;
+            int indice = dispersion & (c.length() - 1);
+            Nodo anterior = null;
+            Nodo nodo = c.get(indice);
+            while (nodo != null) {
+                if (nodo.dispersion == dispersion && nodo.llave.equals(llave)) {
+                    if (anterior == null)
+                        c.set(indice, nodo.siguiente);
+                    else
+                        anterior.siguiente = nodo.siguiente;
+                    elementos--;
+                    return nodo.valor;
+                }
+                anterior = nodo;
+                nodo = nodo.siguiente;
+            }
+            return null;
+        }
+
+        /*
+         * Dobla el número de cubetas del segmento. Los nodos se copian al
+         * arreglo nuevo en lugar de moverse, para no romper las cubetas que
+         * otros hilos puedan estar recorriendo; el arreglo nuevo se publica
+         * hasta que está completo. Hay que tener el candado.
+         */
+        private void crece() {
+            AtomicReferenceArray<Nodo> c = cubetas;
+            AtomicReferenceArray<Nodo> nuevas =
+                new AtomicReferenceArray<Nodo>(c.length() * 2);
+            int mascara = nuevas.length() - 1;
+            for (int i = 0; i < c.length(); i++)
+                for (Nodo n = c.get(i); n != null; n = n.siguiente) {
+                    int indice = n.dispersion & mascara;
+                    nuevas.set(indice, new Nodo(n.dispersion, n.llave, n.valor,
+                                                nuevas.get(indice)));
+                }
+            cubetas = nuevas;
+        }
+    }
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /* En qué segmento estamos. */
+        private int segmento;
+        /* Las cubetas del segmento, como estaban al llegar a él. */
+        private AtomicReferenceArray<Nodo> cubetas;
+        /* La siguiente cubeta a revisar. */
+        private int indice;
+        /* El siguiente nodo a regresar. */
+        private Nodo proximo;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            segmento = -1;
+            avanza();
+        }
+
+        /* Nos dice si hay un siguiente nodo. */
+        public boolean hasNext() {
+            return proximo != null;
+        }
+
+        /* Regresa el siguiente nodo. */
+        public Nodo siguiente() {
+            if (proximo == null)
+                throw new NoSuchElementException("No hay siguiente.");
+            Nodo nodo = proximo;
+            avanza();
+            return nodo;
+        }
+
+        /* Mueve proximo al siguiente nodo, o a null si ya no hay. */
+        private void avanza() {
+            if (proximo != null && (proximo = proximo.siguiente) != null)
+                return;
+            while (proximo == null) {
+                while (cubetas == null || indice == cubetas.length()) {
+                    if (++segmento == segmentos.length)
+                        return;
+                    cubetas = segmentos[segmento].cubetas;
+                    indice = 0;
+                }
+                proximo = cubetas.get(indice++);
+            }
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador
+            implements Iterator<K> {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public K next() {
+            return siguiente().llave;
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador
+            implements Iterator<V> {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public V next() {
+            return siguiente().valor;
+        }
+    }
+
+    /** Máxima carga permitida por cada segmento del diccionario. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /** Número de segmentos predeterminado. */
+    public static final int SEGMENTOS = 16;
+
+    /* Capacidad mínima de cada segmento. */
+    private static final int MINIMA_CAPACIDAD = 16;
+
+    /* Capacidad inicial predeterminada de todo el diccionario. */
+    private static final int CAPACIDAD = 64;
+
+    /* Dispersor. */
+    private final Dispersor<K> dispersor;
+    /* Los segmentos. */
+    private final Segmento[] segmentos;
+    /* Cuántos bits recorrer la dispersión para obtener el segmento. */
+    private final int corrimiento;
+
+    /**
+     * Construye un diccionario con una capacidad inicial, dispersor y número
+     * de segmentos predeterminados.
+     */
+    public DiccionarioConcurrente() {
+        this(CAPACIDAD, (K llave) -> llave.hashCode(), SEGMENTOS);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial definida por el
+     * usuario, y un dispersor y número de segmentos predeterminados.
+     *
+     * @param capacidad la capacidad a utilizar.
+     */
+    public DiccionarioConcurrente(int capacidad) {
+        this(capacidad, (K llave) -> llave.hashCode(), SEGMENTOS);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial y número de
+     * segmentos predeterminados, y un dispersor definido por el usuario.
+     *
+     * @param dispersor el dispersor a utilizar.
+     */
+    public DiccionarioConcurrente(Dispersor<K> dispersor) {
+        this(CAPACIDAD, dispersor, SEGMENTOS);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial y un dispersor
+     * definidos por el usuario, y un número de segmentos predeterminado.
+     *
+     * @param capacidad la capacidad inicial del diccionario.
+     * @param dispersor el dispersor a utilizar.
+     */
+    public DiccionarioConcurrente(int capacidad, Dispersor<K> dispersor) {
+        this(capacidad, dispersor, SEGMENTOS);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial, un dispersor y un
+     * número de segmentos definidos por el usuario. El número de segmentos es
+     * el número de hilos que pueden modificar el diccionario al mismo tiempo;
+     * se redondea a la siguiente potencia de dos.
+     *
+     * @param capacidad la capacidad inicial del diccionario.
+     * @param dispersor el dispersor a utilizar.
+     * @param segmentos el número de segmentos.
+     * @throws IllegalArgumentException si el número de segmentos no es
+     *         positivo.
+     */
+    @SuppressWarnings("unchecked")
+    public DiccionarioConcurrente(int capacidad, Dispersor<K> dispersor,
+                                  int segmentos) {
+        if (segmentos < 1)
+            throw new IllegalArgumentException("Se necesita al menos un " +
+                                               "segmento.");
+        this.dispersor = dispersor;
+        int n = siguientePow2(segmentos);
+        corrimiento = 32 - Integer.numberOfTrailingZeros(n);
+        int porSegmento = siguientePow2(capacidad / n);
+        if (porSegmento < MINIMA_CAPACIDAD)
+            porSegmento = MINIMA_CAPACIDAD;
+        this.segmentos = (Segmento[]) Array.newInstance(Segmento.class, n);
+        for (int i = 0; i < n; i++)
+            this.segmentos[i] = new Segmento(porSegmento);
+    }
+
+    /* Obtiene la potencia de dos mayor o igual a x. */
+    private static int siguientePow2(int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+
+    /*
+     * Dispersa la llave y mezcla sus bits: los bits altos escogen el segmento
+     * y los bajos la cubeta, así que todos tienen que depender de la llave.
+     */
+    private int dispersa(K llave) {
+        return Dispersores.mezclaInt(dispersor.dispersa(llave));
+    }
+
+    /* Regresa el segmento que le corresponde a la dispersión. */
+    private Segmento segmento(int dispersion) {
+        return corrimiento == 32 ? segmentos[0]
+            : segmentos[dispersion >>> corrimiento];
+    }
+
+    /* Lanza una excepción si la llave es nula. */
+    private void verificaLlave(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("La llave no puede ser null.");
+    }
+
+    /* Lanza una excepción si el valor es nulo. */
+    private void verificaValor(V valor) {
+        if (valor == null)
+            throw new IllegalArgumentException("El valor no puede ser null.");
+    }
+
+    /* Regresa null o el nodo con la llave dada, sin usar candados. */
+    private Nodo buscador(K llave) {
+        int dispersion = dispersa(llave);
+        return segmento(dispersion).busca(dispersion, llave);
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        verificaLlave(llave);
+        verificaValor(valor);
+        int dispersion = dispersa(llave);
+        segmento(dispersion).agrega(dispersion, llave, valor, true);
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada. No
+     * bloquea al diccionario.
+     *
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException   si la llave no está en el diccionario.
+     */
+    public V get(K llave) {
+        verificaLlave(llave);
+        Nodo nodo = buscador(llave);
+        if (nodo == null)
+            throw new NoSuchElementException("No hay entrada con tal llave.");
+        return nodo.valor;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada, o el
+     * valor por omisión si la llave no está en el diccionario. No bloquea al
+     * diccionario.
+     *
+     * @param llave la llave para buscar el valor.
+     * @param porOmision el valor a regresar si la llave no está.
+     * @return el valor correspondiente a la llave, o <code>porOmision</code>
+     *         si la llave es nula o no está en el diccionario.
+     */
+    public V getOrDefault(K llave, V porOmision) {
+        if (llave == null)
+            return porOmision;
+        Nodo nodo = buscador(llave);
+        return nodo != null ? nodo.valor : porOmision;
+    }
+
+    /**
+     * Agrega el valor al diccionario sólo si la llave no está en él. La
+     * verificación y la inserción son atómicas.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @return el valor que ya estaba asociado a la llave, o <code>null</code>
+     *         si no había ninguno y se agregó el valor recibido.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public V putIfAbsent(K llave, V valor) {
+        verificaLlave(llave);
+        verificaValor(valor);
+        int dispersion = dispersa(llave);
+        return segmento(dispersion).agrega(dispersion, llave, valor, false);
+    }
+
+    /**
+     * Regresa el valor asociado a la llave. Si la llave no está en el
+     * diccionario, computa el valor con la acción recibida y lo agrega. La
+     * acción se ejecuta a lo más una vez por llave ausente, con el segmento
+     * de la llave bloqueado, así que debe de ser breve y no debe de usar el
+     * diccionario.
+     *
+     * @param llave la llave para buscar el valor.
+     * @param accion la acción que computa el valor si la llave no está.
+     * @return el valor que estaba asociado a la llave, o el valor computado.
+     * @throws IllegalArgumentException si la llave o el valor computado son
+     *         nulos.
+     */
+    public V computeIfAbsent(K llave, AccionCache<V> accion) {
+        verificaLlave(llave);
+        int dispersion = dispersa(llave);
+        Segmento segmento = segmento(dispersion);
+        Nodo nodo = segmento.busca(dispersion, llave);
+        if (nodo != null)
+            return nodo.valor;
+        return segmento.computa(dispersion, llave, accion);
+    }
+
+    /**
+     * Combina el valor recibido con el valor asociado a la llave. Si la llave
+     * no está en el diccionario, se agrega con el valor recibido; si está, se
+     * asocia con el resultado de combinar su valor con el recibido. Si la
+     * combinación es <code>null</code>, la llave se elimina del diccionario.
+     * La operación es atómica; el combinador se ejecuta con el segmento de la
+     * llave bloqueado.
+     *
+     * @param llave la llave para combinar el valor.
+     * @param valor el valor a combinar.
+     * @param combinador el combinador del valor viejo con el nuevo.
+     * @return el nuevo valor asociado a la llave, o <code>null</code> si la
+     *         llave fue eliminada.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public V merge(K llave, V valor, Combinador<V> combinador) {
+        verificaLlave(llave);
+        verificaValor(valor);
+        int dispersion = dispersa(llave);
+        return segmento(dispersion).combina(dispersion, llave, valor,
+                                            combinador);
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario. No bloquea al
+     * diccionario.
+     *
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return llave != null ? buscador(llave) != null : false;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     *
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException   si la llave no se encuentra en
+     *                                  el diccionario.
+     */
+    public void elimina(K llave) {
+        if (remove(llave) == null)
+            throw new NoSuchElementException("No se encuentra esa llave");
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada, y
+     * lo regresa.
+     *
+     * @param llave la llave para buscar el valor a eliminar.
+     * @return el valor que estaba asociado a la llave, o <code>null</code> si
+     *         la llave no estaba en el diccionario.
+     * @throws IllegalArgumentException si la llave es nula.
+     */
+    public V remove(K llave) {
+        verificaLlave(llave);
+        int dispersion = dispersa(llave);
+        return segmento(dispersion).elimina(dispersion, llave);
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario. Si el diccionario se
+     * modifica mientras se cuentan, el resultado es aproximado.
+     *
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    public int colisiones() {
+        int n = 0;
+        for (Segmento segmento : segmentos) {
+            AtomicReferenceArray<Nodo> c = segmento.cubetas;
+            for (int i = 0; i < c.length(); i++)
+                if (c.get(i) != null && c.get(i).siguiente != null)
+                    n++;
+        }
+        return n;
+    }
+
+    /**
+     * Nos dice el máximo número de colisiones para una misma llave que tenemos
+     * en el diccionario. Si el diccionario se modifica mientras se cuentan, el
+     * resultado es aproximado.
+     *
+     * @return el máximo número de colisiones para una misma llave.
+     */
+    public int colisionMaxima() {
+        int maxima = 0;
+        for (Segmento segmento : segmentos) {
+            AtomicReferenceArray<Nodo> c = segmento.cubetas;
+            for (int i = 0; i < c.length(); i++) {
+                int n = -1;
+                for (Nodo nodo = c.get(i); nodo != null; nodo = nodo.siguiente)
+                    n++;
+                if (n > maxima)
+                    maxima = n;
+            }
+        }
+        return maxima;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     *
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        int cubetas = 0;
+        for (Segmento segmento : segmentos)
+            cubetas += segmento.cubetas.length();
+        return (double) getElementos() / (double) cubetas;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario. Si el diccionario se
+     * modifica mientras se cuentan, el resultado es aproximado.
+     *
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        int n = 0;
+        for (Segmento segmento : segmentos)
+            n += segmento.elementos;
+        return n;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     *
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        for (Segmento segmento : segmentos)
+            if (segmento.elementos != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío. Los segmentos se
+     * limpian uno por uno.
+     */
+    public void limpia() {
+        for (Segmento segmento : segmentos)
+            segmento.limpia();
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     *
+     * @return una representación en cadena del diccionario.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        Iterador iterador = new Iterador();
+        if (iterador.hasNext())
+            sb.append(' ');
+        while (iterador.hasNext()) {
+            Nodo nodo = iterador.siguiente();
+            sb.append('\'');
+            sb.append(nodo.llave.toString());
+            sb.append('\'').append(':').append(' ').append('\'');
+            sb.append(nodo.valor.toString());
+            sb.append('\'').append(',').append(' ');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Regresa un iterador débilmente consistente para iterar las llaves del
+     * diccionario. El diccionario se itera sin ningún orden específico.
+     *
+     * @return un iterador para iterar las llaves del diccionario.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador débilmente consistente para iterar los valores del
+     * diccionario. El diccionario se itera sin ningún orden específico.
+     *
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
@@ -0,0 +1,427 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * <p>Clase para diccionarios de enteros a enteros. Tiene los mismos métodos
+ * que {@link Diccionario}, pero guarda las llaves y los valores en arreglos
+ * de <code>int</code>, así que agregar y buscar no empacan enteros ni crean
+ * objetos.</p>
+ *
+ * <p>Las colisiones se resuelven con sondeo lineal, como en {@link
+ * DiccionarioAbierto}. Las llaves se dispersan con {@link
+ * Dispersores#mezclaInt}, para que llaves consecutivas no queden agrupadas en
+ * el arreglo.</p>
+ */
+public class DiccionarioIntInt implements Iterable<Integer> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /*
+         * El índice de la siguiente entrada; -1 es la llave 0, que no se
+         * guarda en el arreglo.
+         */
+        private int proximo;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            proximo = tieneCero ? -1 : avanza(0);
+        }
+
+        /* Nos dice si hay una siguiente entrada. */
+        public boolean hasNext() {
+            return proximo < llaves.length;
+        }
+
+        /* Regresa el índice de la siguiente entrada. */
+        public int siguiente() {
+            if (!hasNext())
+                throw new NoSuchElementException("No hay siguiente.");
+            int i = proximo;
+            proximo = avanza(i + 1);
+            return i;
+        }
+
+        /* Regresa el primer índice ocupado a partir de i. */
+        private int avanza(int i) {
+            while (i < llaves.length && llaves[i] == LIBRE)
+                i++;
+            return i;
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador
+            implements PrimitiveIterator.OfInt {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public int nextInt() {
+            int i = siguiente();
+            return i == -1 ? LIBRE : llaves[i];
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador
+            implements PrimitiveIterator.OfInt {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public int nextInt() {
+            int i = siguiente();
+            return i == -1 ? valorCero : valores[i];
+        }
+    }
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* La llave que marca un índice libre. */
+    private static final int LIBRE = 0;
+
+    /* Las llaves; LIBRE indica un índice libre. */
+    private int[] llaves;
+    /* Los valores, paralelos a las llaves. */
+    private int[] valores;
+    /* Si la llave LIBRE está en el diccionario. */
+    private boolean tieneCero;
+    /* El valor de la llave LIBRE. */
+    private int valorCero;
+    /* Número de valores. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario con una capacidad inicial predeterminada.
+     */
+    public DiccionarioIntInt() {
+        this(MINIMA_CAPACIDAD);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial definida por el
+     * usuario.
+     *
+     * @param capacidad la capacidad a utilizar.
+     */
+    public DiccionarioIntInt(int capacidad) {
+        if (capacidad < MINIMA_CAPACIDAD)
+            nuevosArreglos(MINIMA_CAPACIDAD);
+        else
+            nuevosArreglos(siguientePow2(capacidad));
+    }
+
+    /* Obtiene la potencia de dos mayor más cercana a x. */
+    private int siguientePow2(int x) {
+        return Integer.highestOneBit(x - 1) << 2;
+    }
+
+    /* Crea los arreglos paralelos. */
+    private void nuevosArreglos(int n) {
+        llaves = new int[n];
+        valores = new int[n];
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     */
+    public void agrega(int llave, int valor) {
+        if (llave == LIBRE) {
+            valorCero = valor;
+            if (tieneCero)
+                return;
+            tieneCero = true;
+            cuenta();
+            return;
+        }
+        int mascara = llaves.length - 1;
+        int i = Dispersores.mezclaInt(llave) & mascara;
+        while (llaves[i] != LIBRE) {
+            if (llaves[i] == llave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        llaves[i] = llave;
+        valores[i] = valor;
+        cuenta();
+    }
+
+    /* Cuenta un elemento nuevo, y crece si se pasa de la carga máxima. */
+    private void cuenta() {
+        elementos++;
+        if (elementos / (double) llaves.length > MAXIMA_CARGA)
+            crece();
+    }
+
+    /* Hace crecer los arreglos; las llaves ya son únicas. */
+    private void crece() {
+        int[] viejasLlaves = llaves;
+        int[] viejosValores = valores;
+        nuevosArreglos(viejasLlaves.length * 2);
+        int mascara = llaves.length - 1;
+        for (int j = 0; j < viejasLlaves.length; j++) {
+            if (viejasLlaves[j] == LIBRE)
+                continue;
+            int i = Dispersores.mezclaInt(viejasLlaves[j]) & mascara;
+            while (llaves[i] != LIBRE)
+                i = (i + 1) & mascara;
+            llaves[i] = viejasLlaves[j];
+            valores[i] = viejosValores[j];
+        }
+    }
+
+    /*
+     * Regresa el índice de la llave, -1 si es la llave LIBRE y está, o -2 si
+     * no está.
+     */
+    private int indice(int llave) {
+        if (llave == LIBRE)
+            return tieneCero ? -1 : -2;
+        int mascara = llaves.length - 1;
+        int i = Dispersores.mezclaInt(llave) & mascara;
+        for (; llaves[i] != LIBRE; i = (i + 1) & mascara)
+            if (llaves[i] == llave)
+                return i;
+        return -2;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     *
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public int get(int llave) {
+        int i = indice(llave);
+        if (i == -2)
+            throw new NoSuchElementException("No hay entrada con tal llave.");
+        return i == -1 ? valorCero : valores[i];
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada, o el
+     * valor por omisión si la llave no está en el diccionario.
+     *
+     * @param llave la llave para buscar el valor.
+     * @param porOmision el valor a regresar si la llave no está.
+     * @return el valor correspondiente a la llave, o <code>porOmision</code>
+     *         si la llave no está en el diccionario.
+     */
+    public int getOrDefault(int llave, int porOmision) {
+        int i = indice(llave);
+        if (i == -2)
+            return porOmision;
+        return i == -1 ? valorCero : valores[i];
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     *
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int llave) {
+        return indice(llave) != -2;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     *
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en el
+     *                                diccionario.
+     */
+    public void elimina(int llave) {
+        int i = indice(llave);
+        if (i == -2)
+            throw new NoSuchElementException("No se encuentra esa llave");
+        if (i == -1)
+            tieneCero = false;
+        else
+            recorreHaciaAtras(i);
+        elementos--;
+    }
+
+    /*
+     * Vacía el índice i y recorre hacia atrás las entradas siguientes del
+     * bloque que ya no serían alcanzables desde su índice original.
+     */
+    private void recorreHaciaAtras(int i) {
+        int mascara = llaves.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (llaves[j] == LIBRE)
+                break;
+            int k = Dispersores.mezclaInt(llaves[j]) & mascara;
+            if (i <= j ? (i < k && k <= j) : (i < k || k <= j))
+                continue;
+            llaves[i] = llaves[j];
+            valores[i] = valores[j];
+            i = j;
+        }
+        llaves[i] = LIBRE;
+    }
+
+    /* Cuenta cuántas llaves le corresponden originalmente a cada índice. */
+    private int[] cuentaPorIndice() {
+        int[] cuentas = new int[llaves.length];
+        int mascara = llaves.length - 1;
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != LIBRE)
+                cuentas[Dispersores.mezclaInt(llaves[i]) & mascara]++;
+        return cuentas;
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario. Al igual que en
+     * {@link Diccionario}, se cuentan los índices a los que les corresponde
+     * más de una llave.
+     *
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    public int colisiones() {
+        int n = 0;
+        for (int c : cuentaPorIndice())
+            if (c > 1)
+                n++;
+        return n;
+    }
+
+    /**
+     * Nos dice el máximo número de colisiones para una misma llave que tenemos
+     * en el diccionario.
+     *
+     * @return el máximo número de colisiones para una misma llave.
+     */
+    public int colisionMaxima() {
+        int n = 0;
+        for (int c : cuentaPorIndice())
+            n = Math.max(n, c - 1);
+        return n;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     *
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double) elementos / (double) llaves.length;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     *
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     *
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        nuevosArreglos(MINIMA_CAPACIDAD);
+        tieneCero = false;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     *
+     * @return una representación en cadena del diccionario.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        if (elementos > 0)
+            sb.append(' ');
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            int i = iterador.siguiente();
+            sb.append('\'').append(i == -1 ? LIBRE : llaves[i]);
+            sb.append('\'').append(':').append(' ').append('\'');
+            sb.append(i == -1 ? valorCero : valores[i]);
+            sb.append('\'').append(',').append(' ');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     *
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         DiccionarioIntInt, y tiene las mismas llaves asociadas a los
+     *         mismos valores.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        DiccionarioIntInt d = (DiccionarioIntInt) o;
+        if (elementos != d.elementos)
+            return false;
+        if (tieneCero && (!d.tieneCero || d.valorCero != valorCero))
+            return false;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] == LIBRE)
+                continue;
+            int j = d.indice(llaves[i]);
+            if (j == -2 || d.valores[j] != valores[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves del diccionario. El
+     * diccionario se itera sin ningún orden específico; {@link
+     * PrimitiveIterator.OfInt#nextInt} regresa las llaves sin empacarlas.
+     *
+     * @return un iterador para iterar las llaves del diccionario.
+     */
+    public PrimitiveIterator.OfInt iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico; {@link
+     * PrimitiveIterator.OfInt#nextInt} regresa los valores sin empacarlos.
+     *
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new IteradorValores();
+    }
+}
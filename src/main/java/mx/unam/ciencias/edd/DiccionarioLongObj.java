@@ -0,0 +1,447 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * <p>Clase para diccionarios de enteros largos a objetos. Tiene los mismos
+ * métodos que {@link Diccionario}, pero guarda las llaves en un arreglo de
+ * <code>long</code>, así que agregar y buscar no empacan las llaves ni crean
+ * objetos.</p>
+ *
+ * <p>Las colisiones se resuelven con sondeo lineal, como en {@link
+ * DiccionarioAbierto}. Las llaves se dispersan con {@link
+ * Dispersores#mezclaLong}, para que llaves consecutivas no queden agrupadas en
+ * el arreglo.</p>
+ */
+public class DiccionarioLongObj<V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /* El índice de la siguiente entrada. */
+        private int proximo;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            proximo = avanza(0);
+        }
+
+        /* Nos dice si hay una siguiente entrada. */
+        public boolean hasNext() {
+            return proximo < llaves.length;
+        }
+
+        /* Regresa el índice de la siguiente entrada. */
+        public int siguiente() {
+            if (!hasNext())
+                throw new NoSuchElementException("No hay siguiente.");
+            int i = proximo;
+            proximo = avanza(i + 1);
+            return i;
+        }
+
+        /* Regresa el primer índice ocupado a partir de i. */
+        private int avanza(int i) {
+            while (i < llaves.length && valores[i] == null)
+                i++;
+            return i;
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador
+            implements PrimitiveIterator.OfLong {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public long nextLong() {
+            return llaves[siguiente()];
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador
+            implements Iterator<V> {
+
+        /* Regresa el siguiente elemento. */
+        @Override
+        public V next() {
+            return valores[siguiente()];
+        }
+    }
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* Las llaves. */
+    private long[] llaves;
+    /*
+     * Los valores, paralelos a las llaves; null indica un índice libre, así
+     * que cualquier long puede ser llave.
+     */
+    private V[] valores;
+    /* Número de valores. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario con una capacidad inicial predeterminada.
+     */
+    public DiccionarioLongObj() {
+        this(MINIMA_CAPACIDAD);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial definida por el
+     * usuario.
+     *
+     * @param capacidad la capacidad a utilizar.
+     */
+    public DiccionarioLongObj(int capacidad) {
+        if (capacidad < MINIMA_CAPACIDAD)
+            nuevosArreglos(MINIMA_CAPACIDAD);
+        else
+            nuevosArreglos(siguientePow2(capacidad));
+    }
+
+    /* Obtiene la potencia de dos mayor más cercana a x. */
+    private int siguientePow2(int x) {
+        return Integer.highestOneBit(x - 1) << 2;
+    }
+
+    /*
+     * Crea los arreglos paralelos. La conversión es segura porque sólo
+     * guardamos instancias de V en el arreglo de valores.
+     */
+    @SuppressWarnings("unchecked")
+    private void nuevosArreglos(int n) {
+        llaves = new long[n];
+        valores = (V[]) new Object[n];
+    }
+
+    /* Lanza una excepción si el valor es nulo. */
+    private void verificaValor(V valor) {
+        if (valor == null)
+            throw new IllegalArgumentException("El valor no puede ser null.");
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si el valor es nulo.
+     */
+    public void agrega(long llave, V valor) {
+        verificaValor(valor);
+        mete(llave, valor, true);
+    }
+
+    /**
+     * Agrega el valor al diccionario sólo si la llave no está en él. La llave
+     * se busca una sola vez.
+     *
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @return el valor que ya estaba asociado a la llave, o <code>null</code>
+     *         si no había ninguno y se agregó el valor recibido.
+     * @throws IllegalArgumentException si el valor es nulo.
+     */
+    public V putIfAbsent(long llave, V valor) {
+        verificaValor(valor);
+        return mete(llave, valor, false);
+    }
+
+    /*
+     * Agrega el valor con la llave dada. Si la llave ya estaba, reemplaza su
+     * valor sólo si reemplaza es true. Regresa el valor que ya estaba
+     * asociado a la llave, o null.
+     */
+    private V mete(long llave, V valor, boolean reemplaza) {
+        int mascara = llaves.length - 1;
+        int i = Dispersores.mezclaLong(llave) & mascara;
+        while (valores[i] != null) {
+            if (llaves[i] == llave) {
+                V viejo = valores[i];
+                if (reemplaza)
+                    valores[i] = valor;
+                return viejo;
+            }
+            i = (i + 1) & mascara;
+        }
+        llaves[i] = llave;
+        valores[i] = valor;
+        elementos++;
+        if (elementos / (double) llaves.length > MAXIMA_CARGA)
+            crece();
+        return null;
+    }
+
+    /* Hace crecer los arreglos; las llaves ya son únicas. */
+    private void crece() {
+        long[] viejasLlaves = llaves;
+        V[] viejosValores = valores;
+        nuevosArreglos(viejasLlaves.length * 2);
+        int mascara = llaves.length - 1;
+        for (int j = 0; j < viejasLlaves.length; j++) {
+            if (viejosValores[j] == null)
+                continue;
+            int i = Dispersores.mezclaLong(viejasLlaves[j]) & mascara;
+            while (valores[i] != null)
+                i = (i + 1) & mascara;
+            llaves[i] = viejasLlaves[j];
+            valores[i] = viejosValores[j];
+        }
+    }
+
+    /* Regresa el índice de la llave, o -1 si no está. */
+    private int indice(long llave) {
+        int mascara = llaves.length - 1;
+        int i = Dispersores.mezclaLong(llave) & mascara;
+        for (; valores[i] != null; i = (i + 1) & mascara)
+            if (llaves[i] == llave)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     *
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public V get(long llave) {
+        int i = indice(llave);
+        if (i == -1)
+            throw new NoSuchElementException("No hay entrada con tal llave.");
+        return valores[i];
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada, o el
+     * valor por omisión si la llave no está en el diccionario.
+     *
+     * @param llave la llave para buscar el valor.
+     * @param porOmision el valor a regresar si la llave no está.
+     * @return el valor correspondiente a la llave, o <code>porOmision</code>
+     *         si la llave no está en el diccionario.
+     */
+    public V getOrDefault(long llave, V porOmision) {
+        int i = indice(llave);
+        return i != -1 ? valores[i] : porOmision;
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     *
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(long llave) {
+        return indice(llave) != -1;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     *
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en el
+     *                                diccionario.
+     */
+    public void elimina(long llave) {
+        if (remove(llave) == null)
+            throw new NoSuchElementException("No se encuentra esa llave");
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada, y
+     * lo regresa. La llave se busca una sola vez.
+     *
+     * @param llave la llave para buscar el valor a eliminar.
+     * @return el valor que estaba asociado a la llave, o <code>null</code> si
+     *         la llave no estaba en el diccionario.
+     */
+    public V remove(long llave) {
+        int i = indice(llave);
+        if (i == -1)
+            return null;
+        V valor = valores[i];
+        recorreHaciaAtras(i);
+        elementos--;
+        return valor;
+    }
+
+    /*
+     * Vacía el índice i y recorre hacia atrás las entradas siguientes del
+     * bloque que ya no serían alcanzables desde su índice original.
+     */
+    private void recorreHaciaAtras(int i) {
+        int mascara = llaves.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (valores[j] == null)
+                break;
+            int k = Dispersores.mezclaLong(llaves[j]) & mascara;
+            if (i <= j ? (i < k && k <= j) : (i < k || k <= j))
+                continue;
+            llaves[i] = llaves[j];
+            valores[i] = valores[j];
+            i = j;
+        }
+        valores[i] = null;
+    }
+
+    /* Cuenta cuántas llaves le corresponden originalmente a cada índice. */
+    private int[] cuentaPorIndice() {
+        int[] cuentas = new int[llaves.length];
+        int mascara = llaves.length - 1;
+        for (int i = 0; i < llaves.length; i++)
+            if (valores[i] != null)
+                cuentas[Dispersores.mezclaLong(llaves[i]) & mascara]++;
+        return cuentas;
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario. Al igual que en
+     * {@link Diccionario}, se cuentan los índices a los que les corresponde
+     * más de una llave.
+     *
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    public int colisiones() {
+        int n = 0;
+        for (int c : cuentaPorIndice())
+            if (c > 1)
+                n++;
+        return n;
+    }
+
+    /**
+     * Nos dice el máximo número de colisiones para una misma llave que tenemos
+     * en el diccionario.
+     *
+     * @return el máximo número de colisiones para una misma llave.
+     */
+    public int colisionMaxima() {
+        int n = 0;
+        for (int c : cuentaPorIndice())
+            n = Math.max(n, c - 1);
+        return n;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     *
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double) elementos / (double) llaves.length;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     *
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     *
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        nuevosArreglos(MINIMA_CAPACIDAD);
+        elementos = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     *
+     * @return una representación en cadena del diccionario.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        if (elementos > 0)
+            sb.append(' ');
+        for (int i = 0; i < llaves.length; i++) {
+            if (valores[i] == null)
+                continue;
+            sb.append('\'').append(llaves[i]);
+            sb.append('\'').append(':').append(' ').append('\'');
+            sb.append(valores[i].toString());
+            sb.append('\'').append(',').append(' ');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     *
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         DiccionarioLongObj, y tiene las mismas llaves asociadas a los
+     *         mismos valores.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked")
+        DiccionarioLongObj<V> d = (DiccionarioLongObj<V>) o;
+        if (elementos != d.elementos)
+            return false;
+        for (int i = 0; i < llaves.length; i++) {
+            if (valores[i] == null)
+                continue;
+            int j = d.indice(llaves[i]);
+            if (j == -1 || !d.valores[j].equals(valores[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves del diccionario. El
+     * diccionario se itera sin ningún orden específico; {@link
+     * PrimitiveIterator.OfLong#nextLong} regresa las llaves sin empacarlas.
+     *
+     * @return un iterador para iterar las llaves del diccionario.
+     */
+    public PrimitiveIterator.OfLong iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     *
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
@@ -1,10 +1,75 @@
 package mx.unam.ciencias.edd;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Clase para métodos estáticos con dispersores de bytes.
  */
 public class Dispersores {
 
+    /*
+     * Vistas de arreglos y buffers de bytes como arreglos de int o long, para
+     * leer una palabra completa con un solo acceso a memoria, sin importar
+     * su alineación.
+     */
+    private static final VarHandle INT_LE_ARREGLO =
+        MethodHandles.byteArrayViewVarHandle(int[].class,
+                                             ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_LE_BUFFER =
+        MethodHandles.byteBufferViewVarHandle(int[].class,
+                                              ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE_ARREGLO =
+        MethodHandles.byteArrayViewVarHandle(long[].class,
+                                             ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_BE_BUFFER =
+        MethodHandles.byteBufferViewVarHandle(long[].class,
+                                              ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE_ARREGLO =
+        MethodHandles.byteArrayViewVarHandle(long[].class,
+                                             ByteOrder.LITTLE_ENDIAN);
+
+    /* Constantes de xxHash32. */
+    private static final int XXH32_P1 = 0x9E37_79B1;
+    private static final int XXH32_P2 = 0x85EB_CA77;
+    private static final int XXH32_P3 = 0xC2B2_AE3D;
+    private static final int XXH32_P4 = 0x27D4_EB2F;
+    private static final int XXH32_P5 = 0x1656_67B1;
+
+    /* Constantes de xxHash64. */
+    private static final long XXH64_P1 = 0x9E37_79B1_85EB_CA87L;
+    private static final long XXH64_P2 = 0xC2B2_AE3D_27D4_EB4FL;
+    private static final long XXH64_P3 = 0x1656_67B1_9E37_79F9L;
+    private static final long XXH64_P4 = 0x85EB_CA77_C2B2_AE63L;
+    private static final long XXH64_P5 = 0x27D4_EB2F_1656_67C5L;
+
+    /* Los secretos por omisión de wyhash. */
+    private static final long WY0 = 0x2d35_8dcc_aa6c_78a5L;
+    private static final long WY1 = 0x8bb8_4b93_962e_acc9L;
+    private static final long WY2 = 0x4b33_a62e_d433_d4a3L;
+    private static final long WY3 = 0x4d5a_2da5_1de1_aa47L;
+
+    /*
+     * Murmur3, xxHash, wyhash y SipHash no se pueden calcular byte por byte,
+     * así que las cadenas se codifican en UTF-8 en un arreglo por hilo, que
+     * se reutiliza mientras no pase de este tamaño.
+     */
+    private static final int MAXIMO_REUTILIZABLE = 1 << 16;
+
+    /* Un arreglo reutilizable con la codificación UTF-8 de una cadena. */
+    private static class Codificacion {
+        /* Los bytes; sólo son válidos los primeros longitud. */
+        private byte[] bytes = new byte[64];
+        /* El número de bytes de la codificación. */
+        private int longitud;
+    }
+
+    /* La codificación de cada hilo. */
+    private static final ThreadLocal<Codificacion> CODIFICACION =
+        ThreadLocal.withInitial(Codificacion::new);
+
     /* Constructor privado para evitar instanciación. */
     private Dispersores() {}
 
@@ -14,9 +79,78 @@ public class Dispersores {
      * @return la dispersión de XOR de la llave.
      */
     public static int dispersaXOR(byte[] llave) {
+        return xor(llave, null, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión XOR para un subarreglo.
+     * @param llave el arreglo con la llave a dispersar.
+     * @param inicio el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de XOR de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está en el arreglo.
+     */
+    public static int dispersaXOR(byte[] llave, int inicio, int longitud) {
+        verificaRango(llave.length, inicio, longitud);
+        return xor(llave, null, inicio, inicio + longitud);
+    }
+
+    /**
+     * Función de dispersión XOR para los bytes restantes de un buffer. La
+     * posición del buffer no cambia.
+     * @param llave el buffer con la llave a dispersar.
+     * @return la dispersión de XOR de la llave.
+     */
+    public static int dispersaXOR(ByteBuffer llave) {
+        if (llave.hasArray())
+            return dispersaXOR(llave.array(),
+                               llave.arrayOffset() + llave.position(),
+                               llave.remaining());
+        return xor(null, llave, llave.position(), llave.limit());
+    }
+
+    /**
+     * Función de dispersión XOR para la codificación UTF-8 de una secuencia de
+     * caracteres. Regresa lo mismo que dispersar los bytes UTF-8 de la
+     * secuencia, pero los codifica conforme los dispersa, sin crear arreglos.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de XOR de la llave.
+     */
+    public static int dispersaXOR(CharSequence llave) {
+        int dispersion = 0, palabra = 0, k = 0;
+        int i = 0;
+        while (i < llave.length()) {
+            int u = utf8(llave, i);
+            int n = bytesUTF8(u);
+            i += n == 4 ? 2 : 1;
+            for (; n > 0; n--, u >>>= 8) {
+                palabra |= (u & 0xFF) << (8*(3-k));
+                if (++k == 4) {
+                    dispersion ^= palabra;
+                    palabra = k = 0;
+                }
+            }
+        }
+        return dispersion ^ palabra;
+    }
+
+    /*
+     * Función de dispersión XOR de los bytes en [inicio, fin). Leemos 8 bytes
+     * a la vez en big endian: el XOR de sus dos mitades es el XOR de las dos
+     * palabras de 4 bytes que contienen.
+     */
+    private static int xor(byte[] arreglo, ByteBuffer buffer,
+                           int inicio, int fin) {
         int dispersion = 0;
-        for (int i = 0; i < llave.length; i+=4)
-            dispersion ^= enInt(i, llave, false);
+        int i = inicio;
+        for (; fin - i >= 8; i += 8) {
+            long palabras = arreglo != null
+                ? (long)LONG_BE_ARREGLO.get(arreglo, i)
+                : (long)LONG_BE_BUFFER.get(buffer, i);
+            dispersion ^= (int)(palabras >>> 32) ^ (int)palabras;
+        }
+        for (; i < fin; i += 4)
+            dispersion ^= enInt(arreglo, buffer, i, fin, false);
         return dispersion;
     }
 
@@ -26,17 +160,112 @@ public class Dispersores {
      * @return la dispersión de Bob Jenkins de la llave.
      */
     public static int dispersaBJ(byte[] llave) {
+        return bj(llave, null, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins para un subarreglo.
+     * @param llave el arreglo con la llave a dispersar.
+     * @param inicio el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de Bob Jenkins de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está en el arreglo.
+     */
+    public static int dispersaBJ(byte[] llave, int inicio, int longitud) {
+        verificaRango(llave.length, inicio, longitud);
+        return bj(llave, null, inicio, longitud);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins para los bytes restantes de un
+     * buffer. La posición del buffer no cambia.
+     * @param llave el buffer con la llave a dispersar.
+     * @return la dispersión de Bob Jenkins de la llave.
+     */
+    public static int dispersaBJ(ByteBuffer llave) {
+        if (llave.hasArray())
+            return dispersaBJ(llave.array(),
+                              llave.arrayOffset() + llave.position(),
+                              llave.remaining());
+        return bj(null, llave, llave.position(), llave.remaining());
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins para la codificación UTF-8 de una
+     * secuencia de caracteres. Regresa lo mismo que dispersar los bytes UTF-8
+     * de la secuencia, pero los codifica conforme los dispersa, sin crear
+     * arreglos.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de Bob Jenkins de la llave.
+     */
+    public static int dispersaBJ(CharSequence llave) {
         int a, b, c;
         a = b = 0x9E37_79B9;
         c = -1;
 
-        for (int i = 0; llave.length - i >= 0; i += 12) {
-            boolean ultima = llave.length - i < 12;
+        int i = 0, u = 0, n = 0, longitud = 0;
+        boolean ultima = false;
+        while (!ultima) {
+            /* Juntamos el siguiente bloque de hasta 12 bytes. */
+            int pa = 0, pb = 0, pc = 0;
+            int k = 0;
+            for (; k < 12; k++, n--, u >>>= 8) {
+                if (n == 0) {
+                    if (i == llave.length())
+                        break;
+                    u = utf8(llave, i);
+                    n = bytesUTF8(u);
+                    i += n == 4 ? 2 : 1;
+                }
+                int octeto = (u & 0xFF) << (8*(k & 3));
+                if (k < 4)
+                    pa |= octeto;
+                else if (k < 8)
+                    pb |= octeto;
+                else
+                    pc |= octeto;
+            }
+            longitud += k;
+            ultima = k < 12;
             if (ultima)
-                c += llave.length;
-            a += enInt(i, llave, true);
-            b += enInt(i+4, llave, true);
-            c += enInt(i+8, llave, true) << (ultima ? 8 : 0);
+                c += longitud;
+            a += pa;
+            b += pb;
+            c += pc << (ultima ? 8 : 0);
+
+            // Mezcla
+            a -= b; a -= c; a ^= c >>> 13;
+            b -= c; b -= a; b ^= a << 8;
+            c -= a; c -= b; c ^= b >>> 13;
+
+            a -= b; a -= c; a ^= c >>> 12;
+            b -= c; b -= a; b ^= a << 16;
+            c -= a; c -= b; c ^= b >>> 5;
+
+            a -= b; a -= c; a ^= c >>> 3;
+            b -= c; b -= a; b ^= a << 10;
+            c -= a; c -= b; c ^= b >>> 15;
+        }
+
+        return c;
+    }
+
+    /* Función de dispersión de Bob Jenkins de los bytes en el rango. */
+    private static int bj(byte[] arreglo, ByteBuffer buffer,
+                          int inicio, int longitud) {
+        int a, b, c;
+        a = b = 0x9E37_79B9;
+        c = -1;
+
+        int fin = inicio + longitud;
+        for (int i = 0; longitud - i >= 0; i += 12) {
+            boolean ultima = longitud - i < 12;
+            if (ultima)
+                c += longitud;
+            a += palabraLE(arreglo, buffer, inicio+i, fin);
+            b += palabraLE(arreglo, buffer, inicio+i+4, fin);
+            c += palabraLE(arreglo, buffer, inicio+i+8, fin)
+                << (ultima ? 8 : 0);
 
             // Mezcla
             a -= b; a -= c; a ^= c >>> 13;
@@ -61,17 +290,678 @@ public class Dispersores {
      * @return la dispersión de Daniel Bernstein de la llave.
      */
     public static int dispersaDJB(byte[] llave) {
+        return djb(llave, null, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein para un subarreglo.
+     * @param llave el arreglo con la llave a dispersar.
+     * @param inicio el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de Daniel Bernstein de la llave.
+     * @throws ExcepcionIndiceInvalido si el subarreglo no está en el arreglo.
+     */
+    public static int dispersaDJB(byte[] llave, int inicio, int longitud) {
+        verificaRango(llave.length, inicio, longitud);
+        return djb(llave, null, inicio, inicio + longitud);
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein para los bytes restantes de
+     * un buffer. La posición del buffer no cambia.
+     * @param llave el buffer con la llave a dispersar.
+     * @return la dispersión de Daniel Bernstein de la llave.
+     */
+    public static int dispersaDJB(ByteBuffer llave) {
+        if (llave.hasArray())
+            return dispersaDJB(llave.array(),
+                               llave.arrayOffset() + llave.position(),
+                               llave.remaining());
+        return djb(null, llave, llave.position(), llave.limit());
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein para la codificación UTF-8 de
+     * una secuencia de caracteres. Regresa lo mismo que dispersar los bytes
+     * UTF-8 de la secuencia, pero los codifica conforme los dispersa, sin
+     * crear arreglos.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de Daniel Bernstein de la llave.
+     */
+    public static int dispersaDJB(CharSequence llave) {
+        int h = 5381;
+        int i = 0;
+        while (i < llave.length()) {
+            int u = utf8(llave, i);
+            int n = bytesUTF8(u);
+            i += n == 4 ? 2 : 1;
+            for (; n > 0; n--, u >>>= 8)
+                h += (h<<5)+(u & 0xFF);
+        }
+        return h;
+    }
+
+    /* Función de dispersión de Bernstein de los bytes en [inicio, fin). */
+    private static int djb(byte[] arreglo, ByteBuffer buffer,
+                           int inicio, int fin) {
         int h = 5381;
-        for (int i = 0; i < llave.length; i++)
-            h += (h<<5)+((int)llave[i] & 0xFF);
+        for (int i = inicio; i < fin; i++)
+            h += (h<<5)+octeto(arreglo, buffer, i);
         return h;
     }
 
-    /* Convierte una llave y un índice a un int en big o little endian. */
-    private static int enInt(int i, byte[] llave, boolean littleEndian) {
+    /**
+     * Función de dispersión MurmurHash3 de 32 bits (x86_32) con semilla 0.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de MurmurHash3 de la llave.
+     */
+    public static int dispersaMurmur3(byte[] llave) {
+        return murmur3(llave, 0, llave.length, 0);
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 32 bits (x86_32).
+     * @param llave la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión de MurmurHash3 de la llave.
+     */
+    public static int dispersaMurmur3(byte[] llave, int semilla) {
+        return murmur3(llave, 0, llave.length, semilla);
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 32 bits (x86_32) con semilla 0
+     * para la codificación UTF-8 de una secuencia de caracteres.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de MurmurHash3 de la llave.
+     */
+    public static int dispersaMurmur3(CharSequence llave) {
+        Codificacion c = codifica(llave);
+        return murmur3(c.bytes, 0, c.longitud, 0);
+    }
+
+    /* MurmurHash3_x86_32 de los bytes en el rango. */
+    private static int murmur3(byte[] a, int inicio, int longitud,
+                               int semilla) {
+        int h = semilla;
+        int fin = inicio + longitud;
+        int i = inicio;
+        for (; fin - i >= 4; i += 4) {
+            h ^= murmur3Palabra((int)INT_LE_ARREGLO.get(a, i));
+            h = Integer.rotateLeft(h, 13);
+            h = h * 5 + 0xe654_6b64;
+        }
+        if (i < fin)
+            h ^= murmur3Palabra(enInt(a, null, i, fin, true));
+        return mezclaInt(h ^ longitud);
+    }
+
+    /* Mezcla una palabra de MurmurHash3_x86_32 antes de combinarla. */
+    private static int murmur3Palabra(int k) {
+        k *= 0xcc9e_2d51;
+        k = Integer.rotateLeft(k, 15);
+        return k * 0x1b87_3593;
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 128 bits (x64_128).
+     * @param llave la llave a dispersar.
+     * @param semilla la semilla.
+     * @return un arreglo con las dos mitades de 64 bits de la dispersión, en
+     *         el orden en que MurmurHash3 las escribe.
+     */
+    public static long[] dispersaMurmur3x128(byte[] llave, int semilla) {
+        long[] dispersion = new long[2];
+        dispersion[0] = murmur3x128(llave, 0, llave.length, semilla,
+                                    dispersion);
+        return dispersion;
+    }
+
+    /**
+     * Función de dispersión MurmurHash3 de 128 bits (x64_128) con semilla 0
+     * para la codificación UTF-8 de una secuencia de caracteres.
+     * @param llave la llave a dispersar.
+     * @return la primera mitad de 64 bits de la dispersión.
+     */
+    public static long dispersaMurmur3x128(CharSequence llave) {
+        Codificacion c = codifica(llave);
+        return murmur3x128(c.bytes, 0, c.longitud, 0, null);
+    }
+
+    /*
+     * MurmurHash3_x64_128 de los bytes en el rango. Regresa la primera mitad
+     * y, si el arreglo mitades no es null, guarda la segunda en mitades[1].
+     */
+    private static long murmur3x128(byte[] a, int inicio, int longitud,
+                                    int semilla, long[] mitades) {
+        final long c1 = 0x87c3_7b91_1142_53d5L;
+        final long c2 = 0x4cf5_ad43_2745_937fL;
+        long h1 = semilla & 0xFFFF_FFFFL;
+        long h2 = h1;
+        int fin = inicio + longitud;
+        int i = inicio;
+        for (; fin - i >= 16; i += 16) {
+            long k1 = (long)LONG_LE_ARREGLO.get(a, i);
+            long k2 = (long)LONG_LE_ARREGLO.get(a, i + 8);
+            k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dc_e729;
+            k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x3849_5ab5;
+        }
+        if (i < fin) {
+            long k1 = 0, k2 = 0;
+            for (int j = 0; i + j < fin; j++) {
+                long octeto = a[i + j] & 0xFFL;
+                if (j < 8)
+                    k1 |= octeto << (8 * j);
+                else
+                    k2 |= octeto << (8 * (j - 8));
+            }
+            k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+        }
+        h1 ^= longitud;
+        h2 ^= longitud;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        if (mitades != null)
+            mitades[1] = h2;
+        return h1;
+    }
+
+    /**
+     * Función de dispersión xxHash32 con semilla 0.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de xxHash32 de la llave.
+     */
+    public static int dispersaXXH32(byte[] llave) {
+        return xxh32(llave, 0, llave.length, 0);
+    }
+
+    /**
+     * Función de dispersión xxHash32.
+     * @param llave la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión de xxHash32 de la llave.
+     */
+    public static int dispersaXXH32(byte[] llave, int semilla) {
+        return xxh32(llave, 0, llave.length, semilla);
+    }
+
+    /**
+     * Función de dispersión xxHash32 con semilla 0 para la codificación UTF-8
+     * de una secuencia de caracteres.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de xxHash32 de la llave.
+     */
+    public static int dispersaXXH32(CharSequence llave) {
+        Codificacion c = codifica(llave);
+        return xxh32(c.bytes, 0, c.longitud, 0);
+    }
+
+    /* xxHash32 de los bytes en el rango. */
+    private static int xxh32(byte[] a, int inicio, int longitud, int semilla) {
+        int fin = inicio + longitud;
+        int i = inicio;
+        int h;
+        if (longitud >= 16) {
+            int v1 = semilla + XXH32_P1 + XXH32_P2;
+            int v2 = semilla + XXH32_P2;
+            int v3 = semilla;
+            int v4 = semilla - XXH32_P1;
+            for (; fin - i >= 16; i += 16) {
+                v1 = xxh32Ronda(v1, (int)INT_LE_ARREGLO.get(a, i));
+                v2 = xxh32Ronda(v2, (int)INT_LE_ARREGLO.get(a, i + 4));
+                v3 = xxh32Ronda(v3, (int)INT_LE_ARREGLO.get(a, i + 8));
+                v4 = xxh32Ronda(v4, (int)INT_LE_ARREGLO.get(a, i + 12));
+            }
+            h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) +
+                Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+        } else {
+            h = semilla + XXH32_P5;
+        }
+        h += longitud;
+        for (; fin - i >= 4; i += 4) {
+            h += (int)INT_LE_ARREGLO.get(a, i) * XXH32_P3;
+            h = Integer.rotateLeft(h, 17) * XXH32_P4;
+        }
+        for (; i < fin; i++) {
+            h += (a[i] & 0xFF) * XXH32_P5;
+            h = Integer.rotateLeft(h, 11) * XXH32_P1;
+        }
+        h ^= h >>> 15;
+        h *= XXH32_P2;
+        h ^= h >>> 13;
+        h *= XXH32_P3;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /* Una ronda de xxHash32. */
+    private static int xxh32Ronda(int v, int palabra) {
+        v += palabra * XXH32_P2;
+        v = Integer.rotateLeft(v, 13);
+        return v * XXH32_P1;
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla 0.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de xxHash64 de la llave.
+     */
+    public static long dispersaXXH64(byte[] llave) {
+        return xxh64(llave, 0, llave.length, 0L);
+    }
+
+    /**
+     * Función de dispersión xxHash64.
+     * @param llave la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión de xxHash64 de la llave.
+     */
+    public static long dispersaXXH64(byte[] llave, long semilla) {
+        return xxh64(llave, 0, llave.length, semilla);
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla 0 para la codificación UTF-8
+     * de una secuencia de caracteres.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de xxHash64 de la llave.
+     */
+    public static long dispersaXXH64(CharSequence llave) {
+        Codificacion c = codifica(llave);
+        return xxh64(c.bytes, 0, c.longitud, 0L);
+    }
+
+    /* xxHash64 de los bytes en el rango. */
+    private static long xxh64(byte[] a, int inicio, int longitud,
+                              long semilla) {
+        int fin = inicio + longitud;
+        int i = inicio;
+        long h;
+        if (longitud >= 32) {
+            long v1 = semilla + XXH64_P1 + XXH64_P2;
+            long v2 = semilla + XXH64_P2;
+            long v3 = semilla;
+            long v4 = semilla - XXH64_P1;
+            for (; fin - i >= 32; i += 32) {
+                v1 = xxh64Ronda(v1, (long)LONG_LE_ARREGLO.get(a, i));
+                v2 = xxh64Ronda(v2, (long)LONG_LE_ARREGLO.get(a, i + 8));
+                v3 = xxh64Ronda(v3, (long)LONG_LE_ARREGLO.get(a, i + 16));
+                v4 = xxh64Ronda(v4, (long)LONG_LE_ARREGLO.get(a, i + 24));
+            }
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) +
+                Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = xxh64Combina(h, v1);
+            h = xxh64Combina(h, v2);
+            h = xxh64Combina(h, v3);
+            h = xxh64Combina(h, v4);
+        } else {
+            h = semilla + XXH64_P5;
+        }
+        h += longitud;
+        for (; fin - i >= 8; i += 8) {
+            h ^= xxh64Ronda(0, (long)LONG_LE_ARREGLO.get(a, i));
+            h = Long.rotateLeft(h, 27) * XXH64_P1 + XXH64_P4;
+        }
+        if (fin - i >= 4) {
+            h ^= ((int)INT_LE_ARREGLO.get(a, i) & 0xFFFF_FFFFL) * XXH64_P1;
+            h = Long.rotateLeft(h, 23) * XXH64_P2 + XXH64_P3;
+            i += 4;
+        }
+        for (; i < fin; i++) {
+            h ^= (a[i] & 0xFFL) * XXH64_P5;
+            h = Long.rotateLeft(h, 11) * XXH64_P1;
+        }
+        h ^= h >>> 33;
+        h *= XXH64_P2;
+        h ^= h >>> 29;
+        h *= XXH64_P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    /* Una ronda de xxHash64. */
+    private static long xxh64Ronda(long v, long palabra) {
+        v += palabra * XXH64_P2;
+        v = Long.rotateLeft(v, 31);
+        return v * XXH64_P1;
+    }
+
+    /* Combina un acumulador de xxHash64 con la dispersión. */
+    private static long xxh64Combina(long h, long v) {
+        h ^= xxh64Ronda(0, v);
+        return h * XXH64_P1 + XXH64_P4;
+    }
+
+    /**
+     * Función de dispersión wyhash (versión final4) con semilla 0 y los
+     * secretos por omisión.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de wyhash de la llave.
+     */
+    public static long dispersaWyhash(byte[] llave) {
+        return wyhash(llave, 0, llave.length, 0L);
+    }
+
+    /**
+     * Función de dispersión wyhash (versión final4) con los secretos por
+     * omisión.
+     * @param llave la llave a dispersar.
+     * @param semilla la semilla.
+     * @return la dispersión de wyhash de la llave.
+     */
+    public static long dispersaWyhash(byte[] llave, long semilla) {
+        return wyhash(llave, 0, llave.length, semilla);
+    }
+
+    /**
+     * Función de dispersión wyhash (versión final4) con semilla 0 y los
+     * secretos por omisión para la codificación UTF-8 de una secuencia de
+     * caracteres.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de wyhash de la llave.
+     */
+    public static long dispersaWyhash(CharSequence llave) {
+        Codificacion c = codifica(llave);
+        return wyhash(c.bytes, 0, c.longitud, 0L);
+    }
+
+    /* wyhash de los bytes en el rango. */
+    private static long wyhash(byte[] a, int inicio, int longitud,
+                               long semilla) {
+        semilla ^= wymix(semilla ^ WY0, WY1);
+        long x, y;
+        if (longitud <= 16) {
+            if (longitud >= 4) {
+                int d = (longitud >>> 3) << 2;
+                int u = inicio + longitud - 4;
+                x = wyr4(a, inicio) << 32 | wyr4(a, inicio + d);
+                y = wyr4(a, u) << 32 | wyr4(a, u - d);
+            } else if (longitud > 0) {
+                x = (a[inicio] & 0xFFL) << 16 |
+                    (a[inicio + (longitud >>> 1)] & 0xFFL) << 8 |
+                    (a[inicio + longitud - 1] & 0xFFL);
+                y = 0;
+            } else {
+                x = y = 0;
+            }
+        } else {
+            int i = inicio;
+            int resto = longitud;
+            if (resto > 48) {
+                long semilla1 = semilla, semilla2 = semilla;
+                do {
+                    semilla = wymix(wyr8(a, i) ^ WY1,
+                                    wyr8(a, i + 8) ^ semilla);
+                    semilla1 = wymix(wyr8(a, i + 16) ^ WY2,
+                                     wyr8(a, i + 24) ^ semilla1);
+                    semilla2 = wymix(wyr8(a, i + 32) ^ WY3,
+                                     wyr8(a, i + 40) ^ semilla2);
+                    i += 48;
+                    resto -= 48;
+                } while (resto > 48);
+                semilla ^= semilla1 ^ semilla2;
+            }
+            for (; resto > 16; i += 16, resto -= 16)
+                semilla = wymix(wyr8(a, i) ^ WY1, wyr8(a, i + 8) ^ semilla);
+            x = wyr8(a, i + resto - 16);
+            y = wyr8(a, i + resto - 8);
+        }
+        x ^= WY1;
+        y ^= semilla;
+        long bajos = x * y;
+        long altos = multiplicaAltos(x, y);
+        return wymix(bajos ^ WY0 ^ longitud, altos ^ WY1);
+    }
+
+    /* Los 8 bytes en little endian a partir de i. */
+    private static long wyr8(byte[] a, int i) {
+        return (long)LONG_LE_ARREGLO.get(a, i);
+    }
+
+    /* Los 4 bytes en little endian a partir de i, sin signo. */
+    private static long wyr4(byte[] a, int i) {
+        return (int)INT_LE_ARREGLO.get(a, i) & 0xFFFF_FFFFL;
+    }
+
+    /*
+     * La mezcla de wyhash: el XOR de las dos mitades del producto de 128
+     * bits.
+     */
+    private static long wymix(long x, long y) {
+        return x * y ^ multiplicaAltos(x, y);
+    }
+
+    /* Los 64 bits altos del producto sin signo de 128 bits. */
+    private static long multiplicaAltos(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    /**
+     * Función de dispersión SipHash-1-3, con llave. Sin conocer la llave no
+     * se pueden fabricar llaves que colisionen, así que es la que conviene
+     * cuando las llaves de un diccionario vienen de fuera.
+     * @param llave la llave a dispersar.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return la dispersión de SipHash-1-3 de la llave.
+     */
+    public static long dispersaSipHash(byte[] llave, long k0, long k1) {
+        return sipHash(llave, 0, llave.length, k0, k1, 1, 3);
+    }
+
+    /**
+     * Función de dispersión SipHash-1-3, con llave, para la codificación
+     * UTF-8 de una secuencia de caracteres.
+     * @param llave la llave a dispersar.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return la dispersión de SipHash-1-3 de la llave.
+     */
+    public static long dispersaSipHash(CharSequence llave, long k0, long k1) {
+        Codificacion c = codifica(llave);
+        return sipHash(c.bytes, 0, c.longitud, k0, k1, 1, 3);
+    }
+
+    /**
+     * Función de dispersión SipHash-2-4, con llave. Es la versión original de
+     * SipHash, más lenta y más conservadora que SipHash-1-3.
+     * @param llave la llave a dispersar.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return la dispersión de SipHash-2-4 de la llave.
+     */
+    public static long dispersaSipHash24(byte[] llave, long k0, long k1) {
+        return sipHash(llave, 0, llave.length, k0, k1, 2, 4);
+    }
+
+    /*
+     * SipHash-c-d de los bytes en el rango: c rondas por palabra y d rondas
+     * al final.
+     */
+    private static long sipHash(byte[] a, int inicio, int longitud,
+                                long k0, long k1, int c, int d) {
+        long v0 = k0 ^ 0x736f_6d65_7073_6575L;
+        long v1 = k1 ^ 0x646f_7261_6e64_6f6dL;
+        long v2 = k0 ^ 0x6c79_6765_6e65_7261L;
+        long v3 = k1 ^ 0x7465_6462_7974_6573L;
+        int fin = inicio + longitud;
+        int i = inicio;
+        boolean ultima = false;
+        while (!ultima) {
+            long m;
+            if (fin - i >= 8) {
+                m = (long)LONG_LE_ARREGLO.get(a, i);
+                i += 8;
+            } else {
+                /* La última palabra lleva la longitud en el byte alto. */
+                m = (long)longitud << 56;
+                for (int j = 0; i + j < fin; j++)
+                    m |= (a[i + j] & 0xFFL) << (8 * j);
+                ultima = true;
+            }
+            v3 ^= m;
+            for (int r = 0; r < c; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        v2 ^= 0xFF;
+        for (int r = 0; r < d; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /*
+     * Codifica la cadena en UTF-8 en el arreglo del hilo, igual que
+     * String.getBytes, y lo regresa. Las cadenas muy largas usan un arreglo
+     * nuevo, para no retenerlo.
+     */
+    private static Codificacion codifica(CharSequence cadena) {
+        Codificacion c = CODIFICACION.get();
+        int maximo = 3 * cadena.length();
+        if (maximo > MAXIMO_REUTILIZABLE) {
+            c = new Codificacion();
+            c.bytes = new byte[maximo];
+        } else if (c.bytes.length < maximo) {
+            c.bytes = new byte[Math.max(maximo, 2 * c.bytes.length)];
+        }
+        int j = 0;
+        int i = 0;
+        while (i < cadena.length()) {
+            int u = utf8(cadena, i);
+            int n = bytesUTF8(u);
+            i += n == 4 ? 2 : 1;
+            for (; n > 0; n--, u >>>= 8)
+                c.bytes[j++] = (byte)u;
+        }
+        c.longitud = j;
+        return c;
+    }
+
+    /**
+     * Mezcla los bits de un entero con el finalizador de MurmurHash3. Es una
+     * biyección en la que cada bit de la entrada afecta a todos los bits de la
+     * salida, así que enteros consecutivos no quedan agrupados al quedarnos
+     * sólo con los bits bajos.
+     * @param llave el entero a mezclar.
+     * @return la mezcla del entero.
+     */
+    public static int mezclaInt(int llave) {
+        int h = llave;
+        h ^= h >>> 16;
+        h *= 0x85eb_ca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2_ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Mezcla los bits de un entero largo con el finalizador de 64 bits de
+     * MurmurHash3, y regresa los 32 bits bajos del resultado.
+     * @param llave el entero largo a mezclar.
+     * @return la mezcla del entero largo.
+     */
+    public static int mezclaLong(long llave) {
+        return (int)fmix64(llave);
+    }
+
+    /* El finalizador de 64 bits de MurmurHash3. */
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51_afd7_ed55_8ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ce_b9fe_1a85_ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /* Lanza una excepción si el subarreglo no está dentro del arreglo. */
+    private static void verificaRango(int n, int inicio, int longitud) {
+        if (inicio < 0 || longitud < 0 || inicio > n - longitud)
+            throw new ExcepcionIndiceInvalido("Subarreglo inválido.");
+    }
+
+    /*
+     * Regresa el byte en el índice i como entero sin signo, del arreglo si no
+     * es null o del buffer si no.
+     */
+    private static int octeto(byte[] arreglo, ByteBuffer buffer, int i) {
+        return (arreglo != null ? arreglo[i] : buffer.get(i)) & 0xFF;
+    }
+
+    /*
+     * Convierte los bytes a partir del índice i, y antes de fin, a un int en
+     * big o little endian. Los bytes a partir de fin cuentan como ceros.
+     */
+    private static int enInt(byte[] arreglo, ByteBuffer buffer,
+                             int i, int fin, boolean littleEndian) {
         int resultado = 0;
-        for (int j = 0; i+j < llave.length && j < 4; j++)
-            resultado |= (((int)llave[i+j]) & 0xFF) << (8*(littleEndian?j:3-j));
+        for (int j = 0; i+j < fin && j < 4; j++)
+            resultado |= octeto(arreglo, buffer, i+j)
+                << (8*(littleEndian?j:3-j));
         return resultado;
     }
+
+    /*
+     * Regresa la palabra en little endian a partir del índice i. Si hay 4
+     * bytes antes de fin se leen de una vez; si no, los que falten cuentan
+     * como ceros.
+     */
+    private static int palabraLE(byte[] arreglo, ByteBuffer buffer,
+                                 int i, int fin) {
+        if (fin - i < 4)
+            return enInt(arreglo, buffer, i, fin, true);
+        return arreglo != null
+            ? (int)INT_LE_ARREGLO.get(arreglo, i)
+            : (int)INT_LE_BUFFER.get(buffer, i);
+    }
+
+    /*
+     * Regresa los bytes de la codificación UTF-8 del carácter en el índice i,
+     * empacados en un int con el primer byte en los bits bajos. Un par de
+     * sustitutos se codifica con 4 bytes; un sustituto sin pareja se codifica
+     * como '?', igual que en String.getBytes.
+     */
+    private static int utf8(CharSequence cadena, int i) {
+        char c = cadena.charAt(i);
+        if (c < 0x80)
+            return c;
+        if (c < 0x800)
+            return (0xC0 | c >>> 6) | (0x80 | c & 0x3F) << 8;
+        if (!Character.isSurrogate(c))
+            return (0xE0 | c >>> 12) | (0x80 | c >>> 6 & 0x3F) << 8 |
+                (0x80 | c & 0x3F) << 16;
+        if (Character.isHighSurrogate(c) && i + 1 < cadena.length() &&
+            Character.isLowSurrogate(cadena.charAt(i+1))) {
+            int p = Character.toCodePoint(c, cadena.charAt(i+1));
+            return (0xF0 | p >>> 18) | (0x80 | p >>> 12 & 0x3F) << 8 |
+                (0x80 | p >>> 6 & 0x3F) << 16 | (0x80 | p & 0x3F) << 24;
+        }
+        return '?';
+    }
+
+    /* Regresa cuántos bytes hay en una codificación empacada por utf8. */
+    private static int bytesUTF8(int u) {
+        int primero = u & 0xFF;
+        return primero < 0x80 ? 1 : primero < 0xE0 ? 2 : primero < 0xF0 ? 3 : 4;
+    }
 }
@@ -0,0 +1,75 @@
+package mx.unam.ciencias.edd;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Clase para escribir enteros y arreglos de bytes a un archivo con un canal y
+ * un buffer directo. Los arreglos se escriben precedidos de su longitud, y los
+ * que no caben en el buffer se escriben directo al canal. Los enteros van en
+ * orden de bytes de red.
+ */
+class EscritorBinario implements Closeable {
+
+    /* El tamaño del buffer. */
+    private static final int TAMAÑO_BUFFER = 1 << 16;
+
+    /* El canal del archivo. */
+    private final FileChannel canal;
+    /* El buffer de escritura. */
+    private final ByteBuffer buffer;
+
+    /* Crea o trunca el archivo y lo abre para escribir. */
+    EscritorBinario(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE);
+        buffer = ByteBuffer.allocateDirect(TAMAÑO_BUFFER);
+    }
+
+    /* Escribe un entero. */
+    void escribeInt(int n) throws IOException {
+        if (buffer.remaining() < Integer.BYTES)
+            vacia();
+        buffer.putInt(n);
+    }
+
+    /* Escribe la longitud de un arreglo y sus bytes. */
+    void escribeBytes(byte[] bytes) throws IOException {
+        escribeInt(bytes.length);
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+        vacia();
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+        ByteBuffer directo = ByteBuffer.wrap(bytes);
+        while (directo.hasRemaining())
+            canal.write(directo);
+    }
+
+    /* Escribe al canal lo que hay en el buffer. */
+    private void vacia() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            canal.write(buffer);
+        buffer.clear();
+    }
+
+    /* Escribe lo que queda en el buffer, fuerza el archivo y lo cierra. */
+    @Override public void close() throws IOException {
+        try {
+            vacia();
+            canal.force(false);
+        } finally {
+            canal.close();
+        }
+    }
+}
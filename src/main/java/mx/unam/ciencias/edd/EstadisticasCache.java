@@ -0,0 +1,203 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para instantáneas inmutables de las estadísticas de una caché:
+ * aciertos, fallas, desalojos por causa, y cargas exitosas y fallidas con su
+ * tiempo. Una instantánea no cambia aunque la caché siga usándose; para medir
+ * un intervalo se restan dos instantáneas con {@link #menos}.
+ */
+public final class EstadisticasCache {
+
+    /* Los aciertos. */
+    private final long aciertos;
+    /* Las fallas. */
+    private final long fallas;
+    /* Los desalojos por causa, indexados por ordinal. */
+    private final long[] desalojos;
+    /* Las cargas exitosas. */
+    private final long cargasExitosas;
+    /* Las cargas fallidas. */
+    private final long cargasFallidas;
+    /* Los nanosegundos totales de carga. */
+    private final long tiempoCarga;
+
+    /* Construye una instantánea; el arreglo de desalojos no se copia. */
+    EstadisticasCache(long aciertos, long fallas, long[] desalojos,
+                      long cargasExitosas, long cargasFallidas,
+                      long tiempoCarga) {
+        this.aciertos = aciertos;
+        this.fallas = fallas;
+        this.desalojos = desalojos;
+        this.cargasExitosas = cargasExitosas;
+        this.cargasFallidas = cargasFallidas;
+        this.tiempoCarga = tiempoCarga;
+    }
+
+    /**
+     * Regresa el número de búsquedas que encontraron su llave.
+     * @return el número de aciertos.
+     */
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * Regresa el número de búsquedas que no encontraron su llave.
+     * @return el número de fallas.
+     */
+    public long getFallas() {
+        return fallas;
+    }
+
+    /**
+     * Regresa el número de búsquedas.
+     * @return el número de aciertos más el número de fallas.
+     */
+    public long getPeticiones() {
+        return aciertos + fallas;
+    }
+
+    /**
+     * Regresa la fracción de las búsquedas que fueron aciertos.
+     * @return la tasa de aciertos, entre 0 y 1; 1 si no hubo búsquedas.
+     */
+    public double getTasaAciertos() {
+        long peticiones = getPeticiones();
+        return peticiones == 0 ? 1.0 : (double)aciertos / peticiones;
+    }
+
+    /**
+     * Regresa el número de valores que la caché desalojó por su cuenta.
+     * @return el número de desalojos por todas las causas.
+     */
+    public long getDesalojos() {
+        long total = 0;
+        for (long d : desalojos)
+            total += d;
+        return total;
+    }
+
+    /**
+     * Regresa el número de valores que la caché desalojó por una causa.
+     * @param causa la causa de los desalojos.
+     * @return el número de desalojos por la causa.
+     * @throws IllegalArgumentException si la causa es nula.
+     */
+    public long getDesalojos(CausaDesalojo causa) {
+        if (causa == null)
+            throw new IllegalArgumentException("La causa no puede ser null.");
+        return desalojos[causa.ordinal()];
+    }
+
+    /**
+     * Regresa el número de valores computados con éxito.
+     * @return el número de cargas exitosas.
+     */
+    public long getCargasExitosas() {
+        return cargasExitosas;
+    }
+
+    /**
+     * Regresa el número de computaciones que lanzaron una excepción o
+     * regresaron <code>null</code>.
+     * @return el número de cargas fallidas.
+     */
+    public long getCargasFallidas() {
+        return cargasFallidas;
+    }
+
+    /**
+     * Regresa el tiempo total que tardaron las cargas, exitosas y fallidas.
+     * @return los nanosegundos totales de carga.
+     */
+    public long getTiempoTotalCarga() {
+        return tiempoCarga;
+    }
+
+    /**
+     * Regresa el tiempo promedio de una carga.
+     * @return los nanosegundos promedio por carga; 0 si no hubo cargas.
+     */
+    public double getTiempoPromedioCarga() {
+        long cargas = cargasExitosas + cargasFallidas;
+        return cargas == 0 ? 0.0 : (double)tiempoCarga / cargas;
+    }
+
+    /**
+     * Regresa las estadísticas del intervalo entre otra instantánea, anterior,
+     * y ésta.
+     * @param anterior la instantánea anterior de la misma caché.
+     * @return la diferencia de los contadores; nunca negativa.
+     * @throws IllegalArgumentException si la instantánea es nula.
+     */
+    public EstadisticasCache menos(EstadisticasCache anterior) {
+        if (anterior == null)
+            throw new IllegalArgumentException("La instantánea no puede ser " +
+                                               "null.");
+        long[] d = new long[desalojos.length];
+        for (int i = 0; i < d.length; i++)
+            d[i] = Long.max(0, desalojos[i] - anterior.desalojos[i]);
+        return new EstadisticasCache(
+            Long.max(0, aciertos - anterior.aciertos),
+            Long.max(0, fallas - anterior.fallas), d,
+            Long.max(0, cargasExitosas - anterior.cargasExitosas),
+            Long.max(0, cargasFallidas - anterior.cargasFallidas),
+            Long.max(0, tiempoCarga - anterior.tiempoCarga));
+    }
+
+    /**
+     * Regresa una representación en cadena de las estadísticas.
+     * @return una representación en cadena de las estadísticas.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("aciertos: %d, fallas: %d, tasa: %.4f, " +
+                                "desalojos: %d (", aciertos, fallas,
+                                getTasaAciertos(), getDesalojos()));
+        for (CausaDesalojo causa : CausaDesalojo.values()) {
+            if (causa.ordinal() > 0)
+                sb.append(", ");
+            sb.append(String.format("%s: %d", causa, desalojos[causa.ordinal()]));
+        }
+        sb.append(String.format("), cargas: %d exitosas, %d fallidas, " +
+                                "%.1f ns promedio", cargasExitosas,
+                                cargasFallidas, getTiempoPromedioCarga()));
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si las estadísticas son iguales a las recibidas.
+     * @param o el objeto con el que hay que comparar.
+     * @return <code>true</code> si todos los contadores son iguales,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        EstadisticasCache e = (EstadisticasCache)o;
+        if (aciertos != e.aciertos || fallas != e.fallas ||
+            cargasExitosas != e.cargasExitosas ||
+            cargasFallidas != e.cargasFallidas ||
+            tiempoCarga != e.tiempoCarga)
+            return false;
+        for (int i = 0; i < desalojos.length; i++)
+            if (desalojos[i] != e.desalojos[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa una dispersión de las estadísticas.
+     * @return una dispersión de las estadísticas.
+     */
+    @Override public int hashCode() {
+        long h = aciertos;
+        h = 31 * h + fallas;
+        for (long d : desalojos)
+            h = 31 * h + d;
+        h = 31 * h + cargasExitosas;
+        h = 31 * h + cargasFallidas;
+        h = 31 * h + tiempoCarga;
+        return Long.hashCode(h);
+    }
+}
@@ -1,15 +1,22 @@
 package mx.unam.ciencias.edd;
 
+import java.security.SecureRandom;
+
 /**
  * Clase para fabricar dispersores.
  */
 public class FabricaDispersores {
 
+    /* Generador de las llaves secretas de los dispersores con llave. */
+    private static final SecureRandom LLAVES = new SecureRandom();
+
     /* Constructor privado para evitar instanciación. */
     private FabricaDispersores() {}
 
     /**
-     * Regresa una instancia de {@link Dispersor} para cadenas.
+     * Regresa una instancia de {@link Dispersor} para cadenas. Las cadenas se
+     * dispersan por su codificación UTF-8, sin crear arreglos de bytes. De
+     * los algoritmos de 64 y 128 bits se usan los 32 bits bajos.
      * @param algoritmo el algoritmo de dispersor que se desea.
      * @return una instancia de {@link Dispersor} para cadenas.
      * @throws IllegalArgumentException si recibe un identificador no
@@ -19,12 +26,37 @@ public class FabricaDispersores {
     dispersorCadena(AlgoritmoDispersor algoritmo) {
         switch (algoritmo) {
         case XOR_STRING:
-            return c -> Dispersores.dispersaXOR(c.getBytes());
+            return c -> Dispersores.dispersaXOR(c);
         case BJ_STRING:
-            return c -> Dispersores.dispersaBJ(c.getBytes());
+            return c -> Dispersores.dispersaBJ(c);
         case DJB_STRING:
-            return c -> Dispersores.dispersaDJB(c.getBytes());
+            return c -> Dispersores.dispersaDJB(c);
+        case MURMUR3_STRING:
+            return c -> Dispersores.dispersaMurmur3(c);
+        case MURMUR3_128_STRING:
+            return c -> (int)Dispersores.dispersaMurmur3x128(c);
+        case XXH32_STRING:
+            return c -> Dispersores.dispersaXXH32(c);
+        case XXH64_STRING:
+            return c -> (int)Dispersores.dispersaXXH64(c);
+        case WYHASH_STRING:
+            return c -> (int)Dispersores.dispersaWyhash(c);
+        case SIPHASH_STRING:
+            return dispersorSipHash(LLAVES.nextLong(), LLAVES.nextLong());
         default: throw new IllegalArgumentException("Algoritmo inválido");
         }
     }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para cadenas que usa
+     * SipHash-1-3 con la llave secreta recibida. Para que el dispersor
+     * resista ataques, la llave debe ser aleatoria y no conocerse fuera del
+     * programa; {@link AlgoritmoDispersor#SIPHASH_STRING} genera una.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return una instancia de {@link Dispersor} para cadenas con llave.
+     */
+    public static Dispersor<String> dispersorSipHash(long k0, long k1) {
+        return c -> (int)Dispersores.dispersaSipHash(c, k0, k1);
+    }
 }
@@ -0,0 +1,40 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para fabricar políticas de desalojo.
+ */
+public class FabricaPoliticas {
+
+    /* Constructor privado para evitar instanciación. */
+    private FabricaPoliticas() {}
+
+    /**
+     * Regresa una instancia de {@link PoliticaDesalojo} con la capacidad dada.
+     * @param <K> el tipo de las llaves.
+     * @param algoritmo la política de desalojo que se desea.
+     * @param capacidad el número máximo de llaves en la caché.
+     * @return una instancia de {@link PoliticaDesalojo}.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido o si la capacidad es menor a 2.
+     */
+    public static <K> PoliticaDesalojo<K>
+    politica(AlgoritmoDesalojo algoritmo, int capacidad) {
+        switch (algoritmo) {
+        case LRU:
+            return new PoliticaLRU<K>(capacidad);
+        case LFU:
+            return new PoliticaLFU<K>(capacidad);
+        case ARC:
+            return new PoliticaARC<K>(capacidad);
+        case CLOCK:
+            return new PoliticaCLOCK<K>(capacidad);
+        case SLRU:
+            return new PoliticaSLRU<K>(capacidad);
+        case DOS_Q:
+            return new Politica2Q<K>(capacidad);
+        case W_TINY_LFU:
+            return new PoliticaTinyLFU<K>(capacidad);
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+}
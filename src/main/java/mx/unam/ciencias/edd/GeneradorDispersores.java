@@ -0,0 +1,17 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para generar dispersores con semillas distintas, para que un
+ * diccionario pueda cambiar de dispersor cuando sus llaves colisionan
+ * demasiado.
+ */
+@FunctionalInterface
+public interface GeneradorDispersores<T> {
+
+    /**
+     * Genera un nuevo dispersor, con una semilla distinta a la de los
+     * dispersores generados antes.
+     * @return un nuevo dispersor.
+     */
+    public Dispersor<T> genera();
+}
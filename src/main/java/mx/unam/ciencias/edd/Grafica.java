@@ -175,9 +175,8 @@ public class Grafica<T> implements Coleccion<T> {
     @Override public void agrega(T elemento) {
         if (elemento == null)
             throw new IllegalArgumentException("No podemos meter null.");
-        if (contiene(elemento))
+        if (vertices.putIfAbsent(elemento, new Vertice(elemento)) != null)
             throw new IllegalArgumentException("Ya teníamos al elemento.");
-        vertices.agrega(elemento, new Vertice(elemento));
     }
 
     /**
@@ -219,9 +218,10 @@ public class Grafica<T> implements Coleccion<T> {
 
     /* Dado un elemento regresa su vértice en la gráfica o lanza excepción. */
     private Vertice v(T elemento) {
-        if (vertices.contiene(elemento))
-            return vertices.get(elemento);
-        throw new NoSuchElementException("No hay tal vértice en la gráfica.");
+        Vertice v = vertices.getOrDefault(elemento, null);
+        if (v == null)
+            throw new NoSuchElementException("No hay tal vértice en la gráfica.");
+        return v;
     }
 
     /**
@@ -235,23 +235,11 @@ public class Grafica<T> implements Coleccion<T> {
     public void desconecta(T a, T b) {
         Vertice u = v(a);
         Vertice v = v(b);
-        if (!sonVecinos(u, v))
+        Vecino uv = u.vecinos.getOrDefault(v.elemento, null);
+        if (uv == null)
             throw new IllegalArgumentException("Intentamos desconectar " +
                     "vértices que no estaban conectados.");
-        desconectaVertices(u, v);
-    }
-
-    /* Indica si u tiene a v como vecino. */
-    private boolean sonVecinos(Vertice u, Vertice v) {
-        return u.vecinos.contiene(v.elemento);
-    }
-
-    /* Desconecta dos vértices. */
-    private void desconectaVertices(Vertice u, Vertice v) {
-        Vecino uv = null, vu = null;
-        uv = u.vecinos.get(v.elemento);
-        vu = v.vecinos.get(u.elemento);
-        desconectaVecinos(uv, vu);
+        desconectaVecinos(uv, v.vecinos.get(u.elemento));
     }
 
     /* Desconecta dos vértices vecinos. */
@@ -307,9 +295,16 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si a o b no están conectados.
      */
     public double getPeso(T a, T b) {
-        if (!sonVecinos(a, b))
-            throw new IllegalArgumentException("No estan conectados.");
-        return v(a).vecinos.get(v(b).elemento).peso;
+        return arista(a, b).peso;
+    }
+
+    /* Regresa el vecino de a que corresponde a b, o lanza excepción. */
+    private Vecino arista(T a, T b) {
+        Vertice u = v(a);
+        Vecino uv = u.vecinos.getOrDefault(v(b).elemento, null);
+        if (uv == null)
+            throw new IllegalArgumentException("No están conectados.");
+        return uv;
     }
 
     /**
@@ -326,10 +321,9 @@ public class Grafica<T> implements Coleccion<T> {
     public void setPeso(T a, T b, double peso) {
         if (peso <= 0)
             throw new IllegalArgumentException("El peso debe ser >0.");
-        if (!sonVecinos(a, b))
-            throw new IllegalArgumentException("No están conectados.");
-        v(a).vecinos.get(b).peso = peso;
-        v(b).vecinos.get(a).peso = peso;
+        Vecino uv = arista(a, b);
+        uv.peso = peso;
+        uv.vecino.vecinos.get(a).peso = peso;
     }
 
     /**
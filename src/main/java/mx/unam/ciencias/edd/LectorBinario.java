@@ -0,0 +1,90 @@
+package mx.unam.ciencias.edd;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Clase para leer los enteros y arreglos de bytes que escribe un {@link
+ * EscritorBinario}. Lee el archivo por pedazos del tamaño de su buffer, así
+ * que no importa qué tan grande sea.
+ */
+class LectorBinario implements Closeable {
+
+    /* El tamaño del buffer. */
+    private static final int TAMAÑO_BUFFER = 1 << 16;
+
+    /* El canal del archivo. */
+    private final FileChannel canal;
+    /* El buffer de lectura. */
+    private final ByteBuffer buffer;
+
+    /* Abre el archivo para leer. */
+    LectorBinario(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        buffer = ByteBuffer.allocateDirect(TAMAÑO_BUFFER);
+        buffer.flip();
+    }
+
+    /* Lee del canal hasta que haya al menos n bytes en el buffer. */
+    private void asegura(int n) throws IOException {
+        if (buffer.remaining() >= n)
+            return;
+        buffer.compact();
+        try {
+            while (buffer.position() < n)
+                if (canal.read(buffer) < 0)
+                    throw new EOFException("El archivo terminó antes de " +
+                                           "tiempo.");
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /* Lee un entero. */
+    int leeInt() throws IOException {
+        asegura(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    /*
+     * Lee n bytes. Una longitud negativa o mayor a lo que queda del archivo
+     * sólo puede venir de un archivo dañado.
+     */
+    byte[] leeBytes(int n) throws IOException {
+        if (n < 0 || n > restantes())
+            throw new IOException("Longitud inválida: " + n);
+        byte[] bytes = new byte[n];
+        if (n <= TAMAÑO_BUFFER) {
+            asegura(n);
+            buffer.get(bytes);
+            return bytes;
+        }
+        int leidos = buffer.remaining();
+        buffer.get(bytes, 0, leidos);
+        ByteBuffer directo = ByteBuffer.wrap(bytes, leidos, n - leidos);
+        while (directo.hasRemaining())
+            if (canal.read(directo) < 0)
+                throw new EOFException("El archivo terminó antes de tiempo.");
+        return bytes;
+    }
+
+    /* Regresa cuántos bytes quedan por leer. */
+    private long restantes() throws IOException {
+        return buffer.remaining() + canal.size() - canal.position();
+    }
+
+    /* Nos dice si ya se leyó todo el archivo. */
+    boolean termino() throws IOException {
+        return restantes() == 0;
+    }
+
+    /* Cierra el archivo. */
+    @Override public void close() throws IOException {
+        canal.close();
+    }
+}
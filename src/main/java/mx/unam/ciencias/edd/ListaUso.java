@@ -0,0 +1,77 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para las listas de uso de las políticas de desalojo. A diferencia de
+ * {@link Lista}, quien usa la lista guarda sus nodos, así que sacar un nodo o
+ * moverlo al frente toma tiempo constante. La cabeza es el nodo usado más
+ * recientemente y el rabo el usado menos recientemente.
+ */
+class ListaUso<T> {
+
+    /* Clase interna para nodos. */
+    static class Nodo<T> {
+
+        /* El elemento del nodo. */
+        T elemento;
+        /* La lista en la que está el nodo, o null. */
+        ListaUso<T> lista;
+        /* El nodo anterior. */
+        Nodo<T> anterior;
+        /* El nodo siguiente. */
+        Nodo<T> siguiente;
+
+        /* Construye un nodo con un elemento. */
+        Nodo(T elemento) {
+            this.elemento = elemento;
+        }
+    }
+
+    /* El nodo más recientemente usado. */
+    Nodo<T> cabeza;
+    /* El nodo menos recientemente usado. */
+    Nodo<T> rabo;
+    /* Número de nodos en la lista. */
+    int elementos;
+
+    /* Liga un nodo al frente de la lista. */
+    void agrega(Nodo<T> nodo) {
+        nodo.lista = this;
+        nodo.anterior = null;
+        nodo.siguiente = cabeza;
+        if (cabeza != null)
+            cabeza.anterior = nodo;
+        else
+            rabo = nodo;
+        cabeza = nodo;
+        elementos++;
+    }
+
+    /* Desliga un nodo de la lista. */
+    void elimina(Nodo<T> nodo) {
+        if (nodo.anterior != null)
+            nodo.anterior.siguiente = nodo.siguiente;
+        else
+            cabeza = nodo.siguiente;
+        if (nodo.siguiente != null)
+            nodo.siguiente.anterior = nodo.anterior;
+        else
+            rabo = nodo.anterior;
+        nodo.anterior = nodo.siguiente = null;
+        nodo.lista = null;
+        elementos--;
+    }
+
+    /* Mueve un nodo de la lista a su frente. */
+    void alFrente(Nodo<T> nodo) {
+        if (nodo == cabeza)
+            return;
+        elimina(nodo);
+        agrega(nodo);
+    }
+
+    /* Vacía la lista. */
+    void limpia() {
+        cabeza = rabo = null;
+        elementos = 0;
+    }
+}
@@ -0,0 +1,121 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Clase para reservar bloques de bytes fuera del heap. La memoria se pide en
+ * losas de un megabyte, que son {@link ByteBuffer} directos, y cada losa se
+ * parte en bloques de una sola clase de tamaño: las potencias de dos desde 16
+ * bytes hasta el tamaño de la losa. Un bloque liberado regresa a la pila de
+ * libres de su clase, y la siguiente reserva de esa clase lo reutiliza; las
+ * losas no se devuelven hasta que se limpia el reservador.
+ *
+ * Un bloque se identifica con una dirección: el índice de su losa en los 32
+ * bits altos y su desplazamiento en los bajos. La clase no es segura para
+ * hilos.
+ */
+class Losas {
+
+    /* El tamaño de una losa: un megabyte. */
+    static final int TAMAÑO_LOSA = 1 << 20;
+    /* El tamaño del bloque más chico. */
+    static final int MINIMO_BLOQUE = 16;
+
+    /* Número de clases de tamaño. */
+    private static final int CLASES =
+        Integer.numberOfTrailingZeros(TAMAÑO_LOSA) -
+        Integer.numberOfTrailingZeros(MINIMO_BLOQUE) + 1;
+
+    /* Las losas. */
+    private ByteBuffer[] losas;
+    /* Número de losas. */
+    private int numLosas;
+    /* Las direcciones de los bloques libres de cada clase. */
+    private long[][] libres;
+    /* Número de bloques libres de cada clase. */
+    private int[] tope;
+    /* La losa de la que se parten bloques nuevos de cada clase, o -1. */
+    private int[] losaActual;
+    /* El desplazamiento del siguiente bloque nuevo de cada clase. */
+    private int[] desplazamiento;
+
+    /* Construye un reservador sin losas. */
+    Losas() {
+        limpia();
+    }
+
+    /* Regresa la clase de tamaño para n bytes. */
+    private static int clase(int n) {
+        int bloque = Integer.max(MINIMO_BLOQUE, n);
+        return 32 - Integer.numberOfLeadingZeros(bloque - 1) -
+            Integer.numberOfTrailingZeros(MINIMO_BLOQUE);
+    }
+
+    /* Regresa el tamaño del bloque que se reserva para n bytes. */
+    static int bloque(int n) {
+        return MINIMO_BLOQUE << clase(n);
+    }
+
+    /* Reserva un bloque de al menos n bytes y regresa su dirección. */
+    long reserva(int n) {
+        if (n < 0 || n > TAMAÑO_LOSA)
+            throw new IllegalArgumentException("Sólo se pueden reservar " +
+                                               "entre 0 y " + TAMAÑO_LOSA +
+                                               " bytes.");
+        int c = clase(n);
+        if (tope[c] > 0)
+            return libres[c][--tope[c]];
+        int tamaño = MINIMO_BLOQUE << c;
+        if (losaActual[c] == -1 || desplazamiento[c] + tamaño > TAMAÑO_LOSA) {
+            if (numLosas == losas.length)
+                losas = Arrays.copyOf(losas, losas.length * 2);
+            losas[numLosas] = ByteBuffer.allocateDirect(TAMAÑO_LOSA);
+            losaActual[c] = numLosas++;
+            desplazamiento[c] = 0;
+        }
+        long direccion = ((long)losaActual[c] << 32) | desplazamiento[c];
+        desplazamiento[c] += tamaño;
+        return direccion;
+    }
+
+    /* Libera el bloque de la dirección, reservado para n bytes. */
+    void libera(long direccion, int n) {
+        int c = clase(n);
+        if (tope[c] == libres[c].length)
+            libres[c] = Arrays.copyOf(libres[c], libres[c].length * 2);
+        libres[c][tope[c]++] = direccion;
+    }
+
+    /* Escribe los bytes al principio del bloque de la dirección. */
+    void escribe(long direccion, byte[] bytes) {
+        ByteBuffer losa = losas[(int)(direccion >>> 32)];
+        losa.position((int)direccion);
+        losa.put(bytes);
+    }
+
+    /* Lee n bytes del principio del bloque de la dirección. */
+    byte[] lee(long direccion, int n) {
+        byte[] bytes = new byte[n];
+        ByteBuffer losa = losas[(int)(direccion >>> 32)];
+        losa.position((int)direccion);
+        losa.get(bytes);
+        return bytes;
+    }
+
+    /* Regresa los bytes reservados en losas. */
+    long getBytes() {
+        return (long)numLosas * TAMAÑO_LOSA;
+    }
+
+    /* Suelta todas las losas. */
+    void limpia() {
+        losas = new ByteBuffer[16];
+        numLosas = 0;
+        libres = new long[CLASES][16];
+        tope = new int[CLASES];
+        losaActual = new int[CLASES];
+        Arrays.fill(losaActual, -1);
+        desplazamiento = new int[CLASES];
+    }
+}
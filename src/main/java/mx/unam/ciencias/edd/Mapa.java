@@ -0,0 +1,77 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+
+/**
+ * <p>Interface para mapas, que asocian un conjunto de <em>llaves</em> a una
+ * colección de <em>valores</em>. Los mapas son iterables sobre sus valores, y
+ * también ofrecen un iterador para sus llaves.</p>
+ *
+ * <p>Los mapas no aceptan a <code>null</code> como llave ni como valor. La
+ * implementación se escoge al construir el mapa: {@link Diccionario} usa
+ * cubetas encadenadas, y {@link DiccionarioAbierto} usa direccionamiento
+ * abierto.</p>
+ */
+public interface Mapa<K, V> extends Iterable<V> {
+
+    /**
+     * Agrega un nuevo valor al mapa, usando la llave proporcionada. Si la
+     * llave ya había sido utilizada antes para agregar un valor, el mapa
+     * reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor);
+
+    /**
+     * Regresa el valor del mapa asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws java.util.NoSuchElementException si la llave no está en el
+     *         mapa.
+     */
+    public V get(K llave);
+
+    /**
+     * Nos dice si una llave se encuentra en el mapa.
+     * @param llave la llave que queremos ver si está en el mapa.
+     * @return <code>true</code> si la llave está en el mapa,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave);
+
+    /**
+     * Elimina el valor del mapa asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws java.util.NoSuchElementException si la llave no se encuentra
+     *         en el mapa.
+     */
+    public void elimina(K llave);
+
+    /**
+     * Regresa el número de entradas en el mapa.
+     * @return el número de entradas en el mapa.
+     */
+    public int getElementos();
+
+    /**
+     * Nos dice si el mapa es vacío.
+     * @return <code>true</code> si el mapa es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacia();
+
+    /**
+     * Limpia el mapa de entradas, dejándolo vacío.
+     */
+    public void limpia();
+
+    /**
+     * Regresa un iterador para iterar las llaves del mapa.
+     * @return un iterador para iterar las llaves del mapa.
+     */
+    public Iterator<K> iteradorLlaves();
+}
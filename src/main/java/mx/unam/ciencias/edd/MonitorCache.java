@@ -0,0 +1,148 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Clase para publicar por JMX las estadísticas de una {@link CacheLRU}. El
+ * monitor sólo lee {@link CacheLRU#getEstadisticas}, que suma contadores
+ * seguros para hilos, así que la consola de administración puede leerlo
+ * mientras otro hilo usa la caché.
+ */
+public class MonitorCache implements MonitorCacheMXBean {
+
+    /* La caché. */
+    private final CacheLRU<?, ?> cache;
+
+    /**
+     * Construye un monitor para la caché dada.
+     * @param cache la caché.
+     * @throws IllegalArgumentException si la caché es nula.
+     */
+    public MonitorCache(CacheLRU<?, ?> cache) {
+        if (cache == null)
+            throw new IllegalArgumentException("La caché no puede ser null.");
+        this.cache = cache;
+    }
+
+    /**
+     * Registra un monitor de la caché en el servidor de administración de la
+     * plataforma, con el nombre
+     * <code>mx.unam.ciencias.edd:type=CacheLRU,name=</code><em>nombre</em>.
+     * @param cache la caché.
+     * @param nombre el nombre de la caché.
+     * @return el nombre del objeto registrado, para {@link #desregistra}.
+     * @throws IllegalArgumentException si la caché o el nombre son nulos, o si
+     *         no se puede registrar con ese nombre.
+     */
+    public static ObjectName registra(CacheLRU<?, ?> cache, String nombre) {
+        if (nombre == null)
+            throw new IllegalArgumentException("El nombre no puede ser null.");
+        MonitorCache monitor = new MonitorCache(cache);
+        try {
+            ObjectName objeto = new ObjectName("mx.unam.ciencias.edd:" +
+                                               "type=CacheLRU,name=" +
+                                               ObjectName.quote(nombre));
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            return servidor.registerMBean(monitor, objeto).getObjectName();
+        } catch (JMException jme) {
+            throw new IllegalArgumentException("No se pudo registrar el " +
+                                               "monitor: " + jme.getMessage());
+        }
+    }
+
+    /**
+     * Quita un monitor del servidor de administración de la plataforma. Si
+     * no estaba registrado, no hace nada.
+     * @param objeto el nombre regresado por {@link #registra}.
+     */
+    public static void desregistra(ObjectName objeto) {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (objeto != null && servidor.isRegistered(objeto))
+                servidor.unregisterMBean(objeto);
+        } catch (JMException jme) {}
+    }
+
+    /**
+     * Regresa el número de aciertos.
+     * @return el número de aciertos.
+     */
+    @Override public long getAciertos() {
+        return cache.getEstadisticas().getAciertos();
+    }
+
+    /**
+     * Regresa el número de fallas.
+     * @return el número de fallas.
+     */
+    @Override public long getFallas() {
+        return cache.getEstadisticas().getFallas();
+    }
+
+    /**
+     * Regresa la tasa de aciertos.
+     * @return la tasa de aciertos, entre 0 y 1.
+     */
+    @Override public double getTasaAciertos() {
+        return cache.getEstadisticas().getTasaAciertos();
+    }
+
+    /**
+     * Regresa el número de desalojos por capacidad.
+     * @return el número de desalojos por capacidad.
+     */
+    @Override public long getDesalojosCapacidad() {
+        return cache.getEstadisticas().getDesalojos(CausaDesalojo.CAPACIDAD);
+    }
+
+    /**
+     * Regresa el número de desalojos por peso.
+     * @return el número de desalojos por peso.
+     */
+    @Override public long getDesalojosPeso() {
+        return cache.getEstadisticas().getDesalojos(CausaDesalojo.PESO);
+    }
+
+    /**
+     * Regresa el número de desalojos por expiración.
+     * @return el número de desalojos por expiración.
+     */
+    @Override public long getDesalojosExpiracion() {
+        return cache.getEstadisticas().getDesalojos(CausaDesalojo.EXPIRACION);
+    }
+
+    /**
+     * Regresa el número de cargas exitosas.
+     * @return el número de cargas exitosas.
+     */
+    @Override public long getCargasExitosas() {
+        return cache.getEstadisticas().getCargasExitosas();
+    }
+
+    /**
+     * Regresa el número de cargas fallidas.
+     * @return el número de cargas fallidas.
+     */
+    @Override public long getCargasFallidas() {
+        return cache.getEstadisticas().getCargasFallidas();
+    }
+
+    /**
+     * Regresa los nanosegundos totales de carga.
+     * @return los nanosegundos totales de carga.
+     */
+    @Override public long getTiempoTotalCarga() {
+        return cache.getEstadisticas().getTiempoTotalCarga();
+    }
+
+    /**
+     * Regresa los nanosegundos promedio por carga.
+     * @return los nanosegundos promedio por carga.
+     */
+    @Override public double getTiempoPromedioCarga() {
+        return cache.getEstadisticas().getTiempoPromedioCarga();
+    }
+}
@@ -0,0 +1,68 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz de administración para publicar por JMX las estadísticas de una
+ * caché. Cada atributo se lee de una instantánea nueva.
+ */
+public interface MonitorCacheMXBean {
+
+    /**
+     * Regresa el número de aciertos.
+     * @return el número de aciertos.
+     */
+    public long getAciertos();
+
+    /**
+     * Regresa el número de fallas.
+     * @return el número de fallas.
+     */
+    public long getFallas();
+
+    /**
+     * Regresa la tasa de aciertos.
+     * @return la tasa de aciertos, entre 0 y 1.
+     */
+    public double getTasaAciertos();
+
+    /**
+     * Regresa el número de desalojos por capacidad.
+     * @return el número de desalojos por capacidad.
+     */
+    public long getDesalojosCapacidad();
+
+    /**
+     * Regresa el número de desalojos por peso.
+     * @return el número de desalojos por peso.
+     */
+    public long getDesalojosPeso();
+
+    /**
+     * Regresa el número de desalojos por expiración.
+     * @return el número de desalojos por expiración.
+     */
+    public long getDesalojosExpiracion();
+
+    /**
+     * Regresa el número de cargas exitosas.
+     * @return el número de cargas exitosas.
+     */
+    public long getCargasExitosas();
+
+    /**
+     * Regresa el número de cargas fallidas.
+     * @return el número de cargas fallidas.
+     */
+    public long getCargasFallidas();
+
+    /**
+     * Regresa el tiempo total de carga.
+     * @return los nanosegundos totales de carga.
+     */
+    public long getTiempoTotalCarga();
+
+    /**
+     * Regresa el tiempo promedio de carga.
+     * @return los nanosegundos promedio por carga.
+     */
+    public double getTiempoPromedioCarga();
+}
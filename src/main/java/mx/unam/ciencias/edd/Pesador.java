@@ -0,0 +1,18 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para pesar los valores de una caché, por ejemplo en bytes, para
+ * que su capacidad se mida en peso total y no en número de valores.
+ */
+@FunctionalInterface
+public interface Pesador<K, V> {
+
+    /**
+     * Regresa el peso de un valor. Un valor debe pesar siempre lo mismo
+     * mientras esté en la caché.
+     * @param llave la llave del valor.
+     * @param valor el valor.
+     * @return el peso del valor; no puede ser negativo.
+     */
+    public int peso(K llave, V valor);
+}
@@ -0,0 +1,134 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la política de desalojo 2Q (de Johnson y Shasha). Las llaves
+ * nuevas entran a una cola FIFO de entrada (25% de la capacidad); los
+ * aciertos ahí no la mueven. Las llaves que salen de la cola de entrada se
+ * recuerdan, sin sus valores, en una cola de fantasmas (del tamaño de la
+ * mitad de la capacidad); si una de ellas se vuelve a pedir, entra
+ * directamente a la LRU de frecuentes. Un recorrido sólo pasa por la cola de
+ * entrada.
+ */
+public class Politica2Q<K> implements PoliticaDesalojo<K> {
+
+    /* Número máximo de llaves. */
+    private final int capacidad;
+    /* Número de llaves en la cola de entrada a partir del cual se desaloja
+     * de ella. */
+    private final int maximoEntrada;
+    /* Número máximo de fantasmas. */
+    private final int maximoSalida;
+    /* Los nodos de las llaves, incluyendo a los fantasmas. */
+    private Diccionario<K, ListaUso.Nodo<K>> nodos;
+    /* La cola de entrada. */
+    private ListaUso<K> entrada;
+    /* La cola de fantasmas. */
+    private ListaUso<K> salida;
+    /* La LRU de frecuentes. */
+    private ListaUso<K> frecuentes;
+
+    /**
+     * Construye una política 2Q con la capacidad dada.
+     * @param capacidad el número máximo de llaves.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public Politica2Q(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        this.capacidad = capacidad;
+        maximoEntrada = Integer.max(1, capacidad / 4);
+        maximoSalida = Integer.max(1, capacidad / 2);
+        nodos = new Diccionario<>(capacidad << 2);
+        entrada = new ListaUso<K>();
+        salida = new ListaUso<K>();
+        frecuentes = new ListaUso<K>();
+    }
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    @Override public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Registra una llave nueva: si era un fantasma entra a la LRU de
+     * frecuentes, y si no a la cola de entrada.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code>.
+     */
+    @Override public K agrega(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        boolean fantasma = nodo != null && nodo.lista == salida;
+        if (fantasma)
+            salida.elimina(nodo);
+        K victima = libera();
+        if (fantasma) {
+            frecuentes.agrega(nodo);
+        } else {
+            nodo = new ListaUso.Nodo<K>(llave);
+            entrada.agrega(nodo);
+            nodos.agrega(llave, nodo);
+        }
+        return victima;
+    }
+
+    /*
+     * Si la caché está llena desaloja una llave: de la cola de entrada si
+     * pasa de su tamaño, dejando un fantasma, y si no de la LRU.
+     */
+    private K libera() {
+        if (entrada.elementos + frecuentes.elementos < capacidad)
+            return null;
+        ListaUso.Nodo<K> rabo;
+        if (entrada.elementos > maximoEntrada) {
+            rabo = entrada.rabo;
+            entrada.elimina(rabo);
+            salida.agrega(rabo);
+            if (salida.elementos > maximoSalida) {
+                ListaUso.Nodo<K> viejo = salida.rabo;
+                salida.elimina(viejo);
+                nodos.elimina(viejo.elemento);
+            }
+        } else {
+            rabo = frecuentes.rabo;
+            frecuentes.elimina(rabo);
+            nodos.elimina(rabo.elemento);
+        }
+        return rabo.elemento;
+    }
+
+    /**
+     * Mueve la llave al frente si está en la LRU de frecuentes; en la cola de
+     * entrada no hace nada.
+     * @param llave la llave usada.
+     */
+    @Override public void accede(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo != null && nodo.lista == frecuentes)
+            frecuentes.alFrente(nodo);
+    }
+
+    /**
+     * Saca una llave de la caché, sin dejar fantasma.
+     * @param llave la llave a sacar.
+     */
+    @Override public void elimina(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo == null || nodo.lista == salida)
+            return;
+        nodo.lista.elimina(nodo);
+        nodos.elimina(llave);
+    }
+
+    /**
+     * Olvida todas las llaves y los fantasmas.
+     */
+    @Override public void limpia() {
+        nodos.limpia();
+        entrada.limpia();
+        salida.limpia();
+        frecuentes.limpia();
+    }
+}
@@ -0,0 +1,164 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la política de desalojo ARC (<em>Adaptive Replacement
+ * Cache</em>, de Megiddo y Modha). La caché se divide en dos listas LRU:
+ * T1, con las llaves usadas una sola vez desde que entraron, y T2, con las
+ * usadas al menos dos veces. Además se recuerdan, sin sus valores, las llaves
+ * desalojadas recientemente de cada una (los <em>fantasmas</em> B1 y B2).
+ *
+ * El tamaño objetivo de T1 se adapta: una falla en B1 indica que T1 era muy
+ * pequeña y lo aumenta, y una falla en B2 lo disminuye. Así la política se
+ * acerca a LRU con cargas de recencia y a LFU con cargas de frecuencia, y un
+ * recorrido sólo desplaza a T1.
+ */
+public class PoliticaARC<K> implements PoliticaDesalojo<K> {
+
+    /* Número máximo de llaves. */
+    private final int capacidad;
+    /* Los nodos de las llaves, incluyendo a los fantasmas. */
+    private Diccionario<K, ListaUso.Nodo<K>> nodos;
+    /* Las llaves usadas una vez. */
+    private ListaUso<K> t1;
+    /* Las llaves usadas más de una vez. */
+    private ListaUso<K> t2;
+    /* Los fantasmas de T1. */
+    private ListaUso<K> b1;
+    /* Los fantasmas de T2. */
+    private ListaUso<K> b2;
+    /* El tamaño objetivo de T1. */
+    private int objetivo;
+
+    /**
+     * Construye una política ARC con la capacidad dada.
+     * @param capacidad el número máximo de llaves.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public PoliticaARC(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        this.capacidad = capacidad;
+        nodos = new Diccionario<>(capacidad << 2);
+        t1 = new ListaUso<K>();
+        t2 = new ListaUso<K>();
+        b1 = new ListaUso<K>();
+        b2 = new ListaUso<K>();
+    }
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    @Override public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Registra una llave nueva. Si era un fantasma ajusta el tamaño objetivo
+     * de T1 y la llave entra a T2; si no, entra a T1.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code>.
+     */
+    @Override public K agrega(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo != null && nodo.lista == b1) {
+            objetivo = Integer.min(capacidad, objetivo +
+                                   Integer.max(b2.elementos / b1.elementos, 1));
+            K victima = reemplaza(false);
+            b1.elimina(nodo);
+            t2.agrega(nodo);
+            return victima;
+        }
+        if (nodo != null && nodo.lista == b2) {
+            objetivo = Integer.max(0, objetivo -
+                                   Integer.max(b1.elementos / b2.elementos, 1));
+            K victima = reemplaza(true);
+            b2.elimina(nodo);
+            t2.agrega(nodo);
+            return victima;
+        }
+        K victima = null;
+        int l1 = t1.elementos + b1.elementos;
+        int total = l1 + t2.elementos + b2.elementos;
+        if (l1 == capacidad) {
+            if (t1.elementos < capacidad) {
+                olvida(b1.rabo);
+                victima = reemplaza(false);
+            } else {
+                ListaUso.Nodo<K> rabo = t1.rabo;
+                olvida(rabo);
+                victima = rabo.elemento;
+            }
+        } else if (total >= capacidad) {
+            if (total == 2 * capacidad)
+                olvida(b2.rabo);
+            victima = reemplaza(false);
+        }
+        nodo = new ListaUso.Nodo<K>(llave);
+        t1.agrega(nodo);
+        nodos.agrega(llave, nodo);
+        return victima;
+    }
+
+    /*
+     * Si la caché está llena, mueve el rabo de T1 o el de T2 a sus
+     * fantasmas, según el tamaño objetivo de T1, y regresa su llave.
+     */
+    private K reemplaza(boolean enB2) {
+        if (t1.elementos + t2.elementos < capacidad)
+            return null;
+        ListaUso.Nodo<K> rabo;
+        if (t2.elementos == 0 ||
+            (t1.elementos > 0 &&
+             (t1.elementos > objetivo || (enB2 && t1.elementos == objetivo)))) {
+            rabo = t1.rabo;
+            t1.elimina(rabo);
+            b1.agrega(rabo);
+        } else {
+            rabo = t2.rabo;
+            t2.elimina(rabo);
+            b2.agrega(rabo);
+        }
+        return rabo.elemento;
+    }
+
+    /* Olvida por completo un nodo. */
+    private void olvida(ListaUso.Nodo<K> nodo) {
+        nodo.lista.elimina(nodo);
+        nodos.elimina(nodo.elemento);
+    }
+
+    /**
+     * Mueve la llave al frente de T2.
+     * @param llave la llave usada.
+     */
+    @Override public void accede(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo == null || (nodo.lista != t1 && nodo.lista != t2))
+            return;
+        nodo.lista.elimina(nodo);
+        t2.agrega(nodo);
+    }
+
+    /**
+     * Saca una llave de la caché, sin dejar fantasma.
+     * @param llave la llave a sacar.
+     */
+    @Override public void elimina(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo != null && (nodo.lista == t1 || nodo.lista == t2))
+            olvida(nodo);
+    }
+
+    /**
+     * Olvida todas las llaves y los fantasmas.
+     */
+    @Override public void limpia() {
+        nodos.limpia();
+        t1.limpia();
+        t2.limpia();
+        b1.limpia();
+        b2.limpia();
+        objetivo = 0;
+    }
+}
@@ -0,0 +1,114 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la política de desalojo CLOCK, una aproximación de LRU. Las
+ * llaves ocupan las posiciones de un arreglo circular, cada una con un bit de
+ * referencia que los aciertos prenden. Para desalojar, una manecilla recorre
+ * el arreglo apagando los bits prendidos hasta encontrar uno apagado, y sale
+ * esa llave. Un acierto sólo escribe un bit.
+ */
+public class PoliticaCLOCK<K> implements PoliticaDesalojo<K> {
+
+    /* Las llaves, en su posición del reloj. */
+    private K[] llaves;
+    /* Los bits de referencia. */
+    private boolean[] referencias;
+    /* La posición de cada llave. */
+    private Diccionario<K, Integer> posiciones;
+    /* Las posiciones libres, como pila. */
+    private int[] libres;
+    /* Número de posiciones libres. */
+    private int nLibres;
+    /* La posición de la manecilla. */
+    private int manecilla;
+
+    /**
+     * Construye una política CLOCK con la capacidad dada.
+     * @param capacidad el número máximo de llaves.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    @SuppressWarnings("unchecked")
+    public PoliticaCLOCK(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        llaves = (K[])new Object[capacidad];
+        referencias = new boolean[capacidad];
+        posiciones = new Diccionario<>(capacidad << 1);
+        libres = new int[capacidad];
+        limpia();
+    }
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    @Override public int getCapacidad() {
+        return llaves.length;
+    }
+
+    /**
+     * Registra una llave nueva en una posición libre; si no hay, mueve la
+     * manecilla hasta una llave con su bit apagado y la reemplaza.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code>.
+     */
+    @Override public K agrega(K llave) {
+        if (nLibres > 0) {
+            pon(llave, libres[--nLibres]);
+            return null;
+        }
+        while (referencias[manecilla]) {
+            referencias[manecilla] = false;
+            manecilla = (manecilla + 1) % llaves.length;
+        }
+        K victima = llaves[manecilla];
+        posiciones.elimina(victima);
+        pon(llave, manecilla);
+        manecilla = (manecilla + 1) % llaves.length;
+        return victima;
+    }
+
+    /* Pone una llave en una posición, con su bit apagado. */
+    private void pon(K llave, int i) {
+        llaves[i] = llave;
+        referencias[i] = false;
+        posiciones.agrega(llave, i);
+    }
+
+    /**
+     * Prende el bit de referencia de la llave.
+     * @param llave la llave usada.
+     */
+    @Override public void accede(K llave) {
+        Integer i = posiciones.getOrDefault(llave, null);
+        if (i != null)
+            referencias[i] = true;
+    }
+
+    /**
+     * Saca una llave de la caché y libera su posición.
+     * @param llave la llave a sacar.
+     */
+    @Override public void elimina(K llave) {
+        Integer i = posiciones.remove(llave);
+        if (i == null)
+            return;
+        llaves[i] = null;
+        referencias[i] = false;
+        libres[nLibres++] = i;
+    }
+
+    /**
+     * Olvida todas las llaves.
+     */
+    @Override public void limpia() {
+        posiciones.limpia();
+        for (int i = 0; i < llaves.length; i++) {
+            llaves[i] = null;
+            referencias[i] = false;
+            libres[i] = llaves.length - 1 - i;
+        }
+        nLibres = llaves.length;
+        manecilla = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para políticas de desalojo de cachés. Una política sólo conoce las
+ * llaves de la caché: la caché le avisa de cada llave nueva, de cada acierto
+ * y de cada llave que elimina, y la política decide qué llave sale cuando ya
+ * no hay lugar.
+ */
+public interface PoliticaDesalojo<K> {
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    public int getCapacidad();
+
+    /**
+     * Registra una llave que no está en la caché. Si la caché está llena,
+     * la política escoge una llave para desalojar; puede ser la misma llave
+     * recibida, si la política decide no admitirla.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code> si no se desaloja
+     *         ninguna.
+     */
+    public K agrega(K llave);
+
+    /**
+     * Registra un acierto en una llave de la caché. Si la llave no está en la
+     * caché no hace nada.
+     * @param llave la llave usada.
+     */
+    public void accede(K llave);
+
+    /**
+     * Saca una llave de la caché. Si la llave no está en la caché no hace
+     * nada.
+     * @param llave la llave a sacar.
+     */
+    public void elimina(K llave);
+
+    /**
+     * Olvida todas las llaves.
+     */
+    public void limpia();
+}
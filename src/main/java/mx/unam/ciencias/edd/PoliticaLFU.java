@@ -0,0 +1,143 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la política de desalojo LFU: sale la llave usada menos veces, y
+ * entre las que empatan la usada menos recientemente.
+ *
+ * Las llaves se agrupan en cubetas por frecuencia, y las cubetas forman una
+ * lista ordenada de menor a mayor frecuencia. Un acierto mueve la llave a la
+ * cubeta siguiente (creándola si hace falta) y el desalojo toma el rabo de la
+ * primera cubeta, así que todas las operaciones toman tiempo constante.
+ */
+public class PoliticaLFU<K> implements PoliticaDesalojo<K> {
+
+    /* Clase interna privada para cubetas de una misma frecuencia. */
+    private class Cubeta extends ListaUso<K> {
+
+        /* La frecuencia de las llaves de la cubeta. */
+        public final int frecuencia;
+        /* La cubeta de menor frecuencia. */
+        public Cubeta anterior;
+        /* La cubeta de mayor frecuencia. */
+        public Cubeta siguiente;
+
+        /* Construye una cubeta vacía con la frecuencia dada. */
+        public Cubeta(int frecuencia) {
+            this.frecuencia = frecuencia;
+        }
+    }
+
+    /* Número máximo de llaves. */
+    private final int capacidad;
+    /* Los nodos de las llaves. */
+    private Diccionario<K, ListaUso.Nodo<K>> nodos;
+    /* La cubeta de menor frecuencia. */
+    private Cubeta primera;
+
+    /**
+     * Construye una política LFU con la capacidad dada.
+     * @param capacidad el número máximo de llaves.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public PoliticaLFU(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        this.capacidad = capacidad;
+        nodos = new Diccionario<>(capacidad << 1);
+    }
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    @Override public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Registra una llave nueva con frecuencia 1; si la caché está llena
+     * desaloja a la menos frecuente.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code>.
+     */
+    @Override public K agrega(K llave) {
+        K victima = null;
+        if (nodos.getElementos() == capacidad) {
+            ListaUso.Nodo<K> rabo = primera.rabo;
+            saca(rabo);
+            nodos.elimina(rabo.elemento);
+            victima = rabo.elemento;
+        }
+        if (primera == null || primera.frecuencia != 1) {
+            Cubeta cubeta = new Cubeta(1);
+            cubeta.siguiente = primera;
+            if (primera != null)
+                primera.anterior = cubeta;
+            primera = cubeta;
+        }
+        ListaUso.Nodo<K> nodo = new ListaUso.Nodo<K>(llave);
+        primera.agrega(nodo);
+        nodos.agrega(llave, nodo);
+        return victima;
+    }
+
+    /**
+     * Mueve la llave a la cubeta de la siguiente frecuencia.
+     * @param llave la llave usada.
+     */
+    @Override public void accede(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo == null)
+            return;
+        Cubeta cubeta = cubeta(nodo);
+        Cubeta siguiente = cubeta.siguiente;
+        if (siguiente == null || siguiente.frecuencia != cubeta.frecuencia + 1) {
+            siguiente = new Cubeta(cubeta.frecuencia + 1);
+            siguiente.anterior = cubeta;
+            siguiente.siguiente = cubeta.siguiente;
+            if (cubeta.siguiente != null)
+                cubeta.siguiente.anterior = siguiente;
+            cubeta.siguiente = siguiente;
+        }
+        saca(nodo);
+        siguiente.agrega(nodo);
+    }
+
+    /* Regresa la cubeta de un nodo. */
+    @SuppressWarnings("unchecked")
+    private Cubeta cubeta(ListaUso.Nodo<K> nodo) {
+        return (Cubeta)nodo.lista;
+    }
+
+    /* Saca un nodo de su cubeta, y quita la cubeta si queda vacía. */
+    private void saca(ListaUso.Nodo<K> nodo) {
+        Cubeta cubeta = cubeta(nodo);
+        cubeta.elimina(nodo);
+        if (cubeta.elementos > 0)
+            return;
+        if (cubeta.anterior != null)
+            cubeta.anterior.siguiente = cubeta.siguiente;
+        else
+            primera = cubeta.siguiente;
+        if (cubeta.siguiente != null)
+            cubeta.siguiente.anterior = cubeta.anterior;
+    }
+
+    /**
+     * Saca una llave de la caché.
+     * @param llave la llave a sacar.
+     */
+    @Override public void elimina(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.remove(llave);
+        if (nodo != null)
+            saca(nodo);
+    }
+
+    /**
+     * Olvida todas las llaves.
+     */
+    @Override public void limpia() {
+        nodos.limpia();
+        primera = null;
+    }
+}
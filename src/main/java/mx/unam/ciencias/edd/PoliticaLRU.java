@@ -0,0 +1,84 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la política de desalojo LRU: sale la llave usada menos
+ * recientemente.
+ */
+public class PoliticaLRU<K> implements PoliticaDesalojo<K> {
+
+    /* Número máximo de llaves. */
+    private final int capacidad;
+    /* Los nodos de las llaves. */
+    private Diccionario<K, ListaUso.Nodo<K>> nodos;
+    /* La lista de uso. */
+    private ListaUso<K> lista;
+
+    /**
+     * Construye una política LRU con la capacidad dada.
+     * @param capacidad el número máximo de llaves.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public PoliticaLRU(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        this.capacidad = capacidad;
+        nodos = new Diccionario<>(capacidad << 1);
+        lista = new ListaUso<K>();
+    }
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    @Override public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Registra una llave nueva al frente de la lista; si la caché está llena
+     * desaloja a la del rabo.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code>.
+     */
+    @Override public K agrega(K llave) {
+        K victima = null;
+        if (lista.elementos == capacidad) {
+            ListaUso.Nodo<K> rabo = lista.rabo;
+            lista.elimina(rabo);
+            nodos.elimina(rabo.elemento);
+            victima = rabo.elemento;
+        }
+        ListaUso.Nodo<K> nodo = new ListaUso.Nodo<K>(llave);
+        lista.agrega(nodo);
+        nodos.agrega(llave, nodo);
+        return victima;
+    }
+
+    /**
+     * Mueve la llave al frente de la lista.
+     * @param llave la llave usada.
+     */
+    @Override public void accede(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo != null)
+            lista.alFrente(nodo);
+    }
+
+    /**
+     * Saca una llave de la caché.
+     * @param llave la llave a sacar.
+     */
+    @Override public void elimina(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.remove(llave);
+        if (nodo != null)
+            lista.elimina(nodo);
+    }
+
+    /**
+     * Olvida todas las llaves.
+     */
+    @Override public void limpia() {
+        nodos.limpia();
+        lista.limpia();
+    }
+}
@@ -0,0 +1,109 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la política de desalojo LRU segmentada. Las llaves nuevas entran
+ * a una región de prueba y suben a una región protegida (80% de la capacidad)
+ * cuando se vuelven a usar; lo que sobra de la protegida regresa a la de
+ * prueba. Siempre se desaloja el rabo de la región de prueba, así que las
+ * llaves usadas una sola vez no sacan a las que se usan seguido.
+ */
+public class PoliticaSLRU<K> implements PoliticaDesalojo<K> {
+
+    /* Fracción de la capacidad que ocupa la región protegida. */
+    private static final double PROTEGIDA = 0.8;
+
+    /* Número máximo de llaves. */
+    private final int capacidad;
+    /* Número máximo de llaves en la región protegida. */
+    private final int maximoProtegida;
+    /* Los nodos de las llaves. */
+    private Diccionario<K, ListaUso.Nodo<K>> nodos;
+    /* La región de prueba. */
+    private ListaUso<K> prueba;
+    /* La región protegida. */
+    private ListaUso<K> protegida;
+
+    /**
+     * Construye una política LRU segmentada con la capacidad dada.
+     * @param capacidad el número máximo de llaves.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public PoliticaSLRU(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        this.capacidad = capacidad;
+        maximoProtegida = (int)(capacidad * PROTEGIDA);
+        nodos = new Diccionario<>(capacidad << 1);
+        prueba = new ListaUso<K>();
+        protegida = new ListaUso<K>();
+    }
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    @Override public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Registra una llave nueva en la región de prueba; si la caché está llena
+     * desaloja al rabo de la región de prueba.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code>.
+     */
+    @Override public K agrega(K llave) {
+        K victima = null;
+        if (prueba.elementos + protegida.elementos == capacidad) {
+            ListaUso.Nodo<K> rabo =
+                prueba.rabo != null ? prueba.rabo : protegida.rabo;
+            rabo.lista.elimina(rabo);
+            nodos.elimina(rabo.elemento);
+            victima = rabo.elemento;
+        }
+        ListaUso.Nodo<K> nodo = new ListaUso.Nodo<K>(llave);
+        prueba.agrega(nodo);
+        nodos.agrega(llave, nodo);
+        return victima;
+    }
+
+    /**
+     * Sube la llave a la región protegida, o la mueve a su frente.
+     * @param llave la llave usada.
+     */
+    @Override public void accede(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo == null)
+            return;
+        if (nodo.lista == protegida) {
+            protegida.alFrente(nodo);
+            return;
+        }
+        prueba.elimina(nodo);
+        protegida.agrega(nodo);
+        if (protegida.elementos > maximoProtegida) {
+            ListaUso.Nodo<K> rabo = protegida.rabo;
+            protegida.elimina(rabo);
+            prueba.agrega(rabo);
+        }
+    }
+
+    /**
+     * Saca una llave de la caché.
+     * @param llave la llave a sacar.
+     */
+    @Override public void elimina(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.remove(llave);
+        if (nodo != null)
+            nodo.lista.elimina(nodo);
+    }
+
+    /**
+     * Olvida todas las llaves.
+     */
+    @Override public void limpia() {
+        nodos.limpia();
+        prueba.limpia();
+        protegida.limpia();
+    }
+}
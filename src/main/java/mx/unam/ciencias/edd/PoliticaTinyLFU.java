@@ -0,0 +1,158 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para la política de desalojo W-TinyLFU. Antes de dejar entrar a una
+ * llave nueva a su región principal compara qué tan frecuentemente se han
+ * usado la candidata y su víctima, y se queda con la más frecuente.
+ *
+ * La política tiene tres listas de uso:
+ * <ul>
+ *   <li>La <em>ventana</em>, una LRU pequeña (1% de la capacidad) a la que
+ *       entran todas las llaves nuevas; le da a las ráfagas recientes
+ *       oportunidad de acumular frecuencia.</li>
+ *   <li>La región de <em>prueba</em>, a la que pasan las llaves que salen de
+ *       la ventana si le ganan a la víctima de la región principal.</li>
+ *   <li>La región <em>protegida</em> (80% de la región principal), a la que
+ *       suben las llaves de prueba que se vuelven a usar.</li>
+ * </ul>
+ * Las frecuencias se estiman con un {@link SketchFrecuencias}, que recuerda
+ * también a las llaves que ya no están en la caché.
+ */
+public class PoliticaTinyLFU<K> implements PoliticaDesalojo<K> {
+
+    /* Fracción de la capacidad que ocupa la ventana. */
+    private static final double VENTANA = 0.01;
+
+    /* Fracción de la región principal que ocupa la región protegida. */
+    private static final double PROTEGIDA = 0.8;
+
+    /* Número máximo de llaves. */
+    private final int capacidad;
+    /* Número máximo de llaves en la ventana. */
+    private final int maximoVentana;
+    /* Número máximo de llaves en la región protegida. */
+    private final int maximoProtegida;
+    /* Los nodos de las llaves. */
+    private Diccionario<K, ListaUso.Nodo<K>> nodos;
+    /* El estimador de frecuencias. */
+    private SketchFrecuencias sketch;
+    /* La ventana de admisión. */
+    private ListaUso<K> ventana;
+    /* La región de prueba. */
+    private ListaUso<K> prueba;
+    /* La región protegida. */
+    private ListaUso<K> protegida;
+
+    /**
+     * Construye una política W-TinyLFU con la capacidad dada.
+     * @param capacidad el número máximo de llaves.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public PoliticaTinyLFU(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2.");
+        this.capacidad = capacidad;
+        maximoVentana = Integer.max(1, (int)(capacidad * VENTANA));
+        maximoProtegida = (int)((capacidad - maximoVentana) * PROTEGIDA);
+        nodos = new Diccionario<>(capacidad << 1);
+        sketch = new SketchFrecuencias(capacidad);
+        ventana = new ListaUso<K>();
+        prueba = new ListaUso<K>();
+        protegida = new ListaUso<K>();
+    }
+
+    /**
+     * Regresa el número máximo de llaves en la caché.
+     * @return el número máximo de llaves en la caché.
+     */
+    @Override public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Registra una llave nueva en la ventana. Si la ventana se pasa de su
+     * tamaño y la caché está llena, desaloja a la perdedora entre la que sale
+     * de la ventana y la víctima de la región principal, que puede ser la
+     * misma llave recién agregada.
+     * @param llave la llave nueva.
+     * @return la llave desalojada, o <code>null</code>.
+     */
+    @Override public K agrega(K llave) {
+        sketch.incrementa(llave.hashCode());
+        ListaUso.Nodo<K> nodo = new ListaUso.Nodo<K>(llave);
+        ventana.agrega(nodo);
+        nodos.agrega(llave, nodo);
+        if (ventana.elementos > maximoVentana)
+            return admite(ventana.rabo);
+        return null;
+    }
+
+    /*
+     * Saca a la candidata de la ventana. Si hay espacio en la región principal
+     * entra a la región de prueba; si no, se queda en la caché la más
+     * frecuente entre ella y la víctima de la región principal.
+     */
+    private K admite(ListaUso.Nodo<K> candidato) {
+        ventana.elimina(candidato);
+        if (prueba.elementos + protegida.elementos <
+            capacidad - maximoVentana) {
+            prueba.agrega(candidato);
+            return null;
+        }
+        ListaUso.Nodo<K> victima =
+            prueba.rabo != null ? prueba.rabo : protegida.rabo;
+        if (sketch.frecuencia(candidato.elemento.hashCode()) >
+            sketch.frecuencia(victima.elemento.hashCode())) {
+            victima.lista.elimina(victima);
+            nodos.elimina(victima.elemento);
+            prueba.agrega(candidato);
+            return victima.elemento;
+        }
+        nodos.elimina(candidato.elemento);
+        return candidato.elemento;
+    }
+
+    /**
+     * Cuenta el uso de la llave y la mueve: en la ventana y en la región
+     * protegida al frente, y de la región de prueba a la protegida.
+     * @param llave la llave usada.
+     */
+    @Override public void accede(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.getOrDefault(llave, null);
+        if (nodo == null)
+            return;
+        sketch.incrementa(llave.hashCode());
+        if (nodo.lista != prueba) {
+            nodo.lista.alFrente(nodo);
+            return;
+        }
+        prueba.elimina(nodo);
+        protegida.agrega(nodo);
+        if (protegida.elementos > maximoProtegida) {
+            ListaUso.Nodo<K> rabo = protegida.rabo;
+            protegida.elimina(rabo);
+            prueba.agrega(rabo);
+        }
+    }
+
+    /**
+     * Saca una llave de la caché. El sketch recuerda su frecuencia.
+     * @param llave la llave a sacar.
+     */
+    @Override public void elimina(K llave) {
+        ListaUso.Nodo<K> nodo = nodos.remove(llave);
+        if (nodo != null)
+            nodo.lista.elimina(nodo);
+    }
+
+    /**
+     * Olvida todas las llaves y las frecuencias.
+     */
+    @Override public void limpia() {
+        nodos.limpia();
+        sketch.limpia();
+        ventana.limpia();
+        prueba.limpia();
+        protegida.limpia();
+    }
+}
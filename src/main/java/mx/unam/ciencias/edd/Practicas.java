@@ -1,7 +1,20 @@
 package mx.unam.ciencias.edd;
 
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Prácticas: Estructuras de datos
@@ -12,12 +25,585 @@ public class Practicas {
 
     /* Imprime el uso del programa y lo termina. */
     private static void uso() {
-        System.err.println("Uso: java -jar practicas.jar N");
+        System.err.println("Uso: java -jar practicas.jar N [traza]");
         System.exit(1);
     }
 
+    /* Regresa el percentil p (entre 0 y 1) de un arreglo ordenado. */
+    private static long percentil(long[] ordenados, double p) {
+        if (ordenados.length == 0)
+            return 0;
+        int i = (int)Math.ceil(p * ordenados.length) - 1;
+        return ordenados[i < 0 ? 0 : i];
+    }
+
+    /* Interfaz para las operaciones de las pruebas de rendimiento. */
+    @FunctionalInterface
+    private interface Operacion {
+        public void opera(int llave, boolean escribe);
+    }
+
+    /*
+     * Ejecuta n operaciones en cada uno de los hilos, 10% de ellas escrituras
+     * con llaves aleatorias menores a n, y regresa las operaciones por
+     * segundo.
+     */
+    private static double rendimiento(int hilos, int n, Operacion operacion) {
+        Thread[] ts = new Thread[hilos];
+        for (int i = 0; i < hilos; i++)
+            ts[i] = new Thread(() -> {
+                    ThreadLocalRandom r = ThreadLocalRandom.current();
+                    for (int j = 0; j < n; j++)
+                        operacion.opera(r.nextInt(n), r.nextInt(10) == 0);
+                });
+        long tiempoInicial = System.nanoTime();
+        for (Thread t : ts)
+            t.start();
+        try {
+            for (Thread t : ts)
+                t.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        return hilos * (double)n / (tiempoTotal / 1000000000.0);
+    }
+
+    /* Interfaz para las peticiones de la estampida. */
+    @FunctionalInterface
+    private interface Peticion {
+        public void pide(int llave);
+    }
+
+    /*
+     * Cada hilo pide todas las llaves menores a n, empezando en un lugar
+     * distinto; regresa los nanosegundos que tardan todos los hilos.
+     */
+    private static long estampida(int hilos, int n, Peticion peticion) {
+        Thread[] ts = new Thread[hilos];
+        for (int i = 0; i < hilos; i++) {
+            int inicio = i * n / hilos;
+            ts[i] = new Thread(() -> {
+                    for (int j = 0; j < n; j++)
+                        peticion.pide((inicio + j) % n);
+                });
+        }
+        long tiempoInicial = System.nanoTime();
+        for (Thread t : ts)
+            t.start();
+        try {
+            for (Thread t : ts)
+                t.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        return System.nanoTime() - tiempoInicial;
+    }
+
+    /* Duerme el hilo actual los milisegundos dados. */
+    private static void duerme(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* Regresa los bytes usados del heap después de una colección completa. */
+    private static long heapUsado() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /* Regresa los milisegundos que han tardado todas las recolecciones. */
+    private static long tiempoRecoleccion() {
+        long total = 0;
+        for (GarbageCollectorMXBean recolector :
+                 ManagementFactory.getGarbageCollectorMXBeans())
+            total += Long.max(0, recolector.getCollectionTime());
+        return total;
+    }
+
+    /*
+     * Llena una caché con n llaves y luego le hace 2n peticiones con llaves
+     * menores a 2n; imprime el heap que ocupa llena, lo que tarda una
+     * colección completa con ella llena, y el tiempo de recolección durante
+     * las peticiones.
+     */
+    private static void midePresionHeap(String nombre, int n, long base,
+                                        Peticion peticion) {
+        for (int i = 0; i < n; i++)
+            peticion.pide(i);
+        long heap = heapUsado() - base;
+        long tiempoInicial = System.nanoTime();
+        System.gc();
+        long pausa = System.nanoTime() - tiempoInicial;
+        long recoleccion = tiempoRecoleccion();
+        Random r = new Random(n);
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < 2 * n; i++)
+            peticion.pide(r.nextInt(2 * n));
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        recoleccion = tiempoRecoleccion() - recoleccion;
+        System.out.printf("    %-16s %7.1f MB de heap, %6.1f ms por colección " +
+                          "completa, %6d ms de recolección en %.2f s de " +
+                          "peticiones.\n", nombre, heap / (1024.0 * 1024.0),
+                          pausa / 1000000.0, recoleccion,
+                          tiempoTotal / 1000000000.0);
+    }
+
+    /*
+     * Compara una caché LRU y una caché LRU directa con n elementos: cadenas
+     * de 32 caracteres como valores, y enteros como llaves.
+     */
+    private static void comparaFueraDeHeap(int n) {
+        System.out.printf("Cachés con %s cadenas:\n",
+                          NumberFormat.getIntegerInstance().format(n));
+        long base = heapUsado();
+        CacheLRU<Integer, String> lru = new CacheLRU<Integer, String>(n);
+        midePresionHeap("CacheLRU", n, base, llave -> {
+                lru.tryGet(llave, () -> String.format("valor-%026d", llave));
+            });
+        lru.limpia();
+        base = heapUsado();
+        CacheLRUDirecta<Integer, String> directa =
+            new CacheLRUDirecta<Integer, String>(n, Codificadores.cadenas());
+        midePresionHeap("CacheLRUDirecta", n, base, llave -> {
+                directa.tryGet(llave, () -> String.format("valor-%026d", llave));
+            });
+        System.out.printf("    %-16s %7.1f MB fuera del heap.\n", "",
+                          directa.getBytesFueraDelHeap() / (1024.0 * 1024.0));
+        directa.limpia();
+    }
+
+    /*
+     * Guarda a un archivo temporal una caché LRU con n cadenas, la carga en
+     * otra caché, e imprime cuánto tardan ambas cosas.
+     */
+    private static void midePersistencia(int n) throws IOException {
+        CacheLRU<Integer, String> cache = new CacheLRU<Integer, String>(n);
+        for (int i = 0; i < n; i++)
+            cache.agrega(i, String.format("valor-%026d", i));
+        Path archivo = Files.createTempFile("cache", ".edd");
+        try {
+            long tiempoInicial = System.nanoTime();
+            cache.guarda(archivo, Codificadores.enteros(),
+                         Codificadores.cadenas());
+            long guardar = System.nanoTime() - tiempoInicial;
+            CacheLRU<Integer, String> cargada =
+                new CacheLRU<Integer, String>(n);
+            tiempoInicial = System.nanoTime();
+            cargada.carga(archivo, Codificadores.enteros(),
+                          Codificadores.cadenas());
+            long cargar = System.nanoTime() - tiempoInicial;
+            System.out.printf("%.3f segundos en guardar una caché LRU con %s " +
+                              "cadenas (%.1f MB), %.3f segundos en cargarla" +
+                              "%s.\n", guardar / 1000000000.0,
+                              NumberFormat.getIntegerInstance().format(n),
+                              Files.size(archivo) / (1024.0 * 1024.0),
+                              cargar / 1000000000.0,
+                              cargada.equals(cache) ? "" : " (¡distinta!)");
+        } finally {
+            Files.delete(archivo);
+        }
+    }
+
+    /*
+     * Llena un árbol con las llaves e imprime cuántos nanosegundos tarda en
+     * promedio en buscar las consultas, cuántos niveles baja en promedio, y
+     * el tiempo por nivel.
+     */
+    private static void mideBusquedas(String nombre,
+                                      ArbolBinarioOrdenado<Integer> arbol,
+                                      Integer[] llaves, Integer[] consultas) {
+        for (Integer llave : llaves)
+            arbol.agrega(llave);
+        int encontradas = 0;
+        for (Integer consulta : consultas)
+            if (arbol.contiene(consulta))
+                encontradas++;
+        long tiempoInicial = System.nanoTime();
+        for (Integer consulta : consultas)
+            if (arbol.contiene(consulta))
+                encontradas++;
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        long niveles = 0;
+        for (Integer consulta : consultas)
+            niveles += arbol.busca(consulta).profundidad() + 1;
+        double porBusqueda = (double)tiempoTotal / consultas.length;
+        double porNivel = (double)niveles / consultas.length;
+        System.out.printf("    %-10s %12s elementos: %6.1f ns por búsqueda, " +
+                          "%4.1f niveles (log₂ n = %4.1f), %5.1f ns por " +
+                          "nivel%s.\n", nombre,
+                          NumberFormat.getIntegerInstance().format(
+                              llaves.length), porBusqueda, porNivel,
+                          Math.log(llaves.length) / Math.log(2),
+                          porBusqueda / porNivel,
+                          encontradas == 2 * consultas.length ?
+                          "" : " (¡faltan!)");
+    }
+
+    /*
+     * Mide las búsquedas en árboles rojinegros y AVL con 2^10, 2^12, ...
+     * elementos, y con el máximo: los niveles que baja una búsqueda crecen
+     * con log n, y el tiempo por nivel sólo por las fallas de caché.
+     */
+    private static void comparaBusquedas(int maximo) {
+        System.out.println("Búsquedas en árboles:");
+        Random r = new Random(maximo);
+        for (int n = Integer.min(1 << 10, maximo); n > 0;
+             n = n == maximo ? 0 : Integer.min(n << 2, maximo)) {
+            Integer[] llaves = new Integer[n];
+            for (int i = 0; i < n; i++)
+                llaves[i] = i;
+            for (int i = n - 1; i > 0; i--) {
+                int j = r.nextInt(i + 1);
+                Integer t = llaves[i];
+                llaves[i] = llaves[j];
+                llaves[j] = t;
+            }
+            Integer[] consultas = new Integer[1 << 20];
+            for (int i = 0; i < consultas.length; i++)
+                consultas[i] = llaves[r.nextInt(n)];
+            mideBusquedas("rojinegro", new ArbolRojinegro<Integer>(), llaves,
+                          consultas);
+            mideBusquedas("AVL", new ArbolAVL<Integer>(), llaves, consultas);
+        }
+    }
+
+    /* Interfaz para armar un árbol con un arreglo de llaves. */
+    @FunctionalInterface
+    private interface Carga {
+        public ArbolBinarioOrdenado<Integer> carga(Integer[] llaves);
+    }
+
+    /*
+     * Arma un árbol con las llaves e imprime cuánto tardó y su altura. Antes
+     * arma unos árboles chicos, para que la máquina virtual ya haya compilado
+     * el código que se mide, y recolecta la basura de las mediciones
+     * anteriores.
+     */
+    private static void mideCarga(String nombre, Integer[] llaves,
+                                  Carga carga) {
+        Integer[] calentamiento = new Integer[Integer.min(llaves.length,
+                                                          1 << 16)];
+        System.arraycopy(llaves, 0, calentamiento, 0, calentamiento.length);
+        for (int i = 0; i < 20; i++)
+            carga.carga(calentamiento);
+        System.gc();
+        long tiempoInicial = System.nanoTime();
+        ArbolBinarioOrdenado<Integer> arbol = carga.carga(llaves);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("    %-32s %2.3f segundos, altura %d.\n", nombre,
+                          tiempoTotal / 1e9, arbol.altura());
+    }
+
+    /*
+     * Compara armar árboles rojinegros y AVL de n elementos agregándolos uno
+     * por uno, contra armarlos directamente a partir de las llaves ordenadas,
+     * o desordenadas y ordenadas con Arreglos.
+     */
+    private static void comparaCargas(int n) {
+        System.out.printf("Armar árboles con %s elementos:\n",
+                          NumberFormat.getIntegerInstance().format(n));
+        Integer[] ordenadas = new Integer[n];
+        for (int i = 0; i < n; i++)
+            ordenadas[i] = i;
+        Integer[] desordenadas = ordenadas.clone();
+        Random r = new Random(n);
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            Integer t = desordenadas[i];
+            desordenadas[i] = desordenadas[j];
+            desordenadas[j] = t;
+        }
+        mideCarga("rojinegro, agregando ordenados", ordenadas, llaves -> {
+                ArbolRojinegro<Integer> arbol = new ArbolRojinegro<Integer>();
+                for (Integer llave : llaves)
+                    arbol.agrega(llave);
+                return arbol;
+            });
+        mideCarga("rojinegro, deOrdenados", ordenadas,
+                  ArbolRojinegro::deOrdenados);
+        mideCarga("rojinegro, deDesordenados", desordenadas,
+                  ArbolRojinegro::deDesordenados);
+        mideCarga("AVL, agregando ordenados", ordenadas, llaves -> {
+                ArbolAVL<Integer> arbol = new ArbolAVL<Integer>();
+                for (Integer llave : llaves)
+                    arbol.agrega(llave);
+                return arbol;
+            });
+        mideCarga("AVL, deOrdenados", ordenadas, ArbolAVL::deOrdenados);
+        mideCarga("AVL, deDesordenados", desordenadas,
+                  ArbolAVL::deDesordenados);
+    }
+
+    /*
+     * Compara cuánto tarda encontrar el k-ésimo elemento de un árbol
+     * rojinegro de n elementos con select, contra recorrerlo con su
+     * iterador, y cuánto tardan rank y cuentaRango.
+     */
+    private static void comparaEstadisticas(int n) {
+        System.out.printf("Estadísticas de orden en un árbol rojinegro con " +
+                          "%s elementos:\n",
+                          NumberFormat.getIntegerInstance().format(n));
+        Integer[] llaves = new Integer[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = 2 * i;
+        ArbolRojinegro<Integer> arbol = ArbolRojinegro.deOrdenados(llaves);
+        Random r = new Random(n);
+        int consultas = 1 << 20;
+        int[] posiciones = new int[consultas];
+        for (int i = 0; i < consultas; i++)
+            posiciones[i] = r.nextInt(n);
+        long basura = 0;
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            long tiempoInicial = System.nanoTime();
+            for (int k : posiciones)
+                basura += arbol.select(k);
+            long select = System.nanoTime() - tiempoInicial;
+            tiempoInicial = System.nanoTime();
+            for (int k : posiciones)
+                basura += arbol.rank(2 * k + 1);
+            long rank = System.nanoTime() - tiempoInicial;
+            tiempoInicial = System.nanoTime();
+            for (int k : posiciones)
+                basura += arbol.cuentaRango(k, k + 1000);
+            long cuenta = System.nanoTime() - tiempoInicial;
+            if (vuelta == 0)
+                continue;
+            System.out.printf("    select: %5.1f ns, rank: %5.1f ns, " +
+                              "cuentaRango: %5.1f ns por consulta.\n",
+                              (double)select / consultas,
+                              (double)rank / consultas,
+                              (double)cuenta / consultas);
+        }
+        int recorridos = 16;
+        long tiempoInicial = System.nanoTime();
+        for (int i = 0; i < recorridos; i++) {
+            Iterator<Integer> iterador = arbol.iterator();
+            for (int k = posiciones[i]; k > 0; k--)
+                iterador.next();
+            basura += iterador.next();
+        }
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        if (basura == 42)
+            System.out.print("");
+        System.out.printf("    select recorriendo con el iterador: %.1f µs " +
+                          "por consulta.\n",
+                          tiempoTotal / 1e3 / recorridos);
+    }
+
+    /* Regresa los bytes que ha reservado el hilo actual. */
+    private static long bytesReservados() {
+        return ((com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /*
+     * Compara recorrer rangos de mil elementos en un árbol rojinegro de n
+     * elementos con la vista rango, contra recorrer el árbol con su iterador
+     * desde el principio hasta el final del rango. Imprime el tiempo por
+     * rango y los bytes reservados por elemento recorrido.
+     */
+    private static void comparaRangos(int n) {
+        System.out.printf("Rangos de 1,000 elementos en un árbol rojinegro " +
+                          "con %s elementos:\n",
+                          NumberFormat.getIntegerInstance().format(n));
+        Integer[] llaves = new Integer[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = i;
+        ArbolRojinegro<Integer> arbol = ArbolRojinegro.deOrdenados(llaves);
+        int ancho = Integer.min(1000, n);
+        Random r = new Random(n);
+        long basura = 0;
+        long recorridos = 0;
+        int rangos = 1 << 12;
+        long tiempoTotal = 0, bytes = 0;
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            recorridos = 0;
+            long bytesIniciales = bytesReservados();
+            long tiempoInicial = System.nanoTime();
+            for (int i = 0; i < rangos; i++) {
+                int desde = r.nextInt(n - ancho + 1);
+                for (Integer e : arbol.rango(desde, desde + ancho - 1)) {
+                    basura += e;
+                    recorridos++;
+                }
+            }
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            bytes = bytesReservados() - bytesIniciales;
+        }
+        System.out.printf("    rango:    %10.1f µs por rango, %5.2f bytes " +
+                          "por elemento recorrido.\n",
+                          tiempoTotal / 1e3 / rangos,
+                          (double)bytes / recorridos);
+        rangos = 16;
+        recorridos = 0;
+        long bytesIniciales = bytesReservados();
+        long tiempoInicial = System.nanoTime();
+        for (int i = 0; i < rangos; i++) {
+            int desde = r.nextInt(n - ancho + 1);
+            int hasta = desde + ancho - 1;
+            for (Integer e : arbol) {
+                recorridos++;
+                if (e > hasta)
+                    break;
+                if (e >= desde)
+                    basura += e;
+            }
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        bytes = bytesReservados() - bytesIniciales;
+        if (basura == 42)
+            System.out.print("");
+        System.out.printf("    iterador: %10.1f µs por rango, %5.2f bytes " +
+                          "por elemento recorrido (%s por rango).\n",
+                          tiempoTotal / 1e3 / rangos,
+                          (double)bytes / recorridos,
+                          NumberFormat.getIntegerInstance().format(
+                              recorridos / rangos));
+    }
+
+    /* Interfaz para construir árboles vacíos. */
+    @FunctionalInterface
+    private interface Fabrica {
+        public Coleccion<Integer> nueva();
+    }
+
+    /*
+     * Agrega las llaves a un árbol nuevo y busca las consultas; imprime lo
+     * que tardan, el heap que ocupa el árbol sin contar a las llaves, y lo
+     * que tarda una colección completa con el árbol lleno. Antes calienta
+     * la máquina virtual con árboles chicos.
+     */
+    private static void mideArbol(String nombre, Fabrica fabrica,
+                                  Integer[] llaves, Integer[] consultas) {
+        for (int vuelta = 0; vuelta < 10; vuelta++) {
+            Coleccion<Integer> arbol = fabrica.nueva();
+            for (int i = 0; i < Integer.min(llaves.length, 1 << 16); i++)
+                arbol.agrega(llaves[i]);
+            for (int i = 0; i < Integer.min(consultas.length, 1 << 16); i++)
+                arbol.contiene(consultas[i]);
+        }
+        long base = heapUsado();
+        Coleccion<Integer> arbol = fabrica.nueva();
+        long tiempoInicial = System.nanoTime();
+        for (Integer llave : llaves)
+            arbol.agrega(llave);
+        long agrega = System.nanoTime() - tiempoInicial;
+        long heap = heapUsado() - base;
+        tiempoInicial = System.nanoTime();
+        System.gc();
+        long pausa = System.nanoTime() - tiempoInicial;
+        int encontradas = 0;
+        tiempoInicial = System.nanoTime();
+        for (Integer consulta : consultas)
+            if (arbol.contiene(consulta))
+                encontradas++;
+        long busca = System.nanoTime() - tiempoInicial;
+        System.out.printf("    %-26s agregar %5.2f s, buscar %6.1f ns, " +
+                          "%5.1f bytes por elemento, %6.1f ms por " +
+                          "colección completa%s.\n", nombre, agrega / 1e9,
+                          (double)busca / consultas.length,
+                          (double)heap / llaves.length, pausa / 1e6,
+                          2 * encontradas == consultas.length ?
+                          "" : " (¡faltan!)");
+    }
+
+    /*
+     * Compara los árboles rojinegros y AVL de vértices con los guardados en
+     * arreglos, con n llaves en desorden y 2^20 consultas, la mitad de
+     * llaves que no están.
+     */
+    private static void comparaArbolesEnArreglos(int n) {
+        System.out.printf("Árboles de vértices y en arreglos con %s " +
+                          "elementos:\n",
+                          NumberFormat.getIntegerInstance().format(n));
+        Integer[] llaves = new Integer[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = 2 * i;
+        Random r = new Random(n);
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            Integer t = llaves[i];
+            llaves[i] = llaves[j];
+            llaves[j] = t;
+        }
+        Integer[] consultas = new Integer[1 << 20];
+        for (int i = 0; i < consultas.length; i++)
+            consultas[i] = 2 * r.nextInt(n) + (i & 1);
+        mideArbol("ArbolRojinegro", () -> new ArbolRojinegro<Integer>(),
+                  llaves, consultas);
+        mideArbol("ArbolRojinegroEnArreglos",
+                  () -> new ArbolRojinegroEnArreglos<Integer>(),
+                  llaves, consultas);
+        mideArbol("ArbolAVL", () -> new ArbolAVL<Integer>(),
+                  llaves, consultas);
+        mideArbol("ArbolAVLEnArreglos",
+                  () -> new ArbolAVLEnArreglos<Integer>(), llaves, consultas);
+    }
+
+    /* Interfaz para los dispersores de las pruebas de rendimiento. */
+    @FunctionalInterface
+    private interface DispersorBytes {
+        public int dispersa(byte[] llave);
+    }
+
+    /*
+     * Dispersa llaves de n bytes hasta sumar 64 MB, y regresa los GB por
+     * segundo.
+     */
+    private static double gbPorSegundo(DispersorBytes dispersor, int n) {
+        byte[] llave = new byte[n];
+        new Random().nextBytes(llave);
+        int veces = (1 << 26) / n;
+        int basura = 0;
+        for (int i = 0; i < veces; i++)
+            basura += dispersor.dispersa(llave);
+        long tiempoInicial = System.nanoTime();
+        for (int i = 0; i < veces; i++)
+            basura += dispersor.dispersa(llave);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        if (basura == 42)
+            System.out.print("");
+        return (double)veces * n / tiempoTotal;
+    }
+
+    /*
+     * Reproduce una traza en una caché LRU y en una caché de la misma
+     * capacidad con cada política de desalojo, e imprime sus tasas de
+     * aciertos y cuántas peticiones atienden por segundo.
+     */
+    private static void comparaCaches(String nombre, int[] traza,
+                                      int capacidad) {
+        System.out.printf("Traza %s (%d peticiones, capacidad %d):\n",
+                          nombre, traza.length, capacidad);
+        imprimeTasa("CacheLRU", SimuladorCache.acceso(
+                        new CacheLRU<Integer, Integer>(capacidad)), traza);
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values())
+            imprimeTasa(algoritmo.toString(), SimuladorCache.acceso(
+                            new Cache<Integer, Integer>(algoritmo, capacidad)),
+                        traza);
+    }
+
+    /* Imprime la tasa de aciertos y las peticiones por segundo de un acceso. */
+    private static void imprimeTasa(String nombre,
+                                    SimuladorCache.Acceso acceso,
+                                    int[] traza) {
+        long tiempoInicial = System.nanoTime();
+        double tasa = SimuladorCache.tasaAciertos(acceso, traza);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("    %-10s %5.1f%% de aciertos, %s peticiones " +
+                          "por segundo.\n", nombre, 100 * tasa,
+                          NumberFormat.getIntegerInstance().format(
+                              (long)(traza.length * 1e9 / tiempoTotal)));
+    }
+
     public static void main(String[] args) {
-        if (args.length != 1)
+        if (args.length != 1 && args.length != 2)
             uso();
 
         int N = -1;
@@ -40,6 +626,114 @@ public class Practicas {
 
         int b = arreglo[N/2];
 
+        Diccionario<Integer, Integer> creciente =
+            new Diccionario<Integer, Integer>();
+        long[] latencias = new long[N];
+        for (int i = 0; i < N; i++) {
+            tiempoInicial = System.nanoTime();
+            creciente.agrega(i, i);
+            latencias[i] = System.nanoTime() - tiempoInicial;
+        }
+        Arrays.sort(latencias);
+        System.out.printf("Latencias al llenar un diccionario que crece con " +
+                          "%s elementos: p50 %s ns, p99 %s ns, " +
+                          "p99.9 %s ns, p99.99 %s ns, máxima %s ns.\n",
+                          nf.format(N),
+                          nf.format(percentil(latencias, 0.5)),
+                          nf.format(percentil(latencias, 0.99)),
+                          nf.format(percentil(latencias, 0.999)),
+                          nf.format(percentil(latencias, 0.9999)),
+                          nf.format(percentil(latencias, 1.0)));
+
+        for (int n = 4; n <= 1 << 16; n <<= 2)
+            System.out.printf("Llaves de %6d bytes: XOR %5.2f GB/s, " +
+                              "Bob Jenkins %5.2f GB/s, DJB %5.2f GB/s.\n", n,
+                              gbPorSegundo(Dispersores::dispersaXOR, n),
+                              gbPorSegundo(Dispersores::dispersaBJ, n),
+                              gbPorSegundo(Dispersores::dispersaDJB, n));
+
+        for (int n = 4; n <= 1 << 16; n <<= 2)
+            System.out.printf("Llaves de %6d bytes: Murmur3 %5.2f GB/s, " +
+                              "Murmur3 128 %5.2f GB/s, xxHash32 %5.2f GB/s, " +
+                              "xxHash64 %5.2f GB/s, wyhash %5.2f GB/s.\n", n,
+                              gbPorSegundo(Dispersores::dispersaMurmur3, n),
+                              gbPorSegundo(k -> (int)Dispersores
+                                           .dispersaMurmur3x128(k, 0)[0], n),
+                              gbPorSegundo(Dispersores::dispersaXXH32, n),
+                              gbPorSegundo(k -> (int)Dispersores
+                                           .dispersaXXH64(k), n),
+                              gbPorSegundo(k -> (int)Dispersores
+                                           .dispersaWyhash(k), n));
+
+        String[][] conjuntosLlaves = {
+            new String[N], new String[N], new String[N]
+        };
+        String[] nombresLlaves = { "usuarios", "URLs", "palabras" };
+        for (int i = 0; i < N; i++) {
+            conjuntosLlaves[0][i] = String.format("usuario%07d", i);
+            conjuntosLlaves[1][i] =
+                String.format("https://www.ejemplo.mx/productos/%d?pagina=%d",
+                              i / 10, i % 10);
+            StringBuilder palabra = new StringBuilder();
+            int letras = 4 + random.nextInt(9);
+            for (int j = 0; j < letras; j++)
+                palabra.append((char)('a' + random.nextInt(26)));
+            conjuntosLlaves[2][i] = palabra.toString();
+        }
+        for (int c = 0; c < conjuntosLlaves.length; c++) {
+            for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+                Diccionario<String, Integer> dicc =
+                    new Diccionario<String, Integer>(
+                        FabricaDispersores.dispersorCadena(algoritmo));
+                tiempoInicial = System.nanoTime();
+                for (int i = 0; i < N; i++)
+                    dicc.agrega(conjuntosLlaves[c][i], i);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                System.out.printf("%2.9f segundos en llenar un diccionario " +
+                                  "con %s %s y %s: %s colisiones, colisión " +
+                                  "máxima %d.\n",
+                                  (tiempoTotal/1000000000.0), nf.format(N),
+                                  nombresLlaves[c], algoritmo,
+                                  nf.format(dicc.colisiones()),
+                                  dicc.colisionMaxima());
+            }
+        }
+
+        /*
+         * "Aa" y "BB" tienen el mismo hashCode, así que todas sus
+         * concatenaciones de la misma longitud también.
+         */
+        int bloques = Integer.min(13, 31 - Integer.numberOfLeadingZeros(N));
+        String[] ataque = new String[1 << bloques];
+        for (int i = 0; i < ataque.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < bloques; j++)
+                sb.append((i >>> j & 1) == 0 ? "Aa" : "BB");
+            ataque[i] = sb.toString();
+        }
+        Diccionario<String, Integer> atacado =
+            new Diccionario<String, Integer>();
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < ataque.length; i++)
+            atacado.agrega(ataque[i], i);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un diccionario " +
+                          "con %s llaves con el mismo hashCode: " +
+                          "colisión máxima %d.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(ataque.length), atacado.colisionMaxima());
+        Diccionario<String, Integer> seguro =
+            new Diccionario<String, Integer>(64, () -> FabricaDispersores
+                .dispersorCadena(AlgoritmoDispersor.SIPHASH_STRING), 16);
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < ataque.length; i++)
+            seguro.agrega(ataque[i], i);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un diccionario " +
+                          "seguro con las mismas llaves: " +
+                          "colisión máxima %d.\n",
+                          (tiempoTotal/1000000000.0), seguro.colisionMaxima());
+
         ArbolBinarioOrdenado<Integer> abo = new ArbolBinarioOrdenado<Integer>();
         tiempoInicial = System.nanoTime();
         for (int i = 0; i < N; i++)
@@ -77,6 +771,16 @@ public class Practicas {
                           "con %s elementos.\n",
                           (tiempoTotal/1000000000.0), nf.format(N));
 
+        DiccionarioAbierto<Integer, Integer> abierto =
+            new DiccionarioAbierto<Integer, Integer>(N);
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            abierto.agrega(arreglo[i], arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un diccionario " +
+                          "abierto con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
         Conjunto<Integer> conjunto = new Conjunto<Integer>(N);
         tiempoInicial = System.nanoTime();
         for (int i = 0; i < N; i++)
@@ -113,6 +817,232 @@ public class Practicas {
                           "diccionario con %s elementos.\n",
                           (tiempoTotal/1000000000.0), nf.format(N));
 
+        tiempoInicial = System.nanoTime();
+        abierto.contiene(b);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en buscar en un " +
+                          "diccionario abierto con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            diccionario.get(arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en buscar %s llaves en un " +
+                          "diccionario.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            abierto.get(arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en buscar %s llaves en un " +
+                          "diccionario abierto.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        DiccionarioIntInt primitivo = new DiccionarioIntInt(N);
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            primitivo.agrega(arreglo[i], arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un diccionario " +
+                          "de enteros con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            primitivo.get(arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en buscar %s llaves en un " +
+                          "diccionario de enteros.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        DiccionarioConcurrente<Integer, Integer> concurrente =
+            new DiccionarioConcurrente<Integer, Integer>(N);
+        for (int i = 0; i < N; i++)
+            concurrente.agrega(arreglo[i], arreglo[i]);
+        for (int hilos = 1; hilos <= 16; hilos *= 2) {
+            double sincronizado = rendimiento(hilos, N, (llave, escribe) -> {
+                    synchronized (diccionario) {
+                        if (escribe)
+                            diccionario.agrega(llave, llave);
+                        else
+                            diccionario.getOrDefault(llave, null);
+                    }
+                });
+            double segmentado = rendimiento(hilos, N, (llave, escribe) -> {
+                    if (escribe)
+                        concurrente.agrega(llave, llave);
+                    else
+                        concurrente.getOrDefault(llave, null);
+                });
+            System.out.printf("Con %2d hilos: %s operaciones por segundo en " +
+                              "un diccionario sincronizado, %s en un " +
+                              "diccionario concurrente.\n", hilos,
+                              nf.format((long)sincronizado),
+                              nf.format((long)segmentado));
+        }
+
+        /*
+         * Aciertos en cachés llenas de distintos tamaños: si un acierto sólo
+         * reacomoda referencias, su costo no depende del tamaño.
+         */
+        for (int n = 1 << 8; n <= Integer.max(1 << 8, N); n <<= 4) {
+            CacheLRU<Integer, Integer> llena = new CacheLRU<Integer, Integer>(n);
+            CacheLRU<Integer, Integer> expira = new CacheLRU<Integer, Integer>(n);
+            expira.setExpiraTrasAcceso(1, TimeUnit.HOURS);
+            CacheLRU<Integer, Integer> cuenta = new CacheLRU<Integer, Integer>(n);
+            cuenta.setRegistraEstadisticas(true);
+            Integer[] aciertos = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                aciertos[i] = i;
+                llena.agrega(i, i);
+                expira.agrega(i, i);
+                cuenta.agrega(i, i);
+            }
+            int veces = Integer.max(1 << 22, n);
+            for (int i = 0; i < veces; i++) {
+                llena.get(aciertos[random.nextInt(n)]);
+                expira.get(aciertos[random.nextInt(n)]);
+                cuenta.get(aciertos[random.nextInt(n)]);
+            }
+            int[] orden = new int[veces];
+            for (int i = 0; i < veces; i++)
+                orden[i] = random.nextInt(n);
+            tiempoInicial = System.nanoTime();
+            for (int i = 0; i < veces; i++)
+                llena.get(aciertos[orden[i]]);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            long tiempoExpira = System.nanoTime();
+            for (int i = 0; i < veces; i++)
+                expira.get(aciertos[orden[i]]);
+            tiempoExpira = System.nanoTime() - tiempoExpira;
+            long tiempoCuenta = System.nanoTime();
+            for (int i = 0; i < veces; i++)
+                cuenta.get(aciertos[orden[i]]);
+            tiempoCuenta = System.nanoTime() - tiempoCuenta;
+            System.out.printf("%5.1f ns por acierto en una caché LRU con " +
+                              "%s elementos, %5.1f ns con expiración tras " +
+                              "acceso, %5.1f ns con estadísticas.\n",
+                              (double)tiempoTotal / veces, nf.format(n),
+                              (double)tiempoExpira / veces,
+                              (double)tiempoCuenta / veces);
+        }
+
+        /*
+         * Llaves sesgadas hacia las pequeñas (k²/N), en cachés con una décima
+         * parte de las llaves posibles.
+         */
+        int llaves = N;
+        int capacidadCache = Integer.max(2, N / 10);
+        CacheLRU<Integer, Integer> lru =
+            new CacheLRU<Integer, Integer>(capacidadCache);
+        CacheLRUConcurrente<Integer, Integer> lruConcurrente =
+            new CacheLRUConcurrente<Integer, Integer>(capacidadCache);
+        for (int hilos = 1; hilos <= 16; hilos *= 2) {
+            LongAdder fallasSincronizado = new LongAdder();
+            LongAdder fallasConcurrente = new LongAdder();
+            double sincronizado = rendimiento(hilos, N, (llave, escribe) -> {
+                    int k = (int)((long)llave * llave / llaves);
+                    synchronized (lru) {
+                        lru.tryGet(k, () -> {
+                                fallasSincronizado.increment();
+                                return k;
+                            });
+                    }
+                });
+            double sinBloqueo = rendimiento(hilos, N, (llave, escribe) -> {
+                    int k = (int)((long)llave * llave / llaves);
+                    lruConcurrente.tryGet(k, () -> {
+                            fallasConcurrente.increment();
+                            return k;
+                        });
+                });
+            double total = hilos * (double)N;
+            System.out.printf("Con %2d hilos: %s operaciones por segundo y " +
+                              "%.1f%% de aciertos en una caché LRU " +
+                              "sincronizada, %s y %.1f%% en una caché LRU " +
+                              "concurrente.\n", hilos,
+                              nf.format((long)sincronizado),
+                              100 * (1 - fallasSincronizado.sum() / total),
+                              nf.format((long)sinBloqueo),
+                              100 * (1 - fallasConcurrente.sum() / total));
+        }
+
+        /*
+         * Estampida: varios hilos piden las mismas llaves, empezando en
+         * lugares distintos, y el valor de cada llave tarda un milisegundo en
+         * computarse. Las dos cachés computan llaves distintas en paralelo y
+         * cada una una vez; la concurrente en los hilos que fallan, y la
+         * asíncrona en su ejecutor.
+         */
+        int hilosEstampida = 8;
+        int llavesEstampida = 128;
+        LongAdder computacionesConcurrente = new LongAdder();
+        LongAdder computacionesAsincrona = new LongAdder();
+        CacheLRUConcurrente<Integer, Integer> estampidaConcurrente =
+            new CacheLRUConcurrente<Integer, Integer>(llavesEstampida);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilosEstampida);
+        CacheLRUAsincrona<Integer, Integer> estampidaAsincrona =
+            new CacheLRUAsincrona<Integer, Integer>(llavesEstampida, ejecutor);
+        long tiempoConcurrente = estampida(hilosEstampida, llavesEstampida,
+                                           llave -> {
+                estampidaConcurrente.tryGet(llave, () -> {
+                        computacionesConcurrente.increment();
+                        duerme(1);
+                        return llave;
+                    });
+            });
+        long tiempoAsincrona = estampida(hilosEstampida, llavesEstampida,
+                                         llave -> {
+                estampidaAsincrona.tryGet(llave, () -> {
+                        computacionesAsincrona.increment();
+                        duerme(1);
+                        return llave;
+                    }).join();
+            });
+        ejecutor.shutdown();
+        System.out.printf("Con %d hilos pidiendo las mismas %d llaves: %d " +
+                          "computaciones en %.1f ms en una caché LRU " +
+                          "concurrente, %d en %.1f ms en una caché LRU " +
+                          "asíncrona.\n", hilosEstampida, llavesEstampida,
+                          computacionesConcurrente.sum(),
+                          tiempoConcurrente / 1000000.0,
+                          computacionesAsincrona.sum(),
+                          tiempoAsincrona / 1000000.0);
+
+        int llavesTraza = Integer.max(1 << 10, N / 10);
+        int capacidadTraza = llavesTraza / 20;
+        int[] zipf = SimuladorCache.zipf(Integer.max(N, 1 << 16), llavesTraza,
+                                         0.9, random);
+        comparaCaches("Zipf", zipf, capacidadTraza);
+        comparaCaches("Zipf con recorridos",
+                      SimuladorCache.conRecorridos(zipf, 4 * capacidadTraza,
+                                                   2 * capacidadTraza),
+                      capacidadTraza);
+        if (args.length == 2) {
+            try {
+                int[] traza = SimuladorCache.lee(Paths.get(args[1]));
+                comparaCaches(args[1], traza, capacidadTraza);
+            } catch (IOException | NumberFormatException e) {
+                System.err.printf("No se pudo leer la traza %s: %s\n",
+                                  args[1], e.getMessage());
+            }
+        }
+
+        comparaBusquedas(N);
+        comparaCargas(N);
+        comparaEstadisticas(N);
+        comparaRangos(N);
+        comparaArbolesEnArreglos(N);
+        comparaFueraDeHeap(N);
+        try {
+            midePersistencia(N);
+        } catch (IOException ioe) {
+            System.err.printf("No se pudo guardar la caché: %s\n",
+                              ioe.getMessage());
+        }
+
         tiempoInicial = System.nanoTime();
         conjunto.contiene(b);
         tiempoTotal = System.nanoTime() - tiempoInicial;
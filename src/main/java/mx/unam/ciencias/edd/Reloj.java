@@ -0,0 +1,17 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para relojes. Las cachés con expiración le preguntan la hora a un
+ * reloj en lugar de a {@link System#nanoTime}, para que las pruebas puedan
+ * adelantar el tiempo.
+ */
+@FunctionalInterface
+public interface Reloj {
+
+    /**
+     * Regresa la hora en nanosegundos. Como con {@link System#nanoTime}, sólo
+     * tienen sentido las diferencias entre dos horas del mismo reloj.
+     * @return la hora en nanosegundos.
+     */
+    public long ahora();
+}
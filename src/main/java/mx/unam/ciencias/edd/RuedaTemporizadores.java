@@ -0,0 +1,245 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para ruedas jerárquicas de temporizadores. Cada temporizador tiene
+ * una hora de expiración y un elemento; al avanzar la rueda hasta una hora,
+ * se avisa de los elementos cuyos temporizadores ya expiraron.
+ *
+ * La rueda tiene varios niveles de {@link #CUBETAS} cubetas. En el primer
+ * nivel cada cubeta abarca alrededor de un milisegundo, y en cada nivel
+ * siguiente una cubeta abarca una vuelta completa del nivel anterior; con
+ * cinco niveles la rueda cubre alrededor de trece días, y lo que expira
+ * después se queda en el último nivel. Un temporizador se guarda en el nivel
+ * más bajo que alcanza su expiración, así que agregarlo, quitarlo o
+ * reprogramarlo toma tiempo constante. Al avanzar, sólo se revisan las
+ * cubetas por las que pasó el tiempo: las del primer nivel expiran a sus
+ * temporizadores, y las de los niveles superiores los bajan de nivel. Cada
+ * temporizador baja a lo más una vez por nivel, así que el costo amortizado
+ * de expirarlo también es constante. Los niveles se revisan de arriba hacia
+ * abajo, así que al avanzar hasta una hora expiran todos los temporizadores
+ * con esa hora de expiración o una anterior.
+ */
+public class RuedaTemporizadores<T> {
+
+    /**
+     * Clase para temporizadores de la rueda.
+     */
+    public static final class Temporizador<T> {
+
+        /* El elemento del temporizador. */
+        private T elemento;
+        /* La hora de expiración, relativa al origen de la rueda. */
+        private long expira;
+        /* El temporizador anterior en la cubeta. */
+        private Temporizador<T> anterior;
+        /* El temporizador siguiente en la cubeta. */
+        private Temporizador<T> siguiente;
+
+        /* Construye un temporizador. */
+        private Temporizador(T elemento, long expira) {
+            this.elemento = elemento;
+            this.expira = expira;
+        }
+
+        /* Construye el centinela de una cubeta. */
+        private Temporizador() {
+            anterior = siguiente = this;
+        }
+
+        /**
+         * Regresa el elemento del temporizador.
+         * @return el elemento del temporizador.
+         */
+        public T getElemento() {
+            return elemento;
+        }
+
+        /**
+         * Nos dice si el temporizador está en la rueda.
+         * @return <code>true</code> si el temporizador está en la rueda,
+         *         <code>false</code> si ya expiró o se eliminó.
+         */
+        public boolean estaProgramado() {
+            return siguiente != null;
+        }
+    }
+
+    /**
+     * Interfaz para recibir los elementos que expiran.
+     */
+    @FunctionalInterface
+    public interface Expiracion<T> {
+
+        /**
+         * Recibe un elemento cuyo temporizador expiró. El temporizador ya no
+         * está en la rueda.
+         * @param elemento el elemento.
+         */
+        public void expira(T elemento);
+    }
+
+    /** Número de cubetas por nivel. */
+    public static final int CUBETAS = 64;
+
+    /* Los corrimientos de cada nivel: una cubeta abarca 2^corrimiento ns. */
+    private static final int[] CORRIMIENTOS = { 20, 26, 32, 38, 44 };
+
+    /* Las cubetas de cada nivel, cada una con su centinela. */
+    private final Temporizador<T>[][] cubetas;
+    /* La hora de origen; todas las horas se guardan relativas a ella. */
+    private final long origen;
+    /* La última hora a la que se avanzó, relativa al origen. */
+    private long tiempo;
+    /* Número de temporizadores en la rueda. */
+    private int elementos;
+
+    /**
+     * Construye una rueda vacía que empieza en la hora dada.
+     * @param ahora la hora inicial, en nanosegundos.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RuedaTemporizadores(long ahora) {
+        origen = ahora;
+        cubetas = new Temporizador[CORRIMIENTOS.length][CUBETAS];
+        for (int i = 0; i < cubetas.length; i++)
+            for (int j = 0; j < CUBETAS; j++)
+                cubetas[i][j] = new Temporizador<T>();
+    }
+
+    /**
+     * Regresa el número de temporizadores en la rueda.
+     * @return el número de temporizadores en la rueda.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Agrega un temporizador a la rueda.
+     * @param elemento el elemento del temporizador.
+     * @param expira la hora de expiración, en nanosegundos.
+     * @return el temporizador agregado.
+     */
+    public Temporizador<T> agrega(T elemento, long expira) {
+        Temporizador<T> temporizador =
+            new Temporizador<T>(elemento, expira - origen);
+        ubica(temporizador);
+        elementos++;
+        return temporizador;
+    }
+
+    /**
+     * Cambia la hora de expiración de un temporizador. Si el temporizador ya
+     * no estaba en la rueda, lo vuelve a meter.
+     * @param temporizador el temporizador.
+     * @param expira la nueva hora de expiración, en nanosegundos.
+     */
+    public void reprograma(Temporizador<T> temporizador, long expira) {
+        if (temporizador.estaProgramado())
+            desliga(temporizador);
+        else
+            elementos++;
+        temporizador.expira = expira - origen;
+        ubica(temporizador);
+    }
+
+    /**
+     * Saca un temporizador de la rueda. Si ya no estaba, no hace nada.
+     * @param temporizador el temporizador.
+     */
+    public void elimina(Temporizador<T> temporizador) {
+        if (!temporizador.estaProgramado())
+            return;
+        desliga(temporizador);
+        elementos--;
+    }
+
+    /**
+     * Avanza la rueda hasta la hora dada, y avisa de cada elemento cuyo
+     * temporizador expiró a esa hora o antes. Si la hora es anterior a la
+     * última hora a la que se avanzó, no hace nada.
+     * @param ahora la hora, en nanosegundos.
+     * @param expiracion a quién avisarle de los elementos que expiran.
+     */
+    public void avanza(long ahora, Expiracion<T> expiracion) {
+        long anterior = tiempo;
+        long actual = ahora - origen;
+        if (actual <= anterior)
+            return;
+        tiempo = actual;
+        for (int nivel = CORRIMIENTOS.length - 1; nivel >= 0; nivel--) {
+            long desde = anterior >>> CORRIMIENTOS[nivel];
+            long hasta = actual >>> CORRIMIENTOS[nivel];
+            if (hasta == desde && nivel > 0)
+                continue;
+            long vueltas = Long.min(hasta - desde, CUBETAS - 1);
+            for (long tick = desde; tick <= desde + vueltas; tick++)
+                vacia(cubetas[nivel][(int)(tick & (CUBETAS - 1))],
+                      expiracion);
+        }
+    }
+
+    /*
+     * Vacía una cubeta: los temporizadores expirados avisan, y los demás se
+     * vuelven a ubicar, normalmente en un nivel más bajo. La cubeta se
+     * desprende antes de recorrerla, por si algún temporizador regresa a ella.
+     */
+    private void vacia(Temporizador<T> centinela, Expiracion<T> expiracion) {
+        Temporizador<T> t = centinela.siguiente;
+        if (t == centinela)
+            return;
+        centinela.anterior.siguiente = null;
+        centinela.anterior = centinela.siguiente = centinela;
+        while (t != null) {
+            Temporizador<T> siguiente = t.siguiente;
+            t.anterior = t.siguiente = null;
+            if (t.expira <= tiempo) {
+                elementos--;
+                expiracion.expira(t.elemento);
+            } else {
+                ubica(t);
+            }
+            t = siguiente;
+        }
+    }
+
+    /* Liga un temporizador en la cubeta que le toca según su expiración. */
+    private void ubica(Temporizador<T> temporizador) {
+        long delta = temporizador.expira - tiempo;
+        int nivel = 0;
+        while (nivel < CORRIMIENTOS.length - 1 &&
+               delta >= 1L << CORRIMIENTOS[nivel + 1])
+            nivel++;
+        long expira = Long.max(temporizador.expira, tiempo);
+        Temporizador<T> centinela = cubetas[nivel]
+            [(int)((expira >>> CORRIMIENTOS[nivel]) & (CUBETAS - 1))];
+        temporizador.siguiente = centinela;
+        temporizador.anterior = centinela.anterior;
+        centinela.anterior.siguiente = temporizador;
+        centinela.anterior = temporizador;
+    }
+
+    /* Desliga un temporizador de su cubeta. */
+    private void desliga(Temporizador<T> temporizador) {
+        temporizador.anterior.siguiente = temporizador.siguiente;
+        temporizador.siguiente.anterior = temporizador.anterior;
+        temporizador.anterior = temporizador.siguiente = null;
+    }
+
+    /**
+     * Saca todos los temporizadores de la rueda, sin avisar.
+     */
+    public void limpia() {
+        for (Temporizador<T>[] nivel : cubetas)
+            for (Temporizador<T> centinela : nivel) {
+                Temporizador<T> t = centinela.siguiente;
+                while (t != centinela) {
+                    Temporizador<T> siguiente = t.siguiente;
+                    t.anterior = t.siguiente = null;
+                    t = siguiente;
+                }
+                centinela.anterior = centinela.siguiente = centinela;
+            }
+        elementos = 0;
+    }
+}
@@ -0,0 +1,168 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Clase para simular cachés con trazas de llaves. Una traza es la secuencia
+ * de llaves que pide una aplicación; el simulador la reproduce sobre una
+ * caché y cuenta cuántas peticiones fueron aciertos.
+ */
+public class SimuladorCache {
+
+    /**
+     * Interfaz para las cachés que recorre el simulador.
+     */
+    @FunctionalInterface
+    public interface Acceso {
+
+        /**
+         * Pide una llave a la caché; si no está, la caché la agrega.
+         * @param llave la llave pedida.
+         * @return <code>true</code> si la llave estaba en la caché,
+         *         <code>false</code> en otro caso.
+         */
+        public boolean accede(int llave);
+    }
+
+    /* Clase sin instancias. */
+    private SimuladorCache() {}
+
+    /**
+     * Regresa un acceso a una caché LRU.
+     * @param cache la caché.
+     * @return un acceso a la caché.
+     */
+    public static Acceso acceso(CacheLRU<Integer, Integer> cache) {
+        return llave -> {
+            boolean[] acierto = { true };
+            cache.tryGet(llave, () -> {
+                    acierto[0] = false;
+                    return llave;
+                });
+            return acierto[0];
+        };
+    }
+
+    /**
+     * Regresa un acceso a una caché con política de desalojo.
+     * @param cache la caché.
+     * @return un acceso a la caché.
+     */
+    public static Acceso acceso(Cache<Integer, Integer> cache) {
+        return llave -> {
+            boolean[] acierto = { true };
+            cache.tryGet(llave, () -> {
+                    acierto[0] = false;
+                    return llave;
+                });
+            return acierto[0];
+        };
+    }
+
+    /**
+     * Reproduce una traza sobre una caché y regresa la tasa de aciertos.
+     * @param acceso el acceso a la caché.
+     * @param traza las llaves pedidas, en orden.
+     * @return la fracción de peticiones que fueron aciertos, entre 0 y 1.
+     */
+    public static double tasaAciertos(Acceso acceso, int[] traza) {
+        if (traza.length == 0)
+            return 0.0;
+        int aciertos = 0;
+        for (int llave : traza)
+            if (acceso.accede(llave))
+                aciertos++;
+        return aciertos / (double)traza.length;
+    }
+
+    /**
+     * Genera una traza con llaves entre 0 y <code>llaves</code> - 1 con
+     * distribución de Zipf: la llave i se pide con probabilidad proporcional
+     * a 1/(i+1)<sup>s</sup>.
+     * @param n la longitud de la traza.
+     * @param llaves el número de llaves distintas.
+     * @param s el exponente de la distribución.
+     * @param random el generador de números aleatorios.
+     * @return la traza generada.
+     */
+    public static int[] zipf(int n, int llaves, double s, Random random) {
+        double[] acumulada = new double[llaves];
+        double suma = 0.0;
+        for (int i = 0; i < llaves; i++)
+            acumulada[i] = suma += 1.0 / Math.pow(i + 1, s);
+        int[] traza = new int[n];
+        for (int i = 0; i < n; i++) {
+            double x = random.nextDouble() * suma;
+            int a = 0, b = llaves - 1;
+            while (a < b) {
+                int m = (a + b) >>> 1;
+                if (acumulada[m] < x)
+                    a = m + 1;
+                else
+                    b = m;
+            }
+            traza[i] = a;
+        }
+        return traza;
+    }
+
+    /**
+     * Intercala recorridos en una traza: cada <code>periodo</code> peticiones
+     * mete un recorrido que pide una vez cada una de <code>longitud</code>
+     * llaves nuevas, como lo haría un proceso por lotes. Las llaves de los
+     * recorridos no se repiten ni coinciden con las de la traza, si éstas son
+     * no negativas.
+     * @param traza la traza original.
+     * @param periodo cada cuántas peticiones de la traza hay un recorrido.
+     * @param longitud cuántas llaves tiene cada recorrido.
+     * @return la traza con los recorridos.
+     * @throws IllegalArgumentException si el periodo no es positivo.
+     */
+    public static int[] conRecorridos(int[] traza, int periodo, int longitud) {
+        if (periodo < 1)
+            throw new IllegalArgumentException("Periodo inválido.");
+        int recorridos = traza.length / periodo;
+        int[] nueva = new int[traza.length + recorridos * longitud];
+        int siguiente = -1;
+        int j = 0;
+        for (int i = 0; i < traza.length; i++) {
+            nueva[j++] = traza[i];
+            if ((i + 1) % periodo == 0)
+                for (int k = 0; k < longitud; k++)
+                    nueva[j++] = siguiente--;
+        }
+        return nueva;
+    }
+
+    /**
+     * Lee una traza de un archivo de texto con una llave entera por renglón.
+     * Los renglones vacíos se ignoran.
+     * @param archivo el archivo con la traza.
+     * @return la traza leída.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws NumberFormatException si un renglón no es un entero.
+     */
+    public static int[] lee(Path archivo) throws IOException {
+        int[] traza = new int[1024];
+        int n = 0;
+        try (BufferedReader in =
+             Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String renglon;
+            while ((renglon = in.readLine()) != null) {
+                renglon = renglon.trim();
+                if (renglon.isEmpty())
+                    continue;
+                if (n == traza.length)
+                    traza = Arrays.copyOf(traza, n * 2);
+                traza[n++] = Integer.parseInt(renglon);
+            }
+        }
+        return Arrays.copyOf(traza, n);
+    }
+}
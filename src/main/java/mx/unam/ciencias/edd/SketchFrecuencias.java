@@ -0,0 +1,113 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para estimar frecuencias con un <em>count-min sketch</em>. El sketch
+ * tiene cuatro filas de contadores; cada elemento incrementa un contador por
+ * fila, escogido con una mezcla distinta de su dispersión, y su frecuencia
+ * estimada es el mínimo de sus cuatro contadores. Las colisiones sólo pueden
+ * hacer que la estimación se pase, nunca que se quede corta.
+ *
+ * Cada fila tiene cuatro contadores por elemento esperado, así que hay
+ * dieciséis contadores por elemento. Los contadores se saturan en {@link
+ * #MAXIMA_FRECUENCIA}, y cada que se cuentan tantos accesos como el tamaño de
+ * la muestra todos los contadores se dividen entre dos, para que el sketch
+ * olvide los accesos viejos.
+ */
+public class SketchFrecuencias {
+
+    /** La máxima frecuencia que puede estimar el sketch. */
+    public static final int MAXIMA_FRECUENCIA = 15;
+
+    /* Número de filas del sketch. */
+    private static final int FILAS = 4;
+
+    /* Semillas para mezclar la dispersión en cada fila. */
+    private static final int[] SEMILLAS = {
+        0x97cb_3127, 0xb4a2_1d3b, 0x5f1e_2c0b, 0x3c6e_f372
+    };
+
+    /* Los contadores, fila por fila. */
+    private final byte[] contadores;
+    /* Máscara para obtener una columna. */
+    private final int mascara;
+    /* Número de accesos contados antes de dividir los contadores. */
+    private final int muestra;
+    /* Número de accesos contados desde la última división. */
+    private int accesos;
+
+    /**
+     * Construye un sketch para estimar las frecuencias de alrededor de
+     * <code>elementos</code> elementos distintos. La muestra es diez veces el
+     * número de elementos.
+     * @param elementos el número de elementos distintos esperados.
+     * @throws IllegalArgumentException si el número de elementos no es
+     *         positivo.
+     */
+    public SketchFrecuencias(int elementos) {
+        if (elementos < 1)
+            throw new IllegalArgumentException("Se necesita al menos un " +
+                                               "elemento.");
+        int columnas = 4 * Integer.max(16, siguientePow2(elementos));
+        contadores = new byte[FILAS * columnas];
+        mascara = columnas - 1;
+        muestra = 10 * Integer.max(elementos, 16);
+    }
+
+    /* Obtiene la potencia de dos mayor o igual a x. */
+    private static int siguientePow2(int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+
+    /* Regresa el índice del contador de la dispersión en la fila. */
+    private int indice(int dispersion, int fila) {
+        int h = Dispersores.mezclaInt(dispersion ^ SEMILLAS[fila]);
+        return fila * (mascara + 1) + (h & mascara);
+    }
+
+    /**
+     * Cuenta un acceso al elemento con la dispersión dada. Sólo se
+     * incrementan los contadores que tienen el mínimo, para que los elementos
+     * con los que colisiona no inflen tanto su estimación.
+     * @param dispersion la dispersión del elemento.
+     */
+    public void incrementa(int dispersion) {
+        int minimo = frecuencia(dispersion);
+        if (minimo < MAXIMA_FRECUENCIA)
+            for (int fila = 0; fila < FILAS; fila++) {
+                int i = indice(dispersion, fila);
+                if (contadores[i] == minimo)
+                    contadores[i]++;
+            }
+        if (++accesos == muestra)
+            envejece();
+    }
+
+    /**
+     * Regresa la frecuencia estimada del elemento con la dispersión dada.
+     * @param dispersion la dispersión del elemento.
+     * @return la frecuencia estimada del elemento, entre 0 y
+     *         {@link #MAXIMA_FRECUENCIA}.
+     */
+    public int frecuencia(int dispersion) {
+        int minimo = MAXIMA_FRECUENCIA;
+        for (int fila = 0; fila < FILAS; fila++)
+            minimo = Integer.min(minimo, contadores[indice(dispersion, fila)]);
+        return minimo;
+    }
+
+    /* Divide todos los contadores entre dos. */
+    private void envejece() {
+        for (int i = 0; i < contadores.length; i++)
+            contadores[i] >>= 1;
+        accesos /= 2;
+    }
+
+    /**
+     * Olvida todos los accesos contados.
+     */
+    public void limpia() {
+        for (int i = 0; i < contadores.length; i++)
+            contadores[i] = 0;
+        accesos = 0;
+    }
+}
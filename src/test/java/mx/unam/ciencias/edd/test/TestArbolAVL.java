@@ -1,11 +1,13 @@
 package mx.unam.ciencias.edd.test;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import mx.unam.ciencias.edd.ArbolAVL;
 import mx.unam.ciencias.edd.ArbolBinario;
 import mx.unam.ciencias.edd.ArbolBinarioCompleto;
+import mx.unam.ciencias.edd.ArbolBinarioOrdenado;
 import mx.unam.ciencias.edd.Cola;
 import mx.unam.ciencias.edd.Lista;
 import mx.unam.ciencias.edd.VerticeArbolBinario;
@@ -93,6 +95,169 @@ public class TestArbolAVL {
         Assert.assertTrue(!j.hasNext());
     }
 
+    /* Revisa que el árbol tenga en orden a los elementos del arreglo. */
+    private void revisaElementos(ArbolAVL<Integer> arbol, Integer[] a) {
+        Assert.assertTrue(arbol.getElementos() == a.length);
+        Iterator<Integer> it = arbol.iterator();
+        for (int i = 0; i < a.length; i++)
+            Assert.assertTrue(it.next().equals(a[i]));
+        Assert.assertFalse(it.hasNext());
+    }
+
+    /* Construye un arreglo ordenado, con repetidos. */
+    private Integer[] arregloOrdenado(int n) {
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; i++)
+            a[i] = i == 0 ? random.nextInt(10) : a[i-1] + random.nextInt(3);
+        return a;
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVL#deOrdenados(Comparable[])}.
+     */
+    @Test public void testDeOrdenados() {
+        for (int n = 0; n <= total; n++) {
+            Integer[] a = arregloOrdenado(n);
+            arbol = ArbolAVL.deOrdenados(a);
+            arbolAVLValido(arbol);
+            revisaElementos(arbol, a);
+            if (n > 0)
+                Assert.assertTrue(arbol.altura() ==
+                                  31 - Integer.numberOfLeadingZeros(n));
+        }
+        Integer[] a = arregloOrdenado(total);
+        arbol = ArbolAVL.deOrdenados(a);
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(random.nextInt(total));
+            arbolAVLValido(arbol);
+        }
+        for (int i = 0; i < a.length; i++) {
+            arbol.elimina(a[i]);
+            arbolAVLValido(arbol);
+        }
+        Assert.assertTrue(arbol.getElementos() == total);
+        Integer[] b = arregloOrdenado(2 + total);
+        b[1] = b[0] - 1;
+        try {
+            ArbolAVL.deOrdenados(b);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        b[1] = null;
+        try {
+            ArbolAVL.deOrdenados(b);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVL#deOrdenados(Coleccion)}.
+     */
+    @Test public void testDeOrdenadosColeccion() {
+        Integer[] a = arregloOrdenado(total);
+        Lista<Integer> lista = new Lista<Integer>();
+        for (Integer e : a)
+            lista.agrega(e);
+        arbol = ArbolAVL.deOrdenados(lista);
+        arbolAVLValido(arbol);
+        revisaElementos(arbol, a);
+        ArbolAVL<Integer> copia = ArbolAVL.deOrdenados(arbol);
+        arbolAVLValido(copia);
+        revisaElementos(copia, a);
+        if (total > 1) {
+            lista.agregaInicio(a[total - 1] + 1);
+            try {
+                ArbolAVL.deOrdenados(lista);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVL#ArbolAVL(Iterator,int)}.
+     */
+    @Test public void testConstructorIterador() {
+        Integer[] a = arregloOrdenado(total + 1);
+        Lista<Integer> lista = new Lista<Integer>();
+        for (Integer e : a)
+            lista.agrega(e);
+        arbol = new ArbolAVL<Integer>(lista.iterator(), total);
+        arbolAVLValido(arbol);
+        Integer[] b = new Integer[total];
+        System.arraycopy(a, 0, b, 0, total);
+        revisaElementos(arbol, b);
+        try {
+            new ArbolAVL<Integer>(lista.iterator(), total + 2);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            new ArbolAVL<Integer>(lista.iterator(), -1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolBinarioOrdenado#rank}, {@link
+     * ArbolBinarioOrdenado#select} y {@link
+     * ArbolBinarioOrdenado#cuentaRango}: los tamaños de los subárboles se
+     * mantienen con los giros del rebalanceo.
+     */
+    @Test public void testEstadisticasDeOrden() {
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(random.nextInt(total));
+            arbolAVLValido(arbol);
+            TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        }
+        while (!arbol.esVacia()) {
+            arbol.elimina(arbol.select(random.nextInt(arbol.getElementos())));
+            arbolAVLValido(arbol);
+            TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        }
+        Integer[] a = new Integer[total];
+        for (int i = 0; i < total; i++)
+            a[i] = random.nextInt(total);
+        arbol = ArbolAVL.deDesordenados(a);
+        TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        for (int i = 0; i < total; i++) {
+            if (random.nextBoolean())
+                arbol.agrega(random.nextInt(total));
+            else
+                arbol.elimina(random.nextInt(total));
+            TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        }
+    }
+
+    /**
+     * Prueba unitaria para las operaciones de navegación de {@link
+     * ArbolBinarioOrdenado}: las vistas de rangos siguen funcionando después
+     * de los giros del rebalanceo.
+     */
+    @Test public void testNavegacion() {
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(random.nextInt(total));
+            TestArbolBinarioOrdenado.navegacionValida(arbol, total);
+        }
+        for (int i = 0; i < total / 2; i++) {
+            arbol.elimina(random.nextInt(total));
+            arbolAVLValido(arbol);
+            TestArbolBinarioOrdenado.navegacionValida(arbol, total);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVL#deDesordenados}.
+     */
+    @Test public void testDeDesordenados() {
+        Integer[] a = new Integer[total];
+        for (int i = 0; i < total; i++)
+            a[i] = random.nextInt(total);
+        Integer[] copia = a.clone();
+        arbol = ArbolAVL.deDesordenados(a);
+        arbolAVLValido(arbol);
+        Assert.assertArrayEquals(copia, a);
+        Arrays.sort(copia);
+        revisaElementos(arbol, copia);
+    }
+
     /* Construye un arreglo con elementos no repetidos. */
     private int[] arregloSinRepetidos() {
         int[] a = new int[total];
@@ -0,0 +1,189 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ArbolAVL;
+import mx.unam.ciencias.edd.ArbolAVLEnArreglos;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ArbolAVLEnArreglos}.
+ */
+public class TestArbolAVLEnArreglos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El árbol. */
+    private ArbolAVLEnArreglos<Integer> arbol;
+    /* El árbol de vértices con el que se compara. */
+    private ArbolAVL<Integer> modelo;
+
+    /**
+     * Crea un árbol para cada prueba.
+     */
+    public TestArbolAVLEnArreglos() {
+        random = new Random();
+        total = 1 + random.nextInt(100);
+        arbol = new ArbolAVLEnArreglos<Integer>();
+        modelo = new ArbolAVL<Integer>();
+    }
+
+    /*
+     * Valida que el árbol tenga los mismos elementos, la misma forma y los
+     * mismos alturas que el modelo, y que su altura esté acotada.
+     */
+    private void validaArbol() {
+        Assert.assertTrue(arbol.getElementos() == modelo.getElementos());
+        Assert.assertTrue(arbol.esVacia() == modelo.esVacia());
+        Assert.assertTrue(arbol.altura() == modelo.altura());
+        Assert.assertTrue(arbol.toString().equals(modelo.toString()));
+        Iterator<Integer> i = arbol.iterator();
+        for (Integer e : modelo)
+            Assert.assertTrue(i.next().equals(e));
+        Assert.assertFalse(i.hasNext());
+        double cota = 1.45 * Math.log(arbol.getElementos() + 2) / Math.log(2);
+        Assert.assertTrue(arbol.altura() <= cota);
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVLEnArreglos#ArbolAVLEnArreglos()}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(arbol.esVacia());
+        Assert.assertTrue(arbol.getElementos() == 0);
+        Assert.assertTrue(arbol.altura() == -1);
+        Assert.assertTrue(arbol.toString().equals(""));
+        Assert.assertFalse(arbol.iterator().hasNext());
+        try {
+            new ArbolAVLEnArreglos<Integer>(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVLEnArreglos#ArbolAVLEnArreglos(Coleccion)}.
+     */
+    @Test public void testConstructorColeccion() {
+        Lista<Integer> lista = new Lista<Integer>();
+        for (int i = 0; i < total; i++)
+            lista.agrega(random.nextInt(total));
+        arbol = new ArbolAVLEnArreglos<Integer>(lista);
+        modelo = new ArbolAVL<Integer>(lista);
+        validaArbol();
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVLEnArreglos#agrega}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            int n = random.nextInt(total);
+            arbol.agrega(n);
+            modelo.agrega(n);
+            Assert.assertTrue(arbol.contiene(n));
+            validaArbol();
+        }
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(i);
+            modelo.agrega(i);
+        }
+        validaArbol();
+        try {
+            arbol.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVLEnArreglos#elimina}: los vértices eliminados
+     * se reutilizan.
+     */
+    @Test public void testElimina() {
+        arbol.elimina(0);
+        for (int i = 0; i < total; i++) {
+            int n = random.nextInt(total);
+            arbol.agrega(n);
+            modelo.agrega(n);
+        }
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            for (int i = 0; i < total; i++) {
+                int n = random.nextInt(total);
+                arbol.elimina(n);
+                modelo.elimina(n);
+                validaArbol();
+            }
+            for (int i = 0; i < total / 2; i++) {
+                int n = random.nextInt(total);
+                arbol.agrega(n);
+                modelo.agrega(n);
+                validaArbol();
+            }
+        }
+        while (!modelo.esVacia()) {
+            Integer n = modelo.iterator().next();
+            arbol.elimina(n);
+            modelo.elimina(n);
+            Assert.assertTrue(arbol.contiene(n) == modelo.contiene(n));
+            validaArbol();
+        }
+        arbol.elimina(null);
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVLEnArreglos#contiene}.
+     */
+    @Test public void testContiene() {
+        for (int i = 0; i < total; i++)
+            arbol.agrega(2 * i);
+        for (int i = 0; i < 2 * total; i++)
+            Assert.assertTrue(arbol.contiene(i) == (i % 2 == 0));
+        Assert.assertFalse(arbol.contiene(null));
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVLEnArreglos#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            arbol.agrega(random.nextInt(total));
+        arbol.limpia();
+        Assert.assertTrue(arbol.esVacia());
+        Assert.assertTrue(arbol.getElementos() == 0);
+        Assert.assertFalse(arbol.iterator().hasNext());
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(i);
+            modelo.agrega(i);
+        }
+        validaArbol();
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolAVLEnArreglos#iterator}.
+     */
+    @Test public void testIterator() {
+        Iterator<Integer> iterador = arbol.iterator();
+        try {
+            iterador.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        for (int i = 0; i < total; i++)
+            arbol.agrega(random.nextInt(total));
+        int anterior = -1, cuenta = 0;
+        for (Integer e : arbol) {
+            Assert.assertTrue(anterior <= e);
+            anterior = e;
+            cuenta++;
+        }
+        Assert.assertTrue(cuenta == total);
+    }
+}
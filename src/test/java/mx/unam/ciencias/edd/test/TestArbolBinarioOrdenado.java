@@ -6,6 +6,7 @@ import java.util.Random;
 import mx.unam.ciencias.edd.ArbolBinario;
 import mx.unam.ciencias.edd.ArbolBinarioOrdenado;
 import mx.unam.ciencias.edd.Cola;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
 import mx.unam.ciencias.edd.Lista;
 import mx.unam.ciencias.edd.VerticeArbolBinario;
 import org.junit.Assert;
@@ -66,6 +67,115 @@ public class TestArbolBinarioOrdenado {
         }
     }
 
+    /**
+     * Valida las estadísticas de orden de un árbol ordenado. Comprueba que
+     * {@link ArbolBinarioOrdenado#select} regrese los elementos del recorrido
+     * in-order, que {@link ArbolBinarioOrdenado#rank} regrese la primera
+     * posición de cada elemento, y que {@link
+     * ArbolBinarioOrdenado#cuentaRango} cuente los elementos entre
+     * cualesquiera dos del árbol.
+     * @param <T> tipo del que puede ser el árbol binario ordenado.
+     * @param arbol el árbol a revisar.
+     */
+    public static <T extends Comparable<T>> void
+    estadisticasDeOrdenValidas(ArbolBinarioOrdenado<T> arbol) {
+        int n = arbol.getElementos();
+        Object[] enOrden = new Object[n];
+        int k = 0;
+        for (T e : arbol)
+            enOrden[k++] = e;
+        Assert.assertTrue(k == n);
+        for (int i = 0; i < n; i++) {
+            @SuppressWarnings("unchecked") T e = (T)enOrden[i];
+            Assert.assertTrue(arbol.select(i).equals(e));
+            int primera = i;
+            while (primera > 0 && enOrden[primera - 1].equals(e))
+                primera--;
+            Assert.assertTrue(arbol.rank(e) == primera);
+        }
+        for (int i = 0; i < n; i++)
+            for (int j = i; j < n; j += 1 + j / 4) {
+                @SuppressWarnings("unchecked") T a = (T)enOrden[i];
+                @SuppressWarnings("unchecked") T b = (T)enOrden[j];
+                int cuenta = 0;
+                for (Object e : enOrden) {
+                    @SuppressWarnings("unchecked") T t = (T)e;
+                    if (t.compareTo(a) >= 0 && t.compareTo(b) <= 0)
+                        cuenta++;
+                }
+                Assert.assertTrue(arbol.cuentaRango(a, b) == cuenta);
+            }
+        try {
+            arbol.select(-1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            arbol.select(n);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /* Revisa que la vista tenga en orden los elementos en [desde, hasta]. */
+    private static void vistaValida(Iterable<Integer> vista, Integer[] enOrden,
+                                    int desde, int hasta) {
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            Iterator<Integer> iterador = vista.iterator();
+            for (Integer e : enOrden)
+                if (e >= desde && e <= hasta)
+                    Assert.assertTrue(iterador.next().equals(e));
+            Assert.assertFalse(iterador.hasNext());
+            try {
+                iterador.next();
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+    }
+
+    /**
+     * Valida las operaciones de navegación de un árbol ordenado de enteros
+     * entre 0 y <code>maximo</code>. Para cada entero entre -1 y
+     * <code>maximo</code> + 1 compara {@link ArbolBinarioOrdenado#piso},
+     * {@link ArbolBinarioOrdenado#techo}, {@link ArbolBinarioOrdenado#menor},
+     * {@link ArbolBinarioOrdenado#mayor} y las vistas {@link
+     * ArbolBinarioOrdenado#rango}, {@link ArbolBinarioOrdenado#cabeza} y
+     * {@link ArbolBinarioOrdenado#cola} con un recorrido de todo el árbol.
+     * @param arbol el árbol a revisar.
+     * @param maximo el máximo de los elementos del árbol.
+     */
+    public static void
+    navegacionValida(ArbolBinarioOrdenado<Integer> arbol, int maximo) {
+        Integer[] enOrden = new Integer[arbol.getElementos()];
+        int k = 0;
+        for (Integer e : arbol)
+            enOrden[k++] = e;
+        for (int q = -1; q <= maximo + 1; q++) {
+            Integer piso = null, techo = null, menor = null, mayor = null;
+            for (Integer e : enOrden) {
+                if (e <= q)
+                    piso = e;
+                if (e < q)
+                    menor = e;
+                if (e >= q && techo == null)
+                    techo = e;
+                if (e > q && mayor == null)
+                    mayor = e;
+            }
+            Assert.assertTrue(arbol.piso(q) == null ? piso == null :
+                              arbol.piso(q).equals(piso));
+            Assert.assertTrue(arbol.techo(q) == null ? techo == null :
+                              arbol.techo(q).equals(techo));
+            Assert.assertTrue(arbol.menor(q) == null ? menor == null :
+                              arbol.menor(q).equals(menor));
+            Assert.assertTrue(arbol.mayor(q) == null ? mayor == null :
+                              arbol.mayor(q).equals(mayor));
+            int hasta = q + (maximo + 2) / 4;
+            vistaValida(arbol.rango(q, q), enOrden, q, q);
+            vistaValida(arbol.rango(q, hasta), enOrden, q, hasta);
+            vistaValida(arbol.cabeza(q), enOrden, Integer.MIN_VALUE, q);
+            vistaValida(arbol.cola(q), enOrden, q, Integer.MAX_VALUE);
+        }
+    }
+
     /**
      * Crea un árbol binario para cada prueba.
      */
@@ -195,6 +305,79 @@ public class TestArbolBinarioOrdenado {
         }
     }
 
+    /**
+     * Prueba unitaria para {@link ArbolBinarioOrdenado#rank}, {@link
+     * ArbolBinarioOrdenado#select} y {@link
+     * ArbolBinarioOrdenado#cuentaRango}, con los tamaños de los subárboles
+     * ajustándose al agregar, eliminar y girar.
+     */
+    @Test public void testEstadisticasDeOrden() {
+        estadisticasDeOrdenValidas(arbol);
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(random.nextInt(total));
+            estadisticasDeOrdenValidas(arbol);
+        }
+        for (int i = 0; i < total; i++) {
+            VerticeArbolBinario<Integer> v = arbol.busca(random.nextInt(total));
+            if (v == null)
+                continue;
+            if (random.nextBoolean())
+                arbol.giraDerecha(v);
+            else
+                arbol.giraIzquierda(v);
+            estadisticasDeOrdenValidas(arbol);
+        }
+        Assert.assertTrue(arbol.rank(-1) == 0);
+        Assert.assertTrue(arbol.rank(total) == total);
+        Assert.assertTrue(arbol.cuentaRango(-2, -1) == 0);
+        Assert.assertTrue(arbol.cuentaRango(-1, total) == total);
+        try {
+            arbol.cuentaRango(1, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            arbol.rank(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        for (int i = 0; i < total; i++) {
+            arbol.elimina(arbol.select(random.nextInt(arbol.getElementos())));
+            estadisticasDeOrdenValidas(arbol);
+        }
+        Assert.assertTrue(arbol.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolBinarioOrdenado#piso}, {@link
+     * ArbolBinarioOrdenado#techo}, {@link ArbolBinarioOrdenado#menor},
+     * {@link ArbolBinarioOrdenado#mayor}, {@link ArbolBinarioOrdenado#rango},
+     * {@link ArbolBinarioOrdenado#cabeza} y {@link ArbolBinarioOrdenado#cola}.
+     */
+    @Test public void testNavegacion() {
+        navegacionValida(arbol, total);
+        Assert.assertFalse(arbol.rango(0, total).iterator().hasNext());
+        for (int i = 0; i < total; i++)
+            arbol.agrega(random.nextInt(total));
+        navegacionValida(arbol, total);
+        Iterable<Integer> vista = arbol.cola(total);
+        Assert.assertFalse(vista.iterator().hasNext());
+        arbol.agrega(total);
+        Iterator<Integer> iterador = vista.iterator();
+        Assert.assertTrue(iterador.next().equals(total));
+        Assert.assertFalse(iterador.hasNext());
+        try {
+            arbol.rango(1, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            arbol.piso(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            arbol.cabeza(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
     /**
      * Prueba unitaria para {@link ArbolBinarioOrdenado#getUltimoVerticeAgregado}.
      */
@@ -231,6 +414,54 @@ public class TestArbolBinarioOrdenado {
         }
     }
 
+    /* Clase para contar las comparaciones de una búsqueda. */
+    private static class Contado implements Comparable<Contado> {
+        /* Número de comparaciones hechas. */
+        private static int comparaciones;
+        /* El valor. */
+        private int valor;
+
+        /* Construye un elemento contado. */
+        public Contado(int valor) {
+            this.valor = valor;
+        }
+
+        /* Compara y cuenta. */
+        @Override public int compareTo(Contado c) {
+            comparaciones++;
+            return Integer.compare(valor, c.valor);
+        }
+
+        /* Las búsquedas no deben usar equals. */
+        @Override public boolean equals(Object o) {
+            throw new AssertionError("La búsqueda usó equals.");
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolBinarioOrdenado#busca} y {@link
+     * ArbolBinarioOrdenado#contiene}: bajan comparando desde la raíz, con una
+     * comparación por nivel.
+     */
+    @Test public void testBuscaGuiada() {
+        ArbolBinarioOrdenado<Contado> contados =
+            new ArbolBinarioOrdenado<Contado>();
+        int[] a = arregloSinRepetidos();
+        for (int n : a)
+            contados.agrega(new Contado(2 * n));
+        for (int n : a) {
+            Contado.comparaciones = 0;
+            VerticeArbolBinario<Contado> v = contados.busca(new Contado(2 * n));
+            Assert.assertTrue(v.get().valor == 2 * n);
+            Assert.assertTrue(Contado.comparaciones == v.profundidad() + 1);
+            Contado.comparaciones = 0;
+            Assert.assertFalse(contados.contiene(new Contado(2 * n + 1)));
+            Assert.assertTrue(Contado.comparaciones <= contados.altura() + 1);
+        }
+        Assert.assertFalse(contados.contiene(null));
+        Assert.assertTrue(contados.busca(null) == null);
+    }
+
     /**
      * Prueba unitaria para {@link ArbolBinario#raiz}.
      */
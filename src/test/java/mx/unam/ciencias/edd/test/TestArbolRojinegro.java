@@ -1,8 +1,11 @@
 package mx.unam.ciencias.edd.test;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import mx.unam.ciencias.edd.ArbolBinario;
+import mx.unam.ciencias.edd.ArbolBinarioOrdenado;
 import mx.unam.ciencias.edd.ArbolRojinegro;
 import mx.unam.ciencias.edd.Cola;
 import mx.unam.ciencias.edd.Color;
@@ -141,6 +144,169 @@ public class TestArbolRojinegro {
         Assert.assertTrue(!j.hasNext());
     }
 
+    /* Revisa que el árbol tenga en orden a los elementos del arreglo. */
+    private void revisaElementos(ArbolRojinegro<Integer> arbol, Integer[] a) {
+        Assert.assertTrue(arbol.getElementos() == a.length);
+        Iterator<Integer> it = arbol.iterator();
+        for (int i = 0; i < a.length; i++)
+            Assert.assertTrue(it.next().equals(a[i]));
+        Assert.assertFalse(it.hasNext());
+    }
+
+    /* Construye un arreglo ordenado, con repetidos. */
+    private Integer[] arregloOrdenado(int n) {
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; i++)
+            a[i] = i == 0 ? random.nextInt(10) : a[i-1] + random.nextInt(3);
+        return a;
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolRojinegro#deOrdenados(Comparable[])}.
+     */
+    @Test public void testDeOrdenados() {
+        for (int n = 0; n <= total; n++) {
+            Integer[] a = arregloOrdenado(n);
+            arbol = ArbolRojinegro.deOrdenados(a);
+            arbolRojinegroValido(arbol);
+            revisaElementos(arbol, a);
+            if (n > 0)
+                Assert.assertTrue(arbol.altura() ==
+                                  31 - Integer.numberOfLeadingZeros(n));
+        }
+        Integer[] a = arregloOrdenado(total);
+        arbol = ArbolRojinegro.deOrdenados(a);
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(random.nextInt(total));
+            arbolRojinegroValido(arbol);
+        }
+        for (int i = 0; i < a.length; i++) {
+            arbol.elimina(a[i]);
+            arbolRojinegroValido(arbol);
+        }
+        Assert.assertTrue(arbol.getElementos() == total);
+        Integer[] b = arregloOrdenado(2 + total);
+        b[1] = b[0] - 1;
+        try {
+            ArbolRojinegro.deOrdenados(b);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        b[1] = null;
+        try {
+            ArbolRojinegro.deOrdenados(b);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolRojinegro#deOrdenados(Coleccion)}.
+     */
+    @Test public void testDeOrdenadosColeccion() {
+        Integer[] a = arregloOrdenado(total);
+        Lista<Integer> lista = new Lista<Integer>();
+        for (Integer e : a)
+            lista.agrega(e);
+        arbol = ArbolRojinegro.deOrdenados(lista);
+        arbolRojinegroValido(arbol);
+        revisaElementos(arbol, a);
+        ArbolRojinegro<Integer> copia = ArbolRojinegro.deOrdenados(arbol);
+        arbolRojinegroValido(copia);
+        revisaElementos(copia, a);
+        if (total > 1) {
+            lista.agregaInicio(a[total - 1] + 1);
+            try {
+                ArbolRojinegro.deOrdenados(lista);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolRojinegro#ArbolRojinegro(Iterator,int)}.
+     */
+    @Test public void testConstructorIterador() {
+        Integer[] a = arregloOrdenado(total + 1);
+        Lista<Integer> lista = new Lista<Integer>();
+        for (Integer e : a)
+            lista.agrega(e);
+        arbol = new ArbolRojinegro<Integer>(lista.iterator(), total);
+        arbolRojinegroValido(arbol);
+        Integer[] b = new Integer[total];
+        System.arraycopy(a, 0, b, 0, total);
+        revisaElementos(arbol, b);
+        try {
+            new ArbolRojinegro<Integer>(lista.iterator(), total + 2);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            new ArbolRojinegro<Integer>(lista.iterator(), -1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolBinarioOrdenado#rank}, {@link
+     * ArbolBinarioOrdenado#select} y {@link
+     * ArbolBinarioOrdenado#cuentaRango}: los tamaños de los subárboles se
+     * mantienen con los giros del rebalanceo.
+     */
+    @Test public void testEstadisticasDeOrden() {
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(random.nextInt(total));
+            arbolRojinegroValido(arbol);
+            TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        }
+        while (!arbol.esVacia()) {
+            arbol.elimina(arbol.select(random.nextInt(arbol.getElementos())));
+            arbolRojinegroValido(arbol);
+            TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        }
+        Integer[] a = new Integer[total];
+        for (int i = 0; i < total; i++)
+            a[i] = random.nextInt(total);
+        arbol = ArbolRojinegro.deDesordenados(a);
+        TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        for (int i = 0; i < total; i++) {
+            if (random.nextBoolean())
+                arbol.agrega(random.nextInt(total));
+            else
+                arbol.elimina(random.nextInt(total));
+            TestArbolBinarioOrdenado.estadisticasDeOrdenValidas(arbol);
+        }
+    }
+
+    /**
+     * Prueba unitaria para las operaciones de navegación de {@link
+     * ArbolBinarioOrdenado}: las vistas de rangos siguen funcionando después
+     * de los giros del rebalanceo.
+     */
+    @Test public void testNavegacion() {
+        for (int i = 0; i < total; i++) {
+            arbol.agrega(random.nextInt(total));
+            TestArbolBinarioOrdenado.navegacionValida(arbol, total);
+        }
+        for (int i = 0; i < total / 2; i++) {
+            arbol.elimina(random.nextInt(total));
+            arbolRojinegroValido(arbol);
+            TestArbolBinarioOrdenado.navegacionValida(arbol, total);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolRojinegro#deDesordenados}.
+     */
+    @Test public void testDeDesordenados() {
+        Integer[] a = new Integer[total];
+        for (int i = 0; i < total; i++)
+            a[i] = random.nextInt(total);
+        Integer[] copia = a.clone();
+        arbol = ArbolRojinegro.deDesordenados(a);
+        arbolRojinegroValido(arbol);
+        Assert.assertArrayEquals(copia, a);
+        Arrays.sort(copia);
+        revisaElementos(arbol, copia);
+    }
+
     /* Prueba determinísticamente el caso 1. */
     private void testAgregaCaso1() {
         arbol.agrega(1);
@@ -456,6 +622,39 @@ public class TestArbolRojinegro {
         }
     }
 
+    /**
+     * Prueba unitaria para {@link ArbolRojinegro#eliminaElementoDe}: elimina
+     * vértices al azar, con elementos repetidos, y el árbol sigue siendo
+     * rojinegro y conserva a los demás elementos.
+     */
+    @Test public void testEliminaElementoDe() {
+        int[] cuenta = new int[total + 1];
+        for (int i = 0; i < 2 * total; i++) {
+            int e = random.nextInt(total + 1);
+            arbol.agrega(e);
+            cuenta[e]++;
+        }
+        int n = arbol.getElementos();
+        while (!arbol.esVacia()) {
+            VerticeArbolBinario<Integer> v = arbol.raiz();
+            while (random.nextInt(3) != 0 &&
+                   (v.hayIzquierdo() || v.hayDerecho()))
+                v = !v.hayDerecho() || (v.hayIzquierdo() &&
+                                         random.nextBoolean()) ?
+                    v.izquierdo() : v.derecho();
+            int e = v.get();
+            arbol.eliminaElementoDe(v);
+            cuenta[e]--;
+            Assert.assertTrue(arbol.getElementos() == --n);
+            arbolRojinegroValido(arbol);
+            int[] vistos = new int[total + 1];
+            for (int x : arbol)
+                vistos[x]++;
+            for (int i = 0; i <= total; i++)
+                Assert.assertTrue(vistos[i] == cuenta[i]);
+        }
+    }
+
     /**
      * Prueba unitaria para {@link ArbolRojinegro#getColor}.
      */
@@ -597,4 +796,41 @@ public class TestArbolRojinegro {
             "      └─»R{7}\n";
         Assert.assertTrue(arbol.toString().equals(cadena));
     }
+
+    /* Clase para contar las comparaciones de una búsqueda. */
+    private static class Contado implements Comparable<Contado> {
+        /* Número de comparaciones hechas. */
+        private static int comparaciones;
+        /* El valor. */
+        private int valor;
+
+        /* Construye un elemento contado. */
+        public Contado(int valor) {
+            this.valor = valor;
+        }
+
+        /* Compara y cuenta. */
+        @Override public int compareTo(Contado c) {
+            comparaciones++;
+            return Integer.compare(valor, c.valor);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link ArbolRojinegro#contiene}: una búsqueda hace
+     * a lo más 2 log(n+1) comparaciones, aunque los elementos se agreguen en
+     * orden.
+     */
+    @Test public void testContieneLogaritmico() {
+        ArbolRojinegro<Contado> contados = new ArbolRojinegro<Contado>();
+        int n = 1000 + random.nextInt(1000);
+        for (int i = 0; i < n; i++)
+            contados.agrega(new Contado(2 * i));
+        double cota = 2 * Math.log(n + 1) / Math.log(2);
+        for (int i = 0; i < 2 * n; i++) {
+            Contado.comparaciones = 0;
+            Assert.assertTrue(contados.contiene(new Contado(i)) == (i % 2 == 0));
+            Assert.assertTrue(Contado.comparaciones <= cota + 1);
+        }
+    }
 }
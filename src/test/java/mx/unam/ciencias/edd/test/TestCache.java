@@ -0,0 +1,217 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDesalojo;
+import mx.unam.ciencias.edd.Cache;
+import mx.unam.ciencias.edd.PoliticaLRU;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Cache}. Cada prueba se
+ * hace con todos los algoritmos de desalojo.
+ */
+public class TestCache {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La caché. */
+    private Cache<Integer, Integer> cache;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestCache() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+    }
+
+    /* Valida que los iteradores y la caché coincidan. */
+    private void validaCache() {
+        int n = 0;
+        Iterator<Integer> it = cache.iteradorLlaves();
+        while (it.hasNext()) {
+            int k = it.next();
+            Assert.assertTrue(cache.contiene(k));
+            n++;
+        }
+        Assert.assertTrue(n == cache.getElementos());
+        Assert.assertTrue(n <= total);
+        for (Integer v : cache)
+            Assert.assertTrue(v % 2 == 0);
+    }
+
+    /* Agrega 2 * total llaves nuevas y verifica que la caché quede llena. */
+    private void validaLlena(int desde) {
+        for (int i = 0; i < 2 * total; i++) {
+            cache.agrega(desde + i, 2 * (desde + i));
+            Assert.assertTrue(cache.getElementos() <= total);
+        }
+        Assert.assertTrue(cache.getElementos() == total);
+        validaCache();
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#Cache}.
+     */
+    @Test public void testConstructor() {
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values()) {
+            cache = new Cache<Integer, Integer>(algoritmo, total);
+            Assert.assertTrue(cache.esVacia());
+            Assert.assertTrue(cache.getCapacidad() == total);
+            validaCache();
+            try {
+                cache = new Cache<Integer, Integer>(algoritmo, 1);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        cache = new Cache<Integer, Integer>(new PoliticaLRU<Integer>(total));
+        Assert.assertTrue(cache.getCapacidad() == total);
+        try {
+            cache = new Cache<Integer, Integer>(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#agrega} y {@link Cache#get}: la
+     * caché nunca pasa de su capacidad y los valores corresponden a sus
+     * llaves.
+     */
+    @Test public void testAgrega() {
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values()) {
+            cache = new Cache<Integer, Integer>(algoritmo, total);
+            for (int i = 0; i < total * 8; i++) {
+                int k = random.nextInt(total * 2);
+                cache.agrega(k, 2 * k);
+                Assert.assertTrue(cache.getElementos() <= total);
+                k = random.nextInt(total * 2);
+                if (cache.contiene(k))
+                    Assert.assertTrue(cache.get(k) == 2 * k);
+            }
+            validaCache();
+            validaLlena(total * 2);
+            try {
+                cache.agrega(null, 0);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                cache.agrega(0, null);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                cache.get(-1);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#agrega} con una llave que ya está:
+     * se reemplaza el valor sin desalojar a nadie.
+     */
+    @Test public void testReemplaza() {
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values()) {
+            cache = new Cache<Integer, Integer>(algoritmo, total);
+            for (int i = 0; i < total; i++)
+                cache.agrega(i, 2 * i);
+            Assert.assertTrue(cache.getElementos() == total);
+            for (int i = 0; i < total; i++) {
+                cache.agrega(i, 4 * i);
+                Assert.assertTrue(cache.getElementos() == total);
+            }
+            for (int i = 0; i < total; i++)
+                Assert.assertTrue(cache.get(i) == 4 * i);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#elimina}: la política libera el
+     * lugar de la llave eliminada.
+     */
+    @Test public void testElimina() {
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values()) {
+            cache = new Cache<Integer, Integer>(algoritmo, total);
+            for (int i = 0; i < total; i++)
+                cache.agrega(i, 2 * i);
+            int n = cache.getElementos();
+            for (int i = 0; i < total; i += 2)
+                if (cache.contiene(i)) {
+                    cache.elimina(i);
+                    n--;
+                }
+            Assert.assertTrue(cache.getElementos() == n);
+            for (int i = 0; i < total; i += 2)
+                Assert.assertFalse(cache.contiene(i));
+            validaCache();
+            validaLlena(total);
+            try {
+                cache.elimina(-1);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+            try {
+                cache.elimina(null);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#tryGet}.
+     */
+    @Test public void testTryGet() {
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values()) {
+            cache = new Cache<Integer, Integer>(algoritmo, total);
+            int[] computados = { 0 };
+            for (int i = 0; i < total; i++) {
+                int k = i;
+                Assert.assertTrue(cache.tryGet(k, () -> {
+                            computados[0]++;
+                            return 2 * k;
+                        }) == 2 * k);
+            }
+            Assert.assertTrue(computados[0] == total);
+            for (int i = 0; i < total; i++)
+                if (cache.contiene(i))
+                    Assert.assertTrue(cache.tryGet(i, () -> -2) == 2 * i);
+            validaCache();
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values()) {
+            cache = new Cache<Integer, Integer>(algoritmo, total);
+            for (int i = 0; i < total * 2; i++)
+                cache.agrega(i, 2 * i);
+            cache.limpia();
+            Assert.assertTrue(cache.esVacia());
+            Assert.assertFalse(cache.iterator().hasNext());
+            validaLlena(0);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#toString}.
+     */
+    @Test public void testToString() {
+        for (AlgoritmoDesalojo algoritmo : AlgoritmoDesalojo.values()) {
+            cache = new Cache<Integer, Integer>(algoritmo, total);
+            Assert.assertTrue(cache.toString().equals("[]"));
+            cache.agrega(1, 2);
+            Assert.assertTrue(cache.toString().equals("['1': '2']"));
+        }
+    }
+}
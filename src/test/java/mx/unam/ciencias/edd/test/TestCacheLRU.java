@@ -1,17 +1,30 @@
 package mx.unam.ciencias.edd.test;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import mx.unam.ciencias.edd.CacheLRU;
+import mx.unam.ciencias.edd.CausaDesalojo;
+import mx.unam.ciencias.edd.Codificador;
+import mx.unam.ciencias.edd.Codificadores;
 import mx.unam.ciencias.edd.Cola;
+import mx.unam.ciencias.edd.EstadisticasCache;
 import mx.unam.ciencias.edd.IteradorLista;
 import mx.unam.ciencias.edd.Lista;
 import mx.unam.ciencias.edd.MeteSaca;
+import mx.unam.ciencias.edd.Pesador;
 import mx.unam.ciencias.edd.Pila;
+import mx.unam.ciencias.edd.Reloj;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
 
 /**
@@ -21,6 +34,8 @@ public class TestCacheLRU {
     
     /** Expiración para que ninguna prueba tarde más de 5 segundos. */
     @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Carpeta temporal para los archivos de las pruebas. */
+    @Rule public TemporaryFolder carpeta = new TemporaryFolder();
 
     /* Generador de números aleatorios. */
     private Random random;
@@ -667,4 +682,491 @@ public class TestCacheLRU {
             });
         }
     }
+
+    /* Clase para llaves que cuentan cuántas veces se dispersan. */
+    private static class Llave {
+        /* Número de veces que se han dispersado las llaves. */
+        private static int dispersiones;
+        /* El valor de la llave. */
+        private int valor;
+
+        /* Constructor. */
+        public Llave(int valor) {
+            this.valor = valor;
+        }
+
+        /* Cuenta la dispersión. */
+        @Override public int hashCode() {
+            dispersiones++;
+            return valor;
+        }
+
+        /* Compara los valores. */
+        @Override public boolean equals(Object o) {
+            return o instanceof Llave && ((Llave)o).valor == valor;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#get} y {@link CacheLRU#tryGet}:
+     * un acierto busca la llave una sola vez en el diccionario.
+     */
+    @Test public void testGetUnaBusqueda() {
+        CacheLRU<Llave, Integer> c = new CacheLRU<>(total);
+        Llave[] llaves = new Llave[total];
+        for (int i = 0; i < total; i++) {
+            llaves[i] = new Llave(i);
+            c.agrega(llaves[i], i);
+        }
+        for (int i = 0; i < total; i++) {
+            Llave llave = llaves[random.nextInt(total)];
+            Llave.dispersiones = 0;
+            Assert.assertTrue(c.get(llave) == llave.valor);
+            Assert.assertTrue(Llave.dispersiones == 1);
+            Llave.dispersiones = 0;
+            c.tryGet(llave, () -> -1);
+            Assert.assertTrue(Llave.dispersiones == 1);
+            Assert.assertTrue(c.getMRU() == llave.valor);
+        }
+    }
+
+    /* Reloj que sólo avanza cuando la prueba lo pide. */
+    private static class RelojManual implements Reloj {
+        /* La hora; negativa, como las que puede dar nanoTime. */
+        private long ahora = -(1L << 40);
+
+        /* Avanza el reloj los segundos dados. */
+        public void avanza(long segundos) {
+            ahora += TimeUnit.SECONDS.toNanos(segundos);
+        }
+
+        /* Regresa la hora. */
+        @Override public long ahora() {
+            return ahora;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#setExpiraTrasEscritura}.
+     */
+    @Test public void testExpiraTrasEscritura() {
+        RelojManual reloj = new RelojManual();
+        CacheLRU<Integer, Integer> c = new CacheLRU<>(total, reloj);
+        c.setExpiraTrasEscritura(10, TimeUnit.SECONDS);
+        for (int i = 0; i < total; i++)
+            c.agrega(i, i);
+        reloj.avanza(5);
+        for (int i = 0; i < total; i += 2)
+            Assert.assertTrue(c.get(i) == i);
+        for (int i = 1; i < total; i += 2)
+            c.agrega(i, -i);
+        reloj.avanza(5);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(c.contiene(i) == (i % 2 == 1));
+        try {
+            c.get(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        Assert.assertTrue(c.tryGet(2, () -> 4) == 4);
+        c.limpiaExpirados();
+        Assert.assertTrue(c.getElementos() == total / 2 + 1);
+        reloj.avanza(5);
+        c.limpiaExpirados();
+        Assert.assertTrue(c.getElementos() == 1);
+        Assert.assertTrue(c.get(2) == 4);
+        try {
+            c.setExpiraTrasEscritura(-1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            c.setExpiraTrasEscritura(1, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#setExpiraTrasAcceso}.
+     */
+    @Test public void testExpiraTrasAcceso() {
+        RelojManual reloj = new RelojManual();
+        CacheLRU<Integer, Integer> c = new CacheLRU<>(total, reloj);
+        c.setExpiraTrasAcceso(10, TimeUnit.SECONDS);
+        for (int i = 0; i < total; i++)
+            c.agrega(i, i);
+        for (int r = 0; r < 5; r++) {
+            reloj.avanza(6);
+            for (int i = 0; i < total; i += 2)
+                Assert.assertTrue(c.get(i) == i);
+        }
+        c.limpiaExpirados();
+        Assert.assertTrue(c.getElementos() == (total + 1) / 2);
+        Iterator<Integer> it = c.iterator();
+        while (it.hasNext())
+            Assert.assertTrue(it.next() % 2 == 0);
+        c.setExpiraTrasEscritura(20, TimeUnit.SECONDS);
+        c.agrega(1, 1);
+        for (int r = 0; r < 3; r++) {
+            reloj.avanza(6);
+            Assert.assertTrue(c.get(1) == 1);
+        }
+        reloj.avanza(6);
+        Assert.assertFalse(c.contiene(1));
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#setRefrescaTras}: el acierto
+     * regresa el valor viejo, y el nuevo se guarda en el siguiente uso.
+     */
+    @Test public void testRefrescaTras() {
+        RelojManual reloj = new RelojManual();
+        CacheLRU<Integer, Integer> c = new CacheLRU<>(total, reloj);
+        c.setExpiraTrasEscritura(10, TimeUnit.SECONDS);
+        Assert.assertFalse(c.refresca());
+        int[] computados = { 0 };
+        c.setRefrescaTras(5, TimeUnit.SECONDS, r -> {
+                computados[0]++;
+                r.run();
+            });
+        c.agrega(0, 0);
+        reloj.avanza(4);
+        Assert.assertTrue(c.tryGet(0, () -> 1) == 0);
+        Assert.assertTrue(computados[0] == 0);
+        reloj.avanza(2);
+        Assert.assertTrue(c.tryGet(0, () -> 1) == 0);
+        Assert.assertTrue(computados[0] == 1);
+        Assert.assertTrue(c.get(0) == 1);
+        for (int r = 0; r < 10; r++) {
+            reloj.avanza(6);
+            Assert.assertTrue(c.tryGet(0, () -> 2) >= 1);
+        }
+        Assert.assertTrue(c.get(0) == 2);
+        Assert.assertTrue(c.refresca());
+        c.setRefrescaTras(5, TimeUnit.SECONDS, r -> {});
+        reloj.avanza(6);
+        c.tryGet(0, () -> 3);
+        reloj.avanza(6);
+        Assert.assertFalse(c.contiene(0));
+        try {
+            c.setRefrescaTras(5, TimeUnit.SECONDS, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#copia} con expiración: la copia
+     * expira sus valores a la misma hora que la original.
+     */
+    @Test public void testCopiaExpira() {
+        RelojManual reloj = new RelojManual();
+        CacheLRU<Integer, Integer> c = new CacheLRU<>(total, reloj);
+        c.setExpiraTrasEscritura(10, TimeUnit.SECONDS);
+        for (int i = 0; i < total; i++) {
+            c.agrega(i, i);
+            reloj.avanza(1);
+        }
+        CacheLRU<Integer, Integer> copia = c.copia();
+        Assert.assertTrue(copia.equals(c));
+        reloj.avanza(1);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(copia.contiene(i) == c.contiene(i));
+        copia.limpiaExpirados();
+        Assert.assertTrue(copia.getElementos() == 8);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#CacheLRU(long,Pesador)}: se
+     * desaloja desde el menos usado hasta que el peso total quepa.
+     */
+    @Test public void testPeso() {
+        CacheLRU<Integer, String> c =
+            new CacheLRU<Integer, String>(100, (k, v) -> v.length());
+        Assert.assertTrue(c.getPesoMaximo() == 100);
+        Assert.assertTrue(c.getCapacidad() == Integer.MAX_VALUE);
+        for (int i = 0; i < total; i++) {
+            int k = random.nextInt(total / 4);
+            String v = cadena(random.nextInt(30));
+            c.agrega(k, v);
+            Assert.assertTrue(c.getMRU() == v);
+            long peso = 0;
+            for (String s : c)
+                peso += s.length();
+            Assert.assertTrue(c.getPeso() == peso);
+            Assert.assertTrue(peso <= 100);
+        }
+        c.limpia();
+        for (int i = 0; i < 10; i++)
+            c.agrega(i, cadena(10));
+        Assert.assertTrue(c.getElementos() == 10);
+        Assert.assertTrue(c.getPeso() == 100);
+        c.get(0);
+        c.agrega(10, cadena(25));
+        Assert.assertTrue(c.getPeso() == 95);
+        Assert.assertTrue(c.contiene(0));
+        for (int i = 1; i <= 3; i++)
+            Assert.assertFalse(c.contiene(i));
+        c.agrega(4, cadena(0));
+        Assert.assertTrue(c.getPeso() == 85);
+        c.agrega(11, cadena(101));
+        Assert.assertFalse(c.contiene(11));
+        Assert.assertTrue(c.esVacia());
+        Assert.assertTrue(c.getPeso() == 0);
+        Assert.assertTrue(c.tryGet(12, () -> cadena(5)).length() == 5);
+        c.elimina(12);
+        Assert.assertTrue(c.getPeso() == 0);
+        try {
+            new CacheLRU<Integer, String>(100, (k, v) -> -1).agrega(0, "");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CacheLRU<Integer, String>(0, (k, v) -> 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CacheLRU<Integer, String>(100, (Pesador<Integer, String>)null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Regresa una cadena de la longitud dada. */
+    private static String cadena(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++)
+            sb.append('x');
+        return sb.toString();
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#getPeso} con capacidad por
+     * elementos: cada valor pesa 1.
+     */
+    @Test public void testPesoPorElementos() {
+        for (int i = 0; i < total * 2; i++) {
+            int idx = random.nextInt(entradas.length);
+            cache.agrega(idx, entradas[idx]);
+            Assert.assertTrue(cache.getPeso() == cache.getElementos());
+        }
+        Assert.assertTrue(cache.getPesoMaximo() == cache.getCapacidad());
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#getEstadisticas} con aciertos,
+     * fallas y cargas.
+     */
+    @Test public void testEstadisticas() {
+        RelojManual reloj = new RelojManual();
+        CacheLRU<Integer, Integer> c = new CacheLRU<>(total, reloj);
+        c.tryGet(0, () -> 0);
+        Assert.assertTrue(c.getEstadisticas().getPeticiones() == 0);
+        c.setRegistraEstadisticas(true);
+        for (int i = 0; i < total; i++) {
+            int k = i;
+            c.tryGet(k, () -> {
+                    reloj.avanza(1);
+                    return k;
+                });
+        }
+        for (int i = 0; i < total; i++)
+            c.get(i);
+        try {
+            c.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            c.tryGet(total, () -> {
+                    reloj.avanza(1);
+                    throw new IllegalStateException();
+                });
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        try {
+            c.tryGet(total, () -> null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        EstadisticasCache e = c.getEstadisticas();
+        Assert.assertTrue(e.getAciertos() == total + 1);
+        Assert.assertTrue(e.getFallas() == total + 2);
+        Assert.assertTrue(e.getPeticiones() == 2 * total + 3);
+        Assert.assertTrue(e.getCargasExitosas() == total - 1);
+        Assert.assertTrue(e.getCargasFallidas() == 2);
+        Assert.assertTrue(e.getTiempoTotalCarga() ==
+                          TimeUnit.SECONDS.toNanos(total));
+        Assert.assertTrue(e.getTiempoPromedioCarga() ==
+                          TimeUnit.SECONDS.toNanos(total) / (total + 1.0));
+        Assert.assertTrue(e.getDesalojos() == 0);
+        c.setRegistraEstadisticas(false);
+        c.get(0);
+        Assert.assertTrue(c.getEstadisticas().equals(e));
+        c.setRegistraEstadisticas(true);
+        c.get(0);
+        EstadisticasCache d = c.getEstadisticas().menos(e);
+        Assert.assertTrue(d.getAciertos() == 1);
+        Assert.assertTrue(d.getFallas() == 0);
+        Assert.assertTrue(d.getTasaAciertos() == 1.0);
+        Assert.assertTrue(e.getAciertos() == total + 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#getEstadisticas} con desalojos.
+     */
+    @Test public void testEstadisticasDesalojos() {
+        RelojManual reloj = new RelojManual();
+        CacheLRU<Integer, Integer> c = new CacheLRU<>(total, reloj);
+        c.setRegistraEstadisticas(true);
+        c.setExpiraTrasEscritura(10, TimeUnit.SECONDS);
+        for (int i = 0; i < total * 2; i++)
+            c.agrega(i, i);
+        c.elimina(total);
+        c.eliminaLRU();
+        reloj.avanza(11);
+        c.limpiaExpirados();
+        EstadisticasCache e = c.getEstadisticas();
+        Assert.assertTrue(e.getDesalojos(CausaDesalojo.CAPACIDAD) == total);
+        Assert.assertTrue(e.getDesalojos(CausaDesalojo.EXPIRACION) ==
+                          total - 2);
+        Assert.assertTrue(e.getDesalojos(CausaDesalojo.PESO) == 0);
+        Assert.assertTrue(e.getDesalojos() == 2 * total - 2);
+        CacheLRU<Integer, String> p =
+            new CacheLRU<Integer, String>(10, (k, v) -> v.length());
+        p.setRegistraEstadisticas(true);
+        for (int i = 0; i < total; i++)
+            p.agrega(i, "xxx");
+        Assert.assertTrue(p.getEstadisticas().getDesalojos(CausaDesalojo.PESO) ==
+                          total - 3);
+        try {
+            e.getDesalojos(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Regresa una caché de cadenas llena con accesos aleatorios. */
+    private CacheLRU<Integer, String> cacheCadenas(int capacidad) {
+        CacheLRU<Integer, String> c = new CacheLRU<Integer, String>(capacidad);
+        for (int i = 0; i < capacidad * 4; i++) {
+            int k = random.nextInt(capacidad * 2);
+            c.agrega(k, "valor " + k + " " + random.nextInt());
+        }
+        return c;
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#guarda} y {@link CacheLRU#carga}.
+     */
+    @Test public void testGuardaCarga() throws IOException {
+        Codificador<Integer> enteros = Codificadores.enteros();
+        Codificador<String> cadenas = Codificadores.cadenas();
+        Path archivo = carpeta.getRoot().toPath().resolve("cache");
+        CacheLRU<Integer, String> c = cacheCadenas(total);
+        c.guarda(archivo, enteros, cadenas);
+        CacheLRU<Integer, String> d = new CacheLRU<Integer, String>(total);
+        Assert.assertTrue(d.carga(archivo, enteros, cadenas) ==
+                          c.getElementos());
+        Assert.assertTrue(d.equals(c));
+        int k = random.nextInt(total * 2);
+        c.agrega(k, "otro");
+        c.guarda(archivo, enteros, cadenas);
+        Assert.assertFalse(Files.exists(archivo.resolveSibling("cache.tmp")));
+        d.limpia();
+        d.carga(archivo, enteros, cadenas);
+        Assert.assertTrue(d.equals(c));
+        Assert.assertTrue(d.getMRU().equals("otro"));
+        CacheLRU<Integer, String> vacia = new CacheLRU<Integer, String>(total);
+        vacia.guarda(archivo, enteros, cadenas);
+        Assert.assertTrue(d.carga(archivo, enteros, cadenas) == 0);
+        try {
+            c.guarda(archivo, null, cadenas);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#carga} en una caché con menos
+     * capacidad: se quedan los elementos más recientes.
+     */
+    @Test public void testCargaMenorCapacidad() throws IOException {
+        Path archivo = carpeta.getRoot().toPath().resolve("cache");
+        CacheLRU<Integer, String> c = cacheCadenas(total);
+        c.guarda(archivo, Codificadores.enteros(), Codificadores.cadenas());
+        CacheLRU<Integer, String> d =
+            new CacheLRU<Integer, String>(total / 2);
+        d.carga(archivo, Codificadores.enteros(), Codificadores.cadenas());
+        Assert.assertTrue(d.getElementos() == total / 2);
+        Iterator<Integer> llaves = c.iteradorLlaves();
+        Iterator<Integer> cargadas = d.iteradorLlaves();
+        while (cargadas.hasNext())
+            Assert.assertTrue(cargadas.next().equals(llaves.next()));
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#guarda} y {@link CacheLRU#carga}
+     * con valores más grandes que los buffers.
+     */
+    @Test public void testGuardaCargaGrandes() throws IOException {
+        Path archivo = carpeta.getRoot().toPath().resolve("cache");
+        CacheLRU<Integer, String> c = new CacheLRU<Integer, String>(total);
+        for (int i = 0; i < 4; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = random.nextInt(1 << 18);
+            for (int j = 0; j < n; j++)
+                sb.append((char)('a' + random.nextInt(26)));
+            c.agrega(i, sb.toString());
+        }
+        c.guarda(archivo, Codificadores.enteros(), Codificadores.cadenas());
+        CacheLRU<Integer, String> d = new CacheLRU<Integer, String>(total);
+        d.carga(archivo, Codificadores.enteros(), Codificadores.cadenas());
+        Assert.assertTrue(d.equals(c));
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#guarda} con elementos expirados.
+     */
+    @Test public void testGuardaExpirados() throws IOException {
+        Path archivo = carpeta.getRoot().toPath().resolve("cache");
+        RelojManual reloj = new RelojManual();
+        CacheLRU<Integer, Integer> c = new CacheLRU<>(total, reloj);
+        c.setExpiraTrasEscritura(10, TimeUnit.SECONDS);
+        for (int i = 0; i < total / 2; i++)
+            c.agrega(i, i);
+        reloj.avanza(5);
+        for (int i = total / 2; i < total; i++)
+            c.agrega(i, i);
+        reloj.avanza(6);
+        c.guarda(archivo, Codificadores.enteros(), Codificadores.enteros());
+        CacheLRU<Integer, Integer> d = new CacheLRU<>(total);
+        d.carga(archivo, Codificadores.enteros(), Codificadores.enteros());
+        Assert.assertTrue(d.getElementos() == total - total / 2);
+        for (int i = total / 2; i < total; i++)
+            Assert.assertTrue(d.get(i) == i);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRU#carga} con archivos dañados.
+     */
+    @Test public void testCargaDañado() throws IOException {
+        Path archivo = carpeta.getRoot().toPath().resolve("cache");
+        Codificador<Integer> enteros = Codificadores.enteros();
+        Codificador<String> cadenas = Codificadores.cadenas();
+        CacheLRU<Integer, String> c = cacheCadenas(total);
+        c.guarda(archivo, enteros, cadenas);
+        long tamaño = Files.size(archivo);
+        try (FileChannel canal = FileChannel.open(archivo,
+                                                  StandardOpenOption.WRITE)) {
+            canal.truncate(1 + random.nextInt((int)tamaño - 1));
+        }
+        CacheLRU<Integer, String> d = new CacheLRU<Integer, String>(total);
+        try {
+            d.carga(archivo, enteros, cadenas);
+            Assert.fail();
+        } catch (IOException ioe) {}
+        Files.write(archivo, new byte[] { 'n', 'o', 'p', 'e', 0, 0, 0, 1 });
+        try {
+            d.carga(archivo, enteros, cadenas);
+            Assert.fail();
+        } catch (IOException ioe) {}
+        c.guarda(archivo, enteros, cadenas);
+        Files.write(archivo, new byte[] { 0 }, StandardOpenOption.APPEND);
+        try {
+            d.carga(archivo, enteros, cadenas);
+            Assert.fail();
+        } catch (IOException ioe) {}
+    }
 }
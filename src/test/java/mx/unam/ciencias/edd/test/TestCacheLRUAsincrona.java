@@ -0,0 +1,287 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import mx.unam.ciencias.edd.CacheLRU;
+import mx.unam.ciencias.edd.CacheLRUAsincrona;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CacheLRUAsincrona}.
+ */
+public class TestCacheLRUAsincrona {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Número de hilos para las pruebas concurrentes. */
+    private static final int HILOS = 4;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La caché, que computa en el mismo hilo. */
+    private CacheLRUAsincrona<Integer, Integer> cache;
+
+    /**
+     * Crea una caché para cada prueba.
+     */
+    public TestCacheLRUAsincrona() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        cache = new CacheLRUAsincrona<Integer, Integer>(total, Runnable::run);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#CacheLRUAsincrona}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(cache.esVacia());
+        Assert.assertTrue(cache.getElementos() == 0);
+        Assert.assertTrue(cache.getCapacidad() == total);
+        try {
+            new CacheLRUAsincrona<Integer, Integer>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CacheLRUAsincrona<Integer, Integer>(total, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        CacheLRU<Integer, CompletableFuture<Integer>> lru =
+            new CacheLRU<Integer, CompletableFuture<Integer>>(total);
+        lru.setRefrescaTras(1, TimeUnit.MILLISECONDS, Runnable::run);
+        try {
+            new CacheLRUAsincrona<Integer, Integer>(lru, Runnable::run);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        lru.setRefrescaTras(0, TimeUnit.MILLISECONDS, Runnable::run);
+        new CacheLRUAsincrona<Integer, Integer>(lru, Runnable::run);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#agrega} y {@link
+     * CacheLRUAsincrona#get}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total * 2; i++) {
+            cache.agrega(i, i * 3);
+            Assert.assertTrue(cache.get(i).join() == i * 3);
+            Assert.assertTrue(cache.getElementos() == Integer.min(i + 1, total));
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertFalse(cache.contiene(i));
+        try {
+            cache.get(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            cache.agrega(0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#elimina} y {@link
+     * CacheLRUAsincrona#limpia}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        int k = random.nextInt(total);
+        cache.elimina(k);
+        Assert.assertFalse(cache.contiene(k));
+        Assert.assertTrue(cache.getElementos() == total - 1);
+        try {
+            cache.elimina(k);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        cache.limpia();
+        Assert.assertTrue(cache.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#tryGet}.
+     */
+    @Test public void testTryGet() {
+        AtomicInteger computaciones = new AtomicInteger();
+        for (int i = 0; i < total; i++) {
+            int k = i;
+            int v = cache.tryGet(k, () -> {
+                    computaciones.incrementAndGet();
+                    return k * 2;
+                }).join();
+            Assert.assertTrue(v == k * 2);
+        }
+        for (int i = 0; i < total; i++) {
+            int v = cache.tryGet(i, () -> {
+                    computaciones.incrementAndGet();
+                    return -1;
+                }).join();
+            Assert.assertTrue(v == i * 2);
+        }
+        Assert.assertTrue(computaciones.get() == total);
+        try {
+            cache.tryGet(null, () -> 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#tryGet} cuando la
+     * computación falla o regresa <code>null</code>.
+     */
+    @Test public void testTryGetFalla() {
+        int k = random.nextInt(total);
+        CompletableFuture<Integer> f = cache.tryGet(k, () -> {
+                throw new IllegalStateException();
+            });
+        Assert.assertTrue(f.isCompletedExceptionally());
+        Assert.assertFalse(cache.contiene(k));
+        f = cache.tryGet(k, () -> null);
+        Assert.assertTrue(f.isCompletedExceptionally());
+        Assert.assertFalse(cache.contiene(k));
+        f = cache.tryGet(k, () -> k);
+        Assert.assertTrue(f.join() == k);
+        Assert.assertTrue(cache.contiene(k));
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#tryGet} con varios hilos
+     * fallando en la misma llave.
+     */
+    @Test public void testTryGetConcurrente() throws InterruptedException {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        CacheLRUAsincrona<Integer, Integer> asincrona =
+            new CacheLRUAsincrona<Integer, Integer>(total, ejecutor);
+        AtomicInteger computaciones = new AtomicInteger();
+        CountDownLatch libera = new CountDownLatch(1);
+        int k = random.nextInt(total);
+        @SuppressWarnings("unchecked") CompletableFuture<Integer>[] futuros =
+            new CompletableFuture[HILOS];
+        Thread[] hilos = new Thread[HILOS];
+        for (int i = 0; i < HILOS; i++) {
+            int hilo = i;
+            hilos[i] = new Thread(() -> {
+                    futuros[hilo] = asincrona.tryGet(k, () -> {
+                            computaciones.incrementAndGet();
+                            try {
+                                libera.await();
+                            } catch (InterruptedException ie) {}
+                            return k + 1;
+                        });
+                });
+            hilos[i].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        libera.countDown();
+        for (CompletableFuture<Integer> futuro : futuros) {
+            Assert.assertTrue(futuro == futuros[0]);
+            Assert.assertTrue(futuro.join() == k + 1);
+        }
+        Assert.assertTrue(computaciones.get() == 1);
+        ejecutor.shutdown();
+        Assert.assertTrue(ejecutor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#getAll}.
+     */
+    @Test public void testGetAll() {
+        for (int i = 0; i < total / 2; i++)
+            cache.agrega(i, i);
+        Lista<Integer> llaves = new Lista<Integer>();
+        for (int i = 0; i < total; i++)
+            llaves.agrega(i);
+        llaves.agrega(total - 1);
+        AtomicInteger cargas = new AtomicInteger();
+        Diccionario<Integer, Integer> valores = cache.getAll(llaves, l -> {
+                cargas.incrementAndGet();
+                Assert.assertTrue(l.getElementos() == total - total / 2);
+                Diccionario<Integer, Integer> d =
+                    new Diccionario<Integer, Integer>();
+                for (int k : l) {
+                    Assert.assertTrue(k >= total / 2);
+                    d.agrega(k, k);
+                }
+                return d;
+            }).join();
+        Assert.assertTrue(cargas.get() == 1);
+        Assert.assertTrue(valores.getElementos() == total);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(valores.get(i) == i);
+            Assert.assertTrue(cache.contiene(i));
+        }
+        valores = cache.getAll(llaves, l -> {
+                Assert.fail();
+                return null;
+            }).join();
+        Assert.assertTrue(valores.getElementos() == total);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#getAll} cuando el cargador
+     * no regresa alguna llave.
+     */
+    @Test public void testGetAllFalta() {
+        Lista<Integer> llaves = new Lista<Integer>();
+        for (int i = 0; i < total; i++)
+            llaves.agrega(i);
+        int k = random.nextInt(total);
+        CompletableFuture<Diccionario<Integer, Integer>> f =
+            cache.getAll(llaves, l -> {
+                    Diccionario<Integer, Integer> d =
+                        new Diccionario<Integer, Integer>();
+                    for (int i : l)
+                        if (i != k)
+                            d.agrega(i, i);
+                    return d;
+                });
+        try {
+            f.join();
+            Assert.fail();
+        } catch (CompletionException ce) {
+            Assert.assertTrue(ce.getCause() instanceof NoSuchElementException);
+        }
+        Assert.assertFalse(cache.contiene(k));
+        Assert.assertTrue(cache.getElementos() == total - 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUAsincrona#getAll} con una llave
+     * nula después de otras llaves.
+     */
+    @Test public void testGetAllNull() {
+        Integer[] llaves = new Integer[total + 1];
+        for (int i = 0; i < total; i++)
+            llaves[i] = i;
+        try {
+            cache.getAll(Arrays.asList(llaves), l -> {
+                    Assert.fail();
+                    return null;
+                });
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertTrue(cache.esVacia());
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(cache.contiene(i));
+            int k = i;
+            Assert.assertTrue(cache.tryGet(i, () -> k).join() == i);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import mx.unam.ciencias.edd.CacheLRUConcurrente;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CacheLRUConcurrente}.
+ */
+public class TestCacheLRUConcurrente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Número de hilos para las pruebas concurrentes. */
+    private static final int HILOS = 4;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La caché. */
+    private CacheLRUConcurrente<Integer, Integer> cache;
+
+    /**
+     * Crea una caché para cada prueba.
+     */
+    public TestCacheLRUConcurrente() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        cache = new CacheLRUConcurrente<Integer, Integer>(total);
+    }
+
+    /* Ejecuta la acción en HILOS hilos y espera a que terminen. */
+    private void enParalelo(Accion accion) {
+        Thread[] hilos = new Thread[HILOS];
+        Throwable[] error = { null };
+        for (int i = 0; i < HILOS; i++) {
+            int hilo = i;
+            hilos[i] = new Thread(() -> accion.ejecuta(hilo));
+            hilos[i].setUncaughtExceptionHandler((t, e) -> error[0] = e);
+            hilos[i].start();
+        }
+        try {
+            for (Thread hilo : hilos)
+                hilo.join();
+        } catch (InterruptedException ie) {
+            Assert.fail();
+        }
+        if (error[0] != null)
+            throw new AssertionError(error[0]);
+    }
+
+    /* Interfaz para las acciones de los hilos. */
+    @FunctionalInterface
+    private interface Accion {
+        public void ejecuta(int hilo);
+    }
+
+    /* Valida que la lista de uso y el diccionario coincidan. */
+    private void validaCache() {
+        boolean[] vistas = new boolean[total * 4];
+        int n = 0;
+        Iterator<Integer> it = cache.iteradorLlaves();
+        while (it.hasNext()) {
+            int k = it.next();
+            Assert.assertFalse(vistas[k]);
+            vistas[k] = true;
+            Assert.assertTrue(cache.contiene(k));
+            n++;
+        }
+        Assert.assertTrue(n == cache.getElementos());
+        Assert.assertTrue(n <= total);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#CacheLRUConcurrente}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(cache.esVacia());
+        Assert.assertTrue(cache.getElementos() == 0);
+        Assert.assertTrue(cache.getCapacidad() == total);
+        validaCache();
+        try {
+            cache = new CacheLRUConcurrente<>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) { }
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#agrega}: al pasar de la
+     * capacidad se desaloja al menos usado.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        Assert.assertTrue(cache.getElementos() == total);
+        Assert.assertTrue(cache.getLRU() == 0);
+        Assert.assertTrue(cache.getMRU() == total - 1);
+        cache.agrega(total, total);
+        Assert.assertTrue(cache.getElementos() == total);
+        Assert.assertFalse(cache.contiene(0));
+        Assert.assertTrue(cache.getLRU() == 1);
+        cache.agrega(1, -1);
+        Assert.assertTrue(cache.getMRU() == -1);
+        Assert.assertTrue(cache.getLRU() == 2);
+        validaCache();
+        try {
+            cache.agrega(null, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) { }
+        try {
+            cache.agrega(0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) { }
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#get}: con un solo hilo
+     * el orden de uso es exacto.
+     */
+    @Test public void testGet() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        int[] orden = new int[total];
+        for (int i = 0; i < total; i++)
+            orden[i] = i;
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = orden[i];
+            orden[i] = orden[j];
+            orden[j] = t;
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(cache.get(orden[i]) == orden[i]);
+        Iterator<Integer> it = cache.iteradorLlaves();
+        for (int i = total - 1; i >= 0; i--)
+            Assert.assertTrue(it.next() == orden[i]);
+        Assert.assertFalse(it.hasNext());
+        Assert.assertTrue(cache.eliminaLRU() == orden[0]);
+        try {
+            cache.get(orden[0]);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) { }
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#elimina}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        for (int i = 0; i < total; i += 2)
+            cache.elimina(i);
+        Assert.assertTrue(cache.getElementos() == total / 2);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(cache.contiene(i) == (i % 2 == 1));
+        validaCache();
+        try {
+            cache.elimina(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) { }
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#limpia}: los accesos
+     * anotados antes de limpiar no regresan nodos a la lista.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        for (int i = 0; i < CacheLRUConcurrente.BUFFER / 4; i++)
+            cache.get(i);
+        cache.limpia();
+        Assert.assertTrue(cache.esVacia());
+        Assert.assertFalse(cache.iterator().hasNext());
+        cache.agrega(0, 0);
+        Assert.assertTrue(cache.getElementos() == 1);
+        validaCache();
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#tryGet}.
+     */
+    @Test public void testTryGet() {
+        AtomicInteger computados = new AtomicInteger();
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(cache.tryGet(i, () -> {
+                        computados.incrementAndGet();
+                        return -1;
+                    }) == -1);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(cache.tryGet(i, () -> 0) == -1);
+        Assert.assertTrue(computados.get() == total);
+        try {
+            cache.tryGet(total, () -> null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) { }
+        Assert.assertFalse(cache.contiene(total));
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(cache.toString().equals("[]"));
+        cache.agrega(1, 2);
+        cache.agrega(3, 4);
+        Assert.assertTrue(cache.toString().equals("['3': '4', '1': '2']"));
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente} con varios hilos
+     * leyendo y escribiendo: la caché nunca pasa de su capacidad, y la lista
+     * de uso queda con las mismas llaves que el diccionario.
+     */
+    @Test public void testConcurrente() {
+        int n = total * 4;
+        enParalelo(hilo -> {
+                Random r = new Random(hilo);
+                for (int i = 0; i < 1 << 14; i++) {
+                    int k = r.nextInt(n);
+                    switch (r.nextInt(8)) {
+                    case 0:
+                        cache.agrega(k, k);
+                        break;
+                    case 1:
+                        try {
+                            cache.elimina(k);
+                        } catch (NoSuchElementException nsee) { }
+                        break;
+                    default:
+                        Assert.assertTrue(cache.tryGet(k, () -> k) == k);
+                    }
+                    Assert.assertTrue(cache.getElementos() <= total);
+                }
+            });
+        validaCache();
+        for (Integer v : cache)
+            Assert.assertTrue(cache.get(v) == v.intValue());
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#tryGet} con varios
+     * hilos pidiendo las mismas llaves: cada llave se computa una vez.
+     */
+    @Test public void testTryGetConcurrente() {
+        AtomicInteger computados = new AtomicInteger();
+        enParalelo(hilo -> {
+                for (int i = 0; i < total; i++) {
+                    int k = i;
+                    cache.tryGet(k, () -> {
+                            computados.incrementAndGet();
+                            return k;
+                        });
+                }
+            });
+        Assert.assertTrue(computados.get() == total);
+        Assert.assertTrue(cache.getElementos() == total);
+        validaCache();
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#tryGet} con una
+     * computación lenta: no detiene a las escrituras ni a las fallas de otras
+     * llaves.
+     */
+    @Test public void testTryGetLento() throws InterruptedException {
+        CountDownLatch entro = new CountDownLatch(1);
+        CountDownLatch libera = new CountDownLatch(1);
+        Thread lento = new Thread(() -> cache.tryGet(0, () -> {
+                    entro.countDown();
+                    try {
+                        libera.await();
+                    } catch (InterruptedException ie) { }
+                    return 0;
+                }));
+        lento.start();
+        entro.await();
+        Assert.assertFalse(cache.contiene(0));
+        for (int i = 1; i < total; i++) {
+            int k = i;
+            cache.agrega(k, k);
+            Assert.assertTrue(cache.tryGet(total + k, () -> k) == k);
+        }
+        Assert.assertTrue(cache.getMRU() == total - 1);
+        libera.countDown();
+        lento.join();
+        Assert.assertTrue(cache.get(0) == 0);
+        validaCache();
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUConcurrente#tryGet} cuando la
+     * computación lanza una excepción: la llave no se agrega, y la siguiente
+     * petición vuelve a computarla.
+     */
+    @Test public void testTryGetFalla() {
+        for (int i = 0; i < total; i++) {
+            try {
+                cache.tryGet(i, () -> {
+                        throw new IllegalStateException();
+                    });
+                Assert.fail();
+            } catch (IllegalStateException ise) { }
+            Assert.assertFalse(cache.contiene(i));
+            int k = i;
+            Assert.assertTrue(cache.tryGet(i, () -> k) == i);
+        }
+        Assert.assertTrue(cache.getElementos() == total);
+    }
+}
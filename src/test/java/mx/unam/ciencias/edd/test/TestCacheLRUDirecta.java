@@ -0,0 +1,229 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.CacheLRU;
+import mx.unam.ciencias.edd.CacheLRUDirecta;
+import mx.unam.ciencias.edd.Codificador;
+import mx.unam.ciencias.edd.Codificadores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CacheLRUDirecta}.
+ */
+public class TestCacheLRUDirecta {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La caché. */
+    private CacheLRUDirecta<Integer, String> cache;
+
+    /**
+     * Crea una caché para cada prueba.
+     */
+    public TestCacheLRUDirecta() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        cache = new CacheLRUDirecta<Integer, String>(total,
+                                                     Codificadores.cadenas());
+    }
+
+    /* Regresa una cadena aleatoria de hasta n caracteres. */
+    private String cadena(int n) {
+        StringBuilder sb = new StringBuilder();
+        int longitud = random.nextInt(n + 1);
+        for (int i = 0; i < longitud; i++)
+            sb.append((char)('a' + random.nextInt(26)));
+        if (random.nextBoolean())
+            sb.append('ñ');
+        return sb.toString();
+    }
+
+    /* Valida que la caché tenga los mismos elementos y orden que el modelo. */
+    private void validaCache(CacheLRU<Integer, String> modelo) {
+        Assert.assertTrue(cache.getElementos() == modelo.getElementos());
+        Iterator<Integer> llaves = cache.iteradorLlaves();
+        Iterator<String> valores = cache.iterator();
+        Iterator<Integer> llavesModelo = modelo.iteradorLlaves();
+        for (String valor : modelo) {
+            Assert.assertTrue(llaves.hasNext());
+            Assert.assertTrue(llaves.next().equals(llavesModelo.next()));
+            Assert.assertTrue(valores.next().equals(valor));
+        }
+        Assert.assertFalse(llaves.hasNext());
+        Assert.assertFalse(valores.hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUDirecta#CacheLRUDirecta}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(cache.esVacia());
+        Assert.assertTrue(cache.getElementos() == 0);
+        Assert.assertTrue(cache.getCapacidad() == total);
+        Assert.assertTrue(cache.getBytesFueraDelHeap() == 0);
+        Assert.assertFalse(cache.iterator().hasNext());
+        try {
+            new CacheLRUDirecta<Integer, String>(1, Codificadores.cadenas());
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CacheLRUDirecta<Integer, String>(total, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUDirecta#agrega} y {@link
+     * CacheLRUDirecta#get}, comparando contra una {@link CacheLRU}.
+     */
+    @Test public void testAgrega() {
+        CacheLRU<Integer, String> modelo = new CacheLRU<Integer, String>(total);
+        for (int i = 0; i < total * 8; i++) {
+            int k = random.nextInt(total * 2);
+            if (random.nextBoolean()) {
+                String v = cadena(random.nextInt(4) == 0 ? 300 : 20);
+                cache.agrega(k, v);
+                modelo.agrega(k, v);
+            } else if (modelo.contiene(k)) {
+                Assert.assertTrue(cache.get(k).equals(modelo.get(k)));
+            } else {
+                Assert.assertFalse(cache.contiene(k));
+            }
+        }
+        validaCache(modelo);
+        Assert.assertTrue(cache.getBytesFueraDelHeap() > 0);
+        try {
+            cache.agrega(null, "");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            cache.agrega(0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUDirecta#get} con llaves que no
+     * están.
+     */
+    @Test public void testGet() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, String.valueOf(i));
+        try {
+            cache.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            cache.get(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        int k = random.nextInt(total);
+        Assert.assertTrue(cache.get(k).equals(String.valueOf(k)));
+        Assert.assertTrue(cache.iteradorLlaves().next() == k);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUDirecta#elimina} y {@link
+     * CacheLRUDirecta#eliminaLRU}.
+     */
+    @Test public void testElimina() {
+        CacheLRU<Integer, String> modelo = new CacheLRU<Integer, String>(total);
+        for (int i = 0; i < total; i++) {
+            String v = cadena(40);
+            cache.agrega(i, v);
+            modelo.agrega(i, v);
+        }
+        for (int i = 0; i < total / 2; i++) {
+            int k = random.nextInt(total);
+            if (!modelo.contiene(k))
+                continue;
+            cache.elimina(k);
+            modelo.elimina(k);
+            try {
+                cache.elimina(k);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+        validaCache(modelo);
+        while (!modelo.esVacia())
+            Assert.assertTrue(cache.eliminaLRU().equals(modelo.eliminaLRU()));
+        Assert.assertTrue(cache.esVacia());
+        try {
+            cache.eliminaLRU();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUDirecta#tryGet}.
+     */
+    @Test public void testTryGet() {
+        int[] fallas = { 0 };
+        for (int i = 0; i < total * 4; i++) {
+            int k = random.nextInt(total / 2);
+            String v = cache.tryGet(k, () -> {
+                    fallas[0]++;
+                    return "v" + k;
+                });
+            Assert.assertTrue(v.equals("v" + k));
+        }
+        Assert.assertTrue(fallas[0] == cache.getElementos());
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheLRUDirecta#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, cadena(100));
+        cache.limpia();
+        Assert.assertTrue(cache.esVacia());
+        Assert.assertTrue(cache.getBytesFueraDelHeap() == 0);
+        for (int i = 0; i < total; i++)
+            Assert.assertFalse(cache.contiene(i));
+        cache.agrega(0, "cero");
+        Assert.assertTrue(cache.get(0).equals("cero"));
+    }
+
+    /**
+     * Prueba unitaria para valores grandes de {@link CacheLRUDirecta}.
+     */
+    @Test public void testValoresGrandes() {
+        CacheLRUDirecta<Integer, byte[]> grandes =
+            new CacheLRUDirecta<Integer, byte[]>(4,
+                                                 new CodificadorIdentidad());
+        byte[] megabyte = new byte[1 << 20];
+        megabyte[megabyte.length - 1] = 7;
+        grandes.agrega(0, megabyte);
+        Assert.assertTrue(grandes.get(0)[megabyte.length - 1] == 7);
+        grandes.agrega(0, new byte[] { 1 });
+        Assert.assertTrue(grandes.get(0).length == 1);
+        try {
+            grandes.agrega(1, new byte[(1 << 20) + 1]);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertFalse(grandes.contiene(1));
+    }
+
+    /* Codificador de arreglos de bytes que no los cambia. */
+    private static class CodificadorIdentidad
+            implements Codificador<byte[]> {
+        @Override public byte[] codifica(byte[] elemento) {
+            return elemento;
+        }
+        @Override public byte[] decodifica(byte[] bytes) {
+            return bytes;
+        }
+    }
+}
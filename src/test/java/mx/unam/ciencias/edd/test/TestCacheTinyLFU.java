@@ -0,0 +1,165 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.CacheTinyLFU;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CacheTinyLFU}.
+ */
+public class TestCacheTinyLFU {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La caché. */
+    private CacheTinyLFU<Integer, Integer> cache;
+
+    /**
+     * Crea una caché para cada prueba.
+     */
+    public TestCacheTinyLFU() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        cache = new CacheTinyLFU<Integer, Integer>(total);
+    }
+
+    /* Valida que los iteradores y el diccionario coincidan. */
+    private void validaCache() {
+        int n = 0;
+        Iterator<Integer> it = cache.iteradorLlaves();
+        while (it.hasNext()) {
+            Assert.assertTrue(cache.contiene(it.next()));
+            n++;
+        }
+        Assert.assertTrue(n == cache.getElementos());
+        Assert.assertTrue(n <= total);
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheTinyLFU#CacheTinyLFU}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(cache.esVacia());
+        Assert.assertTrue(cache.getCapacidad() == total);
+        validaCache();
+        try {
+            cache = new CacheTinyLFU<>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        cache = new CacheTinyLFU<>(2);
+        for (int i = 0; i < 10; i++)
+            cache.agrega(i, i);
+        Assert.assertTrue(cache.getElementos() == 2);
+        validaCache();
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheTinyLFU#agrega}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            cache.agrega(i, i);
+            Assert.assertTrue(cache.getElementos() == i + 1);
+        }
+        for (int i = 0; i < total * 4; i++) {
+            int k = random.nextInt(total * 2);
+            cache.agrega(k, -k);
+            Assert.assertTrue(cache.getElementos() <= total);
+            validaCache();
+        }
+        cache.agrega(0, 42);
+        Assert.assertTrue(cache.get(0) == 42);
+        try {
+            cache.agrega(null, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            cache.agrega(0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheTinyLFU#get}.
+     */
+    @Test public void testGet() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(cache.get(i) == i);
+        try {
+            cache.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheTinyLFU#tryGet}: las llaves populares
+     * sobreviven a un recorrido que toca una vez cada llave.
+     */
+    @Test public void testRecorrido() {
+        int populares = total / 2;
+        for (int r = 0; r < 4; r++)
+            for (int i = 0; i < populares; i++)
+                cache.tryGet(i, () -> 0);
+        for (int i = 0; i < total * 4; i++)
+            cache.tryGet(-1 - i, () -> 0);
+        int quedan = 0;
+        for (int i = 0; i < populares; i++)
+            if (cache.contiene(i))
+                quedan++;
+        Assert.assertTrue(quedan == populares);
+        validaCache();
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheTinyLFU#elimina}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        for (int i = 0; i < total; i++)
+            cache.get(i % 3);
+        for (int i = 0; i < total; i += 2)
+            cache.elimina(i);
+        Assert.assertTrue(cache.getElementos() == total / 2);
+        validaCache();
+        try {
+            cache.elimina(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheTinyLFU#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            cache.agrega(i, i);
+        cache.limpia();
+        Assert.assertTrue(cache.esVacia());
+        Assert.assertFalse(cache.iterator().hasNext());
+        cache.agrega(1, 1);
+        validaCache();
+    }
+
+    /**
+     * Prueba unitaria para {@link CacheTinyLFU#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(cache.toString().equals("[]"));
+        cache.agrega(1, 2);
+        Assert.assertTrue(cache.toString().equals("['1': '2']"));
+    }
+}
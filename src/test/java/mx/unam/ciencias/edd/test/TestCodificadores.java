@@ -0,0 +1,76 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Codificador;
+import mx.unam.ciencias.edd.Codificadores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Codificadores}.
+ */
+public class TestCodificadores {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestCodificadores() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+    }
+
+    /**
+     * Prueba unitaria para {@link Codificadores#enteros}.
+     */
+    @Test public void testEnteros() {
+        Codificador<Integer> c = Codificadores.enteros();
+        for (int i = 0; i < total; i++) {
+            int n = random.nextInt();
+            byte[] bytes = c.codifica(n);
+            Assert.assertTrue(bytes.length == Integer.BYTES);
+            Assert.assertTrue(c.decodifica(bytes) == n);
+        }
+        Assert.assertTrue(c.codifica(1)[3] == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link Codificadores#largos}.
+     */
+    @Test public void testLargos() {
+        Codificador<Long> c = Codificadores.largos();
+        for (int i = 0; i < total; i++) {
+            long n = random.nextLong();
+            byte[] bytes = c.codifica(n);
+            Assert.assertTrue(bytes.length == Long.BYTES);
+            Assert.assertTrue(c.decodifica(bytes) == n);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Codificadores#cadenas}.
+     */
+    @Test public void testCadenas() {
+        Codificador<String> c = Codificadores.cadenas();
+        for (int i = 0; i < total; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = random.nextInt(total);
+            for (int j = 0; j < n; j++)
+                sb.append((char)(random.nextInt(0xd800)));
+            String s = sb.toString();
+            Assert.assertTrue(c.decodifica(c.codifica(s)).equals(s));
+        }
+        Assert.assertTrue(c.codifica("ñ").length == 2);
+        Assert.assertTrue(c.decodifica(new byte[0]).equals(""));
+    }
+}
@@ -0,0 +1,193 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import mx.unam.ciencias.edd.ConjuntoInt;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConjuntoInt}.
+ */
+public class TestConjuntoInt {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El conjunto. */
+    private ConjuntoInt conjunto;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba, un
+     * número total de elementos para nuestro conjunto, y un conjunto.
+     */
+    public TestConjuntoInt() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        conjunto = new ConjuntoInt(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#ConjuntoInt}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(conjunto.esVacia());
+        Assert.assertTrue(conjunto.getElementos() == 0);
+        Assert.assertFalse(conjunto.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#agrega}.
+     */
+    @Test public void testAgrega() {
+        int ini = -random.nextInt(total);
+        for (int i = 0; i < total; i++) {
+            conjunto.agrega(ini + i);
+            Assert.assertTrue(conjunto.contiene(ini + i));
+            Assert.assertTrue(conjunto.getElementos() == i+1);
+        }
+        for (int i = 0; i < total; i++)
+            conjunto.agrega(ini + i);
+        Assert.assertTrue(conjunto.getElementos() == total);
+        ConjuntoInt grande = new ConjuntoInt();
+        int n = 1 << 14;
+        for (int i = 0; i < n; i++)
+            grande.agrega(i << 12);
+        Assert.assertTrue(grande.getElementos() == n);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(grande.contiene(i << 12));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#contiene}.
+     */
+    @Test public void testContiene() {
+        int ini = -random.nextInt(total);
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(conjunto.contiene(ini + i));
+            conjunto.agrega(ini + i);
+            Assert.assertTrue(conjunto.contiene(ini + i));
+        }
+        Assert.assertFalse(conjunto.contiene(ini + total));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#elimina}.
+     */
+    @Test public void testElimina() {
+        int ini = -random.nextInt(total);
+        for (int i = 0; i < total; i++)
+            conjunto.agrega(ini + i);
+        conjunto.elimina(ini + total);
+        Assert.assertTrue(conjunto.getElementos() == total);
+        for (int i = 0; i < total; i++) {
+            conjunto.elimina(ini + i);
+            Assert.assertFalse(conjunto.contiene(ini + i));
+            Assert.assertTrue(conjunto.getElementos() == total - (i+1));
+            for (int j = i+1; j < total; j++)
+                Assert.assertTrue(conjunto.contiene(ini + j));
+        }
+        Assert.assertTrue(conjunto.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            conjunto.agrega(i);
+        conjunto.limpia();
+        Assert.assertTrue(conjunto.esVacia());
+        Assert.assertTrue(conjunto.getElementos() == 0);
+        Assert.assertFalse(conjunto.contiene(0));
+        Assert.assertFalse(conjunto.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#interseccion}.
+     */
+    @Test public void testInterseccion() {
+        ConjuntoInt otro = new ConjuntoInt();
+        for (int i = 0; i < total; i++) {
+            conjunto.agrega(i);
+            otro.agrega(i + total / 2);
+        }
+        ConjuntoInt interseccion = conjunto.interseccion(otro);
+        Assert.assertTrue(interseccion.getElementos() == total - total / 2);
+        for (int i = total / 2; i < total; i++)
+            Assert.assertTrue(interseccion.contiene(i));
+        Assert.assertTrue(conjunto.interseccion(null).esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#union}.
+     */
+    @Test public void testUnion() {
+        ConjuntoInt otro = new ConjuntoInt();
+        for (int i = 0; i < total; i++) {
+            conjunto.agrega(i);
+            otro.agrega(i + total / 2);
+        }
+        ConjuntoInt union = conjunto.union(otro);
+        Assert.assertTrue(union.getElementos() == total + total / 2);
+        for (int i = 0; i < total + total / 2; i++)
+            Assert.assertTrue(union.contiene(i));
+        Assert.assertTrue(conjunto.union(null).equals(conjunto));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(conjunto.toString().equals("{ }"));
+        conjunto.agrega(0);
+        Assert.assertTrue(conjunto.toString().equals("{ 0 }"));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#equals}.
+     */
+    @Test public void testEquals() {
+        ConjuntoInt otro = new ConjuntoInt();
+        Assert.assertTrue(conjunto.equals(otro));
+        Assert.assertFalse(conjunto.equals(null));
+        for (int i = 0; i < total; i++) {
+            conjunto.agrega(i);
+            otro.agrega(total - 1 - i);
+        }
+        Assert.assertTrue(conjunto.equals(otro));
+        otro.elimina(0);
+        otro.agrega(total);
+        Assert.assertFalse(conjunto.equals(otro));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#iterator}.
+     */
+    @Test public void testIterator() {
+        int ini = -random.nextInt(total);
+        for (int i = 0; i < total; i++)
+            conjunto.agrega(ini + i);
+        boolean[] vistos = new boolean[total];
+        PrimitiveIterator.OfInt it = conjunto.iterator();
+        int c = 0;
+        while (it.hasNext()) {
+            int e = it.nextInt() - ini;
+            Assert.assertFalse(vistos[e]);
+            vistos[e] = true;
+            c++;
+        }
+        Assert.assertTrue(c == total);
+        try {
+            it.nextInt();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
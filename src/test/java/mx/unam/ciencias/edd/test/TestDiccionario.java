@@ -8,6 +8,7 @@ import mx.unam.ciencias.edd.Arreglos;
 import mx.unam.ciencias.edd.Diccionario;
 import mx.unam.ciencias.edd.Dispersor;
 import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.GeneradorDispersores;
 import mx.unam.ciencias.edd.Lista;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -106,6 +107,38 @@ public class TestDiccionario {
         } catch (IllegalArgumentException iae) {}
     }
 
+    /**
+     * Prueba unitaria para {@link Diccionario#agrega} y {@link
+     * Diccionario#elimina} mientras el diccionario migra sus entradas al
+     * crecer.
+     */
+    @Test public void testAgregaCreciendo() {
+        Diccionario<Integer, Integer> dicc = new Diccionario<Integer, Integer>();
+        int n = 1 << 14;
+        for (int i = 0; i < n; i++) {
+            dicc.agrega(i, i);
+            Assert.assertTrue(dicc.get(i) == i);
+            int j = random.nextInt(i+1);
+            Assert.assertTrue(dicc.get(j) == j);
+            Assert.assertTrue(dicc.carga() < Diccionario.MAXIMA_CARGA);
+            if (i % 1000 != 0)
+                continue;
+            int c = 0;
+            for (Integer v : dicc)
+                c++;
+            Assert.assertTrue(c == i+1);
+        }
+        for (int i = 0; i < n; i += 2) {
+            Assert.assertTrue(dicc.remove(i) == i);
+            dicc.agrega(n + i, n + i);
+        }
+        Assert.assertTrue(dicc.getElementos() == n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(dicc.contiene(i) == (i % 2 == 1));
+            Assert.assertTrue(dicc.contiene(n + i) == (i % 2 == 0));
+        }
+    }
+
     /**
      * Prueba unitaria para {@link Diccionario#get}.
      */
@@ -167,6 +200,138 @@ public class TestDiccionario {
         }
     }
 
+    /**
+     * Prueba unitaria para {@link Diccionario#getOrDefault}.
+     */
+    @Test public void testGetOrDefault() {
+        int ini = 1 + random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertTrue(diccionario.getOrDefault(s, "X").equals("X"));
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.getOrDefault(s, "X").equals(s));
+        }
+        Assert.assertTrue(diccionario.getOrDefault("00000", null) == null);
+        Assert.assertTrue(diccionario.getOrDefault(null, "X").equals("X"));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#put}.
+     */
+    @Test public void testPut() {
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertTrue(diccionario.put(s, "X") == null);
+            Assert.assertTrue(diccionario.put(s, s).equals("X"));
+            Assert.assertTrue(diccionario.get(s).equals(s));
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+        }
+        try {
+            diccionario.put(null, "X");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.put("X", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#putIfAbsent}.
+     */
+    @Test public void testPutIfAbsent() {
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertTrue(diccionario.putIfAbsent(s, s) == null);
+            Assert.assertTrue(diccionario.putIfAbsent(s, "X").equals(s));
+            Assert.assertTrue(diccionario.get(s).equals(s));
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+        }
+        try {
+            diccionario.putIfAbsent(null, "X");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.putIfAbsent("X", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#computeIfAbsent}.
+     */
+    @Test public void testComputeIfAbsent() {
+        int ini = random.nextInt(10000);
+        int[] llamadas = { 0 };
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            String v = diccionario.computeIfAbsent(s, () -> {
+                    llamadas[0]++;
+                    return s;
+                });
+            Assert.assertTrue(v.equals(s));
+            v = diccionario.computeIfAbsent(s, () -> {
+                    Assert.fail();
+                    return null;
+                });
+            Assert.assertTrue(v.equals(s));
+            Assert.assertTrue(diccionario.get(s).equals(s));
+        }
+        Assert.assertTrue(llamadas[0] == total);
+        Assert.assertTrue(diccionario.getElementos() == total);
+        try {
+            diccionario.computeIfAbsent("00000", () -> null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertFalse(diccionario.contiene("00000"));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#merge}.
+     */
+    @Test public void testMerge() {
+        Diccionario<String, Integer> cuentas =
+            new Diccionario<String, Integer>();
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + (i % 8) * 1000);
+            cuentas.merge(s, 1, (a, b) -> a + b);
+        }
+        int suma = 0;
+        for (Integer c : cuentas)
+            suma += c;
+        Assert.assertTrue(suma == total);
+        Assert.assertTrue(cuentas.getElementos() == 8);
+        String s = String.format("%x", ini);
+        Assert.assertTrue(cuentas.merge(s, 1, (a, b) -> null) == null);
+        Assert.assertFalse(cuentas.contiene(s));
+        Assert.assertTrue(cuentas.getElementos() == 7);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#remove}.
+     */
+    @Test public void testRemove() {
+        try {
+            diccionario.remove(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        int ini = random.nextInt(10000);
+        String[] arreglo = new String[total];
+        for (int i = 0; i < total; i++) {
+            arreglo[i] = String.format("%x", ini + i * 1000);
+            diccionario.agrega(arreglo[i], arreglo[i]);
+        }
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(diccionario.remove(arreglo[i]).equals(arreglo[i]));
+            Assert.assertTrue(diccionario.remove(arreglo[i]) == null);
+            Assert.assertFalse(diccionario.contiene(arreglo[i]));
+            Assert.assertTrue(diccionario.getElementos() == total - (i+1));
+        }
+    }
+
     /**
      * Prueba unitaria para {@link Diccionario#colisiones}.
      */
@@ -425,4 +590,215 @@ public class TestDiccionario {
             c++;
         Assert.assertTrue(c == 0);
     }
+
+    /**
+     * Prueba unitaria para el modo seguro de {@link Diccionario}: con un
+     * primer dispersor que manda todas las llaves a la misma cubeta, el
+     * diccionario cambia de dispersor al pasar el umbral.
+     */
+    @Test public void testModoSeguro() {
+        int[] generados = { 0 };
+        GeneradorDispersores<String> generador = () -> {
+            if (generados[0]++ == 0)
+                return l -> 0;
+            AlgoritmoDispersor sip = AlgoritmoDispersor.SIPHASH_STRING;
+            return FabricaDispersores.dispersorCadena(sip);
+        };
+        Diccionario<String, String> seguro =
+            new Diccionario<String, String>(total, generador, 8);
+        for (int i = 0; i < total; i++) {
+            String s = String.valueOf(i);
+            seguro.agrega(s, s);
+            Assert.assertTrue(seguro.getElementos() == i+1);
+        }
+        Assert.assertTrue(generados[0] >= 2);
+        Assert.assertTrue(seguro.colisionMaxima() < 8);
+        for (int i = 0; i < total; i++) {
+            String s = String.valueOf(i);
+            Assert.assertTrue(seguro.get(s).equals(s));
+        }
+        try {
+            new Diccionario<String, String>(total, generador, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para el modo seguro de {@link Diccionario} con un
+     * generador que siempre regresa dispersores malos: el diccionario sólo
+     * cambia de dispersor cuando se duplican sus elementos.
+     */
+    @Test public void testModoSeguroSinRemedio() {
+        int[] generados = { 0 };
+        GeneradorDispersores<String> generador = () -> {
+            generados[0]++;
+            return l -> 0;
+        };
+        Diccionario<String, String> seguro =
+            new Diccionario<String, String>(total, generador, 1);
+        for (int i = 0; i < total; i++)
+            seguro.agrega(String.valueOf(i), String.valueOf(i));
+        Assert.assertTrue(seguro.getElementos() == total);
+        int bits = 32 - Integer.numberOfLeadingZeros(total);
+        Assert.assertTrue(generados[0] <= bits + 2);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(seguro.contiene(String.valueOf(i)));
+    }
+
+    /**
+     * Prueba unitaria para las cubetas de {@link Diccionario} que se
+     * convierten en árboles: con un dispersor que manda todas las llaves a la
+     * misma cubeta, las búsquedas revisan un número logarítmico de entradas.
+     */
+    @Test public void testCubetasArbol() {
+        Diccionario<String, String> malo =
+            new Diccionario<String, String>(l -> 0);
+        int n = 16 * total;
+        for (int i = 0; i < n; i++) {
+            String s = String.valueOf(i);
+            malo.agrega(s, s);
+        }
+        Assert.assertTrue(malo.getElementos() == n);
+        int log = 32 - Integer.numberOfLeadingZeros(n);
+        Assert.assertTrue(malo.colisionMaxima() <= 2 * log);
+        for (int i = 0; i < n; i++) {
+            String s = String.valueOf(i);
+            Assert.assertTrue(malo.get(s).equals(s));
+        }
+        Assert.assertFalse(malo.contiene(String.valueOf(n)));
+        int c = 0;
+        Iterator<String> it = malo.iteradorLlaves();
+        while (it.hasNext()) {
+            it.next();
+            c++;
+        }
+        Assert.assertTrue(c == n);
+        for (int i = 0; i < n - 3; i++)
+            malo.elimina(String.valueOf(i));
+        Assert.assertTrue(malo.getElementos() == 3);
+        Assert.assertTrue(malo.colisionMaxima() == 2);
+        for (int i = n - 3; i < n; i++)
+            Assert.assertTrue(malo.contiene(String.valueOf(i)));
+    }
+
+    /**
+     * Prueba unitaria para las cubetas de {@link Diccionario} con llaves que
+     * no se pueden comparar entre sí: siguen siendo listas.
+     */
+    @Test public void testCubetasNoComparables() {
+        Diccionario<Object, Integer> mixto =
+            new Diccionario<Object, Integer>(l -> 0);
+        int n = 4 * Diccionario.ARBOLIZA;
+        for (int i = 0; i < n; i++)
+            mixto.agrega(String.valueOf(i), i);
+        Assert.assertTrue(mixto.colisionMaxima() < n - 1);
+        mixto.agrega(Integer.valueOf(-1), -1);
+        Assert.assertTrue(mixto.colisionMaxima() == n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(mixto.get(String.valueOf(i)) == i);
+            Assert.assertFalse(mixto.contiene(Integer.valueOf(i)));
+        }
+        Assert.assertTrue(mixto.get(Integer.valueOf(-1)) == -1);
+    }
+
+    /**
+     * Prueba unitaria para las cubetas de {@link Diccionario} con llaves de
+     * dos clases: al eliminar las llaves de una de ellas, la cubeta vuelve a
+     * poder convertirse en árbol.
+     */
+    @Test public void testCubetasVuelvenAComparar() {
+        Diccionario<Object, Integer> mixto =
+            new Diccionario<Object, Integer>(l -> 0);
+        int n = 4 * Diccionario.ARBOLIZA;
+        mixto.agrega(Integer.valueOf(-1), -1);
+        for (int i = 0; i < n; i++)
+            mixto.agrega(String.valueOf(i), i);
+        Assert.assertTrue(mixto.colisionMaxima() == n);
+        mixto.elimina(Integer.valueOf(-1));
+        mixto.agrega(String.valueOf(n), n);
+        Assert.assertTrue(mixto.colisionMaxima() < n);
+        mixto.agrega(Integer.valueOf(-1), -1);
+        Assert.assertTrue(mixto.colisionMaxima() == n + 1);
+        for (int i = 0; i < n / 2; i++)
+            mixto.elimina(String.valueOf(i));
+        mixto.elimina(Integer.valueOf(-1));
+        mixto.agrega(String.valueOf(n + 1), n + 1);
+        Assert.assertTrue(mixto.colisionMaxima() < n / 2 + 1);
+        for (int i = n / 2; i <= n + 1; i++)
+            Assert.assertTrue(mixto.get(String.valueOf(i)) == i);
+    }
+
+    /* Llaves con compareTo inconsistente con equals: sólo compara a. */
+    private static class Par implements Comparable<Par> {
+
+        /* Los campos de la llave. */
+        private int a, b;
+
+        /* Construye una llave. */
+        public Par(int a, int b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        /* Compara sólo el primer campo. */
+        @Override public int compareTo(Par p) {
+            return Integer.compare(a, p.a);
+        }
+
+        /* Compara los dos campos. */
+        @Override public boolean equals(Object o) {
+            if (!(o instanceof Par))
+                return false;
+            Par p = (Par)o;
+            return a == p.a && b == p.b;
+        }
+
+        /* Todas las llaves colisionan. */
+        @Override public int hashCode() {
+            return 0;
+        }
+    }
+
+    /**
+     * Prueba unitaria para las cubetas de {@link Diccionario} que son árboles
+     * con llaves cuyo <code>compareTo</code> no es consistente con
+     * <code>equals</code>: las llaves distintas según <code>equals</code> no
+     * se confunden.
+     */
+    @Test public void testCubetasCompareToInconsistente() {
+        Diccionario<Par, Integer> d = new Diccionario<Par, Integer>();
+        int n = 4 * Diccionario.ARBOLIZA;
+        for (int i = 0; i < n; i++)
+            d.agrega(new Par(i % 4, i / 4), i);
+        Assert.assertTrue(d.getElementos() == n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(d.get(new Par(i % 4, i / 4)) == i);
+            Assert.assertFalse(d.contiene(new Par(i % 4, n + i)));
+        }
+        d.agrega(new Par(3, 1), -1);
+        Assert.assertTrue(d.getElementos() == n);
+        Assert.assertTrue(d.get(new Par(3, 1)) == -1);
+        Assert.assertTrue(d.get(new Par(3, 0)) == 3);
+        d.agrega(new Par(3, 1), 7);
+        int[] orden = new int[n];
+        for (int i = 0; i < n; i++)
+            orden[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = orden[i];
+            orden[i] = orden[j];
+            orden[j] = t;
+        }
+        for (int k = 0; k < n; k++) {
+            int i = orden[k];
+            Assert.assertTrue(d.remove(new Par(i % 4, i / 4)) == i);
+            Assert.assertFalse(d.contiene(new Par(i % 4, i / 4)));
+            Assert.assertTrue(d.getElementos() == n - k - 1);
+            for (int l = k + 1; l < n; l++) {
+                int m = orden[l];
+                Assert.assertTrue(d.get(new Par(m % 4, m / 4)) == m);
+            }
+        }
+        Assert.assertTrue(d.esVacia());
+    }
 }
@@ -0,0 +1,427 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioConcurrente;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioConcurrente}.
+ */
+public class TestDiccionarioConcurrente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Número de hilos para las pruebas concurrentes. */
+    private static final int HILOS = 4;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El diccionario. */
+    private DiccionarioConcurrente<String, String> diccionario;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionarioConcurrente() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        diccionario = new DiccionarioConcurrente<String, String>(total);
+    }
+
+    /* Ejecuta la acción en HILOS hilos y espera a que terminen. */
+    private void enParalelo(Accion accion) {
+        Thread[] hilos = new Thread[HILOS];
+        Throwable[] error = { null };
+        for (int i = 0; i < HILOS; i++) {
+            int hilo = i;
+            hilos[i] = new Thread(() -> accion.ejecuta(hilo));
+            hilos[i].setUncaughtExceptionHandler((t, e) -> error[0] = e);
+            hilos[i].start();
+        }
+        try {
+            for (Thread hilo : hilos)
+                hilo.join();
+        } catch (InterruptedException ie) {
+            Assert.fail();
+        }
+        if (error[0] != null)
+            throw new AssertionError(error[0]);
+    }
+
+    /* Interfaz para las acciones de los hilos. */
+    @FunctionalInterface
+    private interface Accion {
+        public void ejecuta(int hilo);
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * DiccionarioConcurrente#DiccionarioConcurrente}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.carga() == 0.0);
+        Assert.assertTrue(diccionario.colisiones() == 0);
+        Assert.assertFalse(diccionario.iteradorLlaves().hasNext());
+        Assert.assertFalse(diccionario.iterator().hasNext());
+        try {
+            new DiccionarioConcurrente<String, String>(total, s -> 0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        DiccionarioConcurrente<String, String> uno =
+            new DiccionarioConcurrente<String, String>(total,
+                                                       s -> s.hashCode(), 1);
+        for (int i = 0; i < total; i++)
+            uno.agrega(String.valueOf(i), String.valueOf(i));
+        Assert.assertTrue(uno.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(uno.get(String.valueOf(i))
+                              .equals(String.valueOf(i)));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#agrega}.
+     */
+    @Test public void testAgrega() {
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total * 4; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertFalse(diccionario.contiene(s));
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.contiene(s));
+            Assert.assertTrue(diccionario.get(s).equals(s));
+            Assert.assertTrue(diccionario.carga() <
+                              DiccionarioConcurrente.MAXIMA_CARGA);
+        }
+        String k = String.format("%x", ini);
+        String v = String.format("%x", ini+1);
+        diccionario.agrega(k, v);
+        Assert.assertTrue(diccionario.getElementos() == total*4);
+        Assert.assertTrue(diccionario.get(k).equals(v));
+        try {
+            diccionario.agrega(null, "X");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.agrega("X", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#agrega} desde varios
+     * hilos, haciendo crecer a los segmentos mientras otros hilos buscan.
+     */
+    @Test public void testAgregaConcurrente() {
+        DiccionarioConcurrente<Integer, Integer> dicc =
+            new DiccionarioConcurrente<Integer, Integer>();
+        int n = 1 << 14;
+        enParalelo(hilo -> {
+                for (int i = hilo; i < n; i += HILOS) {
+                    dicc.agrega(i, i);
+                    Assert.assertTrue(dicc.get(i) == i);
+                    int j = random.nextInt(i+1);
+                    if (j % HILOS == hilo)
+                        Assert.assertTrue(dicc.get(j) == j);
+                }
+            });
+        Assert.assertTrue(dicc.getElementos() == n);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(dicc.get(i) == i);
+        enParalelo(hilo -> {
+                for (int i = hilo; i < n; i += HILOS)
+                    if (i % 2 == 0)
+                        dicc.elimina(i);
+            });
+        Assert.assertTrue(dicc.getElementos() == n / 2);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(dicc.contiene(i) == (i % 2 == 1));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#get}.
+     */
+    @Test public void testGet() {
+        int ini = 1 + random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.get(s).equals(s));
+        }
+        try {
+            diccionario.get("00000");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            diccionario.get(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#contiene}.
+     */
+    @Test public void testContiene() {
+        Assert.assertFalse(diccionario.contiene(null));
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertFalse(diccionario.contiene(s));
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.contiene(s));
+        }
+        Assert.assertFalse(diccionario.contiene("00000"));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#elimina}.
+     */
+    @Test public void testElimina() {
+        try {
+            diccionario.elimina(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        String[] arreglo = new String[total];
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            arreglo[i] = String.format("%x", ini + i * 1000);
+            diccionario.agrega(arreglo[i], arreglo[i]);
+        }
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(diccionario.contiene(arreglo[i]));
+            diccionario.elimina(arreglo[i]);
+            Assert.assertFalse(diccionario.contiene(arreglo[i]));
+            Assert.assertTrue(diccionario.getElementos() == total - (i+1));
+            try {
+                diccionario.elimina(arreglo[i]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#getOrDefault}.
+     */
+    @Test public void testGetOrDefault() {
+        int ini = 1 + random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertTrue(diccionario.getOrDefault(s, "X").equals("X"));
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.getOrDefault(s, "X").equals(s));
+        }
+        Assert.assertTrue(diccionario.getOrDefault(null, "X").equals("X"));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#putIfAbsent} desde
+     * varios hilos: sólo uno puede ganar cada llave.
+     */
+    @Test public void testPutIfAbsent() {
+        String[] ganadores = new String[total];
+        enParalelo(hilo -> {
+                for (int i = 0; i < total; i++) {
+                    String s = String.valueOf(i);
+                    String h = String.valueOf(hilo);
+                    if (diccionario.putIfAbsent(s, h) == null)
+                        ganadores[i] = h;
+                }
+            });
+        Assert.assertTrue(diccionario.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(diccionario.get(String.valueOf(i))
+                              .equals(ganadores[i]));
+        try {
+            diccionario.putIfAbsent(null, "X");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.putIfAbsent("X", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#computeIfAbsent}
+     * desde varios hilos: la acción se ejecuta una vez por llave.
+     */
+    @Test public void testComputeIfAbsent() {
+        DiccionarioConcurrente<Integer, Integer> llamadas =
+            new DiccionarioConcurrente<Integer, Integer>();
+        enParalelo(hilo -> {
+                for (int i = 0; i < total; i++) {
+                    String s = String.valueOf(i);
+                    String v = diccionario.computeIfAbsent(s, () -> {
+                            llamadas.merge(0, 1, (a, b) -> a + b);
+                            return s;
+                        });
+                    Assert.assertTrue(v.equals(s));
+                }
+            });
+        Assert.assertTrue(llamadas.get(0) == total);
+        Assert.assertTrue(diccionario.getElementos() == total);
+        try {
+            diccionario.computeIfAbsent("X", () -> null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertFalse(diccionario.contiene("X"));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#merge} desde varios
+     * hilos: ninguna actualización se pierde.
+     */
+    @Test public void testMerge() {
+        DiccionarioConcurrente<Integer, Integer> cuentas =
+            new DiccionarioConcurrente<Integer, Integer>();
+        int n = 1000;
+        enParalelo(hilo -> {
+                for (int i = 0; i < n; i++)
+                    cuentas.merge(i % 8, 1, (a, b) -> a + b);
+            });
+        int suma = 0;
+        for (Integer c : cuentas)
+            suma += c;
+        Assert.assertTrue(suma == n * HILOS);
+        Assert.assertTrue(cuentas.getElementos() == 8);
+        Assert.assertTrue(cuentas.merge(0, 1, (a, b) -> null) == null);
+        Assert.assertFalse(cuentas.contiene(0));
+        Assert.assertTrue(cuentas.getElementos() == 7);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#remove}.
+     */
+    @Test public void testRemove() {
+        try {
+            diccionario.remove(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        int ini = random.nextInt(10000);
+        String[] arreglo = new String[total];
+        for (int i = 0; i < total; i++) {
+            arreglo[i] = String.format("%x", ini + i * 1000);
+            diccionario.agrega(arreglo[i], arreglo[i]);
+        }
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(diccionario.remove(arreglo[i]).equals(arreglo[i]));
+            Assert.assertTrue(diccionario.remove(arreglo[i]) == null);
+            Assert.assertFalse(diccionario.contiene(arreglo[i]));
+            Assert.assertTrue(diccionario.getElementos() == total - (i+1));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#colisionMaxima}.
+     */
+    @Test public void testColisionMaxima() {
+        DiccionarioConcurrente<String, String> dicc =
+            new DiccionarioConcurrente<String, String>(total, s -> 0, 4);
+        for (int i = 0; i < total; i++)
+            dicc.agrega(String.valueOf(i), String.valueOf(i));
+        Assert.assertTrue(dicc.colisionMaxima() == total - 1);
+        Assert.assertTrue(dicc.colisiones() == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(String.valueOf(i), String.valueOf(i));
+        Assert.assertFalse(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == total);
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.carga() == 0.0);
+        Assert.assertFalse(diccionario.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(diccionario.toString().equals("{}"));
+        diccionario.agrega("a", "b");
+        Assert.assertTrue(diccionario.toString().equals("{ 'a': 'b', }"));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#iteradorLlaves}.
+     */
+    @Test public void testIteradorLlaves() {
+        int ini = random.nextInt(10000);
+        Lista<String> lista = new Lista<String>();
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            diccionario.agrega(s, s);
+            lista.agregaFinal(s);
+        }
+        int c = 0;
+        Iterator<String> iteradorLlaves = diccionario.iteradorLlaves();
+        while (iteradorLlaves.hasNext()) {
+            String s = iteradorLlaves.next();
+            Assert.assertTrue(lista.contiene(s));
+            lista.elimina(s);
+            c++;
+        }
+        Assert.assertTrue(c == total);
+        Assert.assertTrue(lista.esVacia());
+        try {
+            iteradorLlaves.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#iterator} mientras
+     * otros hilos modifican el diccionario: no hay excepciones, ninguna llave
+     * se repite, y las llaves que no se tocan siempre aparecen.
+     */
+    @Test public void testIteratorConcurrente() {
+        DiccionarioConcurrente<Integer, Integer> dicc =
+            new DiccionarioConcurrente<Integer, Integer>();
+        int n = 1 << 12;
+        for (int i = 0; i < n; i++)
+            dicc.agrega(i, i);
+        enParalelo(hilo -> {
+                if (hilo == 0) {
+                    for (int r = 0; r < 8; r++) {
+                        boolean[] vistas = new boolean[n * 2];
+                        Iterator<Integer> it = dicc.iteradorLlaves();
+                        while (it.hasNext()) {
+                            int k = it.next();
+                            Assert.assertFalse(vistas[k]);
+                            vistas[k] = true;
+                        }
+                        for (int i = 0; i < n; i += 2)
+                            Assert.assertTrue(vistas[i]);
+                    }
+                    return;
+                }
+                for (int i = hilo - 1; i < n; i += HILOS - 1) {
+                    if (i % 2 == 1)
+                        dicc.elimina(i);
+                    dicc.agrega(n + i, i);
+                }
+            });
+        int c = 0;
+        for (Integer v : dicc)
+            c++;
+        Assert.assertTrue(c == dicc.getElementos());
+        Assert.assertTrue(c == n + n / 2);
+    }
+}
@@ -0,0 +1,234 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioIntInt;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioIntInt}.
+ */
+public class TestDiccionarioIntInt {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El diccionario. */
+    private DiccionarioIntInt diccionario;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionarioIntInt() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        diccionario = new DiccionarioIntInt(total);
+    }
+
+    /* Regresa un arreglo de llaves distintas, incluyendo al 0. */
+    private int[] llaves(int n) {
+        int[] a = new int[n];
+        /* Impar, para que ninguna otra llave sea 0. */
+        int ini = random.nextInt(5000) * 2 + 1 - 5000;
+        for (int i = 0; i < n; i++)
+            a[i] = ini + i * 1000;
+        a[random.nextInt(n)] = 0;
+        return a;
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#DiccionarioIntInt}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.carga() == 0.0);
+        Assert.assertTrue(diccionario.colisiones() == 0);
+        Assert.assertFalse(diccionario.iteradorLlaves().hasNext());
+        Assert.assertFalse(diccionario.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#agrega}.
+     */
+    @Test public void testAgrega() {
+        int[] a = llaves(total * 4);
+        for (int i = 0; i < a.length; i++) {
+            Assert.assertFalse(diccionario.contiene(a[i]));
+            diccionario.agrega(a[i], -a[i]);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.contiene(a[i]));
+            Assert.assertTrue(diccionario.get(a[i]) == -a[i]);
+            Assert.assertTrue(diccionario.carga() <
+                              DiccionarioIntInt.MAXIMA_CARGA);
+        }
+        for (int i = 0; i < a.length; i++)
+            diccionario.agrega(a[i], a[i]);
+        Assert.assertTrue(diccionario.getElementos() == a.length);
+        for (int i = 0; i < a.length; i++)
+            Assert.assertTrue(diccionario.get(a[i]) == a[i]);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#agrega} con la llave 0
+     * justo en el límite de la carga máxima: también hace crecer la tabla.
+     */
+    @Test public void testAgregaCeroAlLimite() {
+        DiccionarioIntInt dicc = new DiccionarioIntInt();
+        dicc.agrega(1, 1);
+        /* La longitud de la tabla es elementos / carga. */
+        int i = 2;
+        while ((dicc.getElementos() + 1) * dicc.carga() / dicc.getElementos()
+               <= DiccionarioIntInt.MAXIMA_CARGA)
+            dicc.agrega(i, i++);
+        dicc.agrega(0, 0);
+        Assert.assertTrue(dicc.carga() < DiccionarioIntInt.MAXIMA_CARGA);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#agrega} con llaves
+     * consecutivas, que sin mezclar quedarían agrupadas.
+     */
+    @Test public void testAgregaConsecutivas() {
+        DiccionarioIntInt dicc = new DiccionarioIntInt();
+        int n = 1 << 14;
+        for (int i = 0; i < n; i++)
+            dicc.agrega(i << 8, i);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(dicc.get(i << 8) == i);
+        Assert.assertTrue(dicc.colisionMaxima() < 16);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#get}.
+     */
+    @Test public void testGet() {
+        int[] a = llaves(total);
+        for (int i = 0; i < total; i++) {
+            try {
+                diccionario.get(a[i]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+            diccionario.agrega(a[i], i);
+            Assert.assertTrue(diccionario.get(a[i]) == i);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#getOrDefault}.
+     */
+    @Test public void testGetOrDefault() {
+        int[] a = llaves(total);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(diccionario.getOrDefault(a[i], -1) == -1);
+            diccionario.agrega(a[i], i);
+            Assert.assertTrue(diccionario.getOrDefault(a[i], -1) == i);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#elimina}.
+     */
+    @Test public void testElimina() {
+        int[] a = llaves(total);
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(a[i], i);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(diccionario.contiene(a[i]));
+            diccionario.elimina(a[i]);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+            Assert.assertTrue(diccionario.getElementos() == total - (i+1));
+            for (int j = i+1; j < total; j++)
+                Assert.assertTrue(diccionario.get(a[j]) == j);
+            try {
+                diccionario.elimina(a[i]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#limpia}.
+     */
+    @Test public void testLimpia() {
+        int[] a = llaves(total);
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(a[i], i);
+        Assert.assertFalse(diccionario.esVacia());
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.carga() == 0.0);
+        Assert.assertFalse(diccionario.contiene(0));
+        Assert.assertFalse(diccionario.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(diccionario.toString().equals("{}"));
+        diccionario.agrega(0, 1);
+        Assert.assertTrue(diccionario.toString().equals("{ '0': '1', }"));
+        diccionario.elimina(0);
+        diccionario.agrega(-7, 3);
+        Assert.assertTrue(diccionario.toString().equals("{ '-7': '3', }"));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#equals}.
+     */
+    @Test public void testEquals() {
+        DiccionarioIntInt otro = new DiccionarioIntInt();
+        Assert.assertTrue(diccionario.equals(otro));
+        Assert.assertFalse(diccionario.equals(null));
+        int[] a = llaves(total);
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(a[i], i);
+            otro.agrega(a[total - 1 - i], total - 1 - i);
+        }
+        Assert.assertTrue(diccionario.equals(otro));
+        otro.agrega(a[0], -1);
+        Assert.assertFalse(diccionario.equals(otro));
+        otro.agrega(a[0], 0);
+        otro.agrega(1 << 30, 0);
+        Assert.assertFalse(diccionario.equals(otro));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioIntInt#iteradorLlaves} y {@link
+     * DiccionarioIntInt#iterator}.
+     */
+    @Test public void testIteradores() {
+        int[] a = llaves(total);
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(a[i], i);
+        boolean[] vistas = new boolean[total];
+        PrimitiveIterator.OfInt llaves = diccionario.iteradorLlaves();
+        PrimitiveIterator.OfInt valores = diccionario.iterator();
+        int c = 0;
+        while (llaves.hasNext()) {
+            int llave = llaves.nextInt();
+            int valor = valores.nextInt();
+            Assert.assertTrue(a[valor] == llave);
+            Assert.assertFalse(vistas[valor]);
+            vistas[valor] = true;
+            c++;
+        }
+        Assert.assertFalse(valores.hasNext());
+        Assert.assertTrue(c == total);
+        try {
+            llaves.nextInt();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
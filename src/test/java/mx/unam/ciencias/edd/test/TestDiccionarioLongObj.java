@@ -0,0 +1,223 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioLongObj;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioLongObj}.
+ */
+public class TestDiccionarioLongObj {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El diccionario. */
+    private DiccionarioLongObj<String> diccionario;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionarioLongObj() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        diccionario = new DiccionarioLongObj<String>(total);
+    }
+
+    /* Regresa un arreglo de llaves distintas, incluyendo al 0. */
+    private long[] llaves(int n) {
+        long[] a = new long[n];
+        long ini = random.nextLong() >> 1;
+        for (int i = 0; i < n; i++)
+            a[i] = ini + (long)i << 32;
+        a[random.nextInt(n)] = 0L;
+        return a;
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#DiccionarioLongObj}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.carga() == 0.0);
+        Assert.assertTrue(diccionario.colisiones() == 0);
+        Assert.assertFalse(diccionario.iteradorLlaves().hasNext());
+        Assert.assertFalse(diccionario.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#agrega}.
+     */
+    @Test public void testAgrega() {
+        long[] a = llaves(total * 4);
+        for (int i = 0; i < a.length; i++) {
+            String s = String.valueOf(a[i]);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+            diccionario.agrega(a[i], s);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.contiene(a[i]));
+            Assert.assertTrue(diccionario.get(a[i]).equals(s));
+            Assert.assertTrue(diccionario.carga() <
+                              DiccionarioLongObj.MAXIMA_CARGA);
+        }
+        diccionario.agrega(a[0], "X");
+        Assert.assertTrue(diccionario.getElementos() == a.length);
+        Assert.assertTrue(diccionario.get(a[0]).equals("X"));
+        try {
+            diccionario.agrega(1L, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#agrega} con llaves que
+     * sólo difieren en los bits altos, que sin mezclar quedarían en la misma
+     * cubeta.
+     */
+    @Test public void testAgregaBitsAltos() {
+        DiccionarioLongObj<Integer> dicc = new DiccionarioLongObj<Integer>();
+        int n = 1 << 14;
+        for (int i = 0; i < n; i++)
+            dicc.agrega((long)i << 40, i);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(dicc.get((long)i << 40) == i);
+        Assert.assertTrue(dicc.colisionMaxima() < 16);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#get} y {@link
+     * DiccionarioLongObj#getOrDefault}.
+     */
+    @Test public void testGet() {
+        long[] a = llaves(total);
+        for (int i = 0; i < total; i++) {
+            String s = String.valueOf(i);
+            try {
+                diccionario.get(a[i]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+            Assert.assertTrue(diccionario.getOrDefault(a[i], "X").equals("X"));
+            diccionario.agrega(a[i], s);
+            Assert.assertTrue(diccionario.get(a[i]).equals(s));
+            Assert.assertTrue(diccionario.getOrDefault(a[i], "X").equals(s));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#putIfAbsent}.
+     */
+    @Test public void testPutIfAbsent() {
+        long[] a = llaves(total);
+        for (int i = 0; i < total; i++) {
+            String s = String.valueOf(i);
+            Assert.assertTrue(diccionario.putIfAbsent(a[i], s) == null);
+            Assert.assertTrue(diccionario.putIfAbsent(a[i], "X").equals(s));
+            Assert.assertTrue(diccionario.get(a[i]).equals(s));
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+        }
+        try {
+            diccionario.putIfAbsent(1L, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#elimina} y {@link
+     * DiccionarioLongObj#remove}.
+     */
+    @Test public void testElimina() {
+        long[] a = llaves(total);
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(a[i], String.valueOf(i));
+        for (int i = 0; i < total; i++) {
+            if (i % 2 == 0)
+                diccionario.elimina(a[i]);
+            else
+                Assert.assertTrue(diccionario.remove(a[i])
+                                  .equals(String.valueOf(i)));
+            Assert.assertFalse(diccionario.contiene(a[i]));
+            Assert.assertTrue(diccionario.remove(a[i]) == null);
+            Assert.assertTrue(diccionario.getElementos() == total - (i+1));
+            for (int j = i+1; j < total; j++)
+                Assert.assertTrue(diccionario.get(a[j])
+                                  .equals(String.valueOf(j)));
+            try {
+                diccionario.elimina(a[i]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#limpia}.
+     */
+    @Test public void testLimpia() {
+        long[] a = llaves(total);
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(a[i], String.valueOf(i));
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertFalse(diccionario.contiene(0L));
+        Assert.assertFalse(diccionario.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(diccionario.toString().equals("{}"));
+        diccionario.agrega(-5L, "a");
+        Assert.assertTrue(diccionario.toString().equals("{ '-5': 'a', }"));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#equals}.
+     */
+    @Test public void testEquals() {
+        DiccionarioLongObj<String> otro = new DiccionarioLongObj<String>();
+        Assert.assertTrue(diccionario.equals(otro));
+        Assert.assertFalse(diccionario.equals(null));
+        long[] a = llaves(total);
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(a[i], String.valueOf(i));
+            otro.agrega(a[total - 1 - i], String.valueOf(total - 1 - i));
+        }
+        Assert.assertTrue(diccionario.equals(otro));
+        otro.agrega(a[0], "X");
+        Assert.assertFalse(diccionario.equals(otro));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLongObj#iteradorLlaves} y {@link
+     * DiccionarioLongObj#iterator}.
+     */
+    @Test public void testIteradores() {
+        long[] a = llaves(total);
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(a[i], String.valueOf(i));
+        boolean[] vistas = new boolean[total];
+        PrimitiveIterator.OfLong llaves = diccionario.iteradorLlaves();
+        int c = 0;
+        for (String s : diccionario) {
+            int i = Integer.parseInt(s);
+            Assert.assertTrue(a[i] == llaves.nextLong());
+            Assert.assertFalse(vistas[i]);
+            vistas[i] = true;
+            c++;
+        }
+        Assert.assertFalse(llaves.hasNext());
+        Assert.assertTrue(c == total);
+    }
+}
@@ -1,7 +1,10 @@
 package mx.unam.ciencias.edd.test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
 import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -156,4 +159,316 @@ public class TestDispersores {
             Assert.assertTrue(RESULTADOS_DJB[i-1] == r);
         }
     }
+
+    /* Interfaz para dispersar un subarreglo. */
+    @FunctionalInterface
+    private interface DispersorSubarreglo {
+        public int dispersa(byte[] llave, int inicio, int longitud);
+    }
+
+    /* Interfaz para dispersar un buffer. */
+    @FunctionalInterface
+    private interface DispersorBuffer {
+        public int dispersa(ByteBuffer llave);
+    }
+
+    /* Interfaz para dispersar una secuencia de caracteres. */
+    @FunctionalInterface
+    private interface DispersorCaracteres {
+        public int dispersa(CharSequence llave);
+    }
+
+    /*
+     * Verifica que el dispersor de subarreglos regrese los resultados para
+     * los subarreglos de ARREGLO, colocados en medio de basura.
+     */
+    private void pruebaSubarreglos(DispersorSubarreglo dispersor,
+                                   int[] resultados) {
+        Random random = new Random();
+        for (int i = 1; i < ARREGLO.length; i++) {
+            int inicio = random.nextInt(16);
+            byte[] grande = new byte[inicio + i + random.nextInt(16)];
+            random.nextBytes(grande);
+            System.arraycopy(ARREGLO, 0, grande, inicio, i);
+            Assert.assertTrue(resultados[i-1] ==
+                              dispersor.dispersa(grande, inicio, i));
+        }
+        try {
+            dispersor.dispersa(ARREGLO, 1, ARREGLO.length);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            dispersor.dispersa(ARREGLO, -1, 1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /*
+     * Verifica que el dispersor de buffers regrese los resultados para los
+     * subarreglos de ARREGLO, en buffers directos, con arreglo, y de sólo
+     * lectura, sin cambiar su posición.
+     */
+    private void pruebaBuffers(DispersorBuffer dispersor, int[] resultados) {
+        ByteBuffer directo = ByteBuffer.allocateDirect(ARREGLO.length + 8);
+        ByteBuffer arreglo = ByteBuffer.allocate(ARREGLO.length + 8);
+        for (int i = 1; i < ARREGLO.length; i++) {
+            for (ByteBuffer buffer : new ByteBuffer[] { directo, arreglo }) {
+                buffer.clear();
+                buffer.position(3);
+                buffer.put(ARREGLO, 0, i);
+                buffer.limit(3 + i);
+                buffer.position(3);
+            }
+            ByteBuffer[] buffers = {
+                directo, arreglo, arreglo.asReadOnlyBuffer()
+            };
+            for (ByteBuffer buffer : buffers) {
+                ByteBuffer rebanada = buffer.slice();
+                Assert.assertTrue(resultados[i-1] == dispersor.dispersa(buffer));
+                Assert.assertTrue(buffer.position() == 3);
+                Assert.assertTrue(resultados[i-1] ==
+                                  dispersor.dispersa(rebanada));
+            }
+        }
+    }
+
+    /*
+     * Verifica que el dispersor de caracteres regrese lo mismo que dispersar
+     * la codificación UTF-8 de cadenas aleatorias, incluyendo caracteres de
+     * 1 a 4 bytes y sustitutos sin pareja.
+     */
+    private void pruebaCaracteres(DispersorCaracteres dispersor,
+                                  DispersorSubarreglo bytes) {
+        Random random = new Random();
+        char[] alfabeto = {
+            'a', 'Z', '~', '\u00e1', '\u00f1', '\u07ff', '\u0800', '\u20ac',
+            '\uffff', '\ud83d', '\ude00', '\udbff', '\udfff'
+        };
+        for (int n = 0; n < 64; n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < n; i++)
+                sb.append(alfabeto[random.nextInt(alfabeto.length)]);
+            String cadena = sb.toString();
+            byte[] utf8 = cadena.getBytes(StandardCharsets.UTF_8);
+            int esperado = bytes.dispersa(utf8, 0, utf8.length);
+            Assert.assertTrue(esperado == dispersor.dispersa(cadena));
+            Assert.assertTrue(esperado == dispersor.dispersa(sb));
+        }
+    }
+
+    /**
+     * Prueba unitaria para las versiones de {@link Dispersores#dispersaXOR}
+     * para subarreglos, buffers y secuencias de caracteres.
+     */
+    @Test public void testDispersaXORSinArreglos() {
+        pruebaSubarreglos(Dispersores::dispersaXOR, RESULTADOS_XOR);
+        pruebaBuffers(Dispersores::dispersaXOR, RESULTADOS_XOR);
+        pruebaCaracteres(Dispersores::dispersaXOR, Dispersores::dispersaXOR);
+    }
+
+    /**
+     * Prueba unitaria para las versiones de {@link Dispersores#dispersaBJ}
+     * para subarreglos, buffers y secuencias de caracteres.
+     */
+    @Test public void testDispersaBJSinArreglos() {
+        pruebaSubarreglos(Dispersores::dispersaBJ, RESULTADOS_BJ);
+        pruebaBuffers(Dispersores::dispersaBJ, RESULTADOS_BJ);
+        pruebaCaracteres(Dispersores::dispersaBJ, Dispersores::dispersaBJ);
+    }
+
+    /**
+     * Prueba unitaria para las versiones de {@link Dispersores#dispersaDJB}
+     * para subarreglos, buffers y secuencias de caracteres.
+     */
+    @Test public void testDispersaDJBSinArreglos() {
+        pruebaSubarreglos(Dispersores::dispersaDJB, RESULTADOS_DJB);
+        pruebaBuffers(Dispersores::dispersaDJB, RESULTADOS_DJB);
+        pruebaCaracteres(Dispersores::dispersaDJB, Dispersores::dispersaDJB);
+    }
+
+    /* Regresa la codificación UTF-8 de una cadena. */
+    private static byte[] utf8(String cadena) {
+        return cadena.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /* Mensaje de 43 bytes usado en los vectores de referencia. */
+    private static final String ZORRO =
+        "The quick brown fox jumps over the lazy dog";
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaMurmur3}, con los
+     * vectores de referencia de MurmurHash3_x86_32.
+     */
+    @Test public void testDispersaMurmur3() {
+        Assert.assertTrue(Dispersores.dispersaMurmur3(utf8("")) == 0);
+        Assert.assertTrue(Dispersores.dispersaMurmur3(utf8(""), 1) ==
+                          0x514e28b7);
+        Assert.assertTrue(Dispersores.dispersaMurmur3(utf8("hello")) ==
+                          0x248bfa47);
+        Assert.assertTrue(Dispersores.dispersaMurmur3(utf8(ZORRO)) ==
+                          0x2e4ff723);
+        pruebaCaracteres(Dispersores::dispersaMurmur3,
+                         (b, i, n) -> Dispersores.dispersaMurmur3(b));
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaMurmur3x128}, con los
+     * vectores de referencia de MurmurHash3_x64_128.
+     */
+    @Test public void testDispersaMurmur3x128() {
+        long[] d = Dispersores.dispersaMurmur3x128(utf8(""), 0);
+        Assert.assertTrue(d[0] == 0L && d[1] == 0L);
+        d = Dispersores.dispersaMurmur3x128(utf8(ZORRO), 0);
+        Assert.assertTrue(d[0] == 0xe34bbc7bbc071b6cL);
+        Assert.assertTrue(d[1] == 0x7a433ca9c49a9347L);
+        Assert.assertTrue(Dispersores.dispersaMurmur3x128(ZORRO) == d[0]);
+        pruebaCaracteres(c -> (int)Dispersores.dispersaMurmur3x128(c),
+                         (b, i, n) ->
+                         (int)Dispersores.dispersaMurmur3x128(b, 0)[0]);
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXXH32}, con los
+     * vectores de referencia de xxHash32.
+     */
+    @Test public void testDispersaXXH32() {
+        Assert.assertTrue(Dispersores.dispersaXXH32(utf8("")) == 0x02cc5d05);
+        Assert.assertTrue(Dispersores.dispersaXXH32(utf8("abc")) ==
+                          0x32d153ff);
+        Assert.assertTrue(Dispersores.dispersaXXH32(utf8(ZORRO)) ==
+                          0xe85ea4de);
+        pruebaCaracteres(Dispersores::dispersaXXH32,
+                         (b, i, n) -> Dispersores.dispersaXXH32(b));
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXXH64}, con los
+     * vectores de referencia de xxHash64.
+     */
+    @Test public void testDispersaXXH64() {
+        Assert.assertTrue(Dispersores.dispersaXXH64(utf8("")) ==
+                          0xef46db3751d8e999L);
+        Assert.assertTrue(Dispersores.dispersaXXH64(utf8("a")) ==
+                          0xd24ec4f1a98c6e5bL);
+        Assert.assertTrue(Dispersores.dispersaXXH64(utf8("abc")) ==
+                          0x44bc2cf5ad770999L);
+        Assert.assertTrue(Dispersores.dispersaXXH64(utf8(ZORRO)) ==
+                          0x0b242d361fda71bcL);
+        pruebaCaracteres(c -> (int)Dispersores.dispersaXXH64(c),
+                         (b, i, n) -> (int)Dispersores.dispersaXXH64(b));
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaWyhash}, con los
+     * vectores de referencia de wyhash final4.
+     */
+    @Test public void testDispersaWyhash() {
+        String[] mensajes = {
+            "", "a", "abc", "message digest", "abcdefghijklmnopqrstuvwxyz",
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789",
+            "1234567890123456789012345678901234567890" +
+            "1234567890123456789012345678901234567890"
+        };
+        long[] resultados = {
+            0x93228a4de0eec5a2L, 0xc5bac3db178713c4L, 0xa97f2f7b1d9b3314L,
+            0x786d1f1df3801df4L, 0xdca5a8138ad37c87L, 0xb9e734f117cfaf70L,
+            0x6cc5eab49a92d617L
+        };
+        for (int i = 0; i < mensajes.length; i++)
+            Assert.assertTrue(Dispersores.dispersaWyhash(utf8(mensajes[i]), i)
+                              == resultados[i]);
+        pruebaCaracteres(c -> (int)Dispersores.dispersaWyhash(c),
+                         (b, i, n) -> (int)Dispersores.dispersaWyhash(b));
+    }
+
+    /* La llave 00 01 ... 0f de los vectores de referencia de SipHash. */
+    private static final long SIP_K0 = 0x0706050403020100L;
+    private static final long SIP_K1 = 0x0f0e0d0c0b0a0908L;
+
+    /* Regresa el mensaje 00 01 ... de n bytes de los vectores de SipHash. */
+    private static byte[] mensajeSipHash(int n) {
+        byte[] mensaje = new byte[n];
+        for (int i = 0; i < n; i++)
+            mensaje[i] = (byte)i;
+        return mensaje;
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaSipHash24}, con los
+     * vectores de referencia del artículo de SipHash.
+     */
+    @Test public void testDispersaSipHash24() {
+        long[] resultados = {
+            0x726fdb47dd0e0e31L, 0x74f839c593dc67fdL, 0x0d6c8009d9a94f5aL,
+            0x85676696d7fb7e2dL, 0xcf2794e0277187b7L, 0x18765564cd99a68dL,
+            0xcbc9466e58fee3ceL, 0xab0200f58b01d137L, 0x93f5f5799a932462L,
+            0x9e0082df0ba9e4b0L, 0x7a5dbbc594ddb9f3L, 0xf4b32f46226bada7L,
+            0x751e8fbc860ee5fbL, 0x14ea5627c0843d90L, 0xf723ca908e7af2eeL,
+            0xa129ca6149be45e5L
+        };
+        for (int i = 0; i < resultados.length; i++)
+            Assert.assertTrue(Dispersores.dispersaSipHash24(mensajeSipHash(i),
+                                                            SIP_K0, SIP_K1)
+                              == resultados[i]);
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaSipHash}, con los
+     * vectores de referencia de SipHash-1-3.
+     */
+    @Test public void testDispersaSipHash() {
+        long[] resultados = {
+            0xabac0158050fc4dcL, 0xc9f49bf37d57ca93L, 0x82cb9b024dc7d44dL,
+            0x8bf80ab8e7ddf7fbL, 0xcf75576088d38328L, 0xdef9d52f49533b67L,
+            0xc50d2b50c59f22a7L, 0xd3927d989bb11140L, 0x369095118d299a8eL,
+            0x25a48eb36c063de4L, 0x79de85ee92ff097fL, 0x70c118c1f94dc352L,
+            0x78a384b157b4d9a2L, 0x306f760c1229ffa7L, 0x605aa111c0f95d34L,
+            0xd320d86d2a519956L
+        };
+        for (int i = 0; i < resultados.length; i++)
+            Assert.assertTrue(Dispersores.dispersaSipHash(mensajeSipHash(i),
+                                                          SIP_K0, SIP_K1)
+                              == resultados[i]);
+        Assert.assertFalse(Dispersores.dispersaSipHash(mensajeSipHash(8),
+                                                       SIP_K0, SIP_K1) ==
+                           Dispersores.dispersaSipHash(mensajeSipHash(8),
+                                                       SIP_K0, SIP_K1 + 1));
+        pruebaCaracteres(c -> (int)Dispersores.dispersaSipHash(c, 1L, 2L),
+                         (b, i, n) ->
+                         (int)Dispersores.dispersaSipHash(b, 1L, 2L));
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#mezclaInt}.
+     */
+    @Test public void testMezclaInt() {
+        Assert.assertTrue(Dispersores.mezclaInt(0) == 0);
+        Assert.assertTrue(Dispersores.mezclaInt(1) == 0x514e28b7);
+        Assert.assertTrue(Dispersores.mezclaInt(2) == 0x30f4c306);
+        Assert.assertTrue(Dispersores.mezclaInt(-1) == 0x81f16f39);
+        Assert.assertTrue(Dispersores.mezclaInt(Integer.MAX_VALUE) ==
+                          0xf9cc0ea8);
+        int[] cubetas = new int[1024];
+        for (int i = 0; i < cubetas.length * 8; i++)
+            cubetas[Dispersores.mezclaInt(i << 10) & 1023]++;
+        for (int c : cubetas)
+            Assert.assertTrue(c < 32);
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#mezclaLong}.
+     */
+    @Test public void testMezclaLong() {
+        Assert.assertTrue(Dispersores.mezclaLong(0L) == 0);
+        Assert.assertTrue(Dispersores.mezclaLong(1L) == 0x34c2cb2c);
+        Assert.assertTrue(Dispersores.mezclaLong(2L) == 0x650683e7);
+        Assert.assertTrue(Dispersores.mezclaLong(-1L) == 0x4b825f21);
+        Assert.assertTrue(Dispersores.mezclaLong(Long.MAX_VALUE) ==
+                          0xa930edea);
+        int[] cubetas = new int[1024];
+        for (long i = 0; i < cubetas.length * 8; i++)
+            cubetas[Dispersores.mezclaLong(i << 32) & 1023]++;
+        for (int c : cubetas)
+            Assert.assertTrue(c < 32);
+    }
 }
@@ -0,0 +1,130 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.CacheLRU;
+import mx.unam.ciencias.edd.CausaDesalojo;
+import mx.unam.ciencias.edd.EstadisticasCache;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link EstadisticasCache}.
+ */
+public class TestEstadisticasCache {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La caché que produce las estadísticas. */
+    private CacheLRU<Integer, Integer> cache;
+
+    /**
+     * Crea una caché que registra estadísticas para cada prueba.
+     */
+    public TestEstadisticasCache() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        cache = new CacheLRU<Integer, Integer>(total);
+        cache.setRegistraEstadisticas(true);
+    }
+
+    /* Hace n búsquedas aleatorias con tryGet. */
+    private void busca(int n) {
+        for (int i = 0; i < n; i++) {
+            int k = random.nextInt(total * 2);
+            cache.tryGet(k, () -> k);
+        }
+    }
+
+    /**
+     * Prueba unitaria para una caché sin uso.
+     */
+    @Test public void testVacia() {
+        EstadisticasCache e = cache.getEstadisticas();
+        Assert.assertTrue(e.getPeticiones() == 0);
+        Assert.assertTrue(e.getTasaAciertos() == 1.0);
+        Assert.assertTrue(e.getDesalojos() == 0);
+        Assert.assertTrue(e.getTiempoPromedioCarga() == 0.0);
+        for (CausaDesalojo causa : CausaDesalojo.values())
+            Assert.assertTrue(e.getDesalojos(causa) == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link EstadisticasCache#getTasaAciertos}.
+     */
+    @Test public void testTasaAciertos() {
+        busca(total * 4);
+        EstadisticasCache e = cache.getEstadisticas();
+        Assert.assertTrue(e.getPeticiones() == total * 4);
+        Assert.assertTrue(e.getFallas() == e.getCargasExitosas());
+        Assert.assertTrue(e.getTasaAciertos() ==
+                          (double)e.getAciertos() / e.getPeticiones());
+        Assert.assertTrue(e.getDesalojos() ==
+                          e.getDesalojos(CausaDesalojo.CAPACIDAD));
+        Assert.assertTrue(e.getDesalojos() ==
+                          e.getFallas() - cache.getElementos());
+    }
+
+    /**
+     * Prueba unitaria para la inmutabilidad de las instantáneas.
+     */
+    @Test public void testInmutable() {
+        busca(total);
+        EstadisticasCache e = cache.getEstadisticas();
+        String s = e.toString();
+        busca(total);
+        try {
+            cache.get(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        Assert.assertTrue(e.getPeticiones() == total);
+        Assert.assertTrue(e.toString().equals(s));
+        Assert.assertFalse(e.equals(cache.getEstadisticas()));
+    }
+
+    /**
+     * Prueba unitaria para {@link EstadisticasCache#menos}.
+     */
+    @Test public void testMenos() {
+        busca(total);
+        EstadisticasCache a = cache.getEstadisticas();
+        busca(total * 2);
+        EstadisticasCache b = cache.getEstadisticas();
+        EstadisticasCache d = b.menos(a);
+        Assert.assertTrue(d.getPeticiones() == total * 2);
+        Assert.assertTrue(d.getAciertos() == b.getAciertos() - a.getAciertos());
+        Assert.assertTrue(d.getDesalojos() ==
+                          b.getDesalojos() - a.getDesalojos());
+        Assert.assertTrue(d.getTiempoTotalCarga() ==
+                          b.getTiempoTotalCarga() - a.getTiempoTotalCarga());
+        Assert.assertTrue(b.menos(b).getPeticiones() == 0);
+        Assert.assertTrue(a.menos(b).getPeticiones() == 0);
+        try {
+            b.menos(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link EstadisticasCache#equals}.
+     */
+    @Test public void testEquals() {
+        busca(total);
+        EstadisticasCache e = cache.getEstadisticas();
+        EstadisticasCache f = cache.getEstadisticas();
+        Assert.assertTrue(e.equals(f));
+        Assert.assertTrue(e.hashCode() == f.hashCode());
+        Assert.assertFalse(e.equals(null));
+        Assert.assertFalse(e.equals(e.toString()));
+        busca(1);
+        Assert.assertFalse(e.equals(cache.getEstadisticas()));
+    }
+}
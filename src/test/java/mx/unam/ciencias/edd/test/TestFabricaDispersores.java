@@ -4,6 +4,7 @@ import java.util.Random;
 import mx.unam.ciencias.edd.AlgoritmoDispersor;
 import mx.unam.ciencias.edd.FabricaDispersores;
 import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.Dispersores;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -77,6 +78,56 @@ public class TestFabricaDispersores {
         0x4e22fdf2
     };
 
+    /* Los resultados para MurmurHash3 de 32 bits. */
+    private static final int[] DISPERSORES_MURMUR3 = {
+        0x773019cd, 0xe6577908, 0x55e6a5aa, 0x699de5c6, 0x3eb0de92,
+        0x45d555ba, 0xa008a2d4, 0xf0714e3c, 0x4ca9d33d, 0x6f179e70,
+        0x8585edcb, 0xfe1b99a0, 0xd32e94ef, 0x9800cb52, 0x1e219345,
+        0x6039877e, 0x4e08112f, 0x3b54aff3, 0x55d286ec, 0xc0b1d002,
+        0xad86c167, 0x1b0abc3c, 0x476748f0, 0x77cda291, 0x847a27c0,
+        0x3f67c1e7
+    };
+
+    /* Los resultados para MurmurHash3 de 128 bits. */
+    private static final int[] DISPERSORES_MURMUR3_128 = {
+        0x59503c59, 0x1e1e7ad7, 0x1cd2900d, 0xdf112b1a, 0x2675ec84,
+        0x6b9dc29f, 0x4d4a4701, 0xf7af5383, 0x28465b6e, 0x898f894b,
+        0x6e8d6deb, 0x0afb7c7c, 0x0200e3a8, 0xc6eee173, 0x2eee503c,
+        0xadc45294, 0x6ffa9192, 0xd33dc9f0, 0x21a886b3, 0x5f1477a4,
+        0x19e799b9, 0xd693e405, 0xa3421d95, 0x0b778144, 0x5190ff25,
+        0x785e242f
+    };
+
+    /* Los resultados para xxHash32. */
+    private static final int[] DISPERSORES_XXH32 = {
+        0x8d146077, 0xcc2aaf66, 0x366b2ab3, 0x2db1ddaa, 0xef6282e4,
+        0x9f0920a1, 0xc0b81757, 0xa8d68e51, 0x4954591d, 0x1dc1492b,
+        0x392e67eb, 0xcf3bb1e5, 0xfe43c737, 0x7f019a16, 0xded91dee,
+        0x71e28a42, 0x58ce5d44, 0x60be9e53, 0xec7332d1, 0x9efb19c3,
+        0x7d1bb2af, 0xefcc7e8d, 0x1898f479, 0x2569211e, 0x8bfdb336,
+        0xcb9e336a
+    };
+
+    /* Los resultados para xxHash64. */
+    private static final int[] DISPERSORES_XXH64 = {
+        0xc20c673c, 0xae0ad858, 0xdf5bf9af, 0x8448dd29, 0x03f2f642,
+        0xccb0122f, 0x97ee7d10, 0xf190db7c, 0x00ee8486, 0xa77e49a0,
+        0x737ff95c, 0xede25e93, 0x46ccc787, 0x5a477102, 0x36652267,
+        0xbef44d55, 0xdf82ac45, 0xfdbf0b54, 0xcdfffb30, 0xf6832d5e,
+        0xb469ed30, 0x396c70dc, 0xe6e77848, 0xc7c3f80f, 0x8ef7aaf3,
+        0x4447c27b
+    };
+
+    /* Los resultados para wyhash. */
+    private static final int[] DISPERSORES_WYHASH = {
+        0x3f3a0dd0, 0xbc56dc1a, 0x8a3c2a0c, 0xcf946955, 0x4444504c,
+        0xd99bb857, 0xd8fa8878, 0x6c7ce46b, 0x4ba3d9f5, 0xb2c8054c,
+        0xe7c6e4cd, 0x1ec6df51, 0xc9678817, 0xa8d29ec6, 0x7af1fe1c,
+        0xecf3ea5d, 0x97eacafc, 0x9d766c84, 0x7a1298b0, 0xee551e8e,
+        0x86e4cff8, 0x146ef252, 0xe4899c7f, 0x466f88ed, 0x245efa55,
+        0xdbe81730
+    };
+
     /* El dispersor. */
     private Dispersor<String> dispersor;
 
@@ -115,4 +166,104 @@ public class TestFabricaDispersores {
         for (String mensaje : MENSAJES)
             Assert.assertTrue(djb.dispersa(mensaje) == DISPERSORES_DJB[i++]);
     }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con la
+     * huella digital MurmurHash3 de 32 bits.
+     */
+    @Test public void testDispersorCadenaMurmur3() {
+        AlgoritmoDispersor algoritmo = AlgoritmoDispersor.MURMUR3_STRING;
+        Dispersor<String> murmur3 =
+            FabricaDispersores.dispersorCadena(algoritmo);
+        int i = 0;
+        for (String mensaje : MENSAJES)
+            Assert.assertTrue(murmur3.dispersa(mensaje) ==
+                              DISPERSORES_MURMUR3[i++]);
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con la
+     * huella digital MurmurHash3 de 128 bits.
+     */
+    @Test public void testDispersorCadenaMurmur3x128() {
+        AlgoritmoDispersor algoritmo = AlgoritmoDispersor.MURMUR3_128_STRING;
+        Dispersor<String> murmur3x128 =
+            FabricaDispersores.dispersorCadena(algoritmo);
+        int i = 0;
+        for (String mensaje : MENSAJES)
+            Assert.assertTrue(murmur3x128.dispersa(mensaje) ==
+                              DISPERSORES_MURMUR3_128[i++]);
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con la
+     * huella digital xxHash32.
+     */
+    @Test public void testDispersorCadenaXXH32() {
+        AlgoritmoDispersor algoritmo = AlgoritmoDispersor.XXH32_STRING;
+        Dispersor<String> xxh32 =
+            FabricaDispersores.dispersorCadena(algoritmo);
+        int i = 0;
+        for (String mensaje : MENSAJES)
+            Assert.assertTrue(xxh32.dispersa(mensaje) ==
+                              DISPERSORES_XXH32[i++]);
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con la
+     * huella digital xxHash64.
+     */
+    @Test public void testDispersorCadenaXXH64() {
+        AlgoritmoDispersor algoritmo = AlgoritmoDispersor.XXH64_STRING;
+        Dispersor<String> xxh64 =
+            FabricaDispersores.dispersorCadena(algoritmo);
+        int i = 0;
+        for (String mensaje : MENSAJES)
+            Assert.assertTrue(xxh64.dispersa(mensaje) ==
+                              DISPERSORES_XXH64[i++]);
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con la
+     * huella digital wyhash.
+     */
+    @Test public void testDispersorCadenaWyhash() {
+        AlgoritmoDispersor algoritmo = AlgoritmoDispersor.WYHASH_STRING;
+        Dispersor<String> wyhash =
+            FabricaDispersores.dispersorCadena(algoritmo);
+        int i = 0;
+        for (String mensaje : MENSAJES)
+            Assert.assertTrue(wyhash.dispersa(mensaje) ==
+                              DISPERSORES_WYHASH[i++]);
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con
+     * SipHash: cada dispersor tiene su propia llave secreta.
+     */
+    @Test public void testDispersorCadenaSipHash() {
+        AlgoritmoDispersor algoritmo = AlgoritmoDispersor.SIPHASH_STRING;
+        Dispersor<String> a = FabricaDispersores.dispersorCadena(algoritmo);
+        Dispersor<String> b = FabricaDispersores.dispersorCadena(algoritmo);
+        int iguales = 0;
+        for (String mensaje : MENSAJES) {
+            Assert.assertTrue(a.dispersa(mensaje) == a.dispersa(mensaje));
+            if (a.dispersa(mensaje) == b.dispersa(mensaje))
+                iguales++;
+        }
+        Assert.assertTrue(iguales < 2);
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorSipHash}.
+     */
+    @Test public void testDispersorSipHash() {
+        Random random = new Random();
+        long k0 = random.nextLong(), k1 = random.nextLong();
+        Dispersor<String> sip = FabricaDispersores.dispersorSipHash(k0, k1);
+        for (String mensaje : MENSAJES)
+            Assert.assertTrue(sip.dispersa(mensaje) ==
+                              (int)Dispersores.dispersaSipHash(mensaje,
+                                                               k0, k1));
+    }
 }
@@ -0,0 +1,50 @@
+package mx.unam.ciencias.edd.test;
+
+import mx.unam.ciencias.edd.AlgoritmoDesalojo;
+import mx.unam.ciencias.edd.FabricaPoliticas;
+import mx.unam.ciencias.edd.Politica2Q;
+import mx.unam.ciencias.edd.PoliticaARC;
+import mx.unam.ciencias.edd.PoliticaCLOCK;
+import mx.unam.ciencias.edd.PoliticaDesalojo;
+import mx.unam.ciencias.edd.PoliticaLFU;
+import mx.unam.ciencias.edd.PoliticaLRU;
+import mx.unam.ciencias.edd.PoliticaSLRU;
+import mx.unam.ciencias.edd.PoliticaTinyLFU;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FabricaPoliticas}.
+ */
+public class TestFabricaPoliticas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Las clases esperadas para cada algoritmo. */
+    private static final Class<?>[] CLASES = {
+        PoliticaLRU.class, PoliticaLFU.class, PoliticaARC.class,
+        PoliticaCLOCK.class, PoliticaSLRU.class, Politica2Q.class,
+        PoliticaTinyLFU.class
+    };
+
+    /**
+     * Prueba unitaria para {@link FabricaPoliticas#politica}.
+     */
+    @Test public void testPolitica() {
+        AlgoritmoDesalojo[] algoritmos = AlgoritmoDesalojo.values();
+        Assert.assertTrue(algoritmos.length == CLASES.length);
+        for (int i = 0; i < algoritmos.length; i++) {
+            PoliticaDesalojo<String> politica =
+                FabricaPoliticas.politica(algoritmos[i], 10);
+            Assert.assertTrue(politica.getClass() == CLASES[i]);
+            Assert.assertTrue(politica.getCapacidad() == 10);
+            try {
+                FabricaPoliticas.politica(algoritmos[i], 1);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package mx.unam.ciencias.edd.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import mx.unam.ciencias.edd.CacheLRU;
+import mx.unam.ciencias.edd.EstadisticasCache;
+import mx.unam.ciencias.edd.MonitorCache;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonitorCache}.
+ */
+public class TestMonitorCache {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La caché. */
+    private CacheLRU<Integer, Integer> cache;
+
+    /**
+     * Crea una caché con uso aleatorio para cada prueba.
+     */
+    public TestMonitorCache() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        cache = new CacheLRU<Integer, Integer>(total);
+        cache.setRegistraEstadisticas(true);
+        for (int i = 0; i < total * 4; i++) {
+            int k = random.nextInt(total * 2);
+            cache.tryGet(k, () -> k);
+        }
+    }
+
+    /**
+     * Prueba unitaria para los atributos de {@link MonitorCache}.
+     */
+    @Test public void testAtributos() {
+        MonitorCache monitor = new MonitorCache(cache);
+        EstadisticasCache e = cache.getEstadisticas();
+        Assert.assertTrue(monitor.getAciertos() == e.getAciertos());
+        Assert.assertTrue(monitor.getFallas() == e.getFallas());
+        Assert.assertTrue(monitor.getTasaAciertos() == e.getTasaAciertos());
+        Assert.assertTrue(monitor.getDesalojosCapacidad() == e.getDesalojos());
+        Assert.assertTrue(monitor.getDesalojosPeso() == 0);
+        Assert.assertTrue(monitor.getDesalojosExpiracion() == 0);
+        Assert.assertTrue(monitor.getCargasExitosas() ==
+                          e.getCargasExitosas());
+        Assert.assertTrue(monitor.getCargasFallidas() == 0);
+        Assert.assertTrue(monitor.getTiempoTotalCarga() ==
+                          e.getTiempoTotalCarga());
+        cache.tryGet(-1, () -> -1);
+        Assert.assertTrue(monitor.getFallas() == e.getFallas() + 1);
+        try {
+            new MonitorCache(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonitorCache#registra} y {@link
+     * MonitorCache#desregistra}.
+     */
+    @Test public void testRegistra() throws JMException {
+        String nombre = "prueba-" + random.nextInt(Integer.MAX_VALUE);
+        ObjectName objeto = MonitorCache.registra(cache, nombre);
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Assert.assertTrue(servidor.isRegistered(objeto));
+            long aciertos = (Long)servidor.getAttribute(objeto, "Aciertos");
+            Assert.assertTrue(aciertos == cache.getEstadisticas().getAciertos());
+            try {
+                MonitorCache.registra(cache, nombre);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        } finally {
+            MonitorCache.desregistra(objeto);
+        }
+        Assert.assertFalse(servidor.isRegistered(objeto));
+        MonitorCache.desregistra(objeto);
+        try {
+            MonitorCache.registra(cache, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,89 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Politica2Q;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Politica2Q}.
+ */
+public class TestPolitica2Q {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La política. */
+    private Politica2Q<Integer> politica;
+
+    /**
+     * Crea una política para cada prueba.
+     */
+    public TestPolitica2Q() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        politica = new Politica2Q<Integer>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link Politica2Q#Politica2Q}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(politica.getCapacidad() == total);
+        try {
+            politica = new Politica2Q<Integer>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Llena la política con las llaves 0 a total - 1. */
+    private void llena() {
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(politica.agrega(i) == null);
+    }
+
+    /**
+     * Prueba unitaria para {@link Politica2Q#agrega}: sale primero la llave
+     * más vieja de la cola de entrada, y si regresa entra a la LRU de
+     * frecuentes, donde sobrevive a un recorrido.
+     */
+    @Test public void testAgrega() {
+        llena();
+        Assert.assertTrue(politica.agrega(total) == 0);
+        Assert.assertTrue(politica.agrega(0) == 1);
+        for (int i = 0; i < total * 4; i++)
+            Assert.assertTrue(politica.agrega(total + 1 + i) != 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Politica2Q#accede}: los aciertos en la cola
+     * de entrada no la reordenan.
+     */
+    @Test public void testAccede() {
+        llena();
+        politica.accede(0);
+        politica.accede(-1);
+        Assert.assertTrue(politica.agrega(total) == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Politica2Q#elimina} y {@link
+     * Politica2Q#limpia}.
+     */
+    @Test public void testElimina() {
+        llena();
+        politica.elimina(0);
+        politica.elimina(0);
+        Assert.assertTrue(politica.agrega(total) == null);
+        Assert.assertTrue(politica.agrega(total + 1) == 1);
+        politica.limpia();
+        llena();
+    }
+}
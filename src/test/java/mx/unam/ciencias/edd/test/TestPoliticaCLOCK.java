@@ -0,0 +1,90 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.PoliticaCLOCK;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link PoliticaCLOCK}.
+ */
+public class TestPoliticaCLOCK {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La política. */
+    private PoliticaCLOCK<Integer> politica;
+
+    /**
+     * Crea una política para cada prueba.
+     */
+    public TestPoliticaCLOCK() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        politica = new PoliticaCLOCK<Integer>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaCLOCK#PoliticaCLOCK}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(politica.getCapacidad() == total);
+        try {
+            politica = new PoliticaCLOCK<Integer>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Llena la política con las llaves 0 a total - 1. */
+    private void llena() {
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(politica.agrega(i) == null);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaCLOCK#agrega}: la manecilla saca
+     * la primera llave sin referencia.
+     */
+    @Test public void testAgrega() {
+        llena();
+        Assert.assertTrue(politica.agrega(total) == 0);
+        Assert.assertTrue(politica.agrega(total + 1) == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaCLOCK#accede}: una llave con
+     * referencia tiene una segunda oportunidad.
+     */
+    @Test public void testAccede() {
+        llena();
+        politica.accede(0);
+        politica.accede(-1);
+        Assert.assertTrue(politica.agrega(total) == 1);
+        for (int i = 2; i < total; i++)
+            Assert.assertTrue(politica.agrega(total + i) == i);
+        Assert.assertTrue(politica.agrega(2 * total) == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaCLOCK#elimina} y {@link
+     * PoliticaCLOCK#limpia}.
+     */
+    @Test public void testElimina() {
+        llena();
+        int k = random.nextInt(total);
+        politica.elimina(k);
+        politica.elimina(k);
+        Assert.assertTrue(politica.agrega(total) == null);
+        Assert.assertTrue(politica.agrega(total + 1) != null);
+        politica.limpia();
+        llena();
+    }
+}
@@ -0,0 +1,96 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.PoliticaLFU;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link PoliticaLFU}.
+ */
+public class TestPoliticaLFU {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La política. */
+    private PoliticaLFU<Integer> politica;
+
+    /**
+     * Crea una política para cada prueba.
+     */
+    public TestPoliticaLFU() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        politica = new PoliticaLFU<Integer>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLFU#PoliticaLFU}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(politica.getCapacidad() == total);
+        try {
+            politica = new PoliticaLFU<Integer>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Llena la política con las llaves 0 a total - 1. */
+    private void llena() {
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(politica.agrega(i) == null);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLFU#agrega}: sale la llave usada
+     * menos veces, y entre las que empatan la menos reciente.
+     */
+    @Test public void testAgrega() {
+        llena();
+        Assert.assertTrue(politica.agrega(total) == 0);
+        int k = 1 + random.nextInt(total - 1);
+        for (int i = 1; i < total; i++)
+            if (i != k)
+                politica.accede(i);
+        politica.accede(total);
+        Assert.assertTrue(politica.agrega(total + 1) == k);
+        Assert.assertTrue(politica.agrega(total + 2) == total + 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLFU#accede}: una llave muy usada
+     * sobrevive a un recorrido.
+     */
+    @Test public void testAccede() {
+        llena();
+        int k = random.nextInt(total);
+        for (int i = 0; i < 4; i++)
+            politica.accede(k);
+        politica.accede(-1);
+        for (int i = 0; i < total * 4; i++)
+            Assert.assertTrue(politica.agrega(total + i) != k);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLFU#elimina} y {@link
+     * PoliticaLFU#limpia}.
+     */
+    @Test public void testElimina() {
+        llena();
+        politica.accede(0);
+        politica.elimina(0);
+        politica.elimina(0);
+        Assert.assertTrue(politica.agrega(total) == null);
+        Assert.assertTrue(politica.agrega(total + 1) == 1);
+        politica.limpia();
+        llena();
+    }
+}
@@ -0,0 +1,88 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.PoliticaLRU;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link PoliticaLRU}.
+ */
+public class TestPoliticaLRU {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La política. */
+    private PoliticaLRU<Integer> politica;
+
+    /**
+     * Crea una política para cada prueba.
+     */
+    public TestPoliticaLRU() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        politica = new PoliticaLRU<Integer>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLRU#PoliticaLRU}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(politica.getCapacidad() == total);
+        try {
+            politica = new PoliticaLRU<Integer>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Llena la política con las llaves 0 a total - 1. */
+    private void llena() {
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(politica.agrega(i) == null);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLRU#agrega}: sale la llave usada
+     * menos recientemente.
+     */
+    @Test public void testAgrega() {
+        llena();
+        Assert.assertTrue(politica.agrega(total) == 0);
+        Assert.assertTrue(politica.agrega(total + 1) == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLRU#accede}.
+     */
+    @Test public void testAccede() {
+        llena();
+        int k = random.nextInt(total - 1);
+        politica.accede(k);
+        politica.accede(-1);
+        for (int i = 0; i < total - 1; i++)
+            Assert.assertTrue(politica.agrega(total + i) == (i < k ? i : i + 1));
+        Assert.assertTrue(politica.agrega(2 * total) == k);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaLRU#elimina} y {@link
+     * PoliticaLRU#limpia}.
+     */
+    @Test public void testElimina() {
+        llena();
+        politica.elimina(0);
+        politica.elimina(0);
+        Assert.assertTrue(politica.agrega(total) == null);
+        Assert.assertTrue(politica.agrega(total + 1) == 1);
+        politica.limpia();
+        llena();
+    }
+}
@@ -0,0 +1,93 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.PoliticaSLRU;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link PoliticaSLRU}.
+ */
+public class TestPoliticaSLRU {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La política. */
+    private PoliticaSLRU<Integer> politica;
+
+    /**
+     * Crea una política para cada prueba.
+     */
+    public TestPoliticaSLRU() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        politica = new PoliticaSLRU<Integer>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaSLRU#PoliticaSLRU}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(politica.getCapacidad() == total);
+        try {
+            politica = new PoliticaSLRU<Integer>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Llena la política con las llaves 0 a total - 1. */
+    private void llena() {
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(politica.agrega(i) == null);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaSLRU#agrega}: sale la llave de
+     * prueba usada menos recientemente.
+     */
+    @Test public void testAgrega() {
+        llena();
+        Assert.assertTrue(politica.agrega(total) == 0);
+        Assert.assertTrue(politica.agrega(total + 1) == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaSLRU#accede}: las llaves usadas
+     * dos veces sobreviven a un recorrido, mientras quepan en la región
+     * protegida.
+     */
+    @Test public void testAccede() {
+        llena();
+        int usadas = total / 2;
+        for (int i = 0; i < usadas; i++)
+            politica.accede(i);
+        politica.accede(-1);
+        for (int i = 0; i < total * 4; i++) {
+            Integer victima = politica.agrega(total + i);
+            Assert.assertTrue(victima != null && victima >= usadas);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaSLRU#elimina} y {@link
+     * PoliticaSLRU#limpia}.
+     */
+    @Test public void testElimina() {
+        llena();
+        politica.accede(0);
+        politica.elimina(0);
+        politica.elimina(0);
+        Assert.assertTrue(politica.agrega(total) == null);
+        Assert.assertTrue(politica.agrega(total + 1) == 1);
+        politica.limpia();
+        llena();
+    }
+}
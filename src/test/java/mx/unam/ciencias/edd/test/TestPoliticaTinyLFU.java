@@ -0,0 +1,99 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.PoliticaTinyLFU;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link PoliticaTinyLFU}.
+ */
+public class TestPoliticaTinyLFU {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La política. */
+    private PoliticaTinyLFU<Integer> politica;
+
+    /**
+     * Crea una política para cada prueba.
+     */
+    public TestPoliticaTinyLFU() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        politica = new PoliticaTinyLFU<Integer>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaTinyLFU#PoliticaTinyLFU}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(politica.getCapacidad() == total);
+        try {
+            politica = new PoliticaTinyLFU<Integer>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Llena la política con las llaves 0 a total - 1. */
+    private void llena() {
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(politica.agrega(i) == null);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaTinyLFU#agrega}: en un recorrido
+     * casi todas las llaves nuevas se rechazan a sí mismas, y casi ninguna
+     * llave usada seguido sale.
+     */
+    @Test public void testAgrega() {
+        llena();
+        for (int r = 0; r < 3; r++)
+            for (int i = 0; i < total; i++)
+                politica.accede(i);
+        int rechazadas = 0, populares = 0;
+        for (int i = 0; i < total; i++) {
+            Integer victima = politica.agrega(total + i);
+            Assert.assertTrue(victima != null);
+            if (victima >= total)
+                rechazadas++;
+            else
+                populares++;
+        }
+        Assert.assertTrue(rechazadas >= total / 2);
+        Assert.assertTrue(populares <= total / 4);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaTinyLFU#accede}: acceder a una
+     * llave que no está no hace nada.
+     */
+    @Test public void testAccede() {
+        llena();
+        politica.accede(-1);
+        Assert.assertTrue(politica.agrega(total) != null);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaTinyLFU#elimina} y {@link
+     * PoliticaTinyLFU#limpia}.
+     */
+    @Test public void testElimina() {
+        llena();
+        int k = random.nextInt(total);
+        politica.elimina(k);
+        politica.elimina(k);
+        Assert.assertTrue(politica.agrega(total) == null);
+        Assert.assertTrue(politica.agrega(total + 1) != null);
+        politica.limpia();
+        llena();
+    }
+}
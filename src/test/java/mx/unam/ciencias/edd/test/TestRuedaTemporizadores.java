@@ -0,0 +1,151 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.RuedaTemporizadores;
+import mx.unam.ciencias.edd.RuedaTemporizadores.Temporizador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link RuedaTemporizadores}.
+ */
+public class TestRuedaTemporizadores {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Un milisegundo en nanosegundos. */
+    private static final long MS = 1_000_000L;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La hora inicial. */
+    private long inicio;
+    /* La rueda. */
+    private RuedaTemporizadores<Integer> rueda;
+    /* Las expiraciones de los elementos. */
+    private long[] expiraciones;
+    /* A qué hora se avisó de cada elemento, o 0. */
+    private long[] avisos;
+    /* La hora actual. */
+    private long ahora;
+
+    /**
+     * Crea una rueda para cada prueba.
+     */
+    public TestRuedaTemporizadores() {
+        int N = 256;
+        random = new Random();
+        total = N + random.nextInt(N);
+        inicio = random.nextLong();
+        ahora = inicio;
+        rueda = new RuedaTemporizadores<Integer>(inicio);
+        expiraciones = new long[total];
+        avisos = new long[total];
+    }
+
+    /* Avanza la rueda y verifica que los avisos sean exactos. */
+    private void avanza(long hasta) {
+        ahora = hasta;
+        rueda.avanza(ahora, e -> {
+                Assert.assertTrue(avisos[e] == 0);
+                avisos[e] = ahora;
+            });
+        for (int i = 0; i < total; i++)
+            if (expiraciones[i] != 0)
+                Assert.assertTrue((avisos[i] != 0) ==
+                                  (expiraciones[i] - ahora <= 0));
+    }
+
+    /* Regresa una duración aleatoria de hasta un minuto o hasta un día. */
+    private long duracion() {
+        long maximo = random.nextBoolean() ? 60_000 * MS : 86_400_000 * MS;
+        return 1 + (long)(random.nextDouble() * maximo);
+    }
+
+    /**
+     * Prueba unitaria para {@link RuedaTemporizadores#avanza}: cada elemento
+     * expira en el primer avance que pasa su hora.
+     */
+    @Test public void testAvanza() {
+        for (int i = 0; i < total; i++) {
+            expiraciones[i] = inicio + duracion();
+            rueda.agrega(i, expiraciones[i]);
+        }
+        Assert.assertTrue(rueda.getElementos() == total);
+        while (rueda.getElementos() > 0) {
+            long paso = random.nextInt(4) == 0 ?
+                random.nextInt(1000) * MS : random.nextInt(3_600_000) * MS;
+            avanza(ahora + paso);
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(avisos[i] != 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link RuedaTemporizadores#reprograma} y {@link
+     * RuedaTemporizadores#elimina}.
+     */
+    @Test public void testReprograma() {
+        @SuppressWarnings("unchecked") Temporizador<Integer>[] temporizadores =
+            new Temporizador[total];
+        for (int i = 0; i < total; i++) {
+            expiraciones[i] = inicio + duracion();
+            temporizadores[i] = rueda.agrega(i, expiraciones[i]);
+        }
+        avanza(ahora + 30_000 * MS);
+        for (int i = 0; i < total; i += 3) {
+            if (avisos[i] != 0)
+                continue;
+            if (i % 2 == 0) {
+                rueda.elimina(temporizadores[i]);
+                rueda.elimina(temporizadores[i]);
+                Assert.assertFalse(temporizadores[i].estaProgramado());
+                expiraciones[i] = 0;
+            } else {
+                expiraciones[i] = ahora + duracion();
+                rueda.reprograma(temporizadores[i], expiraciones[i]);
+            }
+        }
+        while (rueda.getElementos() > 0)
+            avanza(ahora + random.nextInt(3_600_000) * MS);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue((avisos[i] != 0) == (expiraciones[i] != 0));
+        int i = random.nextInt(total);
+        if (expiraciones[i] != 0) {
+            avisos[i] = 0;
+            expiraciones[i] = ahora + MS;
+            rueda.reprograma(temporizadores[i], expiraciones[i]);
+            Assert.assertTrue(rueda.getElementos() == 1);
+            avanza(ahora + 2 * MS);
+            Assert.assertTrue(rueda.getElementos() == 0);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link RuedaTemporizadores#agrega} con una hora que
+     * ya pasó: expira en el siguiente avance.
+     */
+    @Test public void testAgregaExpirado() {
+        avanza(ahora + 10 * MS);
+        expiraciones[0] = ahora - 5 * MS;
+        rueda.agrega(0, expiraciones[0]);
+        avanza(ahora + 1);
+        Assert.assertTrue(avisos[0] != 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link RuedaTemporizadores#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            rueda.agrega(i, inicio + duracion());
+        rueda.limpia();
+        Assert.assertTrue(rueda.getElementos() == 0);
+        rueda.avanza(inicio + 86_400_000 * MS, e -> Assert.fail());
+    }
+}
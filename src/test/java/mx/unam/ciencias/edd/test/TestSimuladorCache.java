@@ -0,0 +1,96 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import mx.unam.ciencias.edd.CacheLRU;
+import mx.unam.ciencias.edd.CacheTinyLFU;
+import mx.unam.ciencias.edd.SimuladorCache;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link SimuladorCache}.
+ */
+public class TestSimuladorCache {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random = new Random();
+
+    /**
+     * Prueba unitaria para {@link SimuladorCache#tasaAciertos}.
+     */
+    @Test public void testTasaAciertos() {
+        int[] traza = { 1, 2, 1, 2, 3, 1 };
+        double tasa = SimuladorCache.tasaAciertos(
+            SimuladorCache.acceso(new CacheLRU<Integer, Integer>(2)), traza);
+        Assert.assertTrue(tasa == 2 / 6.0);
+        Assert.assertTrue(SimuladorCache.tasaAciertos(k -> true,
+                                                      new int[0]) == 0.0);
+    }
+
+    /**
+     * Prueba unitaria para {@link SimuladorCache#zipf}.
+     */
+    @Test public void testZipf() {
+        int llaves = 1000;
+        int[] traza = SimuladorCache.zipf(100000, llaves, 1.0, random);
+        int[] cuentas = new int[llaves];
+        for (int k : traza) {
+            Assert.assertTrue(k >= 0 && k < llaves);
+            cuentas[k]++;
+        }
+        Assert.assertTrue(cuentas[0] > cuentas[9]);
+        Assert.assertTrue(cuentas[9] > cuentas[99]);
+    }
+
+    /**
+     * Prueba unitaria para {@link SimuladorCache#conRecorridos}.
+     */
+    @Test public void testConRecorridos() {
+        int[] traza = { 0, 1, 2, 3, 4 };
+        int[] nueva = SimuladorCache.conRecorridos(traza, 2, 3);
+        int[] esperada = { 0, 1, -1, -2, -3, 2, 3, -4, -5, -6, 4 };
+        Assert.assertTrue(Arrays.equals(nueva, esperada));
+    }
+
+    /**
+     * Prueba unitaria para {@link SimuladorCache#lee}.
+     */
+    @Test public void testLee() throws IOException {
+        Path archivo = Files.createTempFile("traza", ".txt");
+        try {
+            Files.write(archivo, "3\n\n 1\n-2\n".getBytes(StandardCharsets.UTF_8));
+            int[] traza = SimuladorCache.lee(archivo);
+            Assert.assertTrue(Arrays.equals(traza, new int[] { 3, 1, -2 }));
+        } finally {
+            Files.delete(archivo);
+        }
+    }
+
+    /**
+     * Prueba que W-TinyLFU le gana a LRU en una traza de Zipf con
+     * recorridos.
+     */
+    @Test public void testTinyLFUContraLRU() {
+        int capacidad = 100;
+        int[] traza = SimuladorCache.conRecorridos(
+            SimuladorCache.zipf(100000, 2000, 0.9, random),
+            4 * capacidad, 2 * capacidad);
+        double lru = SimuladorCache.tasaAciertos(
+            SimuladorCache.acceso(new CacheLRU<Integer, Integer>(capacidad)),
+            traza);
+        double tinyLFU = SimuladorCache.tasaAciertos(
+            SimuladorCache.acceso(new CacheTinyLFU<Integer, Integer>(capacidad)),
+            traza);
+        Assert.assertTrue(tinyLFU > lru);
+    }
+}
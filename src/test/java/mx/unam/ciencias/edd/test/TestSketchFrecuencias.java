@@ -0,0 +1,92 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.SketchFrecuencias;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link SketchFrecuencias}.
+ */
+public class TestSketchFrecuencias {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El sketch. */
+    private SketchFrecuencias sketch;
+
+    /**
+     * Crea un sketch para cada prueba.
+     */
+    public TestSketchFrecuencias() {
+        int N = 256;
+        random = new Random();
+        total = N + random.nextInt(N);
+        sketch = new SketchFrecuencias(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link SketchFrecuencias#SketchFrecuencias}.
+     */
+    @Test public void testConstructor() {
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(sketch.frecuencia(random.nextInt()) == 0);
+        try {
+            new SketchFrecuencias(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link SketchFrecuencias#incrementa}: la
+     * estimación nunca es menor a la frecuencia real (hasta el máximo), y se
+     * satura en {@link SketchFrecuencias#MAXIMA_FRECUENCIA}.
+     */
+    @Test public void testIncrementa() {
+        int[] frecuencias = new int[total / 2];
+        for (int i = 0; i < frecuencias.length; i++) {
+            frecuencias[i] = random.nextInt(8);
+            for (int j = 0; j < frecuencias[i]; j++)
+                sketch.incrementa(i);
+        }
+        for (int i = 0; i < frecuencias.length; i++)
+            Assert.assertTrue(sketch.frecuencia(i) >= frecuencias[i]);
+        int n = SketchFrecuencias.MAXIMA_FRECUENCIA * 2;
+        for (int i = 0; i < n; i++)
+            sketch.incrementa(-1);
+        Assert.assertTrue(sketch.frecuencia(-1) ==
+                          SketchFrecuencias.MAXIMA_FRECUENCIA);
+    }
+
+    /**
+     * Prueba unitaria para {@link SketchFrecuencias#incrementa} con muchos
+     * accesos: los contadores envejecen y los elementos que dejaron de
+     * usarse pierden frecuencia.
+     */
+    @Test public void testEnvejece() {
+        for (int i = 0; i < SketchFrecuencias.MAXIMA_FRECUENCIA; i++)
+            sketch.incrementa(-1);
+        int viejo = sketch.frecuencia(-1);
+        for (int i = 0; i < 20 * total; i++)
+            sketch.incrementa(i % total);
+        Assert.assertTrue(sketch.frecuencia(-1) < viejo);
+    }
+
+    /**
+     * Prueba unitaria para {@link SketchFrecuencias#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            sketch.incrementa(i);
+        sketch.limpia();
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(sketch.frecuencia(i) == 0);
+    }
+}